@@ -0,0 +1,33 @@
+package com.example.backend.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.transaction.CannotCreateTransactionException;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+
+// Refus du limiteur d'accès à la base : 503 avec Retry-After, le client réessaie plus tard.
+// Toute autre erreur de connexion reste une erreur serveur.
+@RestControllerAdvice
+public class DatabaseBusyHandler {
+
+    private final int retryAfterSeconds;
+
+    public DatabaseBusyHandler(@Value("${db.concurrency-limit.retry-after-seconds:1}") int retryAfterSeconds) {
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    @ExceptionHandler({CannotCreateTransactionException.class, DataAccessResourceFailureException.class})
+    public ResponseEntity<Void> databaseBusy(RuntimeException e) {
+        if (!(NestedExceptionUtils.getRootCause(e) instanceof DatabaseConcurrencyLimiter.DatabaseBusyException)) {
+            throw e;
+        }
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds))
+                .build();
+    }
+}
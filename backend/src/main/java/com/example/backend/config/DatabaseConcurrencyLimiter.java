@@ -0,0 +1,194 @@
+package com.example.backend.config;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.jdbc.datasource.ConnectionProxy;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+// Limite d'accès concurrents à la base, alignée sur le pool Hikari : avec des threads virtuels,
+// des milliers de requêtes peuvent demander une connexion en même temps. Elles attendent ici, dans
+// l'ordre d'arrivée, un jeton rendu à la fermeture de la connexion ; au-delà de maxWaiting en attente,
+// ou après acquireTimeout, refus immédiat (503, voir DatabaseBusyHandler) plutôt qu'une file sans fin.
+// Un thread qui détient déjà un jeton (transaction REQUIRES_NEW imbriquée, comme l'enregistrement d'un
+// appareil) ouvre sa seconde connexion sans attendre : avec un jeton de moins que de connexions, il en
+// reste toujours une pour lui. Activé par défaut avec les threads virtuels (db.concurrency-limit.enabled).
+@Component
+public class DatabaseConcurrencyLimiter implements BeanPostProcessor, MeterBinder {
+
+    private final boolean enabled;
+    private final int permits;
+    private final int maxWaiting;
+    private final long acquireTimeoutMillis;
+    private final Semaphore semaphore;
+    private final LongAdder rejected = new LongAdder();
+    // Connexions ouvertes par le thread courant
+    private final ThreadLocal<AtomicInteger> opened = ThreadLocal.withInitial(AtomicInteger::new);
+
+    public DatabaseConcurrencyLimiter(
+            @Value("${db.concurrency-limit.enabled:${spring.threads.virtual.enabled:false}}") boolean enabled,
+            @Value("${spring.datasource.hikari.maximum-pool-size:10}") int poolSize,
+            @Value("${db.concurrency-limit.permits:0}") int permits,
+            @Value("${db.concurrency-limit.max-waiting:1000}") int maxWaiting,
+            @Value("${db.concurrency-limit.acquire-timeout-ms:${spring.datasource.hikari.connection-timeout:30000}}")
+            long acquireTimeoutMillis) {
+        this.enabled = enabled;
+        // 0 : une connexion du pool réservée aux transactions imbriquées
+        this.permits = permits > 0 ? permits : Math.max(1, poolSize - 1);
+        this.maxWaiting = maxWaiting;
+        this.acquireTimeoutMillis = acquireTimeoutMillis;
+        this.semaphore = new Semaphore(this.permits, true);
+    }
+
+    // Refus du limiteur, distinct d'une panne de la base
+    public static class DatabaseBusyException extends SQLTransientConnectionException {
+        DatabaseBusyException(String message) {
+            super(message);
+        }
+    }
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        if (enabled && bean instanceof DataSource dataSource && !(bean instanceof LimitedDataSource)) {
+            return new LimitedDataSource(dataSource);
+        }
+        return bean;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        if (!enabled) {
+            return;
+        }
+        Gauge.builder("db.limiter.active", semaphore, s -> permits - s.availablePermits())
+                .description("Connexions accordées par le limiteur")
+                .register(registry);
+        Gauge.builder("db.limiter.waiting", semaphore, Semaphore::getQueueLength)
+                .description("Threads en attente d'un accès à la base")
+                .register(registry);
+        FunctionCounter.builder("db.limiter.rejected", rejected, LongAdder::sum)
+                .description("Demandes de connexion refusées (file pleine ou délai dépassé)")
+                .register(registry);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public int getPermits() {
+        return permits;
+    }
+
+    public int getAvailablePermits() {
+        return semaphore.availablePermits();
+    }
+
+    Connection acquire(ConnectionSupplier supplier) throws SQLException {
+        AtomicInteger held = opened.get();
+        boolean nested = held.get() > 0;
+        if (!nested) {
+            acquirePermit();
+        }
+        Connection connection;
+        try {
+            connection = supplier.get();
+        } catch (SQLException | RuntimeException e) {
+            if (!nested) {
+                semaphore.release();
+            }
+            throw e;
+        }
+        held.incrementAndGet();
+        return releasingOnClose(connection, held, nested);
+    }
+
+    private void acquirePermit() throws SQLException {
+        if (semaphore.getQueueLength() >= maxWaiting) {
+            rejected.increment();
+            throw new DatabaseBusyException("Base saturée : " + maxWaiting + " demandes en attente");
+        }
+        try {
+            if (!semaphore.tryAcquire(acquireTimeoutMillis, TimeUnit.MILLISECONDS)) {
+                rejected.increment();
+                throw new DatabaseBusyException("Base saturée : pas de connexion après " + acquireTimeoutMillis + " ms");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLTransientConnectionException("Attente d'une connexion interrompue", e);
+        }
+    }
+
+    // Au premier close() seulement : compteur du thread d'ouverture décrémenté, jeton rendu s'il en a pris un
+    private Connection releasingOnClose(Connection connection, AtomicInteger held, boolean nested) {
+        AtomicBoolean closed = new AtomicBoolean();
+        return (Connection) Proxy.newProxyInstance(ConnectionProxy.class.getClassLoader(),
+                new Class<?>[]{ConnectionProxy.class},
+                (proxy, method, args) -> {
+                    switch (method.getName()) {
+                        case "equals":
+                            return proxy == args[0];
+                        case "hashCode":
+                            return System.identityHashCode(proxy);
+                        case "getTargetConnection":
+                            return connection;
+                        case "close":
+                            try {
+                                connection.close();
+                            } finally {
+                                if (closed.compareAndSet(false, true)) {
+                                    held.decrementAndGet();
+                                    if (!nested) {
+                                        semaphore.release();
+                                    }
+                                }
+                            }
+                            return null;
+                        default:
+                            break;
+                    }
+                    try {
+                        return method.invoke(connection, args);
+                    } catch (InvocationTargetException e) {
+                        throw e.getTargetException();
+                    }
+                });
+    }
+
+    interface ConnectionSupplier {
+        Connection get() throws SQLException;
+    }
+
+    // Reste déballable en HikariDataSource (métriques du pool, Flyway)
+    final class LimitedDataSource extends DelegatingDataSource {
+
+        LimitedDataSource(DataSource target) {
+            super(target);
+        }
+
+        @Override
+        public Connection getConnection() throws SQLException {
+            return acquire(() -> obtainTargetDataSource().getConnection());
+        }
+
+        @Override
+        public Connection getConnection(String username, String password) throws SQLException {
+            return acquire(() -> obtainTargetDataSource().getConnection(username, password));
+        }
+    }
+}
@@ -0,0 +1,73 @@
+package com.example.backend.config;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.turbo.TurboFilter;
+import ch.qos.logback.core.spi.FilterReply;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.LoggerFactory;
+import org.slf4j.Marker;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Journal des requêtes lentes échantillonné : Hibernate signale chaque requête au-delà de
+// hibernate.log_slow_query (logger org.hibernate.SQL_SLOW) ; toutes sont comptées (sql.slow.queries)
+// mais au plus maxPerSecond sont écrites par seconde, pour qu'une base saturée n'inonde pas les journaux.
+@Component
+public class SlowQueryLogSampler extends TurboFilter {
+
+    static final String SLOW_QUERY_LOGGER = "org.hibernate.SQL_SLOW";
+
+    private final Counter slowQueries;
+    private final int maxPerSecond;
+    private final AtomicInteger written = new AtomicInteger();
+    private volatile long currentSecond;
+
+    public SlowQueryLogSampler(MeterRegistry meterRegistry,
+                               @Value("${sql.slow-query.max-logs-per-second:5}") int maxPerSecond) {
+        this.slowQueries = Counter.builder("sql.slow.queries")
+                .description("Requêtes SQL au-delà du seuil hibernate.log_slow_query")
+                .register(meterRegistry);
+        this.maxPerSecond = maxPerSecond;
+    }
+
+    @PostConstruct
+    public void register() {
+        if (LoggerFactory.getILoggerFactory() instanceof LoggerContext context) {
+            setContext(context);
+            start();
+            context.addTurboFilter(this);
+        }
+    }
+
+    @PreDestroy
+    public void unregister() {
+        if (LoggerFactory.getILoggerFactory() instanceof LoggerContext context) {
+            context.getTurboFilterList().remove(this);
+        }
+        stop();
+    }
+
+    // Appelé pour chaque journalisation de l'application : sortie immédiate hors du logger surveillé.
+    // Les tests isXxxEnabled() arrivent sans message et ne sont pas comptés.
+    @Override
+    public FilterReply decide(Marker marker, Logger logger, Level level, String format, Object[] params,
+                              Throwable t) {
+        if (format == null || !SLOW_QUERY_LOGGER.equals(logger.getName())) {
+            return FilterReply.NEUTRAL;
+        }
+        slowQueries.increment();
+        long second = System.currentTimeMillis() / 1000;
+        if (second != currentSecond) {
+            currentSecond = second;
+            written.set(0);
+        }
+        return written.incrementAndGet() <= maxPerSecond ? FilterReply.NEUTRAL : FilterReply.DENY;
+    }
+}
@@ -0,0 +1,93 @@
+package com.example.backend.controller;
+
+import com.example.backend.dto.AlertDTO;
+import com.example.backend.dto.AlertPageDTO;
+import com.example.backend.dto.AlertStatsDTO;
+import com.example.backend.dto.AlertUpdateDTO;
+import com.example.backend.entity.AlertSeverity;
+import com.example.backend.entity.AlertStatus;
+import com.example.backend.entity.AlertType;
+import com.example.backend.service.AlertService;
+import com.example.backend.service.DrivingEventService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.Locale;
+
+@RestController
+@RequestMapping("/api/alerts")
+@CrossOrigin(origins = "*")
+public class AlertController {
+
+    private static final int DEFAULT_LIMIT = 20;
+
+    private final AlertService alertService;
+    private final DrivingEventService drivingEventService;
+
+    @Autowired
+    public AlertController(AlertService alertService, DrivingEventService drivingEventService) {
+        this.alertService = alertService;
+        this.drivingEventService = drivingEventService;
+    }
+
+    // Filtres optionnels ; page à partir de 1, les plus récentes d'abord
+    @GetMapping
+    public ResponseEntity<AlertPageDTO> getAlerts(@RequestParam(required = false) String deviceId,
+                                                  @RequestParam(required = false) String type,
+                                                  @RequestParam(required = false) String severity,
+                                                  @RequestParam(required = false) String status,
+                                                  @RequestParam(required = false) String startDate,
+                                                  @RequestParam(required = false) String endDate,
+                                                  @RequestParam(defaultValue = "1") int page,
+                                                  @RequestParam(required = false) Integer limit) {
+        if (page <= 0 || (limit != null && limit <= 0)) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "page et limit doivent être positifs");
+        }
+        AlertPageDTO alerts = alertService.search(deviceId,
+                parse(AlertType.class, type), parse(AlertSeverity.class, severity), parse(AlertStatus.class, status),
+                DateParams.parseStart(startDate), DateParams.parseEnd(endDate),
+                page, limit != null ? limit : DEFAULT_LIMIT);
+        return ResponseEntity.ok(alerts);
+    }
+
+    @GetMapping("/stats")
+    public ResponseEntity<AlertStatsDTO> getStats() {
+        return ResponseEntity.ok(alertService.getStats(drivingEventService.getDroppedSamples()));
+    }
+
+    @GetMapping("/{id}")
+    public ResponseEntity<AlertDTO> getAlert(@PathVariable Long id) {
+        return alertService.getAlert(id)
+                .map(ResponseEntity::ok)
+                .orElseGet(() -> ResponseEntity.notFound().build());
+    }
+
+    // Suivi par l'opérateur : statut et notes
+    @PutMapping("/{id}")
+    public ResponseEntity<AlertDTO> updateAlert(@PathVariable Long id, @RequestBody AlertUpdateDTO update) {
+        return alertService.updateAlert(id, update)
+                .map(ResponseEntity::ok)
+                .orElseGet(() -> ResponseEntity.notFound().build());
+    }
+
+    @DeleteMapping("/{id}")
+    public ResponseEntity<Void> deleteAlert(@PathVariable Long id) {
+        return alertService.deleteAlert(id)
+                ? ResponseEntity.noContent().build()
+                : ResponseEntity.notFound().build();
+    }
+
+    private static <E extends Enum<E>> E parse(Class<E> type, String value) {
+        if (value == null || value.isBlank()) {
+            return null;
+        }
+        try {
+            return Enum.valueOf(type, value.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Valeur inconnue : " + value);
+        }
+    }
+}
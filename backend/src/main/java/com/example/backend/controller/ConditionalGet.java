@@ -0,0 +1,33 @@
+package com.example.backend.controller;
+
+import com.example.backend.service.IngestVersions;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.context.request.WebRequest;
+
+import java.util.function.Supplier;
+
+// GET conditionnels à partir des versions d'ingestion : If-None-Match / If-Modified-Since sont évalués
+// avant toute lecture, une réponse inchangée part en 304 sans accès à la base.
+// L'ETag fait foi : Last-Modified n'a qu'une précision d'une seconde.
+final class ConditionalGet {
+
+    private ConditionalGet() {
+    }
+
+    static <T> ResponseEntity<T> respond(WebRequest request, IngestVersions.Version version,
+                                         Supplier<ResponseEntity<T>> response) {
+        if (request.checkNotModified(version.etag(), version.lastModified())) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).build();
+        }
+        ResponseEntity<T> entity = response.get();
+        // no-cache : le navigateur garde la réponse mais la revalide à chaque affichage
+        return ResponseEntity.status(entity.getStatusCode())
+                .headers(entity.getHeaders())
+                .cacheControl(CacheControl.noCache())
+                .eTag(version.etag())
+                .lastModified(version.lastModified())
+                .body(entity.getBody());
+    }
+}
@@ -0,0 +1,69 @@
+package com.example.backend.controller;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.time.temporal.TemporalAccessor;
+
+// Analyse des paramètres startDate/endDate envoyés par le frontend :
+// date seule ("2024-05-01") ou date-heure ISO avec ou sans décalage ("2024-05-01T10:00:00.000Z").
+final class DateParams {
+
+    static final LocalDateTime MIN = LocalDateTime.of(1970, 1, 1, 0, 0);
+    static final LocalDateTime MAX = LocalDateTime.of(9999, 1, 1, 0, 0);
+
+    private DateParams() {
+    }
+
+    static LocalDateTime parseStart(String value) {
+        if (value == null || value.isBlank()) {
+            return MIN;
+        }
+        if (isDateOnly(value)) {
+            return parseDate(value).atStartOfDay();
+        }
+        return parseDateTime(value);
+    }
+
+    // Borne exclusive : une date seule couvre toute la journée
+    static LocalDateTime parseEnd(String value) {
+        if (value == null || value.isBlank()) {
+            return MAX;
+        }
+        if (isDateOnly(value)) {
+            return parseDate(value).plusDays(1).atStartOfDay();
+        }
+        return parseDateTime(value);
+    }
+
+    private static boolean isDateOnly(String value) {
+        return value.length() == 10;
+    }
+
+    private static LocalDate parseDate(String value) {
+        try {
+            return LocalDate.parse(value);
+        } catch (DateTimeParseException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Date invalide : " + value);
+        }
+    }
+
+    // Les timestamps sont stockés en heure locale du serveur
+    private static LocalDateTime parseDateTime(String value) {
+        try {
+            TemporalAccessor parsed = DateTimeFormatter.ISO_DATE_TIME.parseBest(value, ZonedDateTime::from, LocalDateTime::from);
+            if (parsed instanceof ZonedDateTime zoned) {
+                return zoned.withZoneSameInstant(ZoneId.systemDefault()).toLocalDateTime();
+            }
+            return (LocalDateTime) parsed;
+        } catch (DateTimeParseException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Date invalide : " + value);
+        }
+    }
+}
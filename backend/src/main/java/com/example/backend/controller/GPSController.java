@@ -0,0 +1,88 @@
+package com.example.backend.controller;
+
+import com.example.backend.dto.AreaVisitDTO;
+import com.example.backend.dto.GPSPointDTO;
+import com.example.backend.dto.NearestDeviceDTO;
+import com.example.backend.service.GPSAreaService;
+import com.example.backend.service.PositionIndex;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.List;
+
+// Requêtes spatiales : positions courantes servies par l'index en mémoire, historique par la base
+@RestController
+@RequestMapping("/api/gps")
+@CrossOrigin(origins = "*")
+public class GPSController {
+
+    private static final int MAX_NEAREST = 1000;
+
+    private final PositionIndex positionIndex;
+    private final GPSAreaService areaService;
+
+    @Autowired
+    public GPSController(PositionIndex positionIndex, GPSAreaService areaService) {
+        this.positionIndex = positionIndex;
+        this.areaService = areaService;
+    }
+
+    // Dernière position de chaque appareil
+    @GetMapping("/latest")
+    public ResponseEntity<List<GPSPointDTO>> getLatestPositions() {
+        return ResponseEntity.ok(positionIndex.all());
+    }
+
+    // bbox : minLongitude,minLatitude,maxLongitude,maxLatitude (ordre GeoJSON)
+    @GetMapping("/within")
+    public ResponseEntity<List<GPSPointDTO>> getDevicesWithin(@RequestParam String bbox) {
+        double[] box = parseBbox(bbox);
+        return ResponseEntity.ok(positionIndex.within(box[1], box[0], box[3], box[2]));
+    }
+
+    @GetMapping("/nearest")
+    public ResponseEntity<List<NearestDeviceDTO>> getNearestDevices(@RequestParam double lat,
+                                                                    @RequestParam double lon,
+                                                                    @RequestParam(defaultValue = "5") int k) {
+        if (lat < -90 || lat > 90 || lon < -180 || lon > 180) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Coordonnées hors limites");
+        }
+        if (k <= 0 || k > MAX_NEAREST) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "k doit être compris entre 1 et " + MAX_NEAREST);
+        }
+        return ResponseEntity.ok(positionIndex.nearest(lat, lon, k));
+    }
+
+    // Appareils passés dans la zone pendant la période (historique en base)
+    @GetMapping("/history")
+    public ResponseEntity<List<AreaVisitDTO>> getAreaHistory(@RequestParam String bbox,
+                                                             @RequestParam(required = false) String startDate,
+                                                             @RequestParam(required = false) String endDate) {
+        double[] box = parseBbox(bbox);
+        List<AreaVisitDTO> visits = areaService.getVisits(box[1], box[0], box[3], box[2],
+                DateParams.parseStart(startDate), DateParams.parseEnd(endDate));
+        return ResponseEntity.ok(visits);
+    }
+
+    private static double[] parseBbox(String bbox) {
+        String[] parts = bbox.split(",");
+        if (parts.length != 4) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "bbox attendu : minLon,minLat,maxLon,maxLat");
+        }
+        double[] box = new double[4];
+        try {
+            for (int i = 0; i < 4; i++) {
+                box[i] = Double.parseDouble(parts[i].trim());
+            }
+        } catch (NumberFormatException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "bbox invalide : " + bbox);
+        }
+        if (box[0] < -180 || box[2] > 180 || box[1] < -90 || box[3] > 90 || box[0] > box[2] || box[1] > box[3]) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "bbox hors limites ou inversée : " + bbox);
+        }
+        return box;
+    }
+}
@@ -0,0 +1,45 @@
+package com.example.backend.controller;
+
+import com.example.backend.service.LiveBroadcaster;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.Set;
+
+// Flux SSE : un événement par lot d'échantillons, nommé d'après le type de capteur
+// ("alert" : alertes de conduite émises par le détecteur d'événements)
+@RestController
+@RequestMapping("/api/live")
+@CrossOrigin(origins = "*")
+public class LiveController {
+
+    private static final Set<String> SENSOR_TYPES = Set.of("accelerometer", "gyroscope", "gps", "alert");
+
+    private final LiveBroadcaster liveBroadcaster;
+
+    @Autowired
+    public LiveController(LiveBroadcaster liveBroadcaster) {
+        this.liveBroadcaster = liveBroadcaster;
+    }
+
+    @GetMapping(value = "/{sensorType}", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter subscribeAllDevices(@PathVariable String sensorType) {
+        return liveBroadcaster.subscribe(checkSensorType(sensorType), LiveBroadcaster.ALL_DEVICES);
+    }
+
+    @GetMapping(value = "/{sensorType}/{deviceId}", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter subscribeDevice(@PathVariable String sensorType, @PathVariable String deviceId) {
+        return liveBroadcaster.subscribe(checkSensorType(sensorType), deviceId);
+    }
+
+    private String checkSensorType(String sensorType) {
+        if (!SENSOR_TYPES.contains(sensorType)) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Type de capteur inconnu : " + sensorType);
+        }
+        return sensorType;
+    }
+}
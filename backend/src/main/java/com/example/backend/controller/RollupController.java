@@ -0,0 +1,66 @@
+package com.example.backend.controller;
+
+import com.example.backend.dto.RollupPointDTO;
+import com.example.backend.service.RollupService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/rollups")
+@CrossOrigin(origins = "*")
+public class RollupController {
+
+    private static final double DEFAULT_RESOLUTION_SECONDS = 60;
+
+    private final RollupService rollupService;
+
+    @Autowired
+    public RollupController(RollupService rollupService) {
+        this.rollupService = rollupService;
+    }
+
+    // resolution (secondes) ou maxPoints : le niveau d'agrégat le plus grossier compatible est choisi
+    @GetMapping("/{sensorType}/{deviceId}")
+    public ResponseEntity<List<RollupPointDTO>> getRollups(@PathVariable String sensorType,
+                                                           @PathVariable String deviceId,
+                                                           @RequestParam(required = false) String startDate,
+                                                           @RequestParam(required = false) String endDate,
+                                                           @RequestParam(required = false) Double resolution,
+                                                           @RequestParam(required = false) Integer maxPoints) {
+        LocalDateTime from = DateParams.parseStart(startDate);
+        LocalDateTime to = DateParams.parseEnd(endDate);
+        double resolutionSeconds = DEFAULT_RESOLUTION_SECONDS;
+        if (resolution != null) {
+            resolutionSeconds = resolution;
+        } else if (maxPoints != null && maxPoints > 0 && startDate != null && endDate != null) {
+            resolutionSeconds = (double) Duration.between(from, to).toSeconds() / maxPoints;
+        }
+        List<RollupPointDTO> points = rollupService.getRollups(checkSensorType(sensorType), deviceId, from, to,
+                resolutionSeconds);
+        return ResponseEntity.ok(points);
+    }
+
+    @PostMapping("/backfill")
+    public ResponseEntity<Void> backfill(@RequestParam(required = false) String sensorType,
+                                         @RequestParam(required = false) String deviceId,
+                                         @RequestParam String startDate,
+                                         @RequestParam(required = false) String endDate) {
+        rollupService.backfillAsync(sensorType == null ? null : checkSensorType(sensorType), deviceId,
+                DateParams.parseStart(startDate), DateParams.parseEnd(endDate));
+        return ResponseEntity.accepted().build();
+    }
+
+    private String checkSensorType(String sensorType) {
+        if (!RollupService.ACCELEROMETER.equals(sensorType) && !RollupService.GYROSCOPE.equals(sensorType)) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Type de capteur sans agrégats : " + sensorType);
+        }
+        return sensorType;
+    }
+}
@@ -1,82 +1,543 @@
 package com.example.backend.controller;
 
 
+import com.example.backend.dto.BatchResultDTO;
+import com.example.backend.dto.GPSTrackDTO;
+import com.example.backend.dto.IngestQueueStatsDTO;
+import com.example.backend.dto.SensorBatchDTO;
+import com.example.backend.dto.SensorBatchResultDTO;
+import com.example.backend.dto.SensorCursor;
+import com.example.backend.dto.SensorFrame;
+import com.example.backend.dto.SensorFusionDTO;
 import com.example.backend.entity.AccelerometerData;
 import com.example.backend.entity.GPSData;
 import com.example.backend.entity.GyroscopeData;
+import com.example.backend.service.AsyncIngestService;
+import com.example.backend.service.DownsamplingMode;
+import com.example.backend.service.ExportFormat;
+import com.example.backend.service.IngestVersions;
 import com.example.backend.service.SensorDataService;
+import com.example.backend.service.SensorExportService;
+import com.example.backend.service.SensorFusionService;
+import com.example.backend.service.TrackEncoding;
+import com.example.backend.service.TrackService;
+import com.example.backend.service.TrackSimplification;
+import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.server.ResponseStatusException;
 
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.time.Duration;
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.function.Function;
 
 @RestController
 @RequestMapping("/api/sensor")
 public class SensorDataController {
 
     private final SensorDataService sensorDataService;
+    private final AsyncIngestService asyncIngestService;
+    private final SensorExportService sensorExportService;
+    private final TrackService trackService;
+    private final SensorFusionService sensorFusionService;
+    private final IngestVersions ingestVersions;
+    private final int maxBatchSize;
+    private final int defaultPageSize;
+    private final int maxPageSize;
 
     @Autowired
-    public SensorDataController(SensorDataService sensorDataService) {
+    public SensorDataController(SensorDataService sensorDataService,
+                                AsyncIngestService asyncIngestService,
+                                SensorExportService sensorExportService,
+                                TrackService trackService,
+                                SensorFusionService sensorFusionService,
+                                IngestVersions ingestVersions,
+                                @Value("${sensor.ingest.max-batch-size:5000}") int maxBatchSize,
+                                @Value("${sensor.query.default-page-size:1000}") int defaultPageSize,
+                                @Value("${sensor.query.max-page-size:10000}") int maxPageSize) {
         this.sensorDataService = sensorDataService;
+        this.asyncIngestService = asyncIngestService;
+        this.sensorExportService = sensorExportService;
+        this.trackService = trackService;
+        this.sensorFusionService = sensorFusionService;
+        this.ingestVersions = ingestVersions;
+        this.maxBatchSize = maxBatchSize;
+        this.defaultPageSize = defaultPageSize;
+        this.maxPageSize = maxPageSize;
+    }
+
+    // État des files d'ingestion asynchrone
+    @GetMapping("/ingest/stats")
+    public ResponseEntity<List<IngestQueueStatsDTO>> getIngestStats() {
+        return ResponseEntity.ok(asyncIngestService.getStats());
+    }
+
+    // Envoi groupé multi-capteurs
+    @PostMapping("/batch")
+    public ResponseEntity<SensorBatchResultDTO> saveSensorBatch(@RequestBody SensorBatchDTO batch) {
+        if (batch.size() > maxBatchSize) {
+            return ResponseEntity.status(HttpStatus.PAYLOAD_TOO_LARGE).build();
+        }
+        batch.applyDeviceId();
+        requireDeviceIds(batch.getAccelerometer(), AccelerometerData::getDeviceId);
+        requireDeviceIds(batch.getGyroscope(), GyroscopeData::getDeviceId);
+        requireDeviceIds(batch.getGps(), GPSData::getDeviceId);
+        if (asyncIngestService.isEnabled()) {
+            if (!asyncIngestService.enqueueSensorBatch(batch)) {
+                return ingestOverloaded();
+            }
+            return new ResponseEntity<>(new SensorBatchResultDTO(), HttpStatus.ACCEPTED);
+        }
+        SensorBatchResultDTO result = sensorDataService.saveSensorBatch(batch);
+        return new ResponseEntity<>(result, HttpStatus.CREATED);
     }
 
     // Endpoints pour l'accéléromètre
     @PostMapping("/accelerometer")
     public ResponseEntity<AccelerometerData> saveAccelerometerData(@RequestBody AccelerometerData data) {
+        if (asyncIngestService.isEnabled()) {
+            if (!asyncIngestService.enqueueAccelerometer(data)) {
+                return ingestOverloaded();
+            }
+            return new ResponseEntity<>(data, HttpStatus.ACCEPTED);
+        }
         AccelerometerData savedData = sensorDataService.saveAccelerometerData(data);
         return new ResponseEntity<>(savedData, HttpStatus.CREATED);
     }
 
+    @PostMapping("/accelerometer/batch")
+    public ResponseEntity<BatchResultDTO> saveAccelerometerBatch(@RequestBody List<AccelerometerData> batch) {
+        if (batch.size() > maxBatchSize) {
+            return ResponseEntity.status(HttpStatus.PAYLOAD_TOO_LARGE).build();
+        }
+        requireDeviceIds(batch, AccelerometerData::getDeviceId);
+        if (asyncIngestService.isEnabled()) {
+            if (!asyncIngestService.enqueueAccelerometerBatch(batch)) {
+                return ingestOverloaded();
+            }
+            return new ResponseEntity<>(new BatchResultDTO(batch.size(), null, null), HttpStatus.ACCEPTED);
+        }
+        BatchResultDTO result = sensorDataService.saveAccelerometerBatch(batch);
+        return new ResponseEntity<>(result, HttpStatus.CREATED);
+    }
+
+    // Trame binaire (Content-Type application/x-sensor-frame), le JSON reste le format par défaut
+    @PostMapping(value = {"/accelerometer", "/accelerometer/batch"}, consumes = SensorFrame.MEDIA_TYPE)
+    public ResponseEntity<BatchResultDTO> saveAccelerometerFrame(@RequestBody byte[] frame) {
+        return saveAccelerometerBatch(decodeFrame(frame, SensorFrame.ACCELEROMETER).toAccelerometer());
+    }
+
     @GetMapping("/accelerometer")
-    public ResponseEntity<List<AccelerometerData>> getAllAccelerometerData() {
-        List<AccelerometerData> data = sensorDataService.getAllAccelerometerData();
-        return new ResponseEntity<>(data, HttpStatus.OK);
+    public ResponseEntity<List<AccelerometerData>> getAllAccelerometerData(@RequestParam(required = false) String startDate,
+                                                                           @RequestParam(required = false) String endDate,
+                                                                           @RequestParam(required = false) String cursor,
+                                                                           @RequestParam(required = false) Integer limit,
+                                                                           WebRequest request) {
+        return ConditionalGet.respond(request, ingestVersions.of(IngestVersions.ACCELEROMETER, null), () -> {
+            int pageSize = pageSize(limit);
+            List<AccelerometerData> data = sensorDataService.getAccelerometerDataPage(null,
+                    DateParams.parseStart(startDate), DateParams.parseEnd(endDate), parseCursor(cursor), pageSize);
+            return page(data, pageSize, last -> new SensorCursor(last.getTimestamp(), last.getId()));
+        });
     }
 
     @GetMapping("/accelerometer/{deviceId}")
-    public ResponseEntity<List<AccelerometerData>> getAccelerometerDataByDeviceId(@PathVariable String deviceId) {
-        List<AccelerometerData> data = sensorDataService.getAccelerometerDataByDeviceId(deviceId);
+    public ResponseEntity<List<AccelerometerData>> getAccelerometerDataByDeviceId(@PathVariable String deviceId,
+                                                                                  @RequestParam(required = false) String startDate,
+                                                                                  @RequestParam(required = false) String endDate,
+                                                                                  @RequestParam(required = false) String cursor,
+                                                                                  @RequestParam(required = false) Integer limit,
+                                                                                  @RequestParam(required = false) Integer maxPoints,
+                                                                                  @RequestParam(defaultValue = "lttb") String mode,
+                                                                                  @RequestParam(required = false) Double resolution,
+                                                                                  WebRequest request) {
+        return ConditionalGet.respond(request, ingestVersions.of(IngestVersions.ACCELEROMETER, deviceId), () -> {
+            if (maxPoints != null) {
+                List<AccelerometerData> data = sensorDataService.getAccelerometerDataDownsampled(deviceId,
+                        DateParams.parseStart(startDate), DateParams.parseEnd(endDate), pageSize(maxPoints), parseMode(mode),
+                        parseResolution(resolution));
+                return new ResponseEntity<>(data, HttpStatus.OK);
+            }
+            int pageSize = pageSize(limit);
+            List<AccelerometerData> data = sensorDataService.getAccelerometerDataPage(deviceId,
+                    DateParams.parseStart(startDate), DateParams.parseEnd(endDate), parseCursor(cursor), pageSize);
+            return page(data, pageSize, last -> new SensorCursor(last.getTimestamp(), last.getId()));
+        });
+    }
+
+    @GetMapping("/accelerometer/{deviceId}/latest")
+    public ResponseEntity<List<AccelerometerData>> getLatestAccelerometerData(@PathVariable String deviceId,
+                                                                              @RequestParam(defaultValue = "100") int n,
+                                                                              WebRequest request) {
+        return ConditionalGet.respond(request, ingestVersions.of(IngestVersions.ACCELEROMETER, deviceId), () -> {
+            List<AccelerometerData> data = sensorDataService.getLatestAccelerometerData(deviceId, pageSize(n));
+            return new ResponseEntity<>(data, HttpStatus.OK);
+        });
+    }
+
+    @GetMapping("/accelerometer/{deviceId}/recent")
+    public ResponseEntity<List<AccelerometerData>> getRecentAccelerometerData(@PathVariable String deviceId,
+                                                                              @RequestParam(defaultValue = "60") long seconds) {
+        List<AccelerometerData> data = sensorDataService.getRecentAccelerometerData(deviceId,
+                LocalDateTime.now().minusSeconds(seconds), maxPageSize);
         return new ResponseEntity<>(data, HttpStatus.OK);
     }
 
+    @GetMapping("/accelerometer/{deviceId}/export")
+    public void exportAccelerometerData(@PathVariable String deviceId,
+                                        @RequestParam(defaultValue = "ndjson") String format,
+                                        @RequestParam(required = false) String startDate,
+                                        @RequestParam(required = false) String endDate,
+                                        HttpServletResponse response) throws IOException {
+        ExportFormat exportFormat = prepareExport(response, "accelerometer", deviceId, format);
+        sensorExportService.exportAccelerometerData(deviceId, DateParams.parseStart(startDate), DateParams.parseEnd(endDate),
+                exportFormat, response.getOutputStream());
+    }
+
     // Endpoints pour le GPS
     @PostMapping("/gps")
     public ResponseEntity<GPSData> saveGPSData(@RequestBody GPSData data) {
+        if (asyncIngestService.isEnabled()) {
+            if (!asyncIngestService.enqueueGPS(data)) {
+                return ingestOverloaded();
+            }
+            return new ResponseEntity<>(data, HttpStatus.ACCEPTED);
+        }
         GPSData savedData = sensorDataService.saveGPSData(data);
         return new ResponseEntity<>(savedData, HttpStatus.CREATED);
     }
 
+    @PostMapping("/gps/batch")
+    public ResponseEntity<BatchResultDTO> saveGPSBatch(@RequestBody List<GPSData> batch) {
+        if (batch.size() > maxBatchSize) {
+            return ResponseEntity.status(HttpStatus.PAYLOAD_TOO_LARGE).build();
+        }
+        requireDeviceIds(batch, GPSData::getDeviceId);
+        if (asyncIngestService.isEnabled()) {
+            if (!asyncIngestService.enqueueGPSBatch(batch)) {
+                return ingestOverloaded();
+            }
+            return new ResponseEntity<>(new BatchResultDTO(batch.size(), null, null), HttpStatus.ACCEPTED);
+        }
+        BatchResultDTO result = sensorDataService.saveGPSBatch(batch);
+        return new ResponseEntity<>(result, HttpStatus.CREATED);
+    }
+
+    @PostMapping(value = {"/gps", "/gps/batch"}, consumes = SensorFrame.MEDIA_TYPE)
+    public ResponseEntity<BatchResultDTO> saveGPSFrame(@RequestBody byte[] frame) {
+        return saveGPSBatch(decodeFrame(frame, SensorFrame.GPS).toGPS());
+    }
+
     @GetMapping("/gps")
-    public ResponseEntity<List<GPSData>> getAllGPSData() {
-        List<GPSData> data = sensorDataService.getAllGPSData();
-        return new ResponseEntity<>(data, HttpStatus.OK);
+    public ResponseEntity<List<GPSData>> getAllGPSData(@RequestParam(required = false) String startDate,
+                                                       @RequestParam(required = false) String endDate,
+                                                       @RequestParam(required = false) String cursor,
+                                                       @RequestParam(required = false) Integer limit,
+                                                       WebRequest request) {
+        return ConditionalGet.respond(request, ingestVersions.of(IngestVersions.GPS, null), () -> {
+            int pageSize = pageSize(limit);
+            List<GPSData> data = sensorDataService.getGPSDataPage(null,
+                    DateParams.parseStart(startDate), DateParams.parseEnd(endDate), parseCursor(cursor), pageSize);
+            return page(data, pageSize, last -> new SensorCursor(last.getTimestamp(), last.getId()));
+        });
     }
 
     @GetMapping("/gps/{deviceId}")
-    public ResponseEntity<List<GPSData>> getGPSDataByDeviceId(@PathVariable String deviceId) {
-        List<GPSData> data = sensorDataService.getGPSDataByDeviceId(deviceId);
+    public ResponseEntity<List<GPSData>> getGPSDataByDeviceId(@PathVariable String deviceId,
+                                                              @RequestParam(required = false) String startDate,
+                                                              @RequestParam(required = false) String endDate,
+                                                              @RequestParam(required = false) String cursor,
+                                                              @RequestParam(required = false) Integer limit,
+                                                              WebRequest request) {
+        return ConditionalGet.respond(request, ingestVersions.of(IngestVersions.GPS, deviceId), () -> {
+            int pageSize = pageSize(limit);
+            List<GPSData> data = sensorDataService.getGPSDataPage(deviceId,
+                    DateParams.parseStart(startDate), DateParams.parseEnd(endDate), parseCursor(cursor), pageSize);
+            return page(data, pageSize, last -> new SensorCursor(last.getTimestamp(), last.getId()));
+        });
+    }
+
+    @GetMapping("/gps/{deviceId}/latest")
+    public ResponseEntity<List<GPSData>> getLatestGPSData(@PathVariable String deviceId,
+                                                          @RequestParam(defaultValue = "100") int n,
+                                                          WebRequest request) {
+        return ConditionalGet.respond(request, ingestVersions.of(IngestVersions.GPS, deviceId), () -> {
+            List<GPSData> data = sensorDataService.getLatestGPSData(deviceId, pageSize(n));
+            return new ResponseEntity<>(data, HttpStatus.OK);
+        });
+    }
+
+    @GetMapping("/gps/{deviceId}/recent")
+    public ResponseEntity<List<GPSData>> getRecentGPSData(@PathVariable String deviceId,
+                                                          @RequestParam(defaultValue = "60") long seconds) {
+        List<GPSData> data = sensorDataService.getRecentGPSData(deviceId,
+                LocalDateTime.now().minusSeconds(seconds), maxPageSize);
         return new ResponseEntity<>(data, HttpStatus.OK);
     }
 
+    // Tracé simplifié pour la carte : tolérance d'environ un pixel au zoom demandé.
+    // Période trop longue : tracé tronqué, signalé par l'en-tête X-Track-Truncated
+    @GetMapping("/gps/{deviceId}/track")
+    public ResponseEntity<GPSTrackDTO> getGPSTrack(@PathVariable String deviceId,
+                                                   @RequestParam(required = false) String startDate,
+                                                   @RequestParam(required = false) String endDate,
+                                                   @RequestParam(defaultValue = "13") int zoom,
+                                                   @RequestParam(defaultValue = "dp") String simplify,
+                                                   @RequestParam(defaultValue = "polyline") String format,
+                                                   WebRequest request) {
+        return ConditionalGet.respond(request, ingestVersions.of(IngestVersions.GPS, deviceId), () -> {
+            try {
+                GPSTrackDTO track = trackService.getTrack(deviceId, DateParams.parseStart(startDate),
+                        DateParams.parseEnd(endDate), zoom, TrackSimplification.fromParam(simplify),
+                        TrackEncoding.fromParam(format));
+                if (track.truncated()) {
+                    return ResponseEntity.ok()
+                            .header("X-Track-Truncated", "true")
+                            .header(HttpHeaders.ACCESS_CONTROL_EXPOSE_HEADERS, "X-Track-Truncated")
+                            .body(track);
+                }
+                return ResponseEntity.ok(track);
+            } catch (IllegalArgumentException e) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage());
+            }
+        });
+    }
+
+    // Vue fusionnée accéléromètre / gyroscope / GPS, alignée à rate trames par seconde.
+    // Période obligatoire et bornée (fusion.max-range-hours) : sans elle, tout l'historique serait relu
+    @GetMapping("/fused/{deviceId}")
+    public ResponseEntity<SensorFusionDTO> getFusedData(@PathVariable String deviceId,
+                                                        @RequestParam String startDate,
+                                                        @RequestParam String endDate,
+                                                        @RequestParam(defaultValue = "10") double rate,
+                                                        WebRequest request) {
+        IngestVersions.Version version = ingestVersions.combined("fused", deviceId,
+                IngestVersions.ACCELEROMETER, IngestVersions.GYROSCOPE, IngestVersions.GPS);
+        return ConditionalGet.respond(request, version, () -> {
+            try {
+                return ResponseEntity.ok(sensorFusionService.fuse(deviceId, DateParams.parseStart(startDate),
+                        DateParams.parseEnd(endDate), rate));
+            } catch (IllegalArgumentException e) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage());
+            }
+        });
+    }
+
+    @GetMapping("/gps/{deviceId}/export")
+    public void exportGPSData(@PathVariable String deviceId,
+                              @RequestParam(defaultValue = "ndjson") String format,
+                              @RequestParam(required = false) String startDate,
+                              @RequestParam(required = false) String endDate,
+                              HttpServletResponse response) throws IOException {
+        ExportFormat exportFormat = prepareExport(response, "gps", deviceId, format);
+        sensorExportService.exportGPSData(deviceId, DateParams.parseStart(startDate), DateParams.parseEnd(endDate),
+                exportFormat, response.getOutputStream());
+    }
+
     // Endpoints pour le gyroscope
     @PostMapping("/gyroscope")
     public ResponseEntity<GyroscopeData> saveGyroscopeData(@RequestBody GyroscopeData data) {
+        if (asyncIngestService.isEnabled()) {
+            if (!asyncIngestService.enqueueGyroscope(data)) {
+                return ingestOverloaded();
+            }
+            return new ResponseEntity<>(data, HttpStatus.ACCEPTED);
+        }
         GyroscopeData savedData = sensorDataService.saveGyroscopeData(data);
         return new ResponseEntity<>(savedData, HttpStatus.CREATED);
     }
 
+    @PostMapping("/gyroscope/batch")
+    public ResponseEntity<BatchResultDTO> saveGyroscopeBatch(@RequestBody List<GyroscopeData> batch) {
+        if (batch.size() > maxBatchSize) {
+            return ResponseEntity.status(HttpStatus.PAYLOAD_TOO_LARGE).build();
+        }
+        requireDeviceIds(batch, GyroscopeData::getDeviceId);
+        if (asyncIngestService.isEnabled()) {
+            if (!asyncIngestService.enqueueGyroscopeBatch(batch)) {
+                return ingestOverloaded();
+            }
+            return new ResponseEntity<>(new BatchResultDTO(batch.size(), null, null), HttpStatus.ACCEPTED);
+        }
+        BatchResultDTO result = sensorDataService.saveGyroscopeBatch(batch);
+        return new ResponseEntity<>(result, HttpStatus.CREATED);
+    }
+
+    @PostMapping(value = {"/gyroscope", "/gyroscope/batch"}, consumes = SensorFrame.MEDIA_TYPE)
+    public ResponseEntity<BatchResultDTO> saveGyroscopeFrame(@RequestBody byte[] frame) {
+        return saveGyroscopeBatch(decodeFrame(frame, SensorFrame.GYROSCOPE).toGyroscope());
+    }
+
     @GetMapping("/gyroscope")
-    public ResponseEntity<List<GyroscopeData>> getAllGyroscopeData() {
-        List<GyroscopeData> data = sensorDataService.getAllGyroscopeData();
-        return new ResponseEntity<>(data, HttpStatus.OK);
+    public ResponseEntity<List<GyroscopeData>> getAllGyroscopeData(@RequestParam(required = false) String startDate,
+                                                                   @RequestParam(required = false) String endDate,
+                                                                   @RequestParam(required = false) String cursor,
+                                                                   @RequestParam(required = false) Integer limit,
+                                                                   WebRequest request) {
+        return ConditionalGet.respond(request, ingestVersions.of(IngestVersions.GYROSCOPE, null), () -> {
+            int pageSize = pageSize(limit);
+            List<GyroscopeData> data = sensorDataService.getGyroscopeDataPage(null,
+                    DateParams.parseStart(startDate), DateParams.parseEnd(endDate), parseCursor(cursor), pageSize);
+            return page(data, pageSize, last -> new SensorCursor(last.getTimestamp(), last.getId()));
+        });
     }
 
     @GetMapping("/gyroscope/{deviceId}")
-    public ResponseEntity<List<GyroscopeData>> getGyroscopeDataByDeviceId(@PathVariable String deviceId) {
-        List<GyroscopeData> data = sensorDataService.getGyroscopeDataByDeviceId(deviceId);
+    public ResponseEntity<List<GyroscopeData>> getGyroscopeDataByDeviceId(@PathVariable String deviceId,
+                                                                          @RequestParam(required = false) String startDate,
+                                                                          @RequestParam(required = false) String endDate,
+                                                                          @RequestParam(required = false) String cursor,
+                                                                          @RequestParam(required = false) Integer limit,
+                                                                          @RequestParam(required = false) Integer maxPoints,
+                                                                          @RequestParam(defaultValue = "lttb") String mode,
+                                                                          @RequestParam(required = false) Double resolution,
+                                                                          WebRequest request) {
+        return ConditionalGet.respond(request, ingestVersions.of(IngestVersions.GYROSCOPE, deviceId), () -> {
+            if (maxPoints != null) {
+                List<GyroscopeData> data = sensorDataService.getGyroscopeDataDownsampled(deviceId,
+                        DateParams.parseStart(startDate), DateParams.parseEnd(endDate), pageSize(maxPoints), parseMode(mode),
+                        parseResolution(resolution));
+                return new ResponseEntity<>(data, HttpStatus.OK);
+            }
+            int pageSize = pageSize(limit);
+            List<GyroscopeData> data = sensorDataService.getGyroscopeDataPage(deviceId,
+                    DateParams.parseStart(startDate), DateParams.parseEnd(endDate), parseCursor(cursor), pageSize);
+            return page(data, pageSize, last -> new SensorCursor(last.getTimestamp(), last.getId()));
+        });
+    }
+
+    @GetMapping("/gyroscope/{deviceId}/latest")
+    public ResponseEntity<List<GyroscopeData>> getLatestGyroscopeData(@PathVariable String deviceId,
+                                                                      @RequestParam(defaultValue = "100") int n,
+                                                                      WebRequest request) {
+        return ConditionalGet.respond(request, ingestVersions.of(IngestVersions.GYROSCOPE, deviceId), () -> {
+            List<GyroscopeData> data = sensorDataService.getLatestGyroscopeData(deviceId, pageSize(n));
+            return new ResponseEntity<>(data, HttpStatus.OK);
+        });
+    }
+
+    @GetMapping("/gyroscope/{deviceId}/recent")
+    public ResponseEntity<List<GyroscopeData>> getRecentGyroscopeData(@PathVariable String deviceId,
+                                                                      @RequestParam(defaultValue = "60") long seconds) {
+        List<GyroscopeData> data = sensorDataService.getRecentGyroscopeData(deviceId,
+                LocalDateTime.now().minusSeconds(seconds), maxPageSize);
         return new ResponseEntity<>(data, HttpStatus.OK);
     }
+
+    @GetMapping("/gyroscope/{deviceId}/export")
+    public void exportGyroscopeData(@PathVariable String deviceId,
+                                    @RequestParam(defaultValue = "ndjson") String format,
+                                    @RequestParam(required = false) String startDate,
+                                    @RequestParam(required = false) String endDate,
+                                    HttpServletResponse response) throws IOException {
+        ExportFormat exportFormat = prepareExport(response, "gyroscope", deviceId, format);
+        sensorExportService.exportGyroscopeData(deviceId, DateParams.parseStart(startDate), DateParams.parseEnd(endDate),
+                exportFormat, response.getOutputStream());
+    }
+
+    // Taille de page plafonnée : jamais d'historique complet en une seule réponse
+    private int pageSize(Integer limit) {
+        if (limit == null) {
+            return defaultPageSize;
+        }
+        return Math.max(1, Math.min(limit, maxPageSize));
+    }
+
+    // resolution (secondes) : durée minimale d'un seau de sous-échantillonnage
+    private static Duration parseResolution(Double resolution) {
+        if (resolution == null) {
+            return null;
+        }
+        if (!(resolution > 0)) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Résolution invalide : " + resolution);
+        }
+        return Duration.ofMillis(Math.round(resolution * 1000));
+    }
+
+    private DownsamplingMode parseMode(String mode) {
+        try {
+            return DownsamplingMode.fromParam(mode);
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage());
+        }
+    }
+
+    private SensorCursor parseCursor(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return null;
+        }
+        try {
+            return SensorCursor.decode(cursor);
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage());
+        }
+    }
+
+    // Page pleine : le curseur de la page suivante est renvoyé dans l'en-tête X-Next-Cursor
+    private <T> ResponseEntity<List<T>> page(List<T> data, int pageSize, Function<T, SensorCursor> cursorOf) {
+        if (data.size() < pageSize) {
+            return new ResponseEntity<>(data, HttpStatus.OK);
+        }
+        String next = cursorOf.apply(data.get(data.size() - 1)).encode();
+        return ResponseEntity.ok()
+                .header("X-Next-Cursor", next)
+                .header(HttpHeaders.ACCESS_CONTROL_EXPOSE_HEADERS, "X-Next-Cursor")
+                .body(data);
+    }
+
+    private ExportFormat prepareExport(HttpServletResponse response, String sensorType, String deviceId, String format) {
+        ExportFormat exportFormat;
+        try {
+            exportFormat = ExportFormat.fromParam(format);
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage());
+        }
+        response.setContentType(exportFormat.getContentType());
+        response.setCharacterEncoding("UTF-8");
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION,
+                "attachment; filename=\"" + sensorType + "-" + deviceId + "." + exportFormat.getExtension() + "\"");
+        return exportFormat;
+    }
+
+    // Échantillon nul ou sans deviceId : tout le lot est refusé, avant écriture ou mise en file
+    private <T> void requireDeviceIds(List<T> batch, Function<T, String> deviceIdOf) {
+        for (int i = 0; i < batch.size(); i++) {
+            String deviceId = batch.get(i) == null ? null : deviceIdOf.apply(batch.get(i));
+            if (deviceId == null || deviceId.isBlank()) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Échantillon " + i + " sans deviceId");
+            }
+        }
+    }
+
+    private SensorFrame decodeFrame(byte[] body, byte sensorType) {
+        SensorFrame frame;
+        try {
+            frame = SensorFrame.decode(ByteBuffer.wrap(body));
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage());
+        }
+        if (frame.getSensorType() != sensorType) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Trame d'un autre capteur : " + frame.getSensorType());
+        }
+        // Refus avant de créer les entités
+        if (frame.size() > maxBatchSize) {
+            throw new ResponseStatusException(HttpStatus.PAYLOAD_TOO_LARGE);
+        }
+        return frame;
+    }
+
+    // File pleine : réponse immédiate plutôt que de bloquer le client
+    private <T> ResponseEntity<T> ingestOverloaded() {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(asyncIngestService.getRetryAfterSeconds()))
+                .build();
+    }
 }
\ No newline at end of file
@@ -1,11 +1,14 @@
 package com.example.backend.controller;
 
+import com.example.backend.dto.CacheStatsDTO;
 import com.example.backend.dto.DashboardDataDTO;
 import com.example.backend.dto.StatsSummaryDTO;
+import com.example.backend.service.IngestVersions;
 import com.example.backend.service.StatsService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.List;
 
@@ -15,27 +18,40 @@ import java.util.List;
 public class StatsController {
 
     private final StatsService statsService;
+    private final IngestVersions ingestVersions;
 
     @Autowired
-    public StatsController(StatsService statsService) {
+    public StatsController(StatsService statsService, IngestVersions ingestVersions) {
         this.statsService = statsService;
+        this.ingestVersions = ingestVersions;
     }
 
     @GetMapping("/summary")
-    public ResponseEntity<StatsSummaryDTO> getStatsSummary() {
-        StatsSummaryDTO summary = statsService.getStatsSummary();
-        return ResponseEntity.ok(summary);
+    public ResponseEntity<StatsSummaryDTO> getStatsSummary(WebRequest request) {
+        return ConditionalGet.respond(request, ingestVersions.all(), () -> {
+            StatsSummaryDTO summary = statsService.getStatsSummary();
+            return ResponseEntity.ok(summary);
+        });
     }
 
     @GetMapping("/devices")
-    public ResponseEntity<List<String>> getDeviceList() {
-        List<String> devices = statsService.getAllDeviceIds();
-        return ResponseEntity.ok(devices);
+    public ResponseEntity<List<String>> getDeviceList(WebRequest request) {
+        return ConditionalGet.respond(request, ingestVersions.all(), () -> {
+            List<String> devices = statsService.getAllDeviceIds();
+            return ResponseEntity.ok(devices);
+        });
     }
 
+    // Pas de validation conditionnelle : la fenêtre des dernières 24 h glisse sans nouvelle ingestion
     @GetMapping("/dashboard")
     public ResponseEntity<DashboardDataDTO> getDashboardData() {
         DashboardDataDTO dashboardData = statsService.getDashboardData();
         return ResponseEntity.ok(dashboardData);
     }
-}
\ No newline at end of file
+
+    // Efficacité du cache des statistiques : succès, échecs, temps de chargement
+    @GetMapping("/cache")
+    public ResponseEntity<CacheStatsDTO> getCacheStats() {
+        return ResponseEntity.ok(statsService.getCacheStats());
+    }
+}
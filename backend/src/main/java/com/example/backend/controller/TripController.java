@@ -0,0 +1,40 @@
+package com.example.backend.controller;
+
+import com.example.backend.entity.Trip;
+import com.example.backend.service.TripService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/trips")
+@CrossOrigin(origins = "*")
+public class TripController {
+
+    private static final int DEFAULT_LIMIT = 100;
+
+    private final TripService tripService;
+
+    @Autowired
+    public TripController(TripService tripService) {
+        this.tripService = tripService;
+    }
+
+    // Trajets chevauchant la période, du plus récent au plus ancien (le trajet en cours a active = true)
+    @GetMapping("/{deviceId}")
+    public ResponseEntity<List<Trip>> getTrips(@PathVariable String deviceId,
+                                               @RequestParam(required = false) String startDate,
+                                               @RequestParam(required = false) String endDate,
+                                               @RequestParam(required = false) Integer limit) {
+        if (limit != null && limit <= 0) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "limit doit être positif");
+        }
+        List<Trip> trips = tripService.getTrips(deviceId, DateParams.parseStart(startDate),
+                DateParams.parseEnd(endDate), limit != null ? limit : DEFAULT_LIMIT);
+        return ResponseEntity.ok(trips);
+    }
+}
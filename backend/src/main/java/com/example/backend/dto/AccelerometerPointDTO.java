@@ -0,0 +1,7 @@
+package com.example.backend.dto;
+
+import java.time.LocalDateTime;
+
+// Projection d'une mesure d'accéléromètre pour le tableau de bord
+public record AccelerometerPointDTO(String deviceId, LocalDateTime timestamp, float x, float y, float z) {
+}
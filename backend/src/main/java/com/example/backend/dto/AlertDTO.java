@@ -0,0 +1,33 @@
+package com.example.backend.dto;
+
+import com.example.backend.entity.Alert;
+import com.example.backend.entity.AlertSeverity;
+import com.example.backend.entity.AlertStatus;
+import com.example.backend.entity.AlertType;
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.time.LocalDateTime;
+
+// Alerte au format attendu par le frontend (alertService.js) : position et mesures regroupées
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record AlertDTO(Long id, AlertType type, AlertSeverity severity, AlertStatus status, String description,
+                       LocalDateTime timestamp, String deviceId, Location location, Measurement data, String notes) {
+
+    public record Location(double latitude, double longitude) {
+    }
+
+    // acceleration en m/s² ou yawRate en rad/s selon le type, speed en km/h si la position est connue
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    public record Measurement(Double acceleration, Double yawRate, double threshold, Float speed) {
+    }
+
+    public static AlertDTO from(Alert alert) {
+        Location location = alert.getLatitude() != null && alert.getLongitude() != null
+                ? new Location(alert.getLatitude(), alert.getLongitude()) : null;
+        boolean rotation = alert.getType() == AlertType.DANGEROUS_TURN;
+        Measurement data = new Measurement(rotation ? null : alert.getMeasuredValue(),
+                rotation ? alert.getMeasuredValue() : null, alert.getThreshold(), alert.getSpeed());
+        return new AlertDTO(alert.getId(), alert.getType(), alert.getSeverity(), alert.getStatus(),
+                alert.getDescription(), alert.getTimestamp(), alert.getDeviceId(), location, data, alert.getNotes());
+    }
+}
@@ -0,0 +1,10 @@
+package com.example.backend.dto;
+
+import java.util.List;
+
+// Page d'alertes : data + meta, pagination à partir de 1 comme dans AlertsList
+public record AlertPageDTO(List<AlertDTO> data, Meta meta) {
+
+    public record Meta(long total, int page, int limit, int totalPages) {
+    }
+}
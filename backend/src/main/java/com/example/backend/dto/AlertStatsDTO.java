@@ -0,0 +1,15 @@
+package com.example.backend.dto;
+
+import com.example.backend.entity.AlertSeverity;
+import com.example.backend.entity.AlertStatus;
+import com.example.backend.entity.AlertType;
+
+import java.util.Map;
+
+// Répartition des alertes ; samplesDropped compte les échantillons non analysés (files de détection pleines)
+public record AlertStatsDTO(long totalAlerts,
+                            Map<AlertSeverity, Long> severityStats,
+                            Map<AlertStatus, Long> statusStats,
+                            Map<AlertType, Long> typeStats,
+                            long samplesDropped) {
+}
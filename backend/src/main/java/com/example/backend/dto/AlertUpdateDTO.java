@@ -0,0 +1,7 @@
+package com.example.backend.dto;
+
+import com.example.backend.entity.AlertStatus;
+
+// Mise à jour partielle d'une alerte : un champ null n'est pas modifié
+public record AlertUpdateDTO(AlertStatus status, String notes) {
+}
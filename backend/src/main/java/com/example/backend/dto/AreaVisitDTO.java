@@ -0,0 +1,7 @@
+package com.example.backend.dto;
+
+import java.time.LocalDateTime;
+
+// Passage d'un appareil dans une zone : premier et dernier point relevés dans la période
+public record AreaVisitDTO(String deviceId, LocalDateTime firstSeen, LocalDateTime lastSeen, long pointCount) {
+}
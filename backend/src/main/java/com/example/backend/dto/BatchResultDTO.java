@@ -0,0 +1,40 @@
+package com.example.backend.dto;
+
+public class BatchResultDTO {
+    private int count;
+    private Long firstId;
+    private Long lastId;
+
+    public BatchResultDTO() {
+    }
+
+    public BatchResultDTO(int count, Long firstId, Long lastId) {
+        this.count = count;
+        this.firstId = firstId;
+        this.lastId = lastId;
+    }
+
+    public int getCount() {
+        return count;
+    }
+
+    public void setCount(int count) {
+        this.count = count;
+    }
+
+    public Long getFirstId() {
+        return firstId;
+    }
+
+    public void setFirstId(Long firstId) {
+        this.firstId = firstId;
+    }
+
+    public Long getLastId() {
+        return lastId;
+    }
+
+    public void setLastId(Long lastId) {
+        this.lastId = lastId;
+    }
+}
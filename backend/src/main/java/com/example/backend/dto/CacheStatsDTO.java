@@ -0,0 +1,6 @@
+package com.example.backend.dto;
+
+// Statistiques du cache des réponses de statistiques (temps de chargement moyen en ms)
+public record CacheStatsDTO(long hits, long misses, double hitRate, long loads, long loadFailures,
+                            double averageLoadMillis, long evictions, long refreshes) {
+}
@@ -1,9 +1,6 @@
 package com.example.backend.dto;
 
-import com.example.backend.entity.AccelerometerData;
-import com.example.backend.entity.GPSData;
-import com.example.backend.entity.GyroscopeData;
-
+import java.util.ArrayList;
 import java.util.List;
 
 public class DashboardDataDTO {
@@ -11,10 +8,12 @@ public class DashboardDataDTO {
     private long totalGPSPoints;
     private long totalAccelerometerReadings;
     private long totalGyroscopeReadings;
-    private List<GPSData> recentGPSData;
-    private List<AccelerometerData> recentAccelerometerData;
-    private List<GyroscopeData> recentGyroscopeData;
+    private List<GPSPointDTO> recentGPSData;
+    private List<AccelerometerPointDTO> recentAccelerometerData;
+    private List<GyroscopePointDTO> recentGyroscopeData;
     private List<DeviceActivityDTO> deviceActivities;
+    // Sections renvoyées vides faute d'avoir répondu à temps
+    private List<String> degradedSections = new ArrayList<>();
 
     public int getActiveDevices() {
         return activeDevices;
@@ -48,27 +47,27 @@ public class DashboardDataDTO {
         this.totalGyroscopeReadings = totalGyroscopeReadings;
     }
 
-    public List<GPSData> getRecentGPSData() {
+    public List<GPSPointDTO> getRecentGPSData() {
         return recentGPSData;
     }
 
-    public void setRecentGPSData(List<GPSData> recentGPSData) {
+    public void setRecentGPSData(List<GPSPointDTO> recentGPSData) {
         this.recentGPSData = recentGPSData;
     }
 
-    public List<AccelerometerData> getRecentAccelerometerData() {
+    public List<AccelerometerPointDTO> getRecentAccelerometerData() {
         return recentAccelerometerData;
     }
 
-    public void setRecentAccelerometerData(List<AccelerometerData> recentAccelerometerData) {
+    public void setRecentAccelerometerData(List<AccelerometerPointDTO> recentAccelerometerData) {
         this.recentAccelerometerData = recentAccelerometerData;
     }
 
-    public List<GyroscopeData> getRecentGyroscopeData() {
+    public List<GyroscopePointDTO> getRecentGyroscopeData() {
         return recentGyroscopeData;
     }
 
-    public void setRecentGyroscopeData(List<GyroscopeData> recentGyroscopeData) {
+    public void setRecentGyroscopeData(List<GyroscopePointDTO> recentGyroscopeData) {
         this.recentGyroscopeData = recentGyroscopeData;
     }
 
@@ -80,5 +79,13 @@ public class DashboardDataDTO {
         this.deviceActivities = deviceActivities;
     }
 
+    public List<String> getDegradedSections() {
+        return degradedSections;
+    }
+
+    public void setDegradedSections(List<String> degradedSections) {
+        this.degradedSections = degradedSections;
+    }
+
 // Getters and setters
 }
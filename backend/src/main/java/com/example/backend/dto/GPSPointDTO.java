@@ -0,0 +1,8 @@
+package com.example.backend.dto;
+
+import java.time.LocalDateTime;
+
+// Projection d'un point GPS pour le tableau de bord : colonnes lues directement, sans entité gérée
+public record GPSPointDTO(String deviceId, LocalDateTime timestamp,
+                          double latitude, double longitude, double altitude, float speed) {
+}
@@ -0,0 +1,25 @@
+package com.example.backend.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.time.LocalDateTime;
+
+// Tracé simplifié pour la carte : polyline encodée ou géométrie GeoJSON selon le format demandé ;
+// truncated quand la période dépasse le nombre de points lus au plus (tracé arrêté à sourcePoints)
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record GPSTrackDTO(String deviceId,
+                          LocalDateTime start,
+                          LocalDateTime end,
+                          int zoom,
+                          int sourcePoints,
+                          boolean truncated,
+                          int pointCount,
+                          String polyline,
+                          LineString geometry) {
+
+    public record LineString(String type, double[][] coordinates) {
+        public LineString(double[][] coordinates) {
+            this("LineString", coordinates);
+        }
+    }
+}
@@ -0,0 +1,8 @@
+package com.example.backend.dto;
+
+import java.time.LocalDateTime;
+
+// Projection d'une mesure de gyroscope pour le tableau de bord
+public record GyroscopePointDTO(String deviceId, LocalDateTime timestamp,
+                                float rotationX, float rotationY, float rotationZ) {
+}
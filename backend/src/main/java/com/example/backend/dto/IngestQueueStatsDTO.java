@@ -0,0 +1,94 @@
+package com.example.backend.dto;
+
+public class IngestQueueStatsDTO {
+    private String sensorType;
+    private int capacity;
+    private int depth;
+    private long accepted;
+    private long dropped;
+    private long flushed;
+    private long failedFlushes;
+    private double lastFlushMillis;
+    private double maxFlushMillis;
+    private double avgFlushMillis;
+
+    public String getSensorType() {
+        return sensorType;
+    }
+
+    public void setSensorType(String sensorType) {
+        this.sensorType = sensorType;
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    public void setCapacity(int capacity) {
+        this.capacity = capacity;
+    }
+
+    public int getDepth() {
+        return depth;
+    }
+
+    public void setDepth(int depth) {
+        this.depth = depth;
+    }
+
+    public long getAccepted() {
+        return accepted;
+    }
+
+    public void setAccepted(long accepted) {
+        this.accepted = accepted;
+    }
+
+    public long getDropped() {
+        return dropped;
+    }
+
+    public void setDropped(long dropped) {
+        this.dropped = dropped;
+    }
+
+    public long getFlushed() {
+        return flushed;
+    }
+
+    public void setFlushed(long flushed) {
+        this.flushed = flushed;
+    }
+
+    public long getFailedFlushes() {
+        return failedFlushes;
+    }
+
+    public void setFailedFlushes(long failedFlushes) {
+        this.failedFlushes = failedFlushes;
+    }
+
+    public double getLastFlushMillis() {
+        return lastFlushMillis;
+    }
+
+    public void setLastFlushMillis(double lastFlushMillis) {
+        this.lastFlushMillis = lastFlushMillis;
+    }
+
+    public double getMaxFlushMillis() {
+        return maxFlushMillis;
+    }
+
+    public void setMaxFlushMillis(double maxFlushMillis) {
+        this.maxFlushMillis = maxFlushMillis;
+    }
+
+    public double getAvgFlushMillis() {
+        return avgFlushMillis;
+    }
+
+    public void setAvgFlushMillis(double avgFlushMillis) {
+        this.avgFlushMillis = avgFlushMillis;
+    }
+}
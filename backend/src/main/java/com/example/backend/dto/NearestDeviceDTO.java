@@ -0,0 +1,5 @@
+package com.example.backend.dto;
+
+// Dernière position d'un appareil et sa distance (haversine, en mètres) au point demandé
+public record NearestDeviceDTO(GPSPointDTO position, double distanceMeters) {
+}
@@ -0,0 +1,70 @@
+package com.example.backend.dto;
+
+import java.time.LocalDateTime;
+
+public class RollupPointDTO {
+    private LocalDateTime bucketStart;
+    private int granularitySeconds;
+    private long count;
+    // Valeurs par axe : [x, y, z] (rotationX/Y/Z pour le gyroscope)
+    private double[] min;
+    private double[] max;
+    private double[] mean;
+    private double[] rms;
+
+    public LocalDateTime getBucketStart() {
+        return bucketStart;
+    }
+
+    public void setBucketStart(LocalDateTime bucketStart) {
+        this.bucketStart = bucketStart;
+    }
+
+    public int getGranularitySeconds() {
+        return granularitySeconds;
+    }
+
+    public void setGranularitySeconds(int granularitySeconds) {
+        this.granularitySeconds = granularitySeconds;
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    public void setCount(long count) {
+        this.count = count;
+    }
+
+    public double[] getMin() {
+        return min;
+    }
+
+    public void setMin(double[] min) {
+        this.min = min;
+    }
+
+    public double[] getMax() {
+        return max;
+    }
+
+    public void setMax(double[] max) {
+        this.max = max;
+    }
+
+    public double[] getMean() {
+        return mean;
+    }
+
+    public void setMean(double[] mean) {
+        this.mean = mean;
+    }
+
+    public double[] getRms() {
+        return rms;
+    }
+
+    public void setRms(double[] rms) {
+        this.rms = rms;
+    }
+}
@@ -0,0 +1,75 @@
+package com.example.backend.dto;
+
+import com.example.backend.entity.AccelerometerData;
+import com.example.backend.entity.GPSData;
+import com.example.backend.entity.GyroscopeData;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class SensorBatchDTO {
+    // Appliqué aux échantillons qui n'ont pas leur propre deviceId
+    private String deviceId;
+    private List<AccelerometerData> accelerometer = new ArrayList<>();
+    private List<GyroscopeData> gyroscope = new ArrayList<>();
+    private List<GPSData> gps = new ArrayList<>();
+
+    public String getDeviceId() {
+        return deviceId;
+    }
+
+    public void setDeviceId(String deviceId) {
+        this.deviceId = deviceId;
+    }
+
+    public List<AccelerometerData> getAccelerometer() {
+        return accelerometer;
+    }
+
+    public void setAccelerometer(List<AccelerometerData> accelerometer) {
+        this.accelerometer = accelerometer;
+    }
+
+    public List<GyroscopeData> getGyroscope() {
+        return gyroscope;
+    }
+
+    public void setGyroscope(List<GyroscopeData> gyroscope) {
+        this.gyroscope = gyroscope;
+    }
+
+    public List<GPSData> getGps() {
+        return gps;
+    }
+
+    public void setGps(List<GPSData> gps) {
+        this.gps = gps;
+    }
+
+    // Complète les échantillons sans deviceId et remplace les listes absentes par des listes vides
+    public void applyDeviceId() {
+        if (accelerometer == null) {
+            accelerometer = new ArrayList<>();
+        }
+        if (gyroscope == null) {
+            gyroscope = new ArrayList<>();
+        }
+        if (gps == null) {
+            gps = new ArrayList<>();
+        }
+        if (deviceId == null) {
+            return;
+        }
+        accelerometer.stream().filter(data -> data.getDeviceId() == null).forEach(data -> data.setDeviceId(deviceId));
+        gyroscope.stream().filter(data -> data.getDeviceId() == null).forEach(data -> data.setDeviceId(deviceId));
+        gps.stream().filter(data -> data.getDeviceId() == null).forEach(data -> data.setDeviceId(deviceId));
+    }
+
+    public int size() {
+        return sizeOf(accelerometer) + sizeOf(gyroscope) + sizeOf(gps);
+    }
+
+    private static int sizeOf(List<?> list) {
+        return list == null ? 0 : list.size();
+    }
+}
@@ -0,0 +1,31 @@
+package com.example.backend.dto;
+
+public class SensorBatchResultDTO {
+    private BatchResultDTO accelerometer;
+    private BatchResultDTO gyroscope;
+    private BatchResultDTO gps;
+
+    public BatchResultDTO getAccelerometer() {
+        return accelerometer;
+    }
+
+    public void setAccelerometer(BatchResultDTO accelerometer) {
+        this.accelerometer = accelerometer;
+    }
+
+    public BatchResultDTO getGyroscope() {
+        return gyroscope;
+    }
+
+    public void setGyroscope(BatchResultDTO gyroscope) {
+        this.gyroscope = gyroscope;
+    }
+
+    public BatchResultDTO getGps() {
+        return gps;
+    }
+
+    public void setGps(BatchResultDTO gps) {
+        this.gps = gps;
+    }
+}
@@ -0,0 +1,210 @@
+package com.example.backend.dto;
+
+import com.example.backend.entity.AccelerometerData;
+import com.example.backend.entity.GPSData;
+import com.example.backend.entity.GyroscopeData;
+
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+
+// Trame binaire compacte : échantillons d'un même appareil et d'un même capteur, en colonnes (big-endian)
+//   u8 version | u8 capteur | u16 longueur + deviceId UTF-8 | i64 horodatage de base (ms epoch) | i32 n
+//   | n deltas d'horodatage en ms (varint non signé, le premier relatif à la base, donc ordre chronologique)
+//   | colonnes float64 (GPS : latitude, longitude, altitude) puis float32 (x, y, z ou vitesse)
+// Le décodage remplit des tableaux primitifs ; les entités ne sont créées qu'au moment de la persistance.
+public class SensorFrame {
+    public static final String MEDIA_TYPE = "application/x-sensor-frame";
+    public static final byte VERSION = 1;
+    public static final byte ACCELEROMETER = 1;
+    public static final byte GYROSCOPE = 2;
+    public static final byte GPS = 3;
+
+    private final byte sensorType;
+    private final String deviceId;
+    private final long[] timestamps;
+    private final double[][] doubleColumns;
+    private final float[][] floatColumns;
+
+    public SensorFrame(byte sensorType, String deviceId, long[] timestamps,
+                       double[][] doubleColumns, float[][] floatColumns) {
+        if (doubleColumns.length != doubleColumnsOf(sensorType) || floatColumns.length != floatColumnsOf(sensorType)) {
+            throw new IllegalArgumentException("Colonnes incompatibles avec le capteur " + sensorType);
+        }
+        this.sensorType = sensorType;
+        this.deviceId = deviceId;
+        this.timestamps = timestamps;
+        this.doubleColumns = doubleColumns;
+        this.floatColumns = floatColumns;
+    }
+
+    public byte getSensorType() {
+        return sensorType;
+    }
+
+    public String getDeviceId() {
+        return deviceId;
+    }
+
+    public int size() {
+        return timestamps.length;
+    }
+
+    public List<AccelerometerData> toAccelerometer() {
+        requireType(ACCELEROMETER);
+        List<AccelerometerData> samples = new ArrayList<>(timestamps.length);
+        for (int i = 0; i < timestamps.length; i++) {
+            samples.add(new AccelerometerData(floatColumns[0][i], floatColumns[1][i], floatColumns[2][i],
+                    deviceId, toLocalDateTime(timestamps[i])));
+        }
+        return samples;
+    }
+
+    public List<GyroscopeData> toGyroscope() {
+        requireType(GYROSCOPE);
+        List<GyroscopeData> samples = new ArrayList<>(timestamps.length);
+        for (int i = 0; i < timestamps.length; i++) {
+            samples.add(new GyroscopeData(floatColumns[0][i], floatColumns[1][i], floatColumns[2][i],
+                    deviceId, toLocalDateTime(timestamps[i])));
+        }
+        return samples;
+    }
+
+    public List<GPSData> toGPS() {
+        requireType(GPS);
+        List<GPSData> samples = new ArrayList<>(timestamps.length);
+        for (int i = 0; i < timestamps.length; i++) {
+            samples.add(new GPSData(doubleColumns[0][i], doubleColumns[1][i], doubleColumns[2][i], floatColumns[0][i],
+                    deviceId, toLocalDateTime(timestamps[i])));
+        }
+        return samples;
+    }
+
+    public byte[] encode() {
+        byte[] id = deviceId.getBytes(StandardCharsets.UTF_8);
+        int n = timestamps.length;
+        ByteBuffer buffer = ByteBuffer.allocate(2 + 2 + id.length + 8 + 4 + n * 10
+                + n * (doubleColumns.length * Double.BYTES + floatColumns.length * Float.BYTES));
+        buffer.put(VERSION).put(sensorType).putShort((short) id.length).put(id);
+        long base = n == 0 ? 0 : timestamps[0];
+        buffer.putLong(base).putInt(n);
+        long previous = base;
+        for (long timestamp : timestamps) {
+            if (timestamp < previous) {
+                throw new IllegalArgumentException("Horodatages non chronologiques");
+            }
+            writeVarLong(buffer, timestamp - previous);
+            previous = timestamp;
+        }
+        for (double[] column : doubleColumns) {
+            buffer.asDoubleBuffer().put(column);
+            buffer.position(buffer.position() + n * Double.BYTES);
+        }
+        for (float[] column : floatColumns) {
+            buffer.asFloatBuffer().put(column);
+            buffer.position(buffer.position() + n * Float.BYTES);
+        }
+        byte[] frame = new byte[buffer.position()];
+        buffer.flip().get(frame);
+        return frame;
+    }
+
+    public static SensorFrame decode(ByteBuffer buffer) {
+        try {
+            buffer.order(ByteOrder.BIG_ENDIAN);
+            byte version = buffer.get();
+            if (version != VERSION) {
+                throw new IllegalArgumentException("Version de trame non supportée : " + version);
+            }
+            byte sensorType = buffer.get();
+            int doubleCount = doubleColumnsOf(sensorType);
+            int floatCount = floatColumnsOf(sensorType);
+            byte[] id = new byte[Short.toUnsignedInt(buffer.getShort())];
+            buffer.get(id);
+            if (id.length == 0) {
+                throw new IllegalArgumentException("deviceId manquant");
+            }
+            long time = buffer.getLong();
+            int n = buffer.getInt();
+            // Contrôle avant allocation : chaque échantillon occupe au moins un octet de delta plus ses colonnes
+            long minBytes = (long) n * (1 + doubleCount * Double.BYTES + floatCount * Float.BYTES);
+            if (n < 0 || minBytes > buffer.remaining()) {
+                throw new IllegalArgumentException("Trame tronquée");
+            }
+            long[] timestamps = new long[n];
+            for (int i = 0; i < n; i++) {
+                time += readVarLong(buffer);
+                timestamps[i] = time;
+            }
+            double[][] doubleColumns = new double[doubleCount][n];
+            for (double[] column : doubleColumns) {
+                buffer.asDoubleBuffer().get(column);
+                buffer.position(buffer.position() + n * Double.BYTES);
+            }
+            float[][] floatColumns = new float[floatCount][n];
+            for (float[] column : floatColumns) {
+                buffer.asFloatBuffer().get(column);
+                buffer.position(buffer.position() + n * Float.BYTES);
+            }
+            if (buffer.hasRemaining()) {
+                throw new IllegalArgumentException("Octets inattendus en fin de trame");
+            }
+            return new SensorFrame(sensorType, new String(id, StandardCharsets.UTF_8), timestamps,
+                    doubleColumns, floatColumns);
+        } catch (BufferUnderflowException e) {
+            throw new IllegalArgumentException("Trame tronquée", e);
+        }
+    }
+
+    private void requireType(byte expected) {
+        if (sensorType != expected) {
+            throw new IllegalArgumentException("Trame de capteur " + sensorType + ", attendu " + expected);
+        }
+    }
+
+    private static int doubleColumnsOf(byte sensorType) {
+        return switch (sensorType) {
+            case ACCELEROMETER, GYROSCOPE -> 0;
+            case GPS -> 3;
+            default -> throw new IllegalArgumentException("Capteur inconnu : " + sensorType);
+        };
+    }
+
+    private static int floatColumnsOf(byte sensorType) {
+        return switch (sensorType) {
+            case ACCELEROMETER, GYROSCOPE -> 3;
+            case GPS -> 1;
+            default -> throw new IllegalArgumentException("Capteur inconnu : " + sensorType);
+        };
+    }
+
+    private static LocalDateTime toLocalDateTime(long epochMillis) {
+        return LocalDateTime.ofInstant(Instant.ofEpochMilli(epochMillis), ZoneId.systemDefault());
+    }
+
+    private static long readVarLong(ByteBuffer buffer) {
+        long value = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            byte b = buffer.get();
+            value |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IllegalArgumentException("Delta d'horodatage invalide");
+    }
+
+    private static void writeVarLong(ByteBuffer buffer, long value) {
+        while ((value & ~0x7FL) != 0) {
+            buffer.put((byte) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        buffer.put((byte) value);
+    }
+}
@@ -0,0 +1,25 @@
+package com.example.backend.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.time.LocalDateTime;
+
+// Vue fusionnée d'un appareil : trames alignées à start + k * periodMicros, une colonne par axe.
+// null dans une colonne : valeur inconnue (pas de mesure assez proche) ; capteur absent : aucune mesure.
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record SensorFusionDTO(String deviceId,
+                              LocalDateTime start,
+                              double rateHz,
+                              long periodMicros,
+                              int frameCount,
+                              Axes accelerometer,
+                              Axes gyroscope,
+                              Positions gps) {
+
+    // samples : mesures lues pour ce capteur
+    public record Axes(int samples, Float[] x, Float[] y, Float[] z) {
+    }
+
+    public record Positions(int samples, Double[] latitude, Double[] longitude, Double[] altitude, Float[] speed) {
+    }
+}
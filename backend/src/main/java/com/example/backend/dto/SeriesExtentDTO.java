@@ -0,0 +1,21 @@
+package com.example.backend.dto;
+
+import java.time.LocalDateTime;
+
+// Étendue d'une série sur une plage : nombre d'échantillons, premier et dernier horodatage (null si vide)
+public record SeriesExtentDTO(long count, LocalDateTime first, LocalDateTime last) {
+
+    public static final SeriesExtentDTO EMPTY = new SeriesExtentDTO(0, null, null);
+
+    public SeriesExtentDTO merge(SeriesExtentDTO other) {
+        if (other.count == 0) {
+            return this;
+        }
+        if (count == 0) {
+            return other;
+        }
+        return new SeriesExtentDTO(count + other.count,
+                first.isBefore(other.first) ? first : other.first,
+                last.isAfter(other.last) ? last : other.last);
+    }
+}
@@ -5,16 +5,23 @@ import jakarta.persistence.*;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "accelerometer_data")
+@Table(name = "accelerometer_data", indexes = {
+        @Index(name = "idx_accelerometer_device_timestamp", columnList = "device_key, timestamp, id"),
+        @Index(name = "idx_accelerometer_timestamp", columnList = "timestamp")
+})
 public class AccelerometerData {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "accelerometer_data_seq")
+    @SequenceGenerator(name = "accelerometer_data_seq", sequenceName = "accelerometer_data_seq", allocationSize = 50)
     private Long id;
 
     private float x;
     private float y;
     private float z;
+    // Clé entière du registre des appareils en base, identifiant d'origine en Java et en JSON
+    @Convert(converter = DeviceKeyConverter.class)
+    @Column(name = "device_key")
     private String deviceId;
     private LocalDateTime timestamp;
 
@@ -0,0 +1,159 @@
+package com.example.backend.entity;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "alert", indexes = {
+        @Index(name = "idx_alert_device_timestamp", columnList = "deviceId, timestamp"),
+        @Index(name = "idx_alert_timestamp", columnList = "timestamp")
+})
+public class Alert {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "alert_seq")
+    @SequenceGenerator(name = "alert_seq", sequenceName = "alert_seq", allocationSize = 50)
+    private Long id;
+
+    private String deviceId;
+    @Enumerated(EnumType.STRING)
+    @Column(length = 32)
+    private AlertType type;
+    @Enumerated(EnumType.STRING)
+    @Column(length = 16)
+    private AlertSeverity severity;
+    @Enumerated(EnumType.STRING)
+    @Column(length = 16)
+    private AlertStatus status = AlertStatus.NEW;
+    private String description;
+    private LocalDateTime timestamp;
+    // Valeur mesurée et seuil de la règle : m/s² (accélération, choc) ou rad/s (lacet)
+    private double measuredValue;
+    private double threshold;
+    // Dernière position connue de l'appareil au moment de l'événement, si elle est récente
+    private Double latitude;
+    private Double longitude;
+    private Float speed;
+    @Column(length = 1000)
+    private String notes;
+
+    // Constructeurs
+    public Alert() {
+    }
+
+    public Alert(String deviceId, AlertType type, AlertSeverity severity, LocalDateTime timestamp,
+                 double measuredValue, double threshold) {
+        this.deviceId = deviceId;
+        this.type = type;
+        this.severity = severity;
+        this.description = type.getDescription();
+        this.timestamp = timestamp;
+        this.measuredValue = measuredValue;
+        this.threshold = threshold;
+    }
+
+    // Getters et Setters
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public String getDeviceId() {
+        return deviceId;
+    }
+
+    public void setDeviceId(String deviceId) {
+        this.deviceId = deviceId;
+    }
+
+    public AlertType getType() {
+        return type;
+    }
+
+    public void setType(AlertType type) {
+        this.type = type;
+    }
+
+    public AlertSeverity getSeverity() {
+        return severity;
+    }
+
+    public void setSeverity(AlertSeverity severity) {
+        this.severity = severity;
+    }
+
+    public AlertStatus getStatus() {
+        return status;
+    }
+
+    public void setStatus(AlertStatus status) {
+        this.status = status;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+
+    public void setDescription(String description) {
+        this.description = description;
+    }
+
+    public LocalDateTime getTimestamp() {
+        return timestamp;
+    }
+
+    public void setTimestamp(LocalDateTime timestamp) {
+        this.timestamp = timestamp;
+    }
+
+    public double getMeasuredValue() {
+        return measuredValue;
+    }
+
+    public void setMeasuredValue(double measuredValue) {
+        this.measuredValue = measuredValue;
+    }
+
+    public double getThreshold() {
+        return threshold;
+    }
+
+    public void setThreshold(double threshold) {
+        this.threshold = threshold;
+    }
+
+    public Double getLatitude() {
+        return latitude;
+    }
+
+    public void setLatitude(Double latitude) {
+        this.latitude = latitude;
+    }
+
+    public Double getLongitude() {
+        return longitude;
+    }
+
+    public void setLongitude(Double longitude) {
+        this.longitude = longitude;
+    }
+
+    public Float getSpeed() {
+        return speed;
+    }
+
+    public void setSpeed(Float speed) {
+        this.speed = speed;
+    }
+
+    public String getNotes() {
+        return notes;
+    }
+
+    public void setNotes(String notes) {
+        this.notes = notes;
+    }
+}
@@ -0,0 +1,8 @@
+package com.example.backend.entity;
+
+// Cycle de vie d'une alerte côté opérateur
+public enum AlertStatus {
+    NEW,
+    ACKNOWLEDGED,
+    RESOLVED
+}
@@ -0,0 +1,19 @@
+package com.example.backend.entity;
+
+// Événements de conduite détectés sur les flux accéléromètre et gyroscope
+public enum AlertType {
+    HARSH_BRAKING("Freinage brusque détecté"),
+    EXCESSIVE_ACCELERATION("Accélération excessive détectée"),
+    DANGEROUS_TURN("Virage dangereux détecté"),
+    CRASH("Choc violent détecté (collision possible)");
+
+    private final String description;
+
+    AlertType(String description) {
+        this.description = description;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+}
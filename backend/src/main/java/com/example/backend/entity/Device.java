@@ -0,0 +1,45 @@
+package com.example.backend.entity;
+
+import jakarta.persistence.*;
+
+// Registre des appareils : les tables de capteurs ne stockent que la clé entière (device_key)
+@Entity
+@Table(name = "device", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_device_device_id", columnNames = {"deviceId"})
+})
+public class Device {
+
+    // Clés denses (une valeur de séquence par appareil) : les enregistrements sont rares
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "device_seq")
+    @SequenceGenerator(name = "device_seq", sequenceName = "device_seq", allocationSize = 1)
+    private Integer id;
+
+    @Column(nullable = false)
+    private String deviceId;
+
+    // Constructeurs
+    public Device() {
+    }
+
+    public Device(String deviceId) {
+        this.deviceId = deviceId;
+    }
+
+    // Getters et Setters
+    public Integer getId() {
+        return id;
+    }
+
+    public void setId(Integer id) {
+        this.id = id;
+    }
+
+    public String getDeviceId() {
+        return deviceId;
+    }
+
+    public void setDeviceId(String deviceId) {
+        this.deviceId = deviceId;
+    }
+}
@@ -0,0 +1,29 @@
+package com.example.backend.entity;
+
+import com.example.backend.service.DeviceRegistry;
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+import org.springframework.beans.factory.ObjectProvider;
+
+// deviceId des entités de capteurs <-> clé du registre en base. Instancié par Hibernate via le conteneur
+// Spring ; le registre n'est résolu qu'à la première conversion, une fois le contexte démarré.
+@Converter
+public class DeviceKeyConverter implements AttributeConverter<String, Integer> {
+
+    private final ObjectProvider<DeviceRegistry> deviceRegistry;
+
+    public DeviceKeyConverter(ObjectProvider<DeviceRegistry> deviceRegistry) {
+        this.deviceRegistry = deviceRegistry;
+    }
+
+    // Appareil jamais enregistré : clé qu'aucune ligne ne porte (l'ingestion enregistre avant d'écrire)
+    @Override
+    public Integer convertToDatabaseColumn(String deviceId) {
+        return deviceId == null ? null : deviceRegistry.getObject().keyOf(deviceId);
+    }
+
+    @Override
+    public String convertToEntityAttribute(Integer key) {
+        return key == null ? null : deviceRegistry.getObject().deviceIdOf(key);
+    }
+}
@@ -4,19 +4,30 @@ import jakarta.persistence.*;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "gps_data")
+@Table(name = "gps_data", indexes = {
+        @Index(name = "idx_gps_device_timestamp", columnList = "device_key, timestamp, id"),
+        @Index(name = "idx_gps_timestamp", columnList = "timestamp"),
+        @Index(name = "idx_gps_geohash_timestamp", columnList = "geohash, timestamp")
+})
 public class GPSData {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "gps_data_seq")
+    @SequenceGenerator(name = "gps_data_seq", sequenceName = "gps_data_seq", allocationSize = 50)
     private Long id;
 
     private double latitude;
     private double longitude;
     private double altitude;
     private float speed;
+    // Clé entière du registre des appareils en base, identifiant d'origine en Java et en JSON
+    @Convert(converter = DeviceKeyConverter.class)
+    @Column(name = "device_key")
     private String deviceId;
     private LocalDateTime timestamp;
+    // Calculé à l'ingestion, pour les recherches par zone sur l'historique
+    @Column(length = 12)
+    private String geohash;
 
     // Constructeurs
     public GPSData() {
@@ -87,4 +98,12 @@ public class GPSData {
     public void setTimestamp(LocalDateTime timestamp) {
         this.timestamp = timestamp;
     }
-}
\ No newline at end of file
+
+    public String getGeohash() {
+        return geohash;
+    }
+
+    public void setGeohash(String geohash) {
+        this.geohash = geohash;
+    }
+}
@@ -4,16 +4,23 @@ import jakarta.persistence.*;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "gyroscope_data")
+@Table(name = "gyroscope_data", indexes = {
+        @Index(name = "idx_gyroscope_device_timestamp", columnList = "device_key, timestamp, id"),
+        @Index(name = "idx_gyroscope_timestamp", columnList = "timestamp")
+})
 public class GyroscopeData {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "gyroscope_data_seq")
+    @SequenceGenerator(name = "gyroscope_data_seq", sequenceName = "gyroscope_data_seq", allocationSize = 50)
     private Long id;
 
     private float rotationX;
     private float rotationY;
     private float rotationZ;
+    // Clé entière du registre des appareils en base, identifiant d'origine en Java et en JSON
+    @Convert(converter = DeviceKeyConverter.class)
+    @Column(name = "device_key")
     private String deviceId;
     private LocalDateTime timestamp;
 
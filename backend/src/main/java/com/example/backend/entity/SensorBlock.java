@@ -0,0 +1,106 @@
+package com.example.backend.entity;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+// Stockage froid : échantillons d'un appareil et d'un capteur inertiel sur une heure,
+// compressés en colonnes (horodatages, identifiants, x/y/z) dans payload
+@Entity
+@Table(name = "sensor_block", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_sensor_block_device_start", columnNames = {"sensorType", "deviceId", "blockStart"})
+}, indexes = {
+        @Index(name = "idx_sensor_block_type_start", columnList = "sensorType, blockStart")
+})
+public class SensorBlock {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "sensor_block_seq")
+    @SequenceGenerator(name = "sensor_block_seq", sequenceName = "sensor_block_seq", allocationSize = 50)
+    private Long id;
+
+    @Column(length = 32, nullable = false)
+    private String sensorType;
+    private String deviceId;
+    // Début de l'heure couverte ; bornes réelles des échantillons dans firstTimestamp / lastTimestamp
+    private LocalDateTime blockStart;
+    private LocalDateTime firstTimestamp;
+    private LocalDateTime lastTimestamp;
+    private int sampleCount;
+    @Column(nullable = false)
+    private byte[] payload;
+
+    // Constructeurs
+    public SensorBlock() {
+    }
+
+    public SensorBlock(String sensorType, String deviceId, LocalDateTime blockStart) {
+        this.sensorType = sensorType;
+        this.deviceId = deviceId;
+        this.blockStart = blockStart;
+    }
+
+    // Getters et Setters
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public String getSensorType() {
+        return sensorType;
+    }
+
+    public void setSensorType(String sensorType) {
+        this.sensorType = sensorType;
+    }
+
+    public String getDeviceId() {
+        return deviceId;
+    }
+
+    public void setDeviceId(String deviceId) {
+        this.deviceId = deviceId;
+    }
+
+    public LocalDateTime getBlockStart() {
+        return blockStart;
+    }
+
+    public void setBlockStart(LocalDateTime blockStart) {
+        this.blockStart = blockStart;
+    }
+
+    public LocalDateTime getFirstTimestamp() {
+        return firstTimestamp;
+    }
+
+    public void setFirstTimestamp(LocalDateTime firstTimestamp) {
+        this.firstTimestamp = firstTimestamp;
+    }
+
+    public LocalDateTime getLastTimestamp() {
+        return lastTimestamp;
+    }
+
+    public void setLastTimestamp(LocalDateTime lastTimestamp) {
+        this.lastTimestamp = lastTimestamp;
+    }
+
+    public int getSampleCount() {
+        return sampleCount;
+    }
+
+    public void setSampleCount(int sampleCount) {
+        this.sampleCount = sampleCount;
+    }
+
+    public byte[] getPayload() {
+        return payload;
+    }
+
+    public void setPayload(byte[] payload) {
+        this.payload = payload;
+    }
+}
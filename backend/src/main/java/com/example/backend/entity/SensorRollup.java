@@ -0,0 +1,193 @@
+package com.example.backend.entity;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+// Agrégat d'un seau de temps pour un appareil et un capteur ; les sommes permettent
+// de fusionner les seaux de façon incrémentale (moyenne = sum / count, RMS = sqrt(sumSquares / count))
+@Entity
+@Table(name = "sensor_rollup", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_sensor_rollup_bucket",
+                columnNames = {"sensorType", "deviceId", "granularitySeconds", "bucketStart"})
+})
+public class SensorRollup {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "sensor_rollup_seq")
+    @SequenceGenerator(name = "sensor_rollup_seq", sequenceName = "sensor_rollup_seq", allocationSize = 50)
+    private Long id;
+
+    private String sensorType;
+    private String deviceId;
+    private int granularitySeconds;
+    private LocalDateTime bucketStart;
+    private long sampleCount;
+    private double minX;
+    private double minY;
+    private double minZ;
+    private double maxX;
+    private double maxY;
+    private double maxZ;
+    private double sumX;
+    private double sumY;
+    private double sumZ;
+    private double sumSquaresX;
+    private double sumSquaresY;
+    private double sumSquaresZ;
+
+    // Constructeurs
+    public SensorRollup() {
+    }
+
+    public SensorRollup(String sensorType, String deviceId, int granularitySeconds, LocalDateTime bucketStart) {
+        this.sensorType = sensorType;
+        this.deviceId = deviceId;
+        this.granularitySeconds = granularitySeconds;
+        this.bucketStart = bucketStart;
+    }
+
+    // Getters et Setters
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public String getSensorType() {
+        return sensorType;
+    }
+
+    public void setSensorType(String sensorType) {
+        this.sensorType = sensorType;
+    }
+
+    public String getDeviceId() {
+        return deviceId;
+    }
+
+    public void setDeviceId(String deviceId) {
+        this.deviceId = deviceId;
+    }
+
+    public int getGranularitySeconds() {
+        return granularitySeconds;
+    }
+
+    public void setGranularitySeconds(int granularitySeconds) {
+        this.granularitySeconds = granularitySeconds;
+    }
+
+    public LocalDateTime getBucketStart() {
+        return bucketStart;
+    }
+
+    public void setBucketStart(LocalDateTime bucketStart) {
+        this.bucketStart = bucketStart;
+    }
+
+    public long getSampleCount() {
+        return sampleCount;
+    }
+
+    public void setSampleCount(long sampleCount) {
+        this.sampleCount = sampleCount;
+    }
+
+    public double getMinX() {
+        return minX;
+    }
+
+    public void setMinX(double minX) {
+        this.minX = minX;
+    }
+
+    public double getMinY() {
+        return minY;
+    }
+
+    public void setMinY(double minY) {
+        this.minY = minY;
+    }
+
+    public double getMinZ() {
+        return minZ;
+    }
+
+    public void setMinZ(double minZ) {
+        this.minZ = minZ;
+    }
+
+    public double getMaxX() {
+        return maxX;
+    }
+
+    public void setMaxX(double maxX) {
+        this.maxX = maxX;
+    }
+
+    public double getMaxY() {
+        return maxY;
+    }
+
+    public void setMaxY(double maxY) {
+        this.maxY = maxY;
+    }
+
+    public double getMaxZ() {
+        return maxZ;
+    }
+
+    public void setMaxZ(double maxZ) {
+        this.maxZ = maxZ;
+    }
+
+    public double getSumX() {
+        return sumX;
+    }
+
+    public void setSumX(double sumX) {
+        this.sumX = sumX;
+    }
+
+    public double getSumY() {
+        return sumY;
+    }
+
+    public void setSumY(double sumY) {
+        this.sumY = sumY;
+    }
+
+    public double getSumZ() {
+        return sumZ;
+    }
+
+    public void setSumZ(double sumZ) {
+        this.sumZ = sumZ;
+    }
+
+    public double getSumSquaresX() {
+        return sumSquaresX;
+    }
+
+    public void setSumSquaresX(double sumSquaresX) {
+        this.sumSquaresX = sumSquaresX;
+    }
+
+    public double getSumSquaresY() {
+        return sumSquaresY;
+    }
+
+    public void setSumSquaresY(double sumSquaresY) {
+        this.sumSquaresY = sumSquaresY;
+    }
+
+    public double getSumSquaresZ() {
+        return sumSquaresZ;
+    }
+
+    public void setSumSquaresZ(double sumSquaresZ) {
+        this.sumSquaresZ = sumSquaresZ;
+    }
+}
\ No newline at end of file
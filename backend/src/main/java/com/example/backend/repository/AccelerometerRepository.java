@@ -1,18 +1,96 @@
 package com.example.backend.repository;
 
+import com.example.backend.dto.AccelerometerPointDTO;
+import com.example.backend.dto.SeriesExtentDTO;
 import com.example.backend.entity.AccelerometerData;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.stream.Stream;
 
 @Repository
 public interface AccelerometerRepository extends JpaRepository<AccelerometerData, Long> {
-    List<AccelerometerData> findByDeviceId(String deviceId);
-    List<AccelerometerData> findByTimestampAfter(LocalDateTime timestamp);
+    List<AccelerometerData> findByDeviceIdOrderByTimestampDescIdDesc(String deviceId, Pageable pageable);
 
-    @Query("SELECT DISTINCT a.deviceId FROM AccelerometerData a")
-    List<String> findDistinctDeviceIds();
-}
\ No newline at end of file
+    // Variante bornée : sur les tables partitionnées, seules les partitions récentes sont parcourues
+    @Query("SELECT a FROM AccelerometerData a WHERE a.deviceId = :deviceId AND a.timestamp >= :since " +
+            "ORDER BY a.timestamp DESC, a.id DESC")
+    List<AccelerometerData> findLatestByDeviceId(@Param("deviceId") String deviceId,
+                                                 @Param("since") LocalDateTime since,
+                                                 Pageable pageable);
+
+    // Projection pour le tableau de bord : seules les colonnes affichées, aucune entité hydratée
+    @Query("SELECT new com.example.backend.dto.AccelerometerPointDTO(" +
+            "a.deviceId, a.timestamp, a.x, a.y, a.z) " +
+            "FROM AccelerometerData a WHERE a.timestamp > :from ORDER BY a.timestamp ASC")
+    List<AccelerometerPointDTO> findPointsAfter(@Param("from") LocalDateTime from);
+
+    // Pagination par clé (timestamp, id) : la page suivante reprend après le dernier élément reçu
+    @Query("SELECT a FROM AccelerometerData a WHERE a.deviceId = :deviceId " +
+            "AND a.timestamp >= :afterTimestamp AND a.timestamp < :to " +
+            "AND (a.timestamp > :afterTimestamp OR a.id > :afterId) " +
+            "ORDER BY a.timestamp ASC, a.id ASC")
+    List<AccelerometerData> findPageByDeviceId(@Param("deviceId") String deviceId,
+                                               @Param("afterTimestamp") LocalDateTime afterTimestamp,
+                                               @Param("afterId") long afterId,
+                                               @Param("to") LocalDateTime to,
+                                               Pageable pageable);
+
+    @Query("SELECT a FROM AccelerometerData a WHERE a.timestamp >= :afterTimestamp AND a.timestamp < :to " +
+            "AND (a.timestamp > :afterTimestamp OR a.id > :afterId) " +
+            "ORDER BY a.timestamp ASC, a.id ASC")
+    List<AccelerometerData> findPage(@Param("afterTimestamp") LocalDateTime afterTimestamp,
+                                     @Param("afterId") long afterId,
+                                     @Param("to") LocalDateTime to,
+                                     Pageable pageable);
+
+    @Query("SELECT COUNT(a) FROM AccelerometerData a WHERE a.deviceId = :deviceId " +
+            "AND a.timestamp >= :from AND a.timestamp < :to")
+    long countByDeviceIdInRange(@Param("deviceId") String deviceId,
+                                @Param("from") LocalDateTime from,
+                                @Param("to") LocalDateTime to);
+
+    // Nombre d'échantillons et bornes temporelles réelles, pour caler les seaux du sous-échantillonnage
+    @Query("SELECT new com.example.backend.dto.SeriesExtentDTO(COUNT(a), MIN(a.timestamp), MAX(a.timestamp)) " +
+            "FROM AccelerometerData a WHERE a.deviceId = :deviceId AND a.timestamp >= :from AND a.timestamp < :to")
+    SeriesExtentDTO findExtentByDeviceIdInRange(@Param("deviceId") String deviceId,
+                                                @Param("from") LocalDateTime from,
+                                                @Param("to") LocalDateTime to);
+
+    // Archivage vers le stockage froid : plus ancien échantillon avant la limite, appareils d'une plage
+    @Query("SELECT MIN(a.timestamp) FROM AccelerometerData a WHERE a.timestamp < :before")
+    LocalDateTime findOldestBefore(@Param("before") LocalDateTime before);
+
+    @Query("SELECT DISTINCT a.deviceId FROM AccelerometerData a WHERE a.timestamp >= :from AND a.timestamp < :to")
+    List<String> findDeviceIdsInRange(@Param("from") LocalDateTime from,
+                                      @Param("to") LocalDateTime to);
+
+    // Bornée à l'heure archivée : seule la partition concernée est parcourue
+    @Modifying
+    @Query("DELETE FROM AccelerometerData a WHERE a.timestamp >= :from AND a.timestamp < :to AND a.id IN :ids")
+    int deleteArchived(@Param("from") LocalDateTime from,
+                       @Param("to") LocalDateTime to,
+                       @Param("ids") Collection<Long> ids);
+
+    // Lecture en flux pour l'export : à consommer dans une transaction en lecture seule
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT a FROM AccelerometerData a WHERE a.deviceId = :deviceId " +
+            "AND a.timestamp >= :from AND a.timestamp < :to " +
+            "ORDER BY a.timestamp ASC, a.id ASC")
+    Stream<AccelerometerData> streamByDeviceId(@Param("deviceId") String deviceId,
+                                               @Param("from") LocalDateTime from,
+                                               @Param("to") LocalDateTime to);
+}
@@ -0,0 +1,40 @@
+package com.example.backend.repository;
+
+import com.example.backend.entity.Alert;
+import com.example.backend.entity.AlertSeverity;
+import com.example.backend.entity.AlertStatus;
+import com.example.backend.entity.AlertType;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface AlertRepository extends JpaRepository<Alert, Long> {
+
+    // Filtres optionnels (null : pas de filtre) sur la période [from, to)
+    @Query("SELECT a FROM Alert a WHERE (:deviceId IS NULL OR a.deviceId = :deviceId) " +
+            "AND (:type IS NULL OR a.type = :type) AND (:severity IS NULL OR a.severity = :severity) " +
+            "AND (:status IS NULL OR a.status = :status) AND a.timestamp >= :from AND a.timestamp < :to")
+    Page<Alert> search(@Param("deviceId") String deviceId,
+                       @Param("type") AlertType type,
+                       @Param("severity") AlertSeverity severity,
+                       @Param("status") AlertStatus status,
+                       @Param("from") LocalDateTime from,
+                       @Param("to") LocalDateTime to,
+                       Pageable pageable);
+
+    @Query("SELECT a.severity, COUNT(a) FROM Alert a GROUP BY a.severity")
+    List<Object[]> countBySeverity();
+
+    @Query("SELECT a.status, COUNT(a) FROM Alert a GROUP BY a.status")
+    List<Object[]> countByStatus();
+
+    @Query("SELECT a.type, COUNT(a) FROM Alert a GROUP BY a.type")
+    List<Object[]> countByType();
+}
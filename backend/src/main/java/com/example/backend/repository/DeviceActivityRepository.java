@@ -0,0 +1,102 @@
+package com.example.backend.repository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.query.NativeQuery;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+// Fil d'activité calculé en base : les n dernières mesures par appareil et par capteur,
+// sur les trois tables, seules les lignes retenues remontent (jointes au registre des appareils).
+// PostgreSQL : pour chaque appareil, trois lectures LIMIT n servies par les index (device_key, timestamp).
+// Les autres bases (H2 embarquée) n'ont pas LATERAL : classement par fenêtre sur les lignes de la période.
+@Repository
+public class DeviceActivityRepository {
+
+    private static final String LATEST_ACTIVITIES_LATERAL_SQL =
+            "SELECT d.device_id, latest.sensor_type, latest.ts, latest.a, latest.b, latest.c" +
+            " FROM device d CROSS JOIN LATERAL (" +
+            "  (SELECT 'GPS' AS sensor_type, timestamp AS ts, latitude AS a, longitude AS b, speed AS c" +
+            "   FROM gps_data WHERE device_key = d.id AND timestamp > :from" +
+            "   ORDER BY timestamp DESC LIMIT :perDevice)" +
+            "  UNION ALL" +
+            "  (SELECT 'ACCELEROMETER', timestamp, x, y, z" +
+            "   FROM accelerometer_data WHERE device_key = d.id AND timestamp > :from" +
+            "   ORDER BY timestamp DESC LIMIT :perDevice)" +
+            "  UNION ALL" +
+            "  (SELECT 'GYROSCOPE', timestamp, rotationx, rotationy, rotationz" +
+            "   FROM gyroscope_data WHERE device_key = d.id AND timestamp > :from" +
+            "   ORDER BY timestamp DESC LIMIT :perDevice)" +
+            " ) latest ORDER BY latest.ts DESC";
+
+    private static final String LATEST_ACTIVITIES_WINDOW_SQL =
+            "SELECT d.device_id, ranked.sensor_type, ranked.ts, ranked.a, ranked.b, ranked.c FROM (" +
+            " SELECT device_key, sensor_type, ts, a, b, c," +
+            "  ROW_NUMBER() OVER (PARTITION BY device_key, sensor_type ORDER BY ts DESC) AS rn" +
+            " FROM (" +
+            "  SELECT device_key, 'GPS' AS sensor_type, timestamp AS ts, latitude AS a, longitude AS b, speed AS c" +
+            "  FROM gps_data WHERE timestamp > :from" +
+            "  UNION ALL" +
+            "  SELECT device_key, 'ACCELEROMETER', timestamp, x, y, z" +
+            "  FROM accelerometer_data WHERE timestamp > :from" +
+            "  UNION ALL" +
+            "  SELECT device_key, 'GYROSCOPE', timestamp, rotationx, rotationy, rotationz" +
+            "  FROM gyroscope_data WHERE timestamp > :from" +
+            " ) recent" +
+            ") ranked LEFT JOIN device d ON d.id = ranked.device_key" +
+            " WHERE ranked.rn <= :perDevice ORDER BY ranked.ts DESC";
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private final QueryTimer queryTimer;
+    private final JdbcTemplate jdbcTemplate;
+    // Requête retenue selon la base, déterminée à la première lecture
+    private volatile String latestActivitiesSql;
+
+    public DeviceActivityRepository(QueryTimer queryTimer, JdbcTemplate jdbcTemplate) {
+        this.queryTimer = queryTimer;
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Transactional(readOnly = true)
+    public List<ActivitySample> findLatest(LocalDateTime from, int perDevice, int limit) {
+        List<Object[]> rows = queryTimer.record("DeviceActivityRepository", "findLatest", () -> entityManager.createNativeQuery(latestActivitiesSql())
+                .unwrap(NativeQuery.class)
+                .addScalar("device_id", String.class)
+                .addScalar("sensor_type", String.class)
+                .addScalar("ts", LocalDateTime.class)
+                .addScalar("a", Double.class)
+                .addScalar("b", Double.class)
+                .addScalar("c", Double.class)
+                .setParameter("from", from)
+                .setParameter("perDevice", perDevice)
+                .setMaxResults(limit)
+                .getResultList());
+        return rows.stream()
+                .map(row -> new ActivitySample((String) row[0], (String) row[1], (LocalDateTime) row[2],
+                        (Double) row[3], (Double) row[4], (Double) row[5]))
+                .toList();
+    }
+
+    private String latestActivitiesSql() {
+        String sql = latestActivitiesSql;
+        if (sql == null) {
+            String product = jdbcTemplate.execute(
+                    (ConnectionCallback<String>) connection -> connection.getMetaData().getDatabaseProductName());
+            sql = "PostgreSQL".equals(product) ? LATEST_ACTIVITIES_LATERAL_SQL : LATEST_ACTIVITIES_WINDOW_SQL;
+            latestActivitiesSql = sql;
+        }
+        return sql;
+    }
+
+    // a, b, c : latitude, longitude, vitesse (GPS) ou composantes x, y, z (accéléromètre, gyroscope)
+    public record ActivitySample(String deviceId, String sensorType, LocalDateTime timestamp,
+                                 double a, double b, double c) {
+    }
+}
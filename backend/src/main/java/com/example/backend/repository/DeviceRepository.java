@@ -0,0 +1,15 @@
+package com.example.backend.repository;
+
+import com.example.backend.entity.Device;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface DeviceRepository extends JpaRepository<Device, Integer> {
+
+    @Query("SELECT d.deviceId FROM Device d ORDER BY d.deviceId")
+    List<String> findAllDeviceIds();
+}
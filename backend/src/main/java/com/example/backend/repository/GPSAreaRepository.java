@@ -0,0 +1,62 @@
+package com.example.backend.repository;
+
+import com.example.backend.dto.AreaVisitDTO;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.TypedQuery;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+// Appareils passés dans une zone sur une période. Les préfixes geohash couvrant la zone deviennent
+// des intervalles sur l'index (geohash, timestamp) ; le filtre exact sur latitude/longitude vient ensuite.
+// La colonne geohash est en collation "C" sous PostgreSQL : préfixe <= geohash < préfixe + '{' est exact.
+@Repository
+public class GPSAreaRepository {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private final QueryTimer queryTimer;
+
+    public GPSAreaRepository(QueryTimer queryTimer) {
+        this.queryTimer = queryTimer;
+    }
+
+    @Transactional(readOnly = true)
+    public List<AreaVisitDTO> findVisits(List<String> geohashPrefixes,
+                                         double minLatitude, double minLongitude,
+                                         double maxLatitude, double maxLongitude,
+                                         LocalDateTime from, LocalDateTime to, int limit) {
+        StringBuilder jpql = new StringBuilder("SELECT new com.example.backend.dto.AreaVisitDTO(" +
+                "g.deviceId, MIN(g.timestamp), MAX(g.timestamp), COUNT(g)) FROM GPSData g " +
+                "WHERE g.timestamp >= :from AND g.timestamp < :to " +
+                "AND g.latitude BETWEEN :minLatitude AND :maxLatitude " +
+                "AND g.longitude BETWEEN :minLongitude AND :maxLongitude");
+        if (!geohashPrefixes.isEmpty()) {
+            jpql.append(" AND (");
+            for (int i = 0; i < geohashPrefixes.size(); i++) {
+                jpql.append(i == 0 ? "" : " OR ")
+                        .append("(g.geohash >= :low").append(i).append(" AND g.geohash < :high").append(i).append(')');
+            }
+            jpql.append(')');
+        }
+        jpql.append(" GROUP BY g.deviceId ORDER BY MIN(g.timestamp) ASC");
+
+        TypedQuery<AreaVisitDTO> query = entityManager.createQuery(jpql.toString(), AreaVisitDTO.class)
+                .setParameter("from", from)
+                .setParameter("to", to)
+                .setParameter("minLatitude", minLatitude)
+                .setParameter("maxLatitude", maxLatitude)
+                .setParameter("minLongitude", minLongitude)
+                .setParameter("maxLongitude", maxLongitude)
+                .setMaxResults(limit);
+        for (int i = 0; i < geohashPrefixes.size(); i++) {
+            query.setParameter("low" + i, geohashPrefixes.get(i));
+            query.setParameter("high" + i, geohashPrefixes.get(i) + "{");
+        }
+        return queryTimer.record("GPSAreaRepository", "findVisits", query::getResultList);
+    }
+}
@@ -1,18 +1,79 @@
 package com.example.backend.repository;
 
+import com.example.backend.dto.GPSPointDTO;
 import com.example.backend.entity.GPSData;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.stream.Stream;
 
 @Repository
 public interface GPSRepository extends JpaRepository<GPSData, Long> {
-    List<GPSData> findByDeviceId(String deviceId);
-    List<GPSData> findByTimestampAfter(LocalDateTime timestamp);
+    List<GPSData> findByDeviceIdOrderByTimestampDescIdDesc(String deviceId, Pageable pageable);
 
-    @Query("SELECT DISTINCT g.deviceId FROM GPSData g")
-    List<String> findDistinctDeviceIds();
-}
\ No newline at end of file
+    // Variante bornée : sur les tables partitionnées, seules les partitions récentes sont parcourues
+    @Query("SELECT g FROM GPSData g WHERE g.deviceId = :deviceId AND g.timestamp >= :since " +
+            "ORDER BY g.timestamp DESC, g.id DESC")
+    List<GPSData> findLatestByDeviceId(@Param("deviceId") String deviceId,
+                                       @Param("since") LocalDateTime since,
+                                       Pageable pageable);
+
+    // Projection pour le tableau de bord : seules les colonnes affichées, aucune entité hydratée
+    @Query("SELECT new com.example.backend.dto.GPSPointDTO(" +
+            "g.deviceId, g.timestamp, g.latitude, g.longitude, g.altitude, g.speed) " +
+            "FROM GPSData g WHERE g.timestamp > :from ORDER BY g.timestamp ASC")
+    List<GPSPointDTO> findPointsAfter(@Param("from") LocalDateTime from);
+
+    // Pagination par clé (timestamp, id) : la page suivante reprend après le dernier élément reçu
+    @Query("SELECT g FROM GPSData g WHERE g.deviceId = :deviceId " +
+            "AND g.timestamp >= :afterTimestamp AND g.timestamp < :to " +
+            "AND (g.timestamp > :afterTimestamp OR g.id > :afterId) " +
+            "ORDER BY g.timestamp ASC, g.id ASC")
+    List<GPSData> findPageByDeviceId(@Param("deviceId") String deviceId,
+                                     @Param("afterTimestamp") LocalDateTime afterTimestamp,
+                                     @Param("afterId") long afterId,
+                                     @Param("to") LocalDateTime to,
+                                     Pageable pageable);
+
+    @Query("SELECT g FROM GPSData g WHERE g.timestamp >= :afterTimestamp AND g.timestamp < :to " +
+            "AND (g.timestamp > :afterTimestamp OR g.id > :afterId) " +
+            "ORDER BY g.timestamp ASC, g.id ASC")
+    List<GPSData> findPage(@Param("afterTimestamp") LocalDateTime afterTimestamp,
+                           @Param("afterId") long afterId,
+                           @Param("to") LocalDateTime to,
+                           Pageable pageable);
+
+    // Lecture en flux pour l'export : à consommer dans une transaction en lecture seule
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT g FROM GPSData g WHERE g.deviceId = :deviceId " +
+            "AND g.timestamp >= :from AND g.timestamp < :to " +
+            "ORDER BY g.timestamp ASC, g.id ASC")
+    Stream<GPSData> streamByDeviceId(@Param("deviceId") String deviceId,
+                                     @Param("from") LocalDateTime from,
+                                     @Param("to") LocalDateTime to);
+
+    // Même lecture en projections, pour les tracés de plusieurs centaines de milliers de points
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT new com.example.backend.dto.GPSPointDTO(" +
+            "g.deviceId, g.timestamp, g.latitude, g.longitude, g.altitude, g.speed) " +
+            "FROM GPSData g WHERE g.deviceId = :deviceId " +
+            "AND g.timestamp >= :from AND g.timestamp < :to " +
+            "ORDER BY g.timestamp ASC, g.id ASC")
+    Stream<GPSPointDTO> streamPointsByDeviceId(@Param("deviceId") String deviceId,
+                                               @Param("from") LocalDateTime from,
+                                               @Param("to") LocalDateTime to);
+}
@@ -1,18 +1,96 @@
 package com.example.backend.repository;
 
+import com.example.backend.dto.GyroscopePointDTO;
+import com.example.backend.dto.SeriesExtentDTO;
 import com.example.backend.entity.GyroscopeData;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.stream.Stream;
 
 @Repository
 public interface GyroscopeRepository extends JpaRepository<GyroscopeData, Long> {
-    List<GyroscopeData> findByDeviceId(String deviceId);
-    List<GyroscopeData> findByTimestampAfter(LocalDateTime timestamp);
+    List<GyroscopeData> findByDeviceIdOrderByTimestampDescIdDesc(String deviceId, Pageable pageable);
 
-    @Query("SELECT DISTINCT g.deviceId FROM GyroscopeData g")
-    List<String> findDistinctDeviceIds();
-}
\ No newline at end of file
+    // Variante bornée : sur les tables partitionnées, seules les partitions récentes sont parcourues
+    @Query("SELECT g FROM GyroscopeData g WHERE g.deviceId = :deviceId AND g.timestamp >= :since " +
+            "ORDER BY g.timestamp DESC, g.id DESC")
+    List<GyroscopeData> findLatestByDeviceId(@Param("deviceId") String deviceId,
+                                             @Param("since") LocalDateTime since,
+                                             Pageable pageable);
+
+    // Projection pour le tableau de bord : seules les colonnes affichées, aucune entité hydratée
+    @Query("SELECT new com.example.backend.dto.GyroscopePointDTO(" +
+            "g.deviceId, g.timestamp, g.rotationX, g.rotationY, g.rotationZ) " +
+            "FROM GyroscopeData g WHERE g.timestamp > :from ORDER BY g.timestamp ASC")
+    List<GyroscopePointDTO> findPointsAfter(@Param("from") LocalDateTime from);
+
+    // Pagination par clé (timestamp, id) : la page suivante reprend après le dernier élément reçu
+    @Query("SELECT g FROM GyroscopeData g WHERE g.deviceId = :deviceId " +
+            "AND g.timestamp >= :afterTimestamp AND g.timestamp < :to " +
+            "AND (g.timestamp > :afterTimestamp OR g.id > :afterId) " +
+            "ORDER BY g.timestamp ASC, g.id ASC")
+    List<GyroscopeData> findPageByDeviceId(@Param("deviceId") String deviceId,
+                                           @Param("afterTimestamp") LocalDateTime afterTimestamp,
+                                           @Param("afterId") long afterId,
+                                           @Param("to") LocalDateTime to,
+                                           Pageable pageable);
+
+    @Query("SELECT g FROM GyroscopeData g WHERE g.timestamp >= :afterTimestamp AND g.timestamp < :to " +
+            "AND (g.timestamp > :afterTimestamp OR g.id > :afterId) " +
+            "ORDER BY g.timestamp ASC, g.id ASC")
+    List<GyroscopeData> findPage(@Param("afterTimestamp") LocalDateTime afterTimestamp,
+                                 @Param("afterId") long afterId,
+                                 @Param("to") LocalDateTime to,
+                                 Pageable pageable);
+
+    @Query("SELECT COUNT(g) FROM GyroscopeData g WHERE g.deviceId = :deviceId " +
+            "AND g.timestamp >= :from AND g.timestamp < :to")
+    long countByDeviceIdInRange(@Param("deviceId") String deviceId,
+                                @Param("from") LocalDateTime from,
+                                @Param("to") LocalDateTime to);
+
+    // Nombre d'échantillons et bornes temporelles réelles, pour caler les seaux du sous-échantillonnage
+    @Query("SELECT new com.example.backend.dto.SeriesExtentDTO(COUNT(g), MIN(g.timestamp), MAX(g.timestamp)) " +
+            "FROM GyroscopeData g WHERE g.deviceId = :deviceId AND g.timestamp >= :from AND g.timestamp < :to")
+    SeriesExtentDTO findExtentByDeviceIdInRange(@Param("deviceId") String deviceId,
+                                                @Param("from") LocalDateTime from,
+                                                @Param("to") LocalDateTime to);
+
+    // Archivage vers le stockage froid : plus ancien échantillon avant la limite, appareils d'une plage
+    @Query("SELECT MIN(g.timestamp) FROM GyroscopeData g WHERE g.timestamp < :before")
+    LocalDateTime findOldestBefore(@Param("before") LocalDateTime before);
+
+    @Query("SELECT DISTINCT g.deviceId FROM GyroscopeData g WHERE g.timestamp >= :from AND g.timestamp < :to")
+    List<String> findDeviceIdsInRange(@Param("from") LocalDateTime from,
+                                      @Param("to") LocalDateTime to);
+
+    // Bornée à l'heure archivée : seule la partition concernée est parcourue
+    @Modifying
+    @Query("DELETE FROM GyroscopeData g WHERE g.timestamp >= :from AND g.timestamp < :to AND g.id IN :ids")
+    int deleteArchived(@Param("from") LocalDateTime from,
+                       @Param("to") LocalDateTime to,
+                       @Param("ids") Collection<Long> ids);
+
+    // Lecture en flux pour l'export : à consommer dans une transaction en lecture seule
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT g FROM GyroscopeData g WHERE g.deviceId = :deviceId " +
+            "AND g.timestamp >= :from AND g.timestamp < :to " +
+            "ORDER BY g.timestamp ASC, g.id ASC")
+    Stream<GyroscopeData> streamByDeviceId(@Param("deviceId") String deviceId,
+                                           @Param("from") LocalDateTime from,
+                                           @Param("to") LocalDateTime to);
+}
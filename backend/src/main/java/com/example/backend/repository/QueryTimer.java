@@ -0,0 +1,40 @@
+package com.example.backend.repository;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+// Durée des requêtes des dépôts écrits à la main, publiée sous la métrique et les étiquettes
+// des dépôts Spring Data (spring.data.repository.invocations) : un seul histogramme pour tous les dépôts
+@Component
+public class QueryTimer {
+
+    static final String METRIC = "spring.data.repository.invocations";
+
+    private final MeterRegistry meterRegistry;
+
+    public QueryTimer(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    public <T> T record(String repository, String method, Supplier<T> query) {
+        long start = System.nanoTime();
+        String state = "SUCCESS";
+        String exception = "None";
+        try {
+            return query.get();
+        } catch (RuntimeException e) {
+            state = "ERROR";
+            exception = e.getClass().getSimpleName();
+            throw e;
+        } finally {
+            Timer.builder(METRIC)
+                    .tags("repository", repository, "method", method, "state", state, "exception", exception)
+                    .register(meterRegistry)
+                    .record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+}
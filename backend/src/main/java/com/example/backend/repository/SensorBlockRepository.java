@@ -0,0 +1,72 @@
+package com.example.backend.repository;
+
+import com.example.backend.entity.SensorBlock;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface SensorBlockRepository extends JpaRepository<SensorBlock, Long> {
+
+    // Métadonnées d'un bloc, sans la charge compressée
+    interface BlockRef {
+        Long getId();
+
+        String getDeviceId();
+
+        LocalDateTime getFirstTimestamp();
+
+        LocalDateTime getLastTimestamp();
+
+        int getSampleCount();
+    }
+
+    Optional<SensorBlock> findBySensorTypeAndDeviceIdAndBlockStart(String sensorType, String deviceId,
+                                                                    LocalDateTime blockStart);
+
+    // Blocs chevauchant [from, to), dans l'ordre chronologique
+    @Query("SELECT b.id AS id, b.deviceId AS deviceId, b.firstTimestamp AS firstTimestamp, " +
+            "b.lastTimestamp AS lastTimestamp, b.sampleCount AS sampleCount FROM SensorBlock b " +
+            "WHERE b.sensorType = :sensorType AND b.deviceId = :deviceId " +
+            "AND b.lastTimestamp >= :from AND b.firstTimestamp < :to ORDER BY b.blockStart ASC")
+    List<BlockRef> findRefs(@Param("sensorType") String sensorType,
+                            @Param("deviceId") String deviceId,
+                            @Param("from") LocalDateTime from,
+                            @Param("to") LocalDateTime to);
+
+    @Query("SELECT b.id AS id, b.deviceId AS deviceId, b.firstTimestamp AS firstTimestamp, " +
+            "b.lastTimestamp AS lastTimestamp, b.sampleCount AS sampleCount FROM SensorBlock b " +
+            "WHERE b.sensorType = :sensorType AND b.lastTimestamp >= :from AND b.firstTimestamp < :to " +
+            "ORDER BY b.firstTimestamp ASC, b.id ASC")
+    List<BlockRef> findAllDeviceRefs(@Param("sensorType") String sensorType,
+                                     @Param("from") LocalDateTime from,
+                                     @Param("to") LocalDateTime to);
+
+    // Blocs les plus récents d'un appareil d'abord
+    @Query("SELECT b.id AS id, b.deviceId AS deviceId, b.firstTimestamp AS firstTimestamp, " +
+            "b.lastTimestamp AS lastTimestamp, b.sampleCount AS sampleCount FROM SensorBlock b " +
+            "WHERE b.sensorType = :sensorType AND b.deviceId = :deviceId ORDER BY b.blockStart DESC")
+    List<BlockRef> findLatestRefs(@Param("sensorType") String sensorType,
+                                  @Param("deviceId") String deviceId,
+                                  Pageable pageable);
+
+    @Query("SELECT b.payload FROM SensorBlock b WHERE b.id = :id")
+    byte[] findPayload(@Param("id") Long id);
+
+    @Query("SELECT MAX(b.lastTimestamp) FROM SensorBlock b WHERE b.sensorType = :sensorType")
+    LocalDateTime findColdUntil(@Param("sensorType") String sensorType);
+
+    @Query("SELECT COALESCE(SUM(b.sampleCount), 0) FROM SensorBlock b WHERE b.sensorType = :sensorType")
+    long sumSampleCount(@Param("sensorType") String sensorType);
+
+    @Modifying
+    @Query("DELETE FROM SensorBlock b WHERE b.blockStart < :before")
+    int deleteOlderThan(@Param("before") LocalDateTime before);
+}
@@ -0,0 +1,38 @@
+package com.example.backend.repository;
+
+import com.example.backend.entity.SensorRollup;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface SensorRollupRepository extends JpaRepository<SensorRollup, Long> {
+    // Seaux existants pour un lot de clés, en une requête ; capteur et granularité filtrés par l'appelant
+    List<SensorRollup> findByDeviceIdInAndBucketStartIn(Collection<String> deviceIds,
+                                                        Collection<LocalDateTime> bucketStarts);
+
+    @Query("SELECT r FROM SensorRollup r WHERE r.sensorType = :sensorType AND r.deviceId = :deviceId " +
+            "AND r.granularitySeconds = :granularity AND r.bucketStart >= :from AND r.bucketStart < :to " +
+            "ORDER BY r.bucketStart ASC")
+    List<SensorRollup> findRange(@Param("sensorType") String sensorType,
+                                 @Param("deviceId") String deviceId,
+                                 @Param("granularity") int granularity,
+                                 @Param("from") LocalDateTime from,
+                                 @Param("to") LocalDateTime to,
+                                 Pageable pageable);
+
+    @Modifying
+    @Query("DELETE FROM SensorRollup r WHERE r.sensorType = :sensorType AND r.deviceId = :deviceId " +
+            "AND r.bucketStart >= :from AND r.bucketStart < :to")
+    int deleteRange(@Param("sensorType") String sensorType,
+                    @Param("deviceId") String deviceId,
+                    @Param("from") LocalDateTime from,
+                    @Param("to") LocalDateTime to);
+}
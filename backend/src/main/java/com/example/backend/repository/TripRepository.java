@@ -0,0 +1,27 @@
+package com.example.backend.repository;
+
+import com.example.backend.entity.Trip;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface TripRepository extends JpaRepository<Trip, Long> {
+    Optional<Trip> findByDeviceIdAndStartTime(String deviceId, LocalDateTime startTime);
+
+    List<Trip> findByActiveTrue();
+
+    // Trajets chevauchant [from, to), les plus récents d'abord
+    @Query("SELECT t FROM Trip t WHERE t.deviceId = :deviceId AND t.startTime < :to AND t.endTime >= :from " +
+            "ORDER BY t.startTime DESC")
+    List<Trip> findRange(@Param("deviceId") String deviceId,
+                         @Param("from") LocalDateTime from,
+                         @Param("to") LocalDateTime to,
+                         Pageable pageable);
+}
@@ -0,0 +1,190 @@
+package com.example.backend.service;
+
+import com.example.backend.dto.AlertDTO;
+import com.example.backend.dto.AlertPageDTO;
+import com.example.backend.dto.AlertStatsDTO;
+import com.example.backend.dto.AlertUpdateDTO;
+import com.example.backend.entity.Alert;
+import com.example.backend.entity.AlertSeverity;
+import com.example.backend.entity.AlertStatus;
+import com.example.backend.entity.AlertType;
+import com.example.backend.repository.AlertRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+// Alertes de conduite : celles émises par le détecteur sont mises en file puis écrites par lots
+// et diffusées en direct (flux SSE "alert") une fois validées ; consultation et suivi par les opérateurs.
+// Un lot dont l'écriture échoue alerts.max-write-attempts fois est abandonné (compteur alerts.dropped).
+@Service
+public class AlertService {
+
+    private static final Logger log = LoggerFactory.getLogger(AlertService.class);
+
+    private final AlertRepository alertRepository;
+    private final LiveBroadcaster liveBroadcaster;
+    private final TransactionTemplate transactionTemplate;
+    private final int maxPageSize;
+    private final int maxWriteAttempts;
+    private final Counter dropped;
+
+    private final Queue<Alert> pending = new ConcurrentLinkedQueue<>();
+    // Lots en échec, réécrits tels quels aux cycles suivants avec leur nombre de tentatives
+    private final Queue<PendingBatch> retries = new ConcurrentLinkedQueue<>();
+
+    @Autowired
+    public AlertService(AlertRepository alertRepository,
+                        LiveBroadcaster liveBroadcaster,
+                        PlatformTransactionManager transactionManager,
+                        MeterRegistry meterRegistry,
+                        @Value("${sensor.query.max-page-size:10000}") int maxPageSize,
+                        @Value("${alerts.max-write-attempts:5}") int maxWriteAttempts) {
+        this.alertRepository = alertRepository;
+        this.liveBroadcaster = liveBroadcaster;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.maxPageSize = maxPageSize;
+        this.maxWriteAttempts = maxWriteAttempts;
+        this.dropped = Counter.builder("alerts.dropped")
+                .description("Alertes abandonnées après des échecs d'écriture répétés")
+                .register(meterRegistry);
+    }
+
+    public void record(Alert alert) {
+        pending.add(alert);
+    }
+
+    @Scheduled(fixedDelayString = "${alerts.flush-interval-ms:1000}")
+    public void flush() {
+        // Une tentative par cycle : les lots en échec d'abord, remis en file pour le cycle suivant
+        for (int i = retries.size(); i > 0; i--) {
+            PendingBatch batch = retries.poll();
+            if (batch == null) {
+                break;
+            }
+            write(batch);
+        }
+        List<Alert> drained = new ArrayList<>();
+        for (Alert alert = pending.poll(); alert != null; alert = pending.poll()) {
+            drained.add(alert);
+        }
+        if (!drained.isEmpty()) {
+            write(new PendingBatch(drained, 0));
+        }
+    }
+
+    public long getDroppedCount() {
+        return (long) dropped.count();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        flush();
+    }
+
+    private void write(PendingBatch batch) {
+        List<Alert> alerts = batch.alerts();
+        List<AlertDTO> saved;
+        try {
+            saved = transactionTemplate.execute(status ->
+                    alertRepository.saveAll(alerts).stream().map(AlertDTO::from).toList());
+        } catch (RuntimeException e) {
+            alerts.forEach(alert -> alert.setId(null));
+            int attempts = batch.attempts() + 1;
+            if (attempts >= maxWriteAttempts) {
+                log.error("Écriture de {} alertes abandonnée après {} tentatives", alerts.size(), attempts, e);
+                dropped.increment(alerts.size());
+                return;
+            }
+            log.error("Échec de l'écriture de {} alertes, nouvel essai au prochain cycle", alerts.size(), e);
+            retries.add(new PendingBatch(alerts, attempts));
+            return;
+        }
+        // Diffusion hors transaction, une fois le lot validé : un lot en échec n'a rien diffusé
+        liveBroadcaster.publish("alert", saved, AlertDTO::deviceId);
+    }
+
+    // page à partir de 1, les plus récentes d'abord
+    @Transactional(readOnly = true)
+    public AlertPageDTO search(String deviceId, AlertType type, AlertSeverity severity, AlertStatus status,
+                               LocalDateTime from, LocalDateTime to, int page, int limit) {
+        int size = Math.min(limit, maxPageSize);
+        Page<Alert> alerts = alertRepository.search(deviceId, type, severity, status, from, to,
+                PageRequest.of(page - 1, size, Sort.by(Sort.Order.desc("timestamp"), Sort.Order.desc("id"))));
+        return new AlertPageDTO(alerts.map(AlertDTO::from).getContent(),
+                new AlertPageDTO.Meta(alerts.getTotalElements(), page, size, alerts.getTotalPages()));
+    }
+
+    @Transactional(readOnly = true)
+    public Optional<AlertDTO> getAlert(Long id) {
+        return alertRepository.findById(id).map(AlertDTO::from);
+    }
+
+    @Transactional
+    public Optional<AlertDTO> updateAlert(Long id, AlertUpdateDTO update) {
+        return alertRepository.findById(id).map(alert -> {
+            if (update.status() != null) {
+                alert.setStatus(update.status());
+            }
+            if (update.notes() != null) {
+                alert.setNotes(update.notes());
+            }
+            return AlertDTO.from(alert);
+        });
+    }
+
+    @Transactional
+    public boolean deleteAlert(Long id) {
+        if (!alertRepository.existsById(id)) {
+            return false;
+        }
+        alertRepository.deleteById(id);
+        return true;
+    }
+
+    @Transactional(readOnly = true)
+    public AlertStatsDTO getStats(long samplesDropped) {
+        Map<AlertSeverity, Long> bySeverity = counts(AlertSeverity.class, alertRepository.countBySeverity());
+        Map<AlertStatus, Long> byStatus = counts(AlertStatus.class, alertRepository.countByStatus());
+        Map<AlertType, Long> byType = counts(AlertType.class, alertRepository.countByType());
+        long total = bySeverity.values().stream().mapToLong(Long::longValue).sum();
+        return new AlertStatsDTO(total, bySeverity, byStatus, byType, samplesDropped);
+    }
+
+    // Toutes les valeurs de l'enum sont présentes, à 0 si aucune alerte
+    private static <E extends Enum<E>> Map<E, Long> counts(Class<E> type, List<Object[]> rows) {
+        Map<E, Long> counts = new EnumMap<>(type);
+        for (E value : type.getEnumConstants()) {
+            counts.put(value, 0L);
+        }
+        for (Object[] row : rows) {
+            if (row[0] != null) {
+                counts.put(type.cast(row[0]), ((Number) row[1]).longValue());
+            }
+        }
+        return counts;
+    }
+
+    private record PendingBatch(List<Alert> alerts, int attempts) {
+    }
+}
@@ -0,0 +1,301 @@
+package com.example.backend.service;
+
+import com.example.backend.dto.IngestQueueStatsDTO;
+import com.example.backend.dto.SensorBatchDTO;
+import com.example.backend.entity.AccelerometerData;
+import com.example.backend.entity.GPSData;
+import com.example.backend.entity.GyroscopeData;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+
+// Mode d'ingestion asynchrone (write-behind) : les requêtes déposent les échantillons dans
+// un tampon borné par type de capteur, un thread unique les écrit en base par lots.
+@Service
+public class AsyncIngestService {
+
+    private static final Logger log = LoggerFactory.getLogger(AsyncIngestService.class);
+
+    private final boolean enabled;
+    private final int flushBatchSize;
+    private final long flushIntervalMillis;
+    private final int retryAfterSeconds;
+
+    private final Lane<AccelerometerData> accelerometerLane;
+    private final Lane<GyroscopeData> gyroscopeLane;
+    private final Lane<GPSData> gpsLane;
+
+    private final Object signal = new Object();
+    private volatile boolean running;
+    private Thread drainer;
+
+    @Autowired
+    public AsyncIngestService(SensorDataService sensorDataService,
+                              @Value("${sensor.ingest.async.enabled:false}") boolean enabled,
+                              @Value("${sensor.ingest.async.capacity:50000}") int capacity,
+                              @Value("${sensor.ingest.async.flush-batch-size:500}") int flushBatchSize,
+                              @Value("${sensor.ingest.async.flush-interval-ms:200}") long flushIntervalMillis,
+                              @Value("${sensor.ingest.async.retry-after-seconds:1}") int retryAfterSeconds) {
+        this.enabled = enabled;
+        this.flushBatchSize = flushBatchSize;
+        this.flushIntervalMillis = flushIntervalMillis;
+        this.retryAfterSeconds = retryAfterSeconds;
+        this.accelerometerLane = new Lane<>("accelerometer", capacity, sensorDataService::saveAccelerometerBatch);
+        this.gyroscopeLane = new Lane<>("gyroscope", capacity, sensorDataService::saveGyroscopeBatch);
+        this.gpsLane = new Lane<>("gps", capacity, sensorDataService::saveGPSBatch);
+    }
+
+    @PostConstruct
+    public void start() {
+        if (!enabled) {
+            return;
+        }
+        running = true;
+        drainer = new Thread(this::drainLoop, "ingest-drainer");
+        drainer.setDaemon(true);
+        drainer.start();
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        if (drainer == null) {
+            return;
+        }
+        running = false;
+        synchronized (signal) {
+            signal.notifyAll();
+        }
+        drainer.join(10_000);
+        // Vider ce qui reste avant l'arrêt
+        flushAll();
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public int getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+
+    public boolean enqueueAccelerometer(AccelerometerData data) {
+        if (data.getTimestamp() == null) {
+            data.setTimestamp(LocalDateTime.now());
+        }
+        return accept(accelerometerLane, accelerometerLane.buffer.offer(data), 1);
+    }
+
+    public boolean enqueueAccelerometerBatch(List<AccelerometerData> batch) {
+        stampAccelerometer(batch);
+        return accept(accelerometerLane, accelerometerLane.buffer.offerAll(batch), batch.size());
+    }
+
+    public boolean enqueueGyroscope(GyroscopeData data) {
+        if (data.getTimestamp() == null) {
+            data.setTimestamp(LocalDateTime.now());
+        }
+        return accept(gyroscopeLane, gyroscopeLane.buffer.offer(data), 1);
+    }
+
+    public boolean enqueueGyroscopeBatch(List<GyroscopeData> batch) {
+        stampGyroscope(batch);
+        return accept(gyroscopeLane, gyroscopeLane.buffer.offerAll(batch), batch.size());
+    }
+
+    public boolean enqueueGPS(GPSData data) {
+        if (data.getTimestamp() == null) {
+            data.setTimestamp(LocalDateTime.now());
+        }
+        return accept(gpsLane, gpsLane.buffer.offer(data), 1);
+    }
+
+    public boolean enqueueGPSBatch(List<GPSData> batch) {
+        stampGPS(batch);
+        return accept(gpsLane, gpsLane.buffer.offerAll(batch), batch.size());
+    }
+
+    // L'enveloppe entre entière ou pas du tout : la place est réservée dans les trois files avant d'y
+    // déposer quoi que ce soit, et rendue si l'une d'elles est pleine. Un refus (503) ne laisse donc
+    // aucun échantillon en file, le renvoi du client ne crée pas de doublons.
+    public boolean enqueueSensorBatch(SensorBatchDTO batch) {
+        batch.applyDeviceId();
+        int accelerometerCount = batch.getAccelerometer().size();
+        int gyroscopeCount = batch.getGyroscope().size();
+        int gpsCount = batch.getGps().size();
+        boolean reserved = false;
+        if (accelerometerLane.buffer.reserve(accelerometerCount)) {
+            if (gyroscopeLane.buffer.reserve(gyroscopeCount)) {
+                if (gpsLane.buffer.reserve(gpsCount)) {
+                    reserved = true;
+                } else {
+                    gyroscopeLane.buffer.release(gyroscopeCount);
+                    accelerometerLane.buffer.release(accelerometerCount);
+                }
+            } else {
+                accelerometerLane.buffer.release(accelerometerCount);
+            }
+        }
+        if (!reserved) {
+            accelerometerLane.dropped.add(accelerometerCount);
+            gyroscopeLane.dropped.add(gyroscopeCount);
+            gpsLane.dropped.add(gpsCount);
+            return false;
+        }
+        stampAccelerometer(batch.getAccelerometer());
+        stampGyroscope(batch.getGyroscope());
+        stampGPS(batch.getGps());
+        accelerometerLane.buffer.fillReserved(batch.getAccelerometer());
+        gyroscopeLane.buffer.fillReserved(batch.getGyroscope());
+        gpsLane.buffer.fillReserved(batch.getGps());
+        accept(accelerometerLane, true, accelerometerCount);
+        accept(gyroscopeLane, true, gyroscopeCount);
+        accept(gpsLane, true, gpsCount);
+        return true;
+    }
+
+    public List<IngestQueueStatsDTO> getStats() {
+        List<IngestQueueStatsDTO> stats = new ArrayList<>();
+        stats.add(accelerometerLane.toStats());
+        stats.add(gyroscopeLane.toStats());
+        stats.add(gpsLane.toStats());
+        return stats;
+    }
+
+    private boolean accept(Lane<?> lane, boolean offered, int count) {
+        if (!offered) {
+            lane.dropped.add(count);
+            return false;
+        }
+        lane.accepted.add(count);
+        if (lane.buffer.size() >= flushBatchSize) {
+            synchronized (signal) {
+                signal.notifyAll();
+            }
+        }
+        return true;
+    }
+
+    private static void stampAccelerometer(List<AccelerometerData> batch) {
+        LocalDateTime now = LocalDateTime.now();
+        for (AccelerometerData data : batch) {
+            if (data.getTimestamp() == null) {
+                data.setTimestamp(now);
+            }
+        }
+    }
+
+    private static void stampGyroscope(List<GyroscopeData> batch) {
+        LocalDateTime now = LocalDateTime.now();
+        for (GyroscopeData data : batch) {
+            if (data.getTimestamp() == null) {
+                data.setTimestamp(now);
+            }
+        }
+    }
+
+    private static void stampGPS(List<GPSData> batch) {
+        LocalDateTime now = LocalDateTime.now();
+        for (GPSData data : batch) {
+            if (data.getTimestamp() == null) {
+                data.setTimestamp(now);
+            }
+        }
+    }
+
+    private void drainLoop() {
+        while (running) {
+            flushAll();
+            synchronized (signal) {
+                if (running && !anyLaneFull()) {
+                    try {
+                        signal.wait(flushIntervalMillis);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        return;
+                    }
+                }
+            }
+        }
+    }
+
+    private boolean anyLaneFull() {
+        return accelerometerLane.buffer.size() >= flushBatchSize
+                || gyroscopeLane.buffer.size() >= flushBatchSize
+                || gpsLane.buffer.size() >= flushBatchSize;
+    }
+
+    private void flushAll() {
+        accelerometerLane.flush(flushBatchSize);
+        gyroscopeLane.flush(flushBatchSize);
+        gpsLane.flush(flushBatchSize);
+    }
+
+    private static class Lane<T> {
+        private final String sensorType;
+        private final IngestBuffer<T> buffer;
+        private final Consumer<List<T>> writer;
+        private final LongAdder accepted = new LongAdder();
+        private final LongAdder dropped = new LongAdder();
+        private final LongAdder flushed = new LongAdder();
+        private final LongAdder failedFlushes = new LongAdder();
+        private final LongAdder flushCount = new LongAdder();
+        private final LongAdder totalFlushNanos = new LongAdder();
+        private final AtomicLong lastFlushNanos = new AtomicLong();
+        private final AtomicLong maxFlushNanos = new AtomicLong();
+
+        Lane(String sensorType, int capacity, Consumer<List<T>> writer) {
+            this.sensorType = sensorType;
+            this.buffer = new IngestBuffer<>(capacity);
+            this.writer = writer;
+        }
+
+        void flush(int batchSize) {
+            List<T> batch = new ArrayList<>(batchSize);
+            while (buffer.drainTo(batch, batchSize) > 0) {
+                long start = System.nanoTime();
+                try {
+                    writer.accept(batch);
+                    flushed.add(batch.size());
+                } catch (RuntimeException e) {
+                    // Le lot est perdu : il est compté comme rejeté
+                    failedFlushes.increment();
+                    dropped.add(batch.size());
+                    log.error("Échec de l'écriture d'un lot {} ({} échantillons)", sensorType, batch.size(), e);
+                }
+                long elapsed = System.nanoTime() - start;
+                flushCount.increment();
+                totalFlushNanos.add(elapsed);
+                lastFlushNanos.set(elapsed);
+                maxFlushNanos.accumulateAndGet(elapsed, Math::max);
+                batch.clear();
+            }
+        }
+
+        IngestQueueStatsDTO toStats() {
+            IngestQueueStatsDTO stats = new IngestQueueStatsDTO();
+            stats.setSensorType(sensorType);
+            stats.setCapacity(buffer.capacity());
+            stats.setDepth(buffer.size());
+            stats.setAccepted(accepted.sum());
+            stats.setDropped(dropped.sum());
+            stats.setFlushed(flushed.sum());
+            stats.setFailedFlushes(failedFlushes.sum());
+            stats.setLastFlushMillis(lastFlushNanos.get() / 1_000_000.0);
+            stats.setMaxFlushMillis(maxFlushNanos.get() / 1_000_000.0);
+            long count = flushCount.sum();
+            stats.setAvgFlushMillis(count == 0 ? 0 : totalFlushNanos.sum() / 1_000_000.0 / count);
+            return stats;
+        }
+    }
+}
@@ -0,0 +1,191 @@
+package com.example.backend.service;
+
+import com.example.backend.entity.AccelerometerData;
+import com.example.backend.entity.GyroscopeData;
+import com.example.backend.repository.AccelerometerRepository;
+import com.example.backend.repository.GyroscopeRepository;
+import com.example.backend.repository.SensorBlockRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+// Archivage des échantillons d'accéléromètre et de gyroscope anciens : chaque heure d'un appareil
+// est compactée en un bloc colonnaire compressé (table sensor_block) puis retirée des tables chaudes.
+// Désactivé par défaut (cold.archive-after-days=0) ; les blocs restent lus par ColdTier dans tous les cas.
+@Service
+public class ColdStorageService {
+
+    private static final Logger log = LoggerFactory.getLogger(ColdStorageService.class);
+
+    // Suppression des lignes archivées par paquets d'identifiants
+    private static final int DELETE_CHUNK_SIZE = 1000;
+
+    // Lignes chaudes d'un capteur vues par l'archivage
+    private record HotSource<T>(ColdTier<T> tier,
+                                Function<LocalDateTime, LocalDateTime> oldestBefore,
+                                BiFunction<LocalDateTime, LocalDateTime, List<String>> devicesInRange,
+                                RangeReader<T> rows,
+                                Function<T, Long> idOf,
+                                RangeDelete delete) {
+    }
+
+    private interface RangeReader<T> {
+        Stream<T> read(String deviceId, LocalDateTime from, LocalDateTime to);
+    }
+
+    private interface RangeDelete {
+        int delete(LocalDateTime from, LocalDateTime to, List<Long> ids);
+    }
+
+    private final SensorBlockRepository blockRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final IngestVersions ingestVersions;
+    private final int archiveAfterDays;
+    private final int maxHoursPerRun;
+    private final int retentionDays;
+
+    private final ColdTier<AccelerometerData> accelerometer;
+    private final ColdTier<GyroscopeData> gyroscope;
+    private final List<HotSource<?>> sources;
+
+    @Autowired
+    public ColdStorageService(AccelerometerRepository accelerometerRepository,
+                              GyroscopeRepository gyroscopeRepository,
+                              SensorBlockRepository blockRepository,
+                              PlatformTransactionManager transactionManager,
+                              IngestVersions ingestVersions,
+                              @Value("${cold.archive-after-days:0}") int archiveAfterDays,
+                              @Value("${cold.max-hours-per-run:24}") int maxHoursPerRun,
+                              @Value("${cold.retention-days:0}") int retentionDays) {
+        this.blockRepository = blockRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.ingestVersions = ingestVersions;
+        this.archiveAfterDays = archiveAfterDays;
+        this.maxHoursPerRun = maxHoursPerRun;
+        this.retentionDays = retentionDays;
+        this.accelerometer = new ColdTier<>(IngestVersions.ACCELEROMETER, blockRepository,
+                (deviceId, timestamp, id, values) -> {
+                    AccelerometerData data = new AccelerometerData(values[0], values[1], values[2], deviceId, timestamp);
+                    data.setId(id);
+                    return data;
+                },
+                AccelerometerData::getTimestamp, AccelerometerData::getId,
+                List.of(AccelerometerData::getX, AccelerometerData::getY, AccelerometerData::getZ),
+                this::archiveCutoff);
+        this.gyroscope = new ColdTier<>(IngestVersions.GYROSCOPE, blockRepository,
+                (deviceId, timestamp, id, values) -> {
+                    GyroscopeData data = new GyroscopeData(values[0], values[1], values[2], deviceId, timestamp);
+                    data.setId(id);
+                    return data;
+                },
+                GyroscopeData::getTimestamp, GyroscopeData::getId,
+                List.of(GyroscopeData::getRotationX, GyroscopeData::getRotationY, GyroscopeData::getRotationZ),
+                this::archiveCutoff);
+        this.sources = List.of(
+                new HotSource<>(accelerometer, accelerometerRepository::findOldestBefore,
+                        accelerometerRepository::findDeviceIdsInRange, accelerometerRepository::streamByDeviceId,
+                        AccelerometerData::getId, accelerometerRepository::deleteArchived),
+                new HotSource<>(gyroscope, gyroscopeRepository::findOldestBefore,
+                        gyroscopeRepository::findDeviceIdsInRange, gyroscopeRepository::streamByDeviceId,
+                        GyroscopeData::getId, gyroscopeRepository::deleteArchived));
+    }
+
+    public ColdTier<AccelerometerData> accelerometer() {
+        return accelerometer;
+    }
+
+    public ColdTier<GyroscopeData> gyroscope() {
+        return gyroscope;
+    }
+
+    @Scheduled(initialDelayString = "${cold.archive-interval-ms:600000}",
+            fixedDelayString = "${cold.archive-interval-ms:600000}")
+    public synchronized void archive() {
+        LocalDateTime cutoff = archiveCutoff();
+        for (HotSource<?> source : sources) {
+            // Blocs écrits par une autre instance depuis la dernière passe
+            source.tier().reload();
+            if (cutoff != null) {
+                archive(source, cutoff);
+            }
+        }
+        purge();
+    }
+
+    // Heures complètes uniquement, les plus anciennes d'abord, au plus maxHoursPerRun par capteur et par passe
+    private <T> void archive(HotSource<T> source, LocalDateTime cutoff) {
+        for (int i = 0; i < maxHoursPerRun; i++) {
+            LocalDateTime oldest = source.oldestBefore().apply(cutoff);
+            if (oldest == null) {
+                return;
+            }
+            LocalDateTime hour = oldest.truncatedTo(ChronoUnit.HOURS);
+            LocalDateTime end = hour.plusHours(1);
+            // Avancé avant l'écriture des blocs : une lecture concurrente consulte déjà le stockage froid
+            source.tier().extendColdUntil(end);
+            long archived = 0;
+            try {
+                for (String deviceId : source.devicesInRange().apply(hour, end)) {
+                    archived += archive(source, deviceId, hour, end);
+                }
+            } catch (RuntimeException e) {
+                log.error("Archivage {} de l'heure {} interrompu, nouvel essai au prochain cycle",
+                        source.tier().getSensorType(), hour, e);
+                return;
+            }
+            log.info("Stockage froid {} : {} échantillons archivés pour {}", source.tier().getSensorType(), archived, hour);
+        }
+    }
+
+    // Une transaction par appareil et par heure : le bloc et la suppression des lignes chaudes sont indissociables
+    private <T> int archive(HotSource<T> source, String deviceId, LocalDateTime hour, LocalDateTime end) {
+        Integer archived = transactionTemplate.execute(status -> {
+            List<T> rows;
+            try (Stream<T> stream = source.rows().read(deviceId, hour, end)) {
+                rows = stream.toList();
+            }
+            if (rows.isEmpty()) {
+                return 0;
+            }
+            source.tier().store(deviceId, hour, rows);
+            List<Long> ids = rows.stream().map(source.idOf()).toList();
+            for (int from = 0; from < ids.size(); from += DELETE_CHUNK_SIZE) {
+                source.delete().delete(hour, end, ids.subList(from, Math.min(from + DELETE_CHUNK_SIZE, ids.size())));
+            }
+            return rows.size();
+        });
+        return archived == null ? 0 : archived;
+    }
+
+    private void purge() {
+        if (retentionDays <= 0) {
+            return;
+        }
+        LocalDateTime before = LocalDateTime.now().minusDays(retentionDays).truncatedTo(ChronoUnit.HOURS);
+        Integer deleted = transactionTemplate.execute(status -> blockRepository.deleteOlderThan(before));
+        if (deleted != null && deleted > 0) {
+            log.info("Stockage froid : {} blocs antérieurs à {} supprimés (rétention)", deleted, before);
+            ingestVersions.invalidateAll();
+        }
+    }
+
+    // Début de l'heure avant laquelle les échantillons sont archivés, null si l'archivage est désactivé
+    private LocalDateTime archiveCutoff() {
+        if (archiveAfterDays <= 0) {
+            return null;
+        }
+        return LocalDateTime.now().minusDays(archiveAfterDays).truncatedTo(ChronoUnit.HOURS);
+    }
+}
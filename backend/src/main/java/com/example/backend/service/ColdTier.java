@@ -0,0 +1,307 @@
+package com.example.backend.service;
+
+import com.example.backend.dto.SeriesExtentDTO;
+import com.example.backend.entity.SensorBlock;
+import com.example.backend.repository.SensorBlockRepository;
+import org.springframework.data.domain.PageRequest;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.function.ToLongFunction;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+// Stockage froid d'un capteur inertiel : blocs horaires compressés par GorillaCodec.
+// Les lectures fusionnent les lignes chaudes (lues en premier) avec les blocs décodés : une ligne
+// archivée entre les deux lectures apparaît dans les deux et n'est renvoyée qu'une fois (même id).
+public final class ColdTier<T> {
+
+    interface RowFactory<T> {
+        T create(String deviceId, LocalDateTime timestamp, long id, float[] values);
+    }
+
+    interface FloatColumn<T> {
+        float get(T row);
+    }
+
+    private static final int LATEST_BLOCKS_PER_QUERY = 8;
+
+    private final String sensorType;
+    private final SensorBlockRepository blockRepository;
+    private final RowFactory<T> factory;
+    private final Function<T, LocalDateTime> timestampOf;
+    private final ToLongFunction<T> idOf;
+    private final List<FloatColumn<T>> columns;
+    // Limite d'archivage en cours (null si désactivé) : aucun bloc ne couvre une heure postérieure
+    private final Supplier<LocalDateTime> archiveCutoff;
+    private final Comparator<T> order;
+
+    // Dernier horodatage archivé, lu une fois en base puis avancé avant chaque archivage
+    private volatile LocalDateTime coldUntil;
+    private volatile boolean loaded;
+    // Chargement lu en base depuis les requêtes : verrou compatible avec les threads virtuels
+    private final ReentrantLock loadLock = new ReentrantLock();
+
+    ColdTier(String sensorType, SensorBlockRepository blockRepository, RowFactory<T> factory,
+             Function<T, LocalDateTime> timestampOf, ToLongFunction<T> idOf, List<FloatColumn<T>> columns,
+             Supplier<LocalDateTime> archiveCutoff) {
+        this.sensorType = sensorType;
+        this.blockRepository = blockRepository;
+        this.factory = factory;
+        this.timestampOf = timestampOf;
+        this.idOf = idOf;
+        this.columns = columns;
+        this.archiveCutoff = archiveCutoff;
+        this.order = Comparator.comparing(timestampOf).thenComparingLong(idOf);
+    }
+
+    public String getSensorType() {
+        return sensorType;
+    }
+
+    // Page après le curseur (afterTimestamp, afterId) : fusion avec la page chaude de même taille
+    public List<T> page(List<T> hot, String deviceId, LocalDateTime afterTimestamp, long afterId,
+                        LocalDateTime to, int limit) {
+        if (!mayContain(afterTimestamp)) {
+            return hot;
+        }
+        List<SensorBlockRepository.BlockRef> refs = deviceId == null
+                ? blockRepository.findAllDeviceRefs(sensorType, afterTimestamp, to)
+                : blockRepository.findRefs(sensorType, deviceId, afterTimestamp, to);
+        if (refs.isEmpty()) {
+            return hot;
+        }
+        List<T> cold = new ArrayList<>();
+        for (SensorBlockRepository.BlockRef ref : refs) {
+            // Blocs triés par premier horodatage : au-delà du limit-ième retenu, plus rien d'utile
+            if (cold.size() >= limit) {
+                truncate(cold, limit);
+                if (ref.getFirstTimestamp().isAfter(timestampOf.apply(cold.get(limit - 1)))) {
+                    break;
+                }
+            }
+            decode(ref).filter(row -> isAfter(row, afterTimestamp, afterId) && timestampOf.apply(row).isBefore(to))
+                    .forEach(cold::add);
+        }
+        truncate(cold, limit);
+        List<T> merged = new ArrayList<>(hot.size() + cold.size());
+        merge(hot.iterator(), cold.iterator(), order).forEachRemaining(merged::add);
+        return merged.size() > limit ? merged.subList(0, limit) : merged;
+    }
+
+    // Flux chronologique d'un appareil sur [from, to) : les blocs sont décodés un à un, à la demande
+    public Stream<T> stream(Stream<T> hot, String deviceId, LocalDateTime from, LocalDateTime to) {
+        if (!mayContain(from)) {
+            return hot;
+        }
+        List<SensorBlockRepository.BlockRef> refs = blockRepository.findRefs(sensorType, deviceId, from, to);
+        if (refs.isEmpty()) {
+            return hot;
+        }
+        Stream<T> cold = refs.stream()
+                .flatMap(this::decode)
+                .filter(row -> !timestampOf.apply(row).isBefore(from) && timestampOf.apply(row).isBefore(to));
+        Iterator<T> merged = merge(hot.iterator(), cold.iterator(), order);
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(merged,
+                        Spliterator.ORDERED | Spliterator.NONNULL), false)
+                .onClose(hot::close);
+    }
+
+    // Échantillons archivés sur [from, to) et leurs bornes : seuls les blocs à cheval sur une borne sont décodés
+    public SeriesExtentDTO extent(String deviceId, LocalDateTime from, LocalDateTime to) {
+        if (!mayContain(from)) {
+            return SeriesExtentDTO.EMPTY;
+        }
+        SeriesExtentDTO extent = SeriesExtentDTO.EMPTY;
+        for (SensorBlockRepository.BlockRef ref : blockRepository.findRefs(sensorType, deviceId, from, to)) {
+            if (!ref.getFirstTimestamp().isBefore(from) && ref.getLastTimestamp().isBefore(to)) {
+                extent = extent.merge(new SeriesExtentDTO(ref.getSampleCount(), ref.getFirstTimestamp(),
+                        ref.getLastTimestamp()));
+            } else {
+                List<LocalDateTime> timestamps = decode(ref).map(timestampOf)
+                        .filter(timestamp -> !timestamp.isBefore(from) && timestamp.isBefore(to))
+                        .sorted()
+                        .toList();
+                if (!timestamps.isEmpty()) {
+                    extent = extent.merge(new SeriesExtentDTO(timestamps.size(), timestamps.get(0),
+                            timestamps.get(timestamps.size() - 1)));
+                }
+            }
+        }
+        return extent;
+    }
+
+    // n dernières mesures, les plus récentes d'abord ; les blocs ne sont lus que si le chaud ne suffit pas
+    public List<T> latest(List<T> hot, String deviceId, int n) {
+        if (hot.size() >= n || !mayContain(LocalDateTime.MIN)) {
+            return hot;
+        }
+        List<T> cold = new ArrayList<>();
+        for (int page = 0; cold.size() < n; page++) {
+            List<SensorBlockRepository.BlockRef> refs = blockRepository.findLatestRefs(sensorType, deviceId,
+                    PageRequest.of(page, LATEST_BLOCKS_PER_QUERY));
+            for (SensorBlockRepository.BlockRef ref : refs) {
+                List<T> rows = decode(ref).toList();
+                for (int i = rows.size() - 1; i >= 0 && cold.size() < n; i--) {
+                    cold.add(rows.get(i));
+                }
+            }
+            if (refs.size() < LATEST_BLOCKS_PER_QUERY) {
+                break;
+            }
+        }
+        List<T> merged = new ArrayList<>(hot.size() + cold.size());
+        merge(hot.iterator(), cold.iterator(), order.reversed()).forEachRemaining(merged::add);
+        return merged.size() > n ? merged.subList(0, n) : merged;
+    }
+
+    // Écrit (ou complète, pour des lignes arrivées en retard) le bloc de l'heure ; dans la transaction appelante
+    SensorBlock store(String deviceId, LocalDateTime blockStart, List<T> rows) {
+        SensorBlock block = blockRepository.findBySensorTypeAndDeviceIdAndBlockStart(sensorType, deviceId, blockStart)
+                .orElseGet(() -> new SensorBlock(sensorType, deviceId, blockStart));
+        List<T> all = new ArrayList<>(rows);
+        if (block.getPayload() != null) {
+            decode(deviceId, block.getPayload()).forEach(all::add);
+        }
+        all.sort(order);
+        List<T> unique = new ArrayList<>(all.size());
+        merge(all.iterator(), List.<T>of().iterator(), order).forEachRemaining(unique::add);
+
+        int n = unique.size();
+        long[] timestamps = new long[n];
+        long[] ids = new long[n];
+        float[][] values = new float[columns.size()][n];
+        for (int i = 0; i < n; i++) {
+            T row = unique.get(i);
+            timestamps[i] = toMicros(timestampOf.apply(row));
+            ids[i] = idOf.applyAsLong(row);
+            for (int c = 0; c < values.length; c++) {
+                values[c][i] = columns.get(c).get(row);
+            }
+        }
+        block.setPayload(GorillaCodec.encode(timestamps, ids, values));
+        block.setSampleCount(n);
+        block.setFirstTimestamp(timestampOf.apply(unique.get(0)));
+        block.setLastTimestamp(timestampOf.apply(unique.get(n - 1)));
+        return blockRepository.save(block);
+    }
+
+    void extendColdUntil(LocalDateTime until) {
+        LocalDateTime current = coldUntil();
+        if (current == null || until.isAfter(current)) {
+            coldUntil = until;
+        }
+    }
+
+    void reload() {
+        coldUntil = blockRepository.findColdUntil(sensorType);
+        loaded = true;
+    }
+
+    // Une plage commençant après le dernier échantillon archivé ne touche pas au stockage froid
+    private boolean mayContain(LocalDateTime from) {
+        LocalDateTime until = coldUntil();
+        LocalDateTime cutoff = archiveCutoff.get();
+        return until != null && !from.isAfter(until) || cutoff != null && from.isBefore(cutoff);
+    }
+
+    private LocalDateTime coldUntil() {
+        if (!loaded) {
+            loadLock.lock();
+            try {
+                if (!loaded) {
+                    reload();
+                }
+            } finally {
+                loadLock.unlock();
+            }
+        }
+        return coldUntil;
+    }
+
+    private Stream<T> decode(SensorBlockRepository.BlockRef ref) {
+        return decode(ref.getDeviceId(), blockRepository.findPayload(ref.getId()));
+    }
+
+    private Stream<T> decode(String deviceId, byte[] payload) {
+        GorillaCodec.Block block = GorillaCodec.decode(payload, columns.size());
+        return IntStream.range(0, block.size()).mapToObj(i -> {
+            float[] values = new float[block.columns().length];
+            for (int c = 0; c < values.length; c++) {
+                values[c] = block.columns()[c][i];
+            }
+            return factory.create(deviceId, fromMicros(block.timestamps()[i]), block.ids()[i], values);
+        });
+    }
+
+    private boolean isAfter(T row, LocalDateTime afterTimestamp, long afterId) {
+        int byTime = timestampOf.apply(row).compareTo(afterTimestamp);
+        return byTime > 0 || byTime == 0 && idOf.applyAsLong(row) > afterId;
+    }
+
+    private void truncate(List<T> rows, int limit) {
+        rows.sort(order);
+        if (rows.size() > limit) {
+            rows.subList(limit, rows.size()).clear();
+        }
+    }
+
+    // Fusion de deux suites triées selon order ; à égalité (même horodatage et même id) un seul exemplaire
+    private static <T> Iterator<T> merge(Iterator<T> left, Iterator<T> right, Comparator<T> order) {
+        return new Iterator<>() {
+            private T nextLeft = left.hasNext() ? left.next() : null;
+            private T nextRight = right.hasNext() ? right.next() : null;
+            private T last;
+
+            @Override
+            public boolean hasNext() {
+                skipDuplicates();
+                return nextLeft != null || nextRight != null;
+            }
+
+            @Override
+            public T next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                if (nextRight == null || nextLeft != null && order.compare(nextLeft, nextRight) <= 0) {
+                    last = nextLeft;
+                    nextLeft = left.hasNext() ? left.next() : null;
+                } else {
+                    last = nextRight;
+                    nextRight = right.hasNext() ? right.next() : null;
+                }
+                return last;
+            }
+
+            private void skipDuplicates() {
+                while (last != null && nextLeft != null && order.compare(last, nextLeft) == 0) {
+                    nextLeft = left.hasNext() ? left.next() : null;
+                }
+                while (last != null && nextRight != null && order.compare(last, nextRight) == 0) {
+                    nextRight = right.hasNext() ? right.next() : null;
+                }
+            }
+        };
+    }
+
+    private static long toMicros(LocalDateTime timestamp) {
+        return timestamp.toEpochSecond(ZoneOffset.UTC) * 1_000_000 + timestamp.getNano() / 1_000;
+    }
+
+    private static LocalDateTime fromMicros(long micros) {
+        return LocalDateTime.ofEpochSecond(Math.floorDiv(micros, 1_000_000),
+                (int) Math.floorMod(micros, 1_000_000) * 1_000, ZoneOffset.UTC);
+    }
+}
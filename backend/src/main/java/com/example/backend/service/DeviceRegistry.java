@@ -0,0 +1,127 @@
+package com.example.backend.service;
+
+import com.example.backend.repository.DeviceRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Registre des appareils : chaque identifiant reçu est associé une fois pour toutes à une clé entière,
+// seule stockée dans les tables de capteurs. Correspondances dans les deux sens gardées en mémoire,
+// chargées au démarrage ; un identifiant absent est cherché en base (enregistré par une autre instance).
+@Component
+public class DeviceRegistry {
+
+    private static final Logger log = LoggerFactory.getLogger(DeviceRegistry.class);
+
+    // Aucune ligne ne porte cette clé : un filtre sur un appareil inconnu ne renvoie rien
+    public static final int UNKNOWN_KEY = -1;
+
+    private final DeviceRepository deviceRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate registration;
+
+    private final Map<String, Integer> keys = new ConcurrentHashMap<>();
+    private final Map<Integer, String> deviceIds = new ConcurrentHashMap<>();
+
+    @Autowired
+    public DeviceRegistry(DeviceRepository deviceRepository,
+                          JdbcTemplate jdbcTemplate,
+                          PlatformTransactionManager transactionManager) {
+        this.deviceRepository = deviceRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        // Validée à part : la clé reste valable même si le lot qui l'a créée est annulé
+        this.registration = new TransactionTemplate(transactionManager);
+        this.registration.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        jdbcTemplate.query("SELECT id, device_id FROM device", row -> {
+            put(row.getString(2), row.getInt(1));
+        });
+        log.info("Registre des appareils : {} appareils", keys.size());
+    }
+
+    // Chemin d'ingestion, avant la transaction qui écrit les échantillons (pas de connexion tenue en attendant)
+    public void register(Collection<String> ids) {
+        String previous = null;
+        for (String deviceId : ids) {
+            // Les lots viennent le plus souvent d'un seul appareil
+            if (deviceId != null && !deviceId.equals(previous) && !keys.containsKey(deviceId)) {
+                register(deviceId);
+            }
+            previous = deviceId;
+        }
+    }
+
+    public int keyOf(String deviceId) {
+        Integer key = keys.get(deviceId);
+        if (key == null) {
+            key = lookup(deviceId);
+            if (key == null) {
+                return UNKNOWN_KEY;
+            }
+            put(deviceId, key);
+        }
+        return key;
+    }
+
+    public String deviceIdOf(int key) {
+        String deviceId = deviceIds.get(key);
+        if (deviceId == null) {
+            List<String> found = jdbcTemplate.queryForList("SELECT device_id FROM device WHERE id = ?", String.class, key);
+            if (found.isEmpty()) {
+                throw new IllegalStateException("Clé d'appareil inconnue : " + key);
+            }
+            deviceId = found.get(0);
+            put(deviceId, key);
+        }
+        return deviceId;
+    }
+
+    public List<String> getAllDeviceIds() {
+        return deviceRepository.findAllDeviceIds();
+    }
+
+    // Insertion JDBC plutôt que par l'entité : un doublon (appareil enregistré entre-temps par un autre
+    // thread ou une autre instance) n'est pas journalisé en erreur par Hibernate, il est simplement relu
+    private void register(String deviceId) {
+        Integer key = lookup(deviceId);
+        if (key == null) {
+            try {
+                registration.executeWithoutResult(status -> jdbcTemplate.update(
+                        "INSERT INTO device (id, device_id) VALUES (nextval('device_seq'), ?)", deviceId));
+            } catch (DuplicateKeyException e) {
+                // Perdu la course : la ligne de l'autre est relue ci-dessous
+            }
+            key = lookup(deviceId);
+            if (key == null) {
+                throw new IllegalStateException("Enregistrement de l'appareil impossible : " + deviceId);
+            }
+        }
+        put(deviceId, key);
+    }
+
+    private Integer lookup(String deviceId) {
+        List<Integer> found = jdbcTemplate.queryForList("SELECT id FROM device WHERE device_id = ?", Integer.class, deviceId);
+        return found.isEmpty() ? null : found.get(0);
+    }
+
+    private void put(String deviceId, int key) {
+        keys.put(deviceId, key);
+        deviceIds.put(key, deviceId);
+    }
+}
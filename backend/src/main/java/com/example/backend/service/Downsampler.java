@@ -0,0 +1,312 @@
+package com.example.backend.service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+// Sous-échantillonnage en une seule passe sur une série triée par timestamp.
+// Les seaux découpent [from, to) en intervalles de même durée : une rafale d'échantillons n'occupe
+// que les seaux de sa période, et les seaux vides (trous dans la série) ne produisent aucun point.
+public abstract class Downsampler<T> {
+
+    protected final SeriesAccessor<T> accessor;
+    protected final List<T> output = new ArrayList<>();
+    protected long index;
+
+    private final long fromMillis;
+    private final long spanMillis;
+    private final long resolutionMillis;
+    private int buckets = 1;
+    private double bucketMillis;
+
+    protected Downsampler(SeriesAccessor<T> accessor, LocalDateTime from, LocalDateTime to, Duration resolution) {
+        this.accessor = accessor;
+        this.fromMillis = from == null ? 0 : toMillis(from);
+        this.spanMillis = from == null || to == null ? 1 : Math.max(1, toMillis(to) - fromMillis);
+        this.resolutionMillis = resolution == null ? 0 : resolution.toMillis();
+        this.bucketMillis = spanMillis;
+    }
+
+    // resolution (facultative) : durée minimale d'un seau, le budget maxPoints restant respecté
+    public static <T> Downsampler<T> create(DownsamplingMode mode, SeriesAccessor<T> accessor, long totalPoints,
+                                            int maxPoints, LocalDateTime from, LocalDateTime to, Duration resolution) {
+        if (totalPoints <= maxPoints || maxPoints < 3) {
+            return new Passthrough<>(accessor);
+        }
+        return switch (mode) {
+            case LTTB -> new Lttb<>(accessor, maxPoints, from, to, resolution);
+            case MINMAX -> new MinMax<>(accessor, maxPoints, from, to, resolution);
+            case AVG -> new Average<>(accessor, maxPoints, from, to, resolution);
+        };
+    }
+
+    public abstract void accept(T sample);
+
+    public abstract List<T> finish();
+
+    protected void layout(int buckets) {
+        this.buckets = buckets;
+        this.bucketMillis = Math.max((double) spanMillis / buckets, resolutionMillis);
+    }
+
+    // Seau d'un échantillon d'après son horodatage ; hors de [from, to), le premier ou le dernier
+    protected int bucket(T sample) {
+        double bucket = Math.floor((millis(sample) - fromMillis) / bucketMillis);
+        return (int) Math.max(0, Math.min(bucket, buckets - 1));
+    }
+
+    protected long millis(T sample) {
+        return toMillis(accessor.timestamp(sample));
+    }
+
+    protected static long toMillis(LocalDateTime timestamp) {
+        return timestamp.toInstant(ZoneOffset.UTC).toEpochMilli();
+    }
+
+    protected static LocalDateTime fromMillis(long millis) {
+        return LocalDateTime.ofEpochSecond(Math.floorDiv(millis, 1000),
+                (int) Math.floorMod(millis, 1000) * 1_000_000, ZoneOffset.UTC);
+    }
+
+    private static final class Passthrough<T> extends Downsampler<T> {
+        Passthrough(SeriesAccessor<T> accessor) {
+            super(accessor, null, null, null);
+        }
+
+        @Override
+        public void accept(T sample) {
+            output.add(sample);
+        }
+
+        @Override
+        public List<T> finish() {
+            return output;
+        }
+    }
+
+    // Le premier et le dernier point sont conservés ; chaque seau intermédiaire garde le point
+    // formant le plus grand triangle avec le point retenu précédent et la moyenne du seau suivant.
+    // Seuls les points des deux seaux non vides en cours sont gardés en mémoire.
+    private static final class Lttb<T> extends Downsampler<T> {
+        private List<T> current = new ArrayList<>();
+        private List<T> next = new ArrayList<>();
+        private int currentBucket;
+        private int nextBucket;
+        private T previous;
+
+        Lttb(SeriesAccessor<T> accessor, int maxPoints, LocalDateTime from, LocalDateTime to, Duration resolution) {
+            super(accessor, from, to, resolution);
+            layout(maxPoints - 2);
+        }
+
+        @Override
+        public void accept(T sample) {
+            if (index++ == 0) {
+                output.add(sample);
+                previous = sample;
+                return;
+            }
+            int bucket = bucket(sample);
+            if (current.isEmpty() || bucket == currentBucket) {
+                currentBucket = bucket;
+                current.add(sample);
+                return;
+            }
+            if (next.isEmpty() || bucket == nextBucket) {
+                nextBucket = bucket;
+                next.add(sample);
+                return;
+            }
+            // Nouveau seau non vide : celui en cours est tranché face à la moyenne du suivant
+            select(current, average(next));
+            current = next;
+            currentBucket = nextBucket;
+            next = new ArrayList<>();
+            nextBucket = bucket;
+            next.add(sample);
+        }
+
+        @Override
+        public List<T> finish() {
+            T last = null;
+            if (!next.isEmpty()) {
+                last = next.remove(next.size() - 1);
+            } else if (!current.isEmpty()) {
+                last = current.remove(current.size() - 1);
+            }
+            if (!current.isEmpty()) {
+                select(current, next.isEmpty() ? point(last) : average(next));
+            }
+            if (!next.isEmpty()) {
+                select(next, point(last));
+            }
+            if (last != null) {
+                output.add(last);
+            }
+            return output;
+        }
+
+        private void select(List<T> candidates, double[] target) {
+            if (candidates.isEmpty()) {
+                return;
+            }
+            double previousTime = millis(previous);
+            T best = candidates.get(0);
+            double bestArea = -1;
+            for (T candidate : candidates) {
+                double time = millis(candidate);
+                double area = 0;
+                for (int axis = 0; axis < accessor.axisCount(); axis++) {
+                    double previousValue = accessor.value(previous, axis);
+                    area += Math.abs((previousTime - target[0]) * (accessor.value(candidate, axis) - previousValue)
+                            - (previousTime - time) * (target[axis + 1] - previousValue));
+                }
+                if (area > bestArea) {
+                    bestArea = area;
+                    best = candidate;
+                }
+            }
+            output.add(best);
+            previous = best;
+        }
+
+        // [temps, axe0, axe1, ...]
+        private double[] average(List<T> samples) {
+            double[] mean = new double[accessor.axisCount() + 1];
+            for (T sample : samples) {
+                mean[0] += millis(sample);
+                for (int axis = 0; axis < accessor.axisCount(); axis++) {
+                    mean[axis + 1] += accessor.value(sample, axis);
+                }
+            }
+            for (int i = 0; i < mean.length; i++) {
+                mean[i] /= samples.size();
+            }
+            return mean;
+        }
+
+        private double[] point(T sample) {
+            double[] values = new double[accessor.axisCount() + 1];
+            values[0] = millis(sample);
+            for (int axis = 0; axis < accessor.axisCount(); axis++) {
+                values[axis + 1] = accessor.value(sample, axis);
+            }
+            return values;
+        }
+    }
+
+    // Seaux de même durée : on ne garde que les extrêmes de chaque axe
+    private static final class MinMax<T> extends Downsampler<T> {
+        private final Object[] minSamples;
+        private final Object[] maxSamples;
+        private int currentBucket = -1;
+
+        MinMax(SeriesAccessor<T> accessor, int maxPoints, LocalDateTime from, LocalDateTime to, Duration resolution) {
+            super(accessor, from, to, resolution);
+            layout(Math.max(1, maxPoints / (2 * accessor.axisCount())));
+            this.minSamples = new Object[accessor.axisCount()];
+            this.maxSamples = new Object[accessor.axisCount()];
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public void accept(T sample) {
+            int bucket = bucket(sample);
+            if (bucket != currentBucket) {
+                flush();
+                currentBucket = bucket;
+            }
+            for (int axis = 0; axis < accessor.axisCount(); axis++) {
+                double value = accessor.value(sample, axis);
+                if (minSamples[axis] == null || value < accessor.value((T) minSamples[axis], axis)) {
+                    minSamples[axis] = sample;
+                }
+                if (maxSamples[axis] == null || value > accessor.value((T) maxSamples[axis], axis)) {
+                    maxSamples[axis] = sample;
+                }
+            }
+        }
+
+        @Override
+        public List<T> finish() {
+            flush();
+            return output;
+        }
+
+        @SuppressWarnings("unchecked")
+        private void flush() {
+            if (minSamples[0] == null) {
+                return;
+            }
+            // Un même échantillon peut être l'extrême de plusieurs axes
+            Map<T, Boolean> selected = new IdentityHashMap<>();
+            for (int axis = 0; axis < accessor.axisCount(); axis++) {
+                selected.put((T) minSamples[axis], Boolean.TRUE);
+                selected.put((T) maxSamples[axis], Boolean.TRUE);
+                minSamples[axis] = null;
+                maxSamples[axis] = null;
+            }
+            List<T> ordered = new ArrayList<>(selected.keySet());
+            ordered.sort(Comparator.comparing(accessor::timestamp));
+            output.addAll(ordered);
+        }
+    }
+
+    // Un point moyen par seau non vide, horodaté à l'instant moyen de ses échantillons
+    private static final class Average<T> extends Downsampler<T> {
+        private final double[] sums;
+        private long timeOffsetSum;
+        private long templateMillis;
+        private int count;
+        private T template;
+        private int currentBucket = -1;
+
+        Average(SeriesAccessor<T> accessor, int maxPoints, LocalDateTime from, LocalDateTime to, Duration resolution) {
+            super(accessor, from, to, resolution);
+            layout(maxPoints);
+            this.sums = new double[accessor.axisCount()];
+        }
+
+        @Override
+        public void accept(T sample) {
+            int bucket = bucket(sample);
+            if (bucket != currentBucket) {
+                flush();
+                currentBucket = bucket;
+                template = sample;
+                templateMillis = millis(sample);
+            }
+            // Somme des écarts au premier point du seau : pas de dépassement sur les grands seaux
+            timeOffsetSum += millis(sample) - templateMillis;
+            for (int axis = 0; axis < sums.length; axis++) {
+                sums[axis] += accessor.value(sample, axis);
+            }
+            count++;
+        }
+
+        @Override
+        public List<T> finish() {
+            flush();
+            return output;
+        }
+
+        private void flush() {
+            if (count == 0) {
+                return;
+            }
+            double[] means = new double[sums.length];
+            for (int axis = 0; axis < sums.length; axis++) {
+                means[axis] = sums[axis] / count;
+                sums[axis] = 0;
+            }
+            output.add(accessor.create(template, fromMillis(templateMillis + timeOffsetSum / count), means));
+            timeOffsetSum = 0;
+            count = 0;
+        }
+    }
+}
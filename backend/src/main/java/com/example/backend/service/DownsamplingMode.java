@@ -0,0 +1,19 @@
+package com.example.backend.service;
+
+public enum DownsamplingMode {
+    // Largest-Triangle-Three-Buckets : conserve la forme visuelle de la courbe
+    LTTB,
+    // Minimum et maximum de chaque axe par seau : conserve les pics
+    MINMAX,
+    // Moyenne par seau
+    AVG;
+
+    public static DownsamplingMode fromParam(String value) {
+        for (DownsamplingMode mode : values()) {
+            if (mode.name().equalsIgnoreCase(value)) {
+                return mode;
+            }
+        }
+        throw new IllegalArgumentException("Mode de sous-échantillonnage non pris en charge : " + value);
+    }
+}
@@ -0,0 +1,132 @@
+package com.example.backend.service;
+
+import com.example.backend.entity.AlertType;
+
+import java.util.Arrays;
+
+// Détection d'événements de conduite pour un appareil, sur des fenêtres glissantes en tableaux primitifs.
+// Aucune allocation par échantillon : seul un événement émis passe par le Sink.
+// N'est pas thread-safe : chaque appareil est traité par un seul thread (voir DrivingEventService).
+//   - freinage / accélération : moyenne de l'axe longitudinal (y) sur la fenêtre
+//   - choc : pic de norme de l'accélération accompagné d'un à-coup (jerk) sur la norme
+//   - virage dangereux : moyenne de la vitesse de lacet (rotation z) sur la fenêtre
+final class DrivingEventDetector {
+
+    // Seuils en m/s², m/s³ et rad/s ; fenêtre et délai entre deux alertes du même type en µs
+    record Rules(long windowMicros, int capacity, double brakingThreshold, double accelerationThreshold,
+                 double crashThreshold, double crashJerkThreshold, double turnThreshold, long cooldownMicros) {
+    }
+
+    interface Sink {
+        void emit(String deviceId, AlertType type, long timeMicros, double value, double threshold);
+    }
+
+    private final String deviceId;
+    private final Rules rules;
+    private final Sink sink;
+
+    private final Window longitudinal;
+    private final Window yawRate;
+    private long lastAccelerometerTime = Long.MIN_VALUE;
+    private double lastMagnitude;
+    private long lastGyroscopeTime = Long.MIN_VALUE;
+    private final long[] lastAlertAt = new long[AlertType.values().length];
+
+    DrivingEventDetector(String deviceId, Rules rules, Sink sink) {
+        this.deviceId = deviceId;
+        this.rules = rules;
+        this.sink = sink;
+        this.longitudinal = new Window(rules.capacity());
+        this.yawRate = new Window(rules.capacity());
+        Arrays.fill(lastAlertAt, Long.MIN_VALUE);
+    }
+
+    // Les échantillons antérieurs au dernier reçu (rejeu, lot désordonné) sont ignorés
+    void acceptAccelerometer(long timeMicros, float x, float y, float z) {
+        if (timeMicros <= lastAccelerometerTime) {
+            return;
+        }
+        double magnitude = Math.sqrt((double) x * x + (double) y * y + (double) z * z);
+        if (lastAccelerometerTime != Long.MIN_VALUE && magnitude >= rules.crashThreshold()) {
+            double jerk = Math.abs(magnitude - lastMagnitude) * 1_000_000 / (timeMicros - lastAccelerometerTime);
+            if (jerk >= rules.crashJerkThreshold()) {
+                fire(AlertType.CRASH, timeMicros, magnitude, rules.crashThreshold());
+            }
+        }
+        lastAccelerometerTime = timeMicros;
+        lastMagnitude = magnitude;
+
+        longitudinal.add(timeMicros, y, rules.windowMicros());
+        if (longitudinal.covers(rules.windowMicros())) {
+            double mean = longitudinal.mean();
+            if (mean <= -rules.brakingThreshold()) {
+                fire(AlertType.HARSH_BRAKING, timeMicros, -mean, rules.brakingThreshold());
+            } else if (mean >= rules.accelerationThreshold()) {
+                fire(AlertType.EXCESSIVE_ACCELERATION, timeMicros, mean, rules.accelerationThreshold());
+            }
+        }
+    }
+
+    void acceptGyroscope(long timeMicros, float rotationX, float rotationY, float rotationZ) {
+        if (timeMicros <= lastGyroscopeTime) {
+            return;
+        }
+        lastGyroscopeTime = timeMicros;
+        yawRate.add(timeMicros, rotationZ, rules.windowMicros());
+        if (yawRate.covers(rules.windowMicros())) {
+            double mean = Math.abs(yawRate.mean());
+            if (mean >= rules.turnThreshold()) {
+                fire(AlertType.DANGEROUS_TURN, timeMicros, mean, rules.turnThreshold());
+            }
+        }
+    }
+
+    // Un événement qui dure produit une seule alerte par délai de garde
+    private void fire(AlertType type, long timeMicros, double value, double threshold) {
+        int slot = type.ordinal();
+        if (lastAlertAt[slot] != Long.MIN_VALUE && timeMicros - lastAlertAt[slot] < rules.cooldownMicros()) {
+            return;
+        }
+        lastAlertAt[slot] = timeMicros;
+        sink.emit(deviceId, type, timeMicros, value, threshold);
+    }
+
+    // Anneau (horodatage, valeur) avec somme courante ; les plus anciens sortent par âge ou par capacité
+    static final class Window {
+        private final long[] times;
+        private final double[] values;
+        private int head;
+        private int size;
+        private double sum;
+
+        Window(int capacity) {
+            this.times = new long[capacity];
+            this.values = new double[capacity];
+        }
+
+        void add(long timeMicros, double value, long windowMicros) {
+            while (size > 0 && (size == times.length || times[head] <= timeMicros - windowMicros)) {
+                sum -= values[head];
+                head = (head + 1) % times.length;
+                size--;
+            }
+            if (size == 0) {
+                sum = 0;
+            }
+            int slot = (head + size) % times.length;
+            times[slot] = timeMicros;
+            values[slot] = value;
+            sum += value;
+            size++;
+        }
+
+        // Un seul échantillon extrême ne suffit pas : la fenêtre doit couvrir au moins la moitié de sa durée
+        boolean covers(long windowMicros) {
+            return size > 1 && times[(head + size - 1) % times.length] - times[head] >= windowMicros / 2;
+        }
+
+        double mean() {
+            return sum / size;
+        }
+    }
+}
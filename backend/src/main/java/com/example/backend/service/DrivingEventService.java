@@ -0,0 +1,170 @@
+package com.example.backend.service;
+
+import com.example.backend.dto.GPSPointDTO;
+import com.example.backend.entity.AccelerometerData;
+import com.example.backend.entity.Alert;
+import com.example.backend.entity.AlertSeverity;
+import com.example.backend.entity.AlertType;
+import com.example.backend.entity.GyroscopeData;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+
+// Détection d'événements de conduite en flux, hors du chemin d'ingestion : après commit, les échantillons
+// sont confiés au shard de leur appareil (un thread par shard, file bornée). Si la file est pleine,
+// les échantillons sont comptés comme perdus plutôt que de ralentir l'ingestion.
+@Service
+public class DrivingEventService {
+
+    private final AlertService alertService;
+    private final PositionIndex positionIndex;
+    private final DrivingEventDetector.Rules rules;
+    private final long positionMaxAgeMicros;
+    private final ThreadPoolExecutor[] shards;
+
+    // Chaque détecteur n'est manipulé que par le thread de son shard
+    private final Map<String, DrivingEventDetector> detectors = new ConcurrentHashMap<>();
+    private final DrivingEventDetector.Sink sink = this::onEvent;
+    private final LongAdder dropped = new LongAdder();
+
+    @Autowired
+    public DrivingEventService(AlertService alertService,
+                               PositionIndex positionIndex,
+                               @Value("${alerts.window-ms:500}") long windowMillis,
+                               @Value("${alerts.window-capacity:256}") int windowCapacity,
+                               @Value("${alerts.harsh-braking-ms2:4.0}") double brakingThreshold,
+                               @Value("${alerts.acceleration-ms2:3.5}") double accelerationThreshold,
+                               @Value("${alerts.crash-ms2:40.0}") double crashThreshold,
+                               @Value("${alerts.crash-jerk-ms3:500.0}") double crashJerkThreshold,
+                               @Value("${alerts.turn-rad-s:1.0}") double turnThreshold,
+                               @Value("${alerts.cooldown-ms:5000}") long cooldownMillis,
+                               @Value("${alerts.position-max-age-seconds:30}") long positionMaxAgeSeconds,
+                               @Value("${alerts.detector-threads:2}") int threads,
+                               @Value("${alerts.queue-capacity:1024}") int queueCapacity) {
+        this.alertService = alertService;
+        this.positionIndex = positionIndex;
+        this.rules = new DrivingEventDetector.Rules(windowMillis * 1_000, windowCapacity, brakingThreshold,
+                accelerationThreshold, crashThreshold, crashJerkThreshold, turnThreshold, cooldownMillis * 1_000);
+        this.positionMaxAgeMicros = Duration.ofSeconds(positionMaxAgeSeconds).toNanos() / 1_000;
+        AtomicInteger counter = new AtomicInteger();
+        this.shards = new ThreadPoolExecutor[threads];
+        for (int i = 0; i < threads; i++) {
+            shards[i] = new ThreadPoolExecutor(1, 1, 0, TimeUnit.MILLISECONDS,
+                    new ArrayBlockingQueue<>(queueCapacity), runnable -> {
+                Thread thread = new Thread(runnable, "driving-events-" + counter.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+    }
+
+    public void recordAccelerometer(List<AccelerometerData> samples) {
+        TransactionHooks.afterCommit(() -> dispatch(samples, AccelerometerData::getDeviceId,
+                (detector, data) -> detector.acceptAccelerometer(toMicros(data.getTimestamp()),
+                        data.getX(), data.getY(), data.getZ())));
+    }
+
+    public void recordGyroscope(List<GyroscopeData> samples) {
+        TransactionHooks.afterCommit(() -> dispatch(samples, GyroscopeData::getDeviceId,
+                (detector, data) -> detector.acceptGyroscope(toMicros(data.getTimestamp()),
+                        data.getRotationX(), data.getRotationY(), data.getRotationZ())));
+    }
+
+    public long getDroppedSamples() {
+        return dropped.sum();
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        for (ThreadPoolExecutor shard : shards) {
+            shard.shutdown();
+        }
+        for (ThreadPoolExecutor shard : shards) {
+            shard.awaitTermination(5, TimeUnit.SECONDS);
+        }
+    }
+
+    // Une tâche par shard concerné, qui traite ses échantillons dans l'ordre du lot
+    private <T> void dispatch(List<T> samples, Function<T, String> deviceIdOf,
+                              BiConsumer<DrivingEventDetector, T> accept) {
+        List<List<T>> byShard = new ArrayList<>(shards.length);
+        for (int i = 0; i < shards.length; i++) {
+            byShard.add(null);
+        }
+        for (T sample : samples) {
+            String deviceId = deviceIdOf.apply(sample);
+            if (deviceId == null) {
+                continue;
+            }
+            int shard = Math.floorMod(deviceId.hashCode(), shards.length);
+            if (byShard.get(shard) == null) {
+                byShard.set(shard, new ArrayList<>());
+            }
+            byShard.get(shard).add(sample);
+        }
+        for (int i = 0; i < shards.length; i++) {
+            List<T> shardSamples = byShard.get(i);
+            if (shardSamples == null) {
+                continue;
+            }
+            try {
+                shards[i].execute(() -> {
+                    for (T sample : shardSamples) {
+                        accept.accept(detectors.computeIfAbsent(deviceIdOf.apply(sample),
+                                id -> new DrivingEventDetector(id, rules, sink)), sample);
+                    }
+                });
+            } catch (RejectedExecutionException e) {
+                dropped.add(shardSamples.size());
+            }
+        }
+    }
+
+    // Appelé sur le thread du shard ; l'alerte est enrichie de la dernière position connue si elle est récente
+    private void onEvent(String deviceId, AlertType type, long timeMicros, double value, double threshold) {
+        Alert alert = new Alert(deviceId, type, severity(type, value / threshold), fromMicros(timeMicros),
+                value, threshold);
+        Optional<GPSPointDTO> position = positionIndex.get(deviceId);
+        if (position.isPresent()
+                && Math.abs(toMicros(position.get().timestamp()) - timeMicros) <= positionMaxAgeMicros) {
+            alert.setLatitude(position.get().latitude());
+            alert.setLongitude(position.get().longitude());
+            alert.setSpeed(position.get().speed());
+        }
+        alertService.record(alert);
+    }
+
+    private static AlertSeverity severity(AlertType type, double ratio) {
+        if (type == AlertType.CRASH || ratio >= 2) {
+            return AlertSeverity.HIGH;
+        }
+        return ratio >= 1.5 ? AlertSeverity.MEDIUM : AlertSeverity.LOW;
+    }
+
+    private static long toMicros(LocalDateTime timestamp) {
+        return timestamp.toEpochSecond(ZoneOffset.UTC) * 1_000_000 + timestamp.getNano() / 1_000;
+    }
+
+    private static LocalDateTime fromMicros(long micros) {
+        return LocalDateTime.ofEpochSecond(Math.floorDiv(micros, 1_000_000),
+                (int) Math.floorMod(micros, 1_000_000) * 1_000, ZoneOffset.UTC);
+    }
+}
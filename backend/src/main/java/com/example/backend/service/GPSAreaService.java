@@ -0,0 +1,35 @@
+package com.example.backend.service;
+
+import com.example.backend.dto.AreaVisitDTO;
+import com.example.backend.repository.GPSAreaRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+// Recherches par zone sur l'historique GPS, pré-filtrées par préfixes geohash
+@Service
+public class GPSAreaService {
+
+    private final GPSAreaRepository areaRepository;
+    private final int maxCells;
+    private final int maxResults;
+
+    @Autowired
+    public GPSAreaService(GPSAreaRepository areaRepository,
+                          @Value("${gps.area.max-geohash-cells:32}") int maxCells,
+                          @Value("${sensor.query.max-page-size:10000}") int maxResults) {
+        this.areaRepository = areaRepository;
+        this.maxCells = maxCells;
+        this.maxResults = maxResults;
+    }
+
+    public List<AreaVisitDTO> getVisits(double minLatitude, double minLongitude, double maxLatitude, double maxLongitude,
+                                        LocalDateTime from, LocalDateTime to) {
+        List<String> prefixes = Geohash.cover(minLatitude, minLongitude, maxLatitude, maxLongitude, maxCells);
+        return areaRepository.findVisits(prefixes, minLatitude, minLongitude, maxLatitude, maxLongitude,
+                from, to, maxResults);
+    }
+}
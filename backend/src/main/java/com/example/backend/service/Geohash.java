@@ -0,0 +1,84 @@
+package com.example.backend.service;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// Geohash : cellules imbriquées, un caractère base 32 par niveau (bits de longitude et de latitude alternés).
+// Tous les points d'une cellule partagent son préfixe, d'où les recherches par préfixe sur l'index gps_data.
+final class Geohash {
+
+    // Cellules d'environ 5 m x 5 m
+    static final int PRECISION = 9;
+
+    private static final char[] ALPHABET = "0123456789bcdefghjkmnpqrstuvwxyz".toCharArray();
+
+    private Geohash() {
+    }
+
+    static String encode(double latitude, double longitude, int precision) {
+        double minLatitude = -90;
+        double maxLatitude = 90;
+        double minLongitude = -180;
+        double maxLongitude = 180;
+        char[] hash = new char[precision];
+        boolean even = true;
+        for (int i = 0; i < precision; i++) {
+            int index = 0;
+            for (int bit = 0; bit < 5; bit++) {
+                if (even) {
+                    double mid = (minLongitude + maxLongitude) / 2;
+                    index <<= 1;
+                    if (longitude >= mid) {
+                        index |= 1;
+                        minLongitude = mid;
+                    } else {
+                        maxLongitude = mid;
+                    }
+                } else {
+                    double mid = (minLatitude + maxLatitude) / 2;
+                    index <<= 1;
+                    if (latitude >= mid) {
+                        index |= 1;
+                        minLatitude = mid;
+                    } else {
+                        maxLatitude = mid;
+                    }
+                }
+                even = !even;
+            }
+            hash[i] = ALPHABET[index];
+        }
+        return new String(hash);
+    }
+
+    // Préfixes couvrant le rectangle, à la précision la plus fine qui tient en maxCells cellules ;
+    // liste vide si même une cellule de premier niveau ne suffit pas (pas de pré-filtre possible)
+    static List<String> cover(double minLatitude, double minLongitude, double maxLatitude, double maxLongitude,
+                              int maxCells) {
+        for (int precision = PRECISION; precision >= 1; precision--) {
+            int longitudeBits = (5 * precision + 1) / 2;
+            int latitudeBits = 5 * precision / 2;
+            double width = 360.0 / (1L << longitudeBits);
+            double height = 180.0 / (1L << latitudeBits);
+            long firstColumn = cell(minLongitude + 180, width, longitudeBits);
+            long lastColumn = cell(maxLongitude + 180, width, longitudeBits);
+            long firstRow = cell(minLatitude + 90, height, latitudeBits);
+            long lastRow = cell(maxLatitude + 90, height, latitudeBits);
+            if ((lastColumn - firstColumn + 1) * (lastRow - firstRow + 1) > maxCells) {
+                continue;
+            }
+            List<String> prefixes = new ArrayList<>();
+            for (long row = firstRow; row <= lastRow; row++) {
+                for (long column = firstColumn; column <= lastColumn; column++) {
+                    prefixes.add(encode(-90 + (row + 0.5) * height, -180 + (column + 0.5) * width, precision));
+                }
+            }
+            return prefixes;
+        }
+        return List.of();
+    }
+
+    private static long cell(double offset, double size, int bits) {
+        return Math.min((long) Math.floor(offset / size), (1L << bits) - 1);
+    }
+}
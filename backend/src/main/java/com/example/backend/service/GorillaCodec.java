@@ -0,0 +1,245 @@
+package com.example.backend.service;
+
+import java.util.Arrays;
+
+// Bloc colonnaire compressé (à la Gorilla) pour le stockage froid des capteurs inertiels :
+//   u8 version | varint n | horodatages (µs) | identifiants | colonnes float32
+// Horodatages et identifiants : première valeur sur 64 bits, puis delta de delta par paliers
+//   '0' (inchangé) | '10' + 8 bits | '110' + 14 bits | '1110' + 20 bits | '1111' + 64 bits (zigzag)
+// Flottants : XOR avec la valeur précédente, '0' si identique, sinon '10' + bits significatifs dans
+// la fenêtre précédente, ou '11' + 5 bits de zéros de tête + 5 bits de longueur - 1 + bits significatifs.
+final class GorillaCodec {
+
+    static final byte VERSION = 1;
+
+    private GorillaCodec() {
+    }
+
+    record Block(long[] timestamps, long[] ids, float[][] columns) {
+        int size() {
+            return timestamps.length;
+        }
+    }
+
+    static byte[] encode(long[] timestamps, long[] ids, float[][] columns) {
+        int n = timestamps.length;
+        if (ids.length != n || Arrays.stream(columns).anyMatch(column -> column.length != n)) {
+            throw new IllegalArgumentException("Colonnes de longueurs différentes");
+        }
+        BitWriter out = new BitWriter(16 + n * (4 + columns.length * 2));
+        out.write(VERSION, 8);
+        out.writeVarInt(n);
+        writeLongs(out, timestamps);
+        writeLongs(out, ids);
+        for (float[] column : columns) {
+            writeFloats(out, column);
+        }
+        return out.toByteArray();
+    }
+
+    static Block decode(byte[] payload, int columnCount) {
+        BitReader in = new BitReader(payload);
+        int version = (int) in.read(8);
+        if (version != VERSION) {
+            throw new IllegalArgumentException("Version de bloc non supportée : " + version);
+        }
+        int n = in.readVarInt();
+        long[] timestamps = readLongs(in, n);
+        long[] ids = readLongs(in, n);
+        float[][] columns = new float[columnCount][];
+        for (int c = 0; c < columnCount; c++) {
+            columns[c] = readFloats(in, n);
+        }
+        return new Block(timestamps, ids, columns);
+    }
+
+    private static void writeLongs(BitWriter out, long[] values) {
+        long previous = 0;
+        long previousDelta = 0;
+        for (int i = 0; i < values.length; i++) {
+            if (i == 0) {
+                out.write(values[0], 64);
+            } else {
+                long delta = values[i] - previous;
+                long dod = delta - previousDelta;
+                // Zigzag : petites valeurs négatives comme positives
+                long zigzag = (dod << 1) ^ (dod >> 63);
+                if (zigzag == 0) {
+                    out.write(0b0, 1);
+                } else if (zigzag < 1L << 8) {
+                    out.write(0b10, 2);
+                    out.write(zigzag, 8);
+                } else if (zigzag < 1L << 14) {
+                    out.write(0b110, 3);
+                    out.write(zigzag, 14);
+                } else if (zigzag < 1L << 20) {
+                    out.write(0b1110, 4);
+                    out.write(zigzag, 20);
+                } else {
+                    out.write(0b1111, 4);
+                    out.write(zigzag, 64);
+                }
+                previousDelta = delta;
+            }
+            previous = values[i];
+        }
+    }
+
+    private static long[] readLongs(BitReader in, int n) {
+        long[] values = new long[n];
+        long previous = 0;
+        long previousDelta = 0;
+        for (int i = 0; i < n; i++) {
+            if (i == 0) {
+                previous = in.read(64);
+            } else {
+                int bits;
+                if (in.read(1) == 0) {
+                    bits = 0;
+                } else if (in.read(1) == 0) {
+                    bits = 8;
+                } else if (in.read(1) == 0) {
+                    bits = 14;
+                } else if (in.read(1) == 0) {
+                    bits = 20;
+                } else {
+                    bits = 64;
+                }
+                long zigzag = bits == 0 ? 0 : in.read(bits);
+                long dod = (zigzag >>> 1) ^ -(zigzag & 1);
+                previousDelta += dod;
+                previous += previousDelta;
+            }
+            values[i] = previous;
+        }
+        return values;
+    }
+
+    private static void writeFloats(BitWriter out, float[] values) {
+        int previous = 0;
+        int leading = Integer.MAX_VALUE;
+        int trailing = 0;
+        for (int i = 0; i < values.length; i++) {
+            int bits = Float.floatToRawIntBits(values[i]);
+            if (i == 0) {
+                out.write(Integer.toUnsignedLong(bits), 32);
+            } else {
+                int xor = bits ^ previous;
+                if (xor == 0) {
+                    out.write(0b0, 1);
+                } else {
+                    // Zéros de tête plafonnés à 31 pour tenir sur 5 bits
+                    int newLeading = Math.min(Integer.numberOfLeadingZeros(xor), 31);
+                    int newTrailing = Integer.numberOfTrailingZeros(xor);
+                    if (leading != Integer.MAX_VALUE && newLeading >= leading && newTrailing >= trailing) {
+                        out.write(0b10, 2);
+                        out.write(Integer.toUnsignedLong(xor >>> trailing), 32 - leading - trailing);
+                    } else {
+                        leading = newLeading;
+                        trailing = newTrailing;
+                        int length = 32 - leading - trailing;
+                        out.write(0b11, 2);
+                        out.write(leading, 5);
+                        out.write(length - 1, 5);
+                        out.write(Integer.toUnsignedLong(xor >>> trailing), length);
+                    }
+                }
+            }
+            previous = bits;
+        }
+    }
+
+    private static float[] readFloats(BitReader in, int n) {
+        float[] values = new float[n];
+        int previous = 0;
+        int leading = 0;
+        int trailing = 0;
+        for (int i = 0; i < n; i++) {
+            if (i == 0) {
+                previous = (int) in.read(32);
+            } else if (in.read(1) == 1) {
+                if (in.read(1) == 1) {
+                    leading = (int) in.read(5);
+                    trailing = 32 - leading - ((int) in.read(5) + 1);
+                }
+                int xor = (int) in.read(32 - leading - trailing) << trailing;
+                previous ^= xor;
+            }
+            values[i] = Float.intBitsToFloat(previous);
+        }
+        return values;
+    }
+
+    private static final class BitWriter {
+        private byte[] bytes;
+        private int bitPosition;
+
+        BitWriter(int initialBytes) {
+            this.bytes = new byte[Math.max(initialBytes, 16)];
+        }
+
+        // Les bits de poids faible de value, du plus fort au plus faible
+        void write(long value, int bits) {
+            ensureCapacity(bits);
+            for (int i = bits - 1; i >= 0; i--) {
+                if ((value >>> i & 1) != 0) {
+                    bytes[bitPosition >>> 3] |= (byte) (0x80 >>> (bitPosition & 7));
+                }
+                bitPosition++;
+            }
+        }
+
+        void writeVarInt(int value) {
+            while ((value & ~0x7F) != 0) {
+                write((value & 0x7F) | 0x80, 8);
+                value >>>= 7;
+            }
+            write(value, 8);
+        }
+
+        byte[] toByteArray() {
+            return Arrays.copyOf(bytes, (bitPosition + 7) >>> 3);
+        }
+
+        private void ensureCapacity(int bits) {
+            int needed = (bitPosition + bits + 7) >>> 3;
+            if (needed > bytes.length) {
+                bytes = Arrays.copyOf(bytes, Math.max(needed, bytes.length * 2));
+            }
+        }
+    }
+
+    private static final class BitReader {
+        private final byte[] bytes;
+        private int bitPosition;
+
+        BitReader(byte[] bytes) {
+            this.bytes = bytes;
+        }
+
+        long read(int bits) {
+            if (bitPosition + bits > bytes.length * 8L) {
+                throw new IllegalArgumentException("Bloc tronqué");
+            }
+            long value = 0;
+            for (int i = 0; i < bits; i++) {
+                int bit = bytes[bitPosition >>> 3] >>> (7 - (bitPosition & 7)) & 1;
+                value = value << 1 | bit;
+                bitPosition++;
+            }
+            return value;
+        }
+
+        int readVarInt() {
+            int value = 0;
+            for (int shift = 0; shift < 32; shift += 7) {
+                int b = (int) read(8);
+                value |= (b & 0x7F) << shift;
+                if ((b & 0x80) == 0) {
+                    return value;
+                }
+            }
+            throw new IllegalArgumentException("Taille de bloc invalide");
+        }
+    }
+}
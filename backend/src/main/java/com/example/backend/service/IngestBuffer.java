@@ -0,0 +1,133 @@
+package com.example.backend.service;
+
+import java.util.List;
+import java.util.concurrent.locks.ReentrantLock;
+
+// Tampon circulaire borné : un lot est accepté entièrement ou refusé entièrement.
+// Des places peuvent être réservées d'avance (lot réparti sur plusieurs tampons) : elles ne sont
+// plus offertes aux autres écrivains jusqu'à leur remplissage ou leur libération.
+public class IngestBuffer<T> {
+
+    private final Object[] slots;
+    private final ReentrantLock lock = new ReentrantLock();
+    private int head;
+    private int size;
+    private int reserved;
+
+    public IngestBuffer(int capacity) {
+        this.slots = new Object[capacity];
+    }
+
+    public boolean offer(T item) {
+        lock.lock();
+        try {
+            if (free() == 0) {
+                return false;
+            }
+            slots[(head + size) % slots.length] = item;
+            size++;
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public boolean offerAll(List<T> items) {
+        lock.lock();
+        try {
+            if (free() < items.size()) {
+                return false;
+            }
+            append(items);
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public boolean reserve(int count) {
+        lock.lock();
+        try {
+            if (free() < count) {
+                return false;
+            }
+            reserved += count;
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void release(int count) {
+        lock.lock();
+        try {
+            reserved -= count;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Remplit des places réservées par reserve(items.size()) : jamais refusé
+    public void fillReserved(List<T> items) {
+        lock.lock();
+        try {
+            if (items.size() > reserved) {
+                throw new IllegalStateException("Places non réservées : " + items.size() + " > " + reserved);
+            }
+            reserved -= items.size();
+            append(items);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    public int drainTo(List<T> target, int maxItems) {
+        lock.lock();
+        try {
+            int count = Math.min(size, maxItems);
+            for (int i = 0; i < count; i++) {
+                target.add((T) slots[head]);
+                slots[head] = null;
+                head = (head + 1) % slots.length;
+            }
+            size -= count;
+            return count;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int remainingCapacity() {
+        lock.lock();
+        try {
+            return free();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int size() {
+        lock.lock();
+        try {
+            return size;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int capacity() {
+        return slots.length;
+    }
+
+    private int free() {
+        return slots.length - size - reserved;
+    }
+
+    private void append(List<T> items) {
+        for (T item : items) {
+            slots[(head + size) % slots.length] = item;
+            size++;
+        }
+    }
+}
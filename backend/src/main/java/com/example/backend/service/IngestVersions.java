@@ -0,0 +1,106 @@
+package com.example.backend.service;
+
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+// Numéros de version des données ingérées, par capteur et par appareil, pour les GET conditionnels :
+// l'ETag d'une réponse se calcule depuis ces compteurs, sans lire la base ni hacher le corps.
+// L'époque (instant de démarrage) change à chaque redémarrage, les ETags d'un processus précédent
+// ne sont donc jamais reconnus. Toute modification hors ingestion (purge, recalage) invalide tout.
+@Component
+public class IngestVersions {
+
+    public static final String ACCELEROMETER = "accelerometer";
+    public static final String GYROSCOPE = "gyroscope";
+    public static final String GPS = "gps";
+
+    // Séquence et instant de la dernière modification (ms epoch)
+    public record Version(String etag, long lastModified) {
+    }
+
+    private record Stamp(long sequence, long millis) {
+    }
+
+    private final String epoch = Long.toString(System.currentTimeMillis(), 36);
+    private final AtomicLong sequence = new AtomicLong();
+    // Une invalidation globale passe toutes les versions par appareil en dessous de ce plancher
+    private volatile Stamp floor = new Stamp(0, System.currentTimeMillis());
+    private final AtomicReference<Stamp> latest = new AtomicReference<>(floor);
+    private final Map<String, Stamp> byType = new ConcurrentHashMap<>();
+    private final Map<String, Stamp> byDevice = new ConcurrentHashMap<>();
+
+    public void recordAccelerometer(Collection<String> deviceIds) {
+        TransactionHooks.afterCommit(() -> record(ACCELEROMETER, deviceIds));
+    }
+
+    public void recordGyroscope(Collection<String> deviceIds) {
+        TransactionHooks.afterCommit(() -> record(GYROSCOPE, deviceIds));
+    }
+
+    public void recordGPS(Collection<String> deviceIds) {
+        TransactionHooks.afterCommit(() -> record(GPS, deviceIds));
+    }
+
+    public void invalidateAll() {
+        Stamp stamp = next();
+        floor = stamp;
+        latest.accumulateAndGet(stamp, IngestVersions::newest);
+    }
+
+    // Toutes les données, tous capteurs et appareils confondus
+    public Version all() {
+        return toVersion("all", latest.get());
+    }
+
+    // deviceId null : toutes les données du capteur
+    public Version of(String sensorType, String deviceId) {
+        Stamp stamp = deviceId == null ? byType.get(sensorType) : byDevice.get(sensorType + '/' + deviceId);
+        Stamp current = floor;
+        return toVersion(sensorType, stamp == null || stamp.sequence() < current.sequence() ? current : stamp);
+    }
+
+    // Vue croisant plusieurs capteurs d'un appareil : la plus récente de leurs versions
+    public Version combined(String scope, String deviceId, String... sensorTypes) {
+        Stamp current = floor;
+        for (String sensorType : sensorTypes) {
+            Stamp stamp = byDevice.get(sensorType + '/' + deviceId);
+            if (stamp != null) {
+                current = newest(current, stamp);
+            }
+        }
+        return toVersion(scope, current);
+    }
+
+    private void record(String sensorType, Collection<String> deviceIds) {
+        Stamp stamp = next();
+        Set<String> distinct = new HashSet<>(deviceIds);
+        for (String deviceId : distinct) {
+            if (deviceId != null) {
+                byDevice.merge(sensorType + '/' + deviceId, stamp, IngestVersions::newest);
+            }
+        }
+        byType.merge(sensorType, stamp, IngestVersions::newest);
+        latest.accumulateAndGet(stamp, IngestVersions::newest);
+    }
+
+    private Stamp next() {
+        return new Stamp(sequence.incrementAndGet(), System.currentTimeMillis());
+    }
+
+    private static Stamp newest(Stamp a, Stamp b) {
+        return a.sequence() >= b.sequence() ? a : b;
+    }
+
+    // ETag faible : le corps peut être compressé différemment selon le client
+    private Version toVersion(String scope, Stamp stamp) {
+        return new Version("W/\"" + scope + '-' + epoch + '-' + Long.toString(stamp.sequence(), 36) + '"',
+                stamp.millis());
+    }
+}
@@ -0,0 +1,254 @@
+package com.example.backend.service;
+
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+// Diffusion en direct (SSE) des échantillons validés. La publication ne fait que déposer
+// dans le tampon borné de chaque abonné ; l'envoi réseau se fait hors du chemin d'ingestion.
+// Un client lent perd les échantillons les plus anciens au lieu de ralentir l'ingestion.
+// Envois sur un pool borné (live.dispatch-threads), au plus un en cours ou en file par abonné : un client
+// bloqué n'immobilise qu'un thread, rendu lorsqu'il est évincé (envoi au-delà de live.send-timeout-ms).
+// Chaque tâche envoie un seul lot puis se remet en file : un flux soutenu ne monopolise pas un thread.
+@Service
+public class LiveBroadcaster {
+
+    private static final Logger log = LoggerFactory.getLogger(LiveBroadcaster.class);
+
+    public static final String ALL_DEVICES = "*";
+
+    private final Map<String, Set<Subscriber>> subscribers = new ConcurrentHashMap<>();
+    private final ExecutorService dispatcher;
+    private final int bufferSize;
+    private final long timeoutMillis;
+    private final long sendTimeoutNanos;
+    private final LongAdder dropped = new LongAdder();
+    private final LongAdder evicted = new LongAdder();
+
+    @Autowired
+    public LiveBroadcaster(@Value("${live.subscriber-buffer-size:256}") int bufferSize,
+                           @Value("${live.timeout-ms:1800000}") long timeoutMillis,
+                           @Value("${live.send-timeout-ms:10000}") long sendTimeoutMillis,
+                           @Value("${live.dispatch-threads:8}") int dispatchThreads) {
+        AtomicInteger counter = new AtomicInteger();
+        // File bornée de fait par le nombre d'abonnés : une seule tâche par abonné à la fois
+        this.dispatcher = Executors.newFixedThreadPool(Math.max(1, dispatchThreads), runnable -> {
+            Thread thread = new Thread(runnable, "live-dispatch-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.bufferSize = bufferSize;
+        this.timeoutMillis = timeoutMillis;
+        this.sendTimeoutNanos = sendTimeoutMillis * 1_000_000;
+    }
+
+    public SseEmitter subscribe(String sensorType, String deviceId) {
+        return subscribe(sensorType, deviceId, new SseEmitter(timeoutMillis));
+    }
+
+    SseEmitter subscribe(String sensorType, String deviceId, SseEmitter emitter) {
+        String key = key(sensorType, deviceId);
+        Subscriber subscriber = new Subscriber(key, sensorType, emitter, bufferSize);
+        subscribers.computeIfAbsent(key, k -> ConcurrentHashMap.newKeySet()).add(subscriber);
+        Runnable remove = () -> unsubscribe(subscriber);
+        emitter.onCompletion(remove);
+        emitter.onTimeout(remove);
+        emitter.onError(error -> remove.run());
+        return emitter;
+    }
+
+    public <T> void publish(String sensorType, Collection<T> samples, Function<T, String> deviceIdOf) {
+        if (subscribers.isEmpty() || samples.isEmpty()) {
+            return;
+        }
+        TransactionHooks.afterCommit(() -> {
+            Set<Subscriber> wildcard = subscribers.get(key(sensorType, ALL_DEVICES));
+            for (T sample : samples) {
+                Set<Subscriber> targets = subscribers.get(key(sensorType, deviceIdOf.apply(sample)));
+                offer(targets, sample);
+                offer(wildcard, sample);
+            }
+        });
+    }
+
+    public int getSubscriberCount() {
+        return subscribers.values().stream().mapToInt(Set::size).sum();
+    }
+
+    public long getDroppedCount() {
+        return dropped.sum();
+    }
+
+    public long getEvictedCount() {
+        return evicted.sum();
+    }
+
+    // Détecte les connexions mortes que le conteneur ne signale pas. Le ping passe par la même file
+    // que les données : rien n'est ajouté pour un abonné dont l'envoi précédent n'est pas terminé.
+    @Scheduled(fixedDelayString = "${live.heartbeat-ms:15000}")
+    public void heartbeat() {
+        subscribers.values().forEach(set -> set.forEach(subscriber -> {
+            if (evictIfStalled(subscriber)) {
+                return;
+            }
+            subscriber.pingRequested = true;
+            schedule(subscriber);
+        }));
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        dispatcher.shutdownNow();
+        subscribers.values().forEach(set -> set.forEach(subscriber -> subscriber.emitter.complete()));
+        subscribers.clear();
+    }
+
+    private void offer(Set<Subscriber> targets, Object sample) {
+        if (targets == null) {
+            return;
+        }
+        for (Subscriber subscriber : targets) {
+            if (evictIfStalled(subscriber)) {
+                continue;
+            }
+            if (!subscriber.offer(sample)) {
+                dropped.increment();
+            }
+            schedule(subscriber);
+        }
+    }
+
+    // Envoi en cours : rien n'est mis en file, la tâche qui envoie reprend ce qui arrive entre-temps
+    private void schedule(Subscriber subscriber) {
+        if (subscriber.sendingSince == 0 && subscriber.scheduled.compareAndSet(false, true)) {
+            dispatcher.execute(() -> drain(subscriber));
+        }
+    }
+
+    // Les échantillons en attente sont regroupés en un seul événement
+    private void drain(Subscriber subscriber) {
+        List<Object> pending = subscriber.takeAll();
+        boolean ping = subscriber.pingRequested;
+        subscriber.pingRequested = false;
+        try {
+            if (!pending.isEmpty()) {
+                subscriber.send(SseEmitter.event()
+                        .name(subscriber.sensorType)
+                        .data(pending, MediaType.APPLICATION_JSON));
+            } else if (ping) {
+                subscriber.send(SseEmitter.event().comment("ping"));
+            }
+        } catch (IOException | IllegalStateException e) {
+            log.debug("Abonné déconnecté : {}", e.getMessage());
+            unsubscribe(subscriber);
+            subscriber.emitter.completeWithError(e);
+            return;
+        }
+        subscriber.scheduled.set(false);
+        // Un échantillon ou un ping arrivé pendant l'envoi : remis en file derrière les autres abonnés
+        if (!subscriber.isEmpty() || subscriber.pingRequested) {
+            schedule(subscriber);
+        }
+    }
+
+    private boolean evictIfStalled(Subscriber subscriber) {
+        long since = subscriber.sendingSince;
+        if (since == 0 || System.nanoTime() - since < sendTimeoutNanos) {
+            return false;
+        }
+        if (unsubscribe(subscriber)) {
+            evicted.increment();
+            log.warn("Abonné {} évincé : envoi bloqué depuis plus de {} ms", subscriber.key, sendTimeoutNanos / 1_000_000);
+            // Ferme la requête asynchrone : l'écriture bloquée échoue et rend son thread
+            subscriber.emitter.completeWithError(new TimeoutException("Envoi SSE bloqué"));
+        }
+        return true;
+    }
+
+    private boolean unsubscribe(Subscriber subscriber) {
+        Set<Subscriber> set = subscribers.get(subscriber.key);
+        if (set == null || !set.remove(subscriber)) {
+            return false;
+        }
+        if (set.isEmpty()) {
+            subscribers.remove(subscriber.key, set);
+        }
+        return true;
+    }
+
+    private static String key(String sensorType, String deviceId) {
+        return sensorType + ":" + deviceId;
+    }
+
+    private static final class Subscriber {
+        private final String key;
+        private final String sensorType;
+        private final SseEmitter emitter;
+        private final int capacity;
+        private final ArrayDeque<Object> buffer;
+        private final AtomicBoolean scheduled = new AtomicBoolean();
+        private volatile boolean pingRequested;
+        // Début de l'envoi en cours (System.nanoTime()), 0 au repos
+        private volatile long sendingSince;
+
+        Subscriber(String key, String sensorType, SseEmitter emitter, int capacity) {
+            this.key = key;
+            this.sensorType = sensorType;
+            this.emitter = emitter;
+            this.capacity = capacity;
+            this.buffer = new ArrayDeque<>(capacity);
+        }
+
+        void send(SseEmitter.SseEventBuilder event) throws IOException {
+            sendingSince = System.nanoTime();
+            try {
+                emitter.send(event);
+            } finally {
+                sendingSince = 0;
+            }
+        }
+
+        // Tampon plein : l'échantillon le plus ancien est écarté
+        synchronized boolean offer(Object sample) {
+            boolean kept = true;
+            if (buffer.size() == capacity) {
+                buffer.pollFirst();
+                kept = false;
+            }
+            buffer.addLast(sample);
+            return kept;
+        }
+
+        synchronized List<Object> takeAll() {
+            List<Object> items = new ArrayList<>(buffer);
+            buffer.clear();
+            return items;
+        }
+
+        synchronized boolean isEmpty() {
+            return buffer.isEmpty();
+        }
+    }
+}
@@ -0,0 +1,119 @@
+package com.example.backend.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+// Création à l'avance et purge des partitions des tables de capteurs (PostgreSQL uniquement,
+// les tables sont partitionnées par la migration V2). La base embarquée n'est pas partitionnée.
+@Service
+public class PartitionMaintenanceService {
+
+    private static final Logger log = LoggerFactory.getLogger(PartitionMaintenanceService.class);
+
+    static final List<String> TABLES = List.of("accelerometer_data", "gyroscope_data", "gps_data");
+
+    private static final Pattern UPPER_BOUND = Pattern.compile("TO \\('([^']+)'\\)");
+    private static final DateTimeFormatter BOUND_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+    private static final DateTimeFormatter SUFFIX_FORMAT = DateTimeFormatter.ofPattern("yyyyMMdd");
+
+    private final JdbcTemplate jdbcTemplate;
+    private final PartitionPlanner planner;
+    private final IngestVersions ingestVersions;
+
+    @Autowired
+    public PartitionMaintenanceService(JdbcTemplate jdbcTemplate,
+                                       IngestVersions ingestVersions,
+                                       @Value("${sensor.partition.interval:DAY}") PartitionInterval interval,
+                                       @Value("${sensor.partition.premake-days:3}") int premakeDays,
+                                       @Value("${sensor.partition.retention-days:0}") int retentionDays) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.ingestVersions = ingestVersions;
+        this.planner = new PartitionPlanner(interval, premakeDays, retentionDays);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(cron = "${sensor.partition.cron:0 15 0 * * *}")
+    public synchronized void maintain() {
+        String product = jdbcTemplate.execute(
+                (ConnectionCallback<String>) connection -> connection.getMetaData().getDatabaseProductName());
+        if (!"PostgreSQL".equals(product)) {
+            return;
+        }
+        LocalDateTime now = LocalDateTime.now();
+        for (String table : TABLES) {
+            if (isPartitioned(table)) {
+                maintain(table, now);
+            }
+        }
+    }
+
+    private void maintain(String table, LocalDateTime now) {
+        Map<String, LocalDateTime> upperBounds = upperBounds(table);
+        LocalDateTime coveredUntil = upperBounds.values().stream().max(Comparator.naturalOrder()).orElse(null);
+        for (PartitionPlanner.Range range : planner.toCreate(now, coveredUntil)) {
+            String partition = table + "_p" + range.from().format(SUFFIX_FORMAT);
+            try {
+                jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS " + partition + " PARTITION OF " + table
+                        + " FOR VALUES FROM ('" + range.from().format(BOUND_FORMAT) + "') TO ('"
+                        + range.to().format(BOUND_FORMAT) + "')");
+                log.info("Partition {} prête ({} -> {})", partition, range.from(), range.to());
+            } catch (DataAccessException e) {
+                // Typiquement : des lignes de cette plage sont déjà dans la partition DEFAULT
+                log.warn("Création de la partition {} impossible : {}", partition, e.getMostSpecificCause().getMessage());
+            }
+        }
+        for (String partition : planner.toDrop(upperBounds, now)) {
+            // Un échec (verrou tenu, dépendance) n'arrête pas la purge des suivantes ; nouvel essai au prochain passage
+            try {
+                jdbcTemplate.execute("DROP TABLE " + partition);
+                log.info("Partition {} supprimée (rétention)", partition);
+                ingestVersions.invalidateAll();
+            } catch (DataAccessException e) {
+                log.error("Suppression de la partition {} impossible : {}", partition, e.getMostSpecificCause().getMessage());
+            }
+        }
+    }
+
+    private boolean isPartitioned(String table) {
+        Integer count = jdbcTemplate.queryForObject(
+                "SELECT count(*) FROM pg_partitioned_table pt JOIN pg_class c ON c.oid = pt.partrelid "
+                        + "WHERE c.relname = ? AND pg_table_is_visible(c.oid)",
+                Integer.class, table);
+        return count != null && count > 0;
+    }
+
+    // Borne haute de chaque partition à plage ; la partition DEFAULT n'en a pas
+    private Map<String, LocalDateTime> upperBounds(String table) {
+        Map<String, LocalDateTime> bounds = new HashMap<>();
+        jdbcTemplate.query(
+                "SELECT c.relname, pg_get_expr(c.relpartbound, c.oid) FROM pg_inherits i "
+                        + "JOIN pg_class c ON c.oid = i.inhrelid JOIN pg_class p ON p.oid = i.inhparent "
+                        + "WHERE p.relname = ? AND pg_table_is_visible(p.oid)",
+                row -> {
+                    Matcher matcher = UPPER_BOUND.matcher(row.getString(2));
+                    if (matcher.find()) {
+                        bounds.put(row.getString(1), LocalDateTime.parse(matcher.group(1), BOUND_FORMAT));
+                    }
+                },
+                table);
+        return bounds;
+    }
+}
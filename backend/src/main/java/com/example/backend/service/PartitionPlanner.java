@@ -0,0 +1,50 @@
+package com.example.backend.service;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+// Calcul des partitions à créer et à supprimer, indépendant de la base
+final class PartitionPlanner {
+
+    record Range(LocalDateTime from, LocalDateTime to) {
+    }
+
+    private final PartitionInterval interval;
+    private final int premakeDays;
+    private final int retentionDays;
+
+    PartitionPlanner(PartitionInterval interval, int premakeDays, int retentionDays) {
+        this.interval = interval;
+        this.premakeDays = premakeDays;
+        this.retentionDays = retentionDays;
+    }
+
+    // Plages de la période courante jusqu'à now + premakeDays, sans chevaucher ce qui est déjà couvert
+    List<Range> toCreate(LocalDateTime now, LocalDateTime coveredUntil) {
+        List<Range> ranges = new ArrayList<>();
+        LocalDateTime horizon = now.plusDays(premakeDays);
+        for (LocalDateTime start = interval.start(now); !start.isAfter(horizon); start = interval.next(start)) {
+            LocalDateTime end = interval.next(start);
+            LocalDateTime from = coveredUntil != null && coveredUntil.isAfter(start) ? coveredUntil : start;
+            if (from.isBefore(end)) {
+                ranges.add(new Range(from, end));
+            }
+        }
+        return ranges;
+    }
+
+    // Partitions dont la borne haute est antérieure à la fenêtre de rétention ; 0 désactive la purge
+    List<String> toDrop(Map<String, LocalDateTime> upperBounds, LocalDateTime now) {
+        if (retentionDays <= 0) {
+            return List.of();
+        }
+        LocalDateTime cutoff = interval.start(now.minusDays(retentionDays));
+        return upperBounds.entrySet().stream()
+                .filter(entry -> !entry.getValue().isAfter(cutoff))
+                .map(Map.Entry::getKey)
+                .sorted()
+                .toList();
+    }
+}
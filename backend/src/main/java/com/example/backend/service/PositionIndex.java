@@ -0,0 +1,219 @@
+package com.example.backend.service;
+
+import com.example.backend.dto.GPSPointDTO;
+import com.example.backend.dto.NearestDeviceDTO;
+import com.example.backend.entity.GPSData;
+import com.example.backend.repository.GPSRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Dernière position connue de chaque appareil, indexée par une grille régulière en degrés.
+// Les écritures déplacent l'appareil d'une cellule à l'autre sous le verrou de son entrée ;
+// les lectures sont sans verrou et revérifient chaque position, un appareil en cours de déplacement
+// pouvant apparaître brièvement dans deux cellules.
+@Component
+public class PositionIndex {
+
+    private static final double METERS_PER_DEGREE = 111_195;
+
+    private final GPSRepository gpsRepository;
+    private final StatsRegistry statsRegistry;
+    private final double cellDegrees;
+    private final int rows;
+    private final int columns;
+
+    private final Map<String, GPSPointDTO> latest = new ConcurrentHashMap<>();
+    private final Map<Long, Set<String>> cells = new ConcurrentHashMap<>();
+
+    @Autowired
+    public PositionIndex(GPSRepository gpsRepository,
+                         StatsRegistry statsRegistry,
+                         @Value("${gps.index.cell-degrees:0.05}") double cellDegrees) {
+        this.gpsRepository = gpsRepository;
+        this.statsRegistry = statsRegistry;
+        this.cellDegrees = cellDegrees;
+        this.rows = (int) Math.ceil(180 / cellDegrees);
+        this.columns = (int) Math.ceil(360 / cellDegrees);
+    }
+
+    // Une requête bornée par appareil sur l'index (device_id, timestamp, id)
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        for (String deviceId : statsRegistry.getDeviceIds()) {
+            for (GPSData data : gpsRepository.findByDeviceIdOrderByTimestampDescIdDesc(deviceId, PageRequest.of(0, 1))) {
+                update(toPoint(data));
+            }
+        }
+    }
+
+    public void recordGPS(List<GPSData> samples) {
+        TransactionHooks.afterCommit(() -> {
+            for (GPSData data : samples) {
+                if (data.getDeviceId() != null && data.getTimestamp() != null) {
+                    update(toPoint(data));
+                }
+            }
+        });
+    }
+
+    public Optional<GPSPointDTO> get(String deviceId) {
+        return Optional.ofNullable(latest.get(deviceId));
+    }
+
+    public List<GPSPointDTO> all() {
+        List<GPSPointDTO> positions = new ArrayList<>(latest.values());
+        positions.sort(Comparator.comparing(GPSPointDTO::deviceId));
+        return positions;
+    }
+
+    public List<GPSPointDTO> within(double minLatitude, double minLongitude, double maxLatitude, double maxLongitude) {
+        List<GPSPointDTO> positions = new ArrayList<>();
+        int firstRow = row(minLatitude);
+        int lastRow = row(maxLatitude);
+        int firstColumn = column(minLongitude);
+        int lastColumn = column(maxLongitude);
+        // Rectangle plus grand que la flotte : un parcours direct coûte moins cher que celui des cellules
+        if ((long) (lastRow - firstRow + 1) * (lastColumn - firstColumn + 1) > latest.size()) {
+            for (GPSPointDTO position : latest.values()) {
+                if (inside(position, minLatitude, minLongitude, maxLatitude, maxLongitude)) {
+                    positions.add(position);
+                }
+            }
+        } else {
+            Set<String> seen = new HashSet<>();
+            for (int row = firstRow; row <= lastRow; row++) {
+                for (int column = firstColumn; column <= lastColumn; column++) {
+                    for (String deviceId : cells.getOrDefault(key(row, column), Set.of())) {
+                        GPSPointDTO position = latest.get(deviceId);
+                        if (position != null && seen.add(deviceId)
+                                && inside(position, minLatitude, minLongitude, maxLatitude, maxLongitude)) {
+                            positions.add(position);
+                        }
+                    }
+                }
+            }
+        }
+        positions.sort(Comparator.comparing(GPSPointDTO::deviceId));
+        return positions;
+    }
+
+    // Anneaux de cellules de plus en plus larges autour du point, jusqu'à ce qu'aucun appareil
+    // de l'anneau suivant ne puisse être plus proche que le k-ième trouvé
+    public List<NearestDeviceDTO> nearest(double latitude, double longitude, int k) {
+        PriorityQueue<NearestDeviceDTO> best = new PriorityQueue<>(
+                Comparator.comparingDouble(NearestDeviceDTO::distanceMeters).reversed());
+        Set<String> seen = new HashSet<>();
+        int centerRow = row(latitude);
+        int centerColumn = column(longitude);
+        for (int ring = 0; ring <= Math.max(rows, columns); ring++) {
+            if (ring > 0 && 8L * ring > latest.size()) {
+                for (String deviceId : latest.keySet()) {
+                    offer(best, seen, deviceId, latitude, longitude, k);
+                }
+                break;
+            }
+            for (int row = centerRow - ring; row <= centerRow + ring; row++) {
+                if (row < 0 || row >= rows) {
+                    continue;
+                }
+                boolean edge = row == centerRow - ring || row == centerRow + ring;
+                int step = edge ? 1 : 2 * ring;
+                for (int column = centerColumn - ring; column <= centerColumn + ring; column += Math.max(1, step)) {
+                    for (String deviceId : cells.getOrDefault(key(row, Math.floorMod(column, columns)), Set.of())) {
+                        offer(best, seen, deviceId, latitude, longitude, k);
+                    }
+                }
+            }
+            if (best.size() == k) {
+                // Distance minimale à l'anneau suivant, la longitude étant comptée à la latitude la plus haute
+                double farthestLatitude = Math.min(90, Math.abs(latitude) + (ring + 1) * cellDegrees);
+                double bound = ring * cellDegrees * METERS_PER_DEGREE * Math.cos(Math.toRadians(farthestLatitude));
+                if (bound >= best.peek().distanceMeters()) {
+                    break;
+                }
+            }
+        }
+        List<NearestDeviceDTO> result = new ArrayList<>(best);
+        result.sort(Comparator.comparingDouble(NearestDeviceDTO::distanceMeters));
+        return result;
+    }
+
+    private void offer(PriorityQueue<NearestDeviceDTO> best, Set<String> seen, String deviceId,
+                       double latitude, double longitude, int k) {
+        GPSPointDTO position = latest.get(deviceId);
+        if (position == null || !seen.add(deviceId)) {
+            return;
+        }
+        double distance = TrackGeometry.haversine(latitude, longitude, position.latitude(), position.longitude());
+        if (best.size() < k) {
+            best.add(new NearestDeviceDTO(position, distance));
+        } else if (distance < best.peek().distanceMeters()) {
+            best.poll();
+            best.add(new NearestDeviceDTO(position, distance));
+        }
+    }
+
+    // Seul un point plus récent remplace la position connue
+    private void update(GPSPointDTO point) {
+        latest.compute(point.deviceId(), (deviceId, previous) -> {
+            if (previous != null && point.timestamp().isBefore(previous.timestamp())) {
+                return previous;
+            }
+            long cell = key(row(point.latitude()), column(point.longitude()));
+            if (previous != null) {
+                long previousCell = key(row(previous.latitude()), column(previous.longitude()));
+                if (previousCell == cell) {
+                    return point;
+                }
+                cells.computeIfPresent(previousCell, (k, members) -> {
+                    members.remove(deviceId);
+                    return members.isEmpty() ? null : members;
+                });
+            }
+            // Ajout dans compute : une cellule vidée en parallèle ne peut pas être retirée entre-temps
+            cells.compute(cell, (k, members) -> {
+                Set<String> result = members != null ? members : ConcurrentHashMap.newKeySet();
+                result.add(deviceId);
+                return result;
+            });
+            return point;
+        });
+    }
+
+    private int row(double latitude) {
+        return Math.max(0, Math.min(rows - 1, (int) Math.floor((latitude + 90) / cellDegrees)));
+    }
+
+    private int column(double longitude) {
+        return Math.max(0, Math.min(columns - 1, (int) Math.floor((longitude + 180) / cellDegrees)));
+    }
+
+    private long key(int row, int column) {
+        return (long) row * columns + column;
+    }
+
+    private static boolean inside(GPSPointDTO position, double minLatitude, double minLongitude,
+                                  double maxLatitude, double maxLongitude) {
+        return position.latitude() >= minLatitude && position.latitude() <= maxLatitude
+                && position.longitude() >= minLongitude && position.longitude() <= maxLongitude;
+    }
+
+    private static GPSPointDTO toPoint(GPSData data) {
+        return new GPSPointDTO(data.getDeviceId(), data.getTimestamp(), data.getLatitude(), data.getLongitude(),
+                data.getAltitude(), data.getSpeed());
+    }
+}
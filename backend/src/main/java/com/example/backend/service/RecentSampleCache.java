@@ -0,0 +1,216 @@
+package com.example.backend.service;
+
+import com.example.backend.dto.AccelerometerPointDTO;
+import com.example.backend.dto.GPSPointDTO;
+import com.example.backend.dto.GyroscopePointDTO;
+import com.example.backend.entity.AccelerometerData;
+import com.example.backend.entity.GPSData;
+import com.example.backend.entity.GyroscopeData;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+// Cache chaud des échantillons récents par appareil et par capteur, alimenté par l'ingestion.
+// Une lecture n'est servie que si le cache couvre toute la fenêtre demandée ; sinon Optional.empty()
+// et l'appelant interroge la base.
+@Component
+public class RecentSampleCache {
+
+    private final int capacity;
+    private final int maxDevices;
+    private final long startedAt;
+
+    private final Map<String, SampleRing> accelerometer = new ConcurrentHashMap<>();
+    private final Map<String, SampleRing> gyroscope = new ConcurrentHashMap<>();
+    private final Map<String, SampleRing> gps = new ConcurrentHashMap<>();
+
+    public RecentSampleCache(@Value("${cache.recent.capacity:6000}") int capacity,
+                             @Value("${cache.recent.max-devices:1000}") int maxDevices) {
+        this.capacity = capacity;
+        this.maxDevices = maxDevices;
+        // Rien de ce qui a été ingéré avant le démarrage n'est en cache
+        this.startedAt = toMicros(LocalDateTime.now());
+    }
+
+    public void addAccelerometer(List<AccelerometerData> samples) {
+        TransactionHooks.afterCommit(() -> {
+            for (AccelerometerData data : samples) {
+                SampleRing ring = ring(accelerometer, data.getDeviceId(), 3, 0);
+                if (ring != null) {
+                    ring.addFloats(toMicros(data.getTimestamp()), data.getId(), data.getX(), data.getY(), data.getZ());
+                }
+            }
+        });
+    }
+
+    public void addGyroscope(List<GyroscopeData> samples) {
+        TransactionHooks.afterCommit(() -> {
+            for (GyroscopeData data : samples) {
+                SampleRing ring = ring(gyroscope, data.getDeviceId(), 3, 0);
+                if (ring != null) {
+                    ring.addFloats(toMicros(data.getTimestamp()), data.getId(),
+                            data.getRotationX(), data.getRotationY(), data.getRotationZ());
+                }
+            }
+        });
+    }
+
+    public void addGPS(List<GPSData> samples) {
+        TransactionHooks.afterCommit(() -> {
+            for (GPSData data : samples) {
+                SampleRing ring = ring(gps, data.getDeviceId(), 1, 3);
+                if (ring != null) {
+                    ring.addGps(toMicros(data.getTimestamp()), data.getId(),
+                            data.getLatitude(), data.getLongitude(), data.getAltitude(), data.getSpeed());
+                }
+            }
+        });
+    }
+
+    public Optional<List<AccelerometerData>> latestAccelerometer(String deviceId, int n) {
+        return latest(accelerometer, deviceId, n, RecentSampleCache::toAccelerometer);
+    }
+
+    public Optional<List<GyroscopeData>> latestGyroscope(String deviceId, int n) {
+        return latest(gyroscope, deviceId, n, RecentSampleCache::toGyroscope);
+    }
+
+    public Optional<List<GPSData>> latestGPS(String deviceId, int n) {
+        return latest(gps, deviceId, n, RecentSampleCache::toGPS);
+    }
+
+    public Optional<List<AccelerometerData>> recentAccelerometer(String deviceId, LocalDateTime from) {
+        return window(accelerometer, deviceId, from, RecentSampleCache::toAccelerometer, AccelerometerData::getTimestamp);
+    }
+
+    public Optional<List<GyroscopeData>> recentGyroscope(String deviceId, LocalDateTime from) {
+        return window(gyroscope, deviceId, from, RecentSampleCache::toGyroscope, GyroscopeData::getTimestamp);
+    }
+
+    public Optional<List<GPSData>> recentGPS(String deviceId, LocalDateTime from) {
+        return window(gps, deviceId, from, RecentSampleCache::toGPS, GPSData::getTimestamp);
+    }
+
+    // Tous appareils confondus, en projections : le cache doit couvrir la fenêtre pour chacun d'eux
+    public Optional<List<AccelerometerPointDTO>> recentAccelerometerPoints(LocalDateTime from) {
+        return windowAll(accelerometer, from, RecentSampleCache::toAccelerometerPoint, AccelerometerPointDTO::timestamp);
+    }
+
+    public Optional<List<GyroscopePointDTO>> recentGyroscopePoints(LocalDateTime from) {
+        return windowAll(gyroscope, from, RecentSampleCache::toGyroscopePoint, GyroscopePointDTO::timestamp);
+    }
+
+    public Optional<List<GPSPointDTO>> recentGPSPoints(LocalDateTime from) {
+        return windowAll(gps, from, RecentSampleCache::toGPSPoint, GPSPointDTO::timestamp);
+    }
+
+    // Au-delà de maxDevices, les nouveaux appareils ne sont pas mis en cache : mémoire bornée
+    private SampleRing ring(Map<String, SampleRing> rings, String deviceId, int floatColumns, int doubleColumns) {
+        if (deviceId == null) {
+            return null;
+        }
+        SampleRing ring = rings.get(deviceId);
+        if (ring != null || rings.size() >= maxDevices) {
+            return ring;
+        }
+        return rings.computeIfAbsent(deviceId,
+                id -> new SampleRing(id, capacity, floatColumns, doubleColumns, startedAt));
+    }
+
+    // Déjà triés du plus récent au plus ancien par le tampon
+    private <T> Optional<List<T>> latest(Map<String, SampleRing> rings, String deviceId, int n,
+                                         SampleRing.RowMapper<T> mapper) {
+        SampleRing ring = rings.get(deviceId);
+        return Optional.ofNullable(ring == null ? null : ring.latest(n, mapper));
+    }
+
+    private <T> Optional<List<T>> window(Map<String, SampleRing> rings, String deviceId, LocalDateTime from,
+                                         SampleRing.RowMapper<T> mapper,
+                                         Function<T, LocalDateTime> timestampOf) {
+        long fromMicros = toMicros(from);
+        SampleRing ring = rings.get(deviceId);
+        if (ring == null) {
+            // Appareil sans échantillon depuis le démarrage : la fenêtre est vide si elle commence après
+            return fromMicros >= startedAt && rings.size() < maxDevices ? Optional.of(new ArrayList<>()) : Optional.empty();
+        }
+        List<T> rows = ring.window(fromMicros, mapper);
+        if (rows == null) {
+            return Optional.empty();
+        }
+        rows.sort(Comparator.comparing(timestampOf));
+        return Optional.of(rows);
+    }
+
+    private <T> Optional<List<T>> windowAll(Map<String, SampleRing> rings, LocalDateTime from,
+                                            SampleRing.RowMapper<T> mapper,
+                                            Function<T, LocalDateTime> timestampOf) {
+        long fromMicros = toMicros(from);
+        if (fromMicros < startedAt || rings.size() >= maxDevices) {
+            return Optional.empty();
+        }
+        List<T> rows = new ArrayList<>();
+        for (SampleRing ring : rings.values()) {
+            List<T> deviceRows = ring.window(fromMicros, mapper);
+            if (deviceRows == null) {
+                return Optional.empty();
+            }
+            rows.addAll(deviceRows);
+        }
+        rows.sort(Comparator.comparing(timestampOf));
+        return Optional.of(rows);
+    }
+
+    private static AccelerometerData toAccelerometer(SampleRing ring, int slot) {
+        AccelerometerData data = new AccelerometerData(ring.floatAt(0, slot), ring.floatAt(1, slot), ring.floatAt(2, slot),
+                ring.deviceId(), fromMicros(ring.time(slot)));
+        data.setId(ring.id(slot));
+        return data;
+    }
+
+    private static GyroscopeData toGyroscope(SampleRing ring, int slot) {
+        GyroscopeData data = new GyroscopeData(ring.floatAt(0, slot), ring.floatAt(1, slot), ring.floatAt(2, slot),
+                ring.deviceId(), fromMicros(ring.time(slot)));
+        data.setId(ring.id(slot));
+        return data;
+    }
+
+    private static GPSData toGPS(SampleRing ring, int slot) {
+        GPSData data = new GPSData(ring.doubleAt(0, slot), ring.doubleAt(1, slot), ring.doubleAt(2, slot),
+                ring.floatAt(0, slot), ring.deviceId(), fromMicros(ring.time(slot)));
+        data.setId(ring.id(slot));
+        return data;
+    }
+
+    private static AccelerometerPointDTO toAccelerometerPoint(SampleRing ring, int slot) {
+        return new AccelerometerPointDTO(ring.deviceId(), fromMicros(ring.time(slot)),
+                ring.floatAt(0, slot), ring.floatAt(1, slot), ring.floatAt(2, slot));
+    }
+
+    private static GyroscopePointDTO toGyroscopePoint(SampleRing ring, int slot) {
+        return new GyroscopePointDTO(ring.deviceId(), fromMicros(ring.time(slot)),
+                ring.floatAt(0, slot), ring.floatAt(1, slot), ring.floatAt(2, slot));
+    }
+
+    private static GPSPointDTO toGPSPoint(SampleRing ring, int slot) {
+        return new GPSPointDTO(ring.deviceId(), fromMicros(ring.time(slot)),
+                ring.doubleAt(0, slot), ring.doubleAt(1, slot), ring.doubleAt(2, slot), ring.floatAt(0, slot));
+    }
+
+    private static long toMicros(LocalDateTime timestamp) {
+        return timestamp.toEpochSecond(ZoneOffset.UTC) * 1_000_000 + timestamp.getNano() / 1_000;
+    }
+
+    private static LocalDateTime fromMicros(long micros) {
+        return LocalDateTime.ofEpochSecond(Math.floorDiv(micros, 1_000_000),
+                (int) Math.floorMod(micros, 1_000_000) * 1_000, ZoneOffset.UTC);
+    }
+}
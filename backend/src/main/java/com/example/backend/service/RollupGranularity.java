@@ -0,0 +1,46 @@
+package com.example.backend.service;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+
+public enum RollupGranularity {
+    SECOND(1, ChronoUnit.SECONDS),
+    MINUTE(60, ChronoUnit.MINUTES),
+    HOUR(3600, ChronoUnit.HOURS);
+
+    private final int seconds;
+    private final ChronoUnit unit;
+
+    RollupGranularity(int seconds, ChronoUnit unit) {
+        this.seconds = seconds;
+        this.unit = unit;
+    }
+
+    public int getSeconds() {
+        return seconds;
+    }
+
+    public LocalDateTime bucketStart(LocalDateTime timestamp) {
+        return timestamp.truncatedTo(unit);
+    }
+
+    public static RollupGranularity ofSeconds(int seconds) {
+        for (RollupGranularity granularity : values()) {
+            if (granularity.seconds == seconds) {
+                return granularity;
+            }
+        }
+        throw new IllegalArgumentException("Granularité inconnue : " + seconds + " s");
+    }
+
+    // Seau le plus grossier qui respecte encore la résolution demandée
+    public static RollupGranularity coarsestFor(double resolutionSeconds) {
+        RollupGranularity selected = SECOND;
+        for (RollupGranularity granularity : values()) {
+            if (granularity.seconds <= resolutionSeconds) {
+                selected = granularity;
+            }
+        }
+        return selected;
+    }
+}
@@ -0,0 +1,511 @@
+package com.example.backend.service;
+
+import com.example.backend.dto.RollupPointDTO;
+import com.example.backend.entity.AccelerometerData;
+import com.example.backend.entity.GyroscopeData;
+import com.example.backend.entity.SensorRollup;
+import com.example.backend.repository.AccelerometerRepository;
+import com.example.backend.repository.GyroscopeRepository;
+import com.example.backend.repository.SensorRollupRepository;
+import jakarta.annotation.PreDestroy;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
+
+// Agrégats 1s / 1min / 1h par appareil : accumulés en mémoire à l'ingestion,
+// fusionnés en base périodiquement, et recalculables sur l'historique (backfill).
+@Service
+public class RollupService {
+
+    private static final Logger log = LoggerFactory.getLogger(RollupService.class);
+
+    // Taille des paquets de débuts de seau dans la recherche des agrégats existants
+    private static final int LOOKUP_CHUNK_SIZE = 500;
+
+    public static final String ACCELEROMETER = "accelerometer";
+    public static final String GYROSCOPE = "gyroscope";
+
+    private final SensorRollupRepository rollupRepository;
+    private final AccelerometerRepository accelerometerRepository;
+    private final GyroscopeRepository gyroscopeRepository;
+    private final ColdStorageService coldStorageService;
+    private final StatsRegistry statsRegistry;
+    private final EntityManager entityManager;
+    private final TransactionTemplate transactionTemplate;
+    private final int maxPoints;
+
+    private final ConcurrentHashMap<BucketKey, Accumulator> pending = new ConcurrentHashMap<>();
+    // Écritures des agrégats sérialisées : un flush et un backfill ne se croisent jamais sur les mêmes seaux
+    private final ReentrantLock writeLock = new ReentrantLock();
+    // Échantillons enregistrés dont la transaction d'ingestion n'a pas encore abouti
+    private final Set<SampleRef> inFlight = ConcurrentHashMap.newKeySet();
+    // Tranches en cours de recalcul : leurs deltas validés sont mis de côté au lieu d'aller en attente
+    private final List<Fence> fences = new CopyOnWriteArrayList<>();
+    // Échantillons déjà comptés par un recalcul, dont le delta arrive après la fin de celui-ci
+    private final Set<SampleRef> discarded = ConcurrentHashMap.newKeySet();
+    // Aiguillage des deltas (lecture) contre ouverture et fermeture d'une tranche (écriture)
+    private final ReentrantReadWriteLock routeLock = new ReentrantReadWriteLock();
+    // Tranches dont le backfill a échoué : réessayées périodiquement, exposées par rollup.backfill.failed
+    private final Set<BackfillChunk> failedChunks = ConcurrentHashMap.newKeySet();
+    private final AtomicBoolean retryScheduled = new AtomicBoolean();
+    private final ExecutorService backfillExecutor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "rollup-backfill");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    @Autowired
+    public RollupService(SensorRollupRepository rollupRepository,
+                         AccelerometerRepository accelerometerRepository,
+                         GyroscopeRepository gyroscopeRepository,
+                         ColdStorageService coldStorageService,
+                         StatsRegistry statsRegistry,
+                         EntityManager entityManager,
+                         PlatformTransactionManager transactionManager,
+                         MeterRegistry meterRegistry,
+                         @Value("${sensor.query.max-page-size:10000}") int maxPoints) {
+        this.rollupRepository = rollupRepository;
+        this.accelerometerRepository = accelerometerRepository;
+        this.gyroscopeRepository = gyroscopeRepository;
+        this.coldStorageService = coldStorageService;
+        this.statsRegistry = statsRegistry;
+        this.entityManager = entityManager;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.maxPoints = maxPoints;
+        Gauge.builder("rollup.backfill.failed", failedChunks, Set::size)
+                .description("Tranches de backfill en échec, en attente d'un nouvel essai")
+                .register(meterRegistry);
+    }
+
+    public void recordAccelerometer(List<AccelerometerData> samples) {
+        List<Sample> batch = new ArrayList<>(samples.size());
+        for (AccelerometerData data : samples) {
+            batch.add(new Sample(new SampleRef(ACCELEROMETER, data.getId()), data.getDeviceId(), data.getTimestamp(),
+                    data.getX(), data.getY(), data.getZ()));
+        }
+        record(batch);
+    }
+
+    public void recordGyroscope(List<GyroscopeData> samples) {
+        List<Sample> batch = new ArrayList<>(samples.size());
+        for (GyroscopeData data : samples) {
+            batch.add(new Sample(new SampleRef(GYROSCOPE, data.getId()), data.getDeviceId(), data.getTimestamp(),
+                    data.getRotationX(), data.getRotationY(), data.getRotationZ()));
+        }
+        record(batch);
+    }
+
+    // Appelé dans la transaction d'ingestion : l'échantillon est connu comme en vol avant d'être visible en base
+    private void record(List<Sample> batch) {
+        for (Sample sample : batch) {
+            inFlight.add(sample.ref());
+        }
+        TransactionHooks.afterCompletion(committed -> {
+            if (committed) {
+                route(batch);
+            } else {
+                batch.forEach(sample -> inFlight.remove(sample.ref()));
+            }
+        });
+    }
+
+    // Retiré des échantillons en vol seulement une fois aiguillé : un recalcul le trouve toujours d'un côté ou de l'autre
+    private void route(List<Sample> batch) {
+        routeLock.readLock().lock();
+        try {
+            for (Sample sample : batch) {
+                if (discarded.isEmpty() || !discarded.remove(sample.ref())) {
+                    Fence fence = fenceFor(sample);
+                    if (fence != null) {
+                        fence.committed().put(sample.ref(), sample);
+                    } else {
+                        add(pending, sample);
+                    }
+                }
+                inFlight.remove(sample.ref());
+            }
+        } finally {
+            routeLock.readLock().unlock();
+        }
+    }
+
+    private Fence fenceFor(Sample sample) {
+        for (Fence fence : fences) {
+            if (fence.covers(sample)) {
+                return fence;
+            }
+        }
+        return null;
+    }
+
+    @Scheduled(fixedDelayString = "${rollup.flush-interval-ms:5000}")
+    public void flush() {
+        if (pending.isEmpty()) {
+            return;
+        }
+        writeLock.lock();
+        try {
+            // remove() est atomique vis-à-vis de compute() : aucun échantillon n'est perdu entre les deux
+            Map<BucketKey, Accumulator> drained = drain(key -> true);
+            try {
+                transactionTemplate.executeWithoutResult(status -> mergeIntoDatabase(drained));
+            } catch (RuntimeException e) {
+                log.error("Échec de l'écriture des agrégats, nouvel essai au prochain cycle", e);
+                restore(drained);
+            }
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        backfillExecutor.shutdownNow();
+        flush();
+    }
+
+    // Recalcule les agrégats par tranches d'une journée ; l'heure en cours est laissée au flux d'ingestion
+    public void backfillAsync(String sensorType, String deviceId, LocalDateTime from, LocalDateTime to) {
+        LocalDateTime start = RollupGranularity.HOUR.bucketStart(from);
+        LocalDateTime currentHour = RollupGranularity.HOUR.bucketStart(LocalDateTime.now());
+        LocalDateTime end = RollupGranularity.HOUR.bucketStart(to.isBefore(currentHour) ? to : currentHour);
+        List<String> sensorTypes = sensorType != null ? List.of(sensorType) : List.of(ACCELEROMETER, GYROSCOPE);
+        List<String> devices = deviceId != null ? List.of(deviceId) : statsRegistry.getDeviceIds();
+        backfillExecutor.submit(() -> {
+            for (String type : sensorTypes) {
+                for (String device : devices) {
+                    for (LocalDateTime chunk = start; chunk.isBefore(end); chunk = chunk.plusDays(1)) {
+                        LocalDateTime chunkEnd = chunk.plusDays(1).isBefore(end) ? chunk.plusDays(1) : end;
+                        backfill(new BackfillChunk(type, device, chunk, chunkEnd));
+                    }
+                }
+            }
+            log.info("Backfill des agrégats terminé ({} → {}), {} tranches en échec", start, end, failedChunks.size());
+        });
+    }
+
+    @Scheduled(fixedDelayString = "${rollup.backfill-retry-interval-ms:60000}")
+    public void retryFailedBackfills() {
+        // Un seul passage en file à la fois derrière les backfills demandés
+        if (failedChunks.isEmpty() || !retryScheduled.compareAndSet(false, true)) {
+            return;
+        }
+        backfillExecutor.submit(() -> {
+            try {
+                for (BackfillChunk chunk : List.copyOf(failedChunks)) {
+                    backfill(chunk);
+                }
+            } finally {
+                retryScheduled.set(false);
+            }
+        });
+    }
+
+    public List<BackfillChunk> getFailedBackfills() {
+        return List.copyOf(failedChunks);
+    }
+
+    public List<RollupPointDTO> getRollups(String sensorType, String deviceId, LocalDateTime from, LocalDateTime to,
+                                           double resolutionSeconds) {
+        RollupGranularity granularity = RollupGranularity.coarsestFor(resolutionSeconds);
+        List<SensorRollup> rollups = rollupRepository.findRange(sensorType, deviceId, granularity.getSeconds(),
+                from, to, PageRequest.of(0, maxPoints));
+        List<RollupPointDTO> points = new ArrayList<>(rollups.size());
+        for (SensorRollup rollup : rollups) {
+            points.add(toPoint(rollup));
+        }
+        return points;
+    }
+
+    private void backfill(BackfillChunk chunk) {
+        if (backfillChunk(chunk.sensorType(), chunk.deviceId(), chunk.from(), chunk.to())) {
+            failedChunks.remove(chunk);
+        } else {
+            failedChunks.add(chunk);
+        }
+    }
+
+    // Sous le verrou d'écriture : aucun flush ne fusionne dans ces seaux pendant le recalcul. Les deltas
+    // en attente pour la tranche sont retirés, leurs échantillons validés étant relus par le recalcul.
+    // Ceux validés ensuite sont mis de côté et ne rejoignent l'attente que si le recalcul ne les a pas lus.
+    // En cas d'échec, tout est remis en attente.
+    boolean backfillChunk(String sensorType, String deviceId, LocalDateTime from, LocalDateTime to) {
+        writeLock.lock();
+        try {
+            Fence fence = new Fence(sensorType, deviceId, from, to, new ConcurrentHashMap<>());
+            Map<BucketKey, Accumulator> superseded;
+            routeLock.writeLock().lock();
+            try {
+                fences.add(fence);
+                superseded = drain(key -> key.sensorType().equals(sensorType)
+                        && key.deviceId().equals(deviceId)
+                        && !key.bucketStart().isBefore(from) && key.bucketStart().isBefore(to));
+            } finally {
+                routeLock.writeLock().unlock();
+            }
+            Set<SampleRef> seen = new HashSet<>();
+            try {
+                transactionTemplate.executeWithoutResult(status -> recompute(fence, seen));
+                closeFence(fence, seen);
+                return true;
+            } catch (RuntimeException e) {
+                log.error("Échec du backfill {} {} [{} - {}], nouvel essai planifié", sensorType, deviceId, from, to, e);
+                closeFence(fence, Set.of());
+                restore(superseded);
+                return false;
+            }
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    // Deltas mis de côté non lus par le recalcul : en attente. Échantillons lus encore en vol : écartés à leur arrivée.
+    private void closeFence(Fence fence, Set<SampleRef> seen) {
+        routeLock.writeLock().lock();
+        try {
+            fences.remove(fence);
+            fence.committed().forEach((ref, sample) -> {
+                if (!seen.contains(ref)) {
+                    add(pending, sample);
+                }
+            });
+            for (SampleRef ref : seen) {
+                if (!fence.committed().containsKey(ref)) {
+                    discarded.add(ref);
+                }
+            }
+        } finally {
+            routeLock.writeLock().unlock();
+        }
+    }
+
+    // Heures archivées comprises : les agrégats d'une heure passée en stockage froid sont recalculés à l'identique
+    private void recompute(Fence fence, Set<SampleRef> seen) {
+        String sensorType = fence.sensorType();
+        String deviceId = fence.deviceId();
+        LocalDateTime from = fence.from();
+        LocalDateTime to = fence.to();
+        Map<BucketKey, Accumulator> buckets = new HashMap<>();
+        if (ACCELEROMETER.equals(sensorType)) {
+            try (Stream<AccelerometerData> rows = coldStorageService.accelerometer()
+                    .stream(accelerometerRepository.streamByDeviceId(deviceId, from, to), deviceId, from, to)) {
+                rows.forEach(data -> {
+                    add(buckets, sensorType, deviceId, data.getTimestamp(), data.getX(), data.getY(), data.getZ());
+                    markSeen(fence, seen, data.getId());
+                    entityManager.detach(data);
+                });
+            }
+        } else {
+            try (Stream<GyroscopeData> rows = coldStorageService.gyroscope()
+                    .stream(gyroscopeRepository.streamByDeviceId(deviceId, from, to), deviceId, from, to)) {
+                rows.forEach(data -> {
+                    add(buckets, sensorType, deviceId, data.getTimestamp(),
+                            data.getRotationX(), data.getRotationY(), data.getRotationZ());
+                    markSeen(fence, seen, data.getId());
+                    entityManager.detach(data);
+                });
+            }
+        }
+        rollupRepository.deleteRange(sensorType, deviceId, from, to);
+        List<SensorRollup> rollups = new ArrayList<>(buckets.size());
+        buckets.forEach((key, accumulator) -> rollups.add(accumulator.applyTo(key.toEntity())));
+        rollupRepository.saveAll(rollups);
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    // En vol d'abord : un échantillon en est retiré seulement après avoir été mis de côté
+    private void markSeen(Fence fence, Set<SampleRef> seen, Long id) {
+        if (inFlight.isEmpty() && fence.committed().isEmpty()) {
+            return;
+        }
+        SampleRef ref = new SampleRef(fence.sensorType(), id);
+        if (inFlight.contains(ref) || fence.committed().containsKey(ref)) {
+            seen.add(ref);
+        }
+    }
+
+    private Map<BucketKey, Accumulator> drain(Predicate<BucketKey> filter) {
+        Map<BucketKey, Accumulator> drained = new HashMap<>();
+        for (BucketKey key : pending.keySet()) {
+            if (filter.test(key)) {
+                Accumulator accumulator = pending.remove(key);
+                if (accumulator != null) {
+                    drained.put(key, accumulator);
+                }
+            }
+        }
+        return drained;
+    }
+
+    private void restore(Map<BucketKey, Accumulator> drained) {
+        drained.forEach((key, accumulator) -> pending.merge(key, accumulator, Accumulator::merge));
+    }
+
+    // Agrégats existants chargés par paquets de débuts de seau, puis une seule écriture groupée
+    private void mergeIntoDatabase(Map<BucketKey, Accumulator> drained) {
+        Set<String> deviceIds = new HashSet<>();
+        Set<LocalDateTime> bucketStarts = new HashSet<>();
+        for (BucketKey key : drained.keySet()) {
+            deviceIds.add(key.deviceId());
+            bucketStarts.add(key.bucketStart());
+        }
+        Map<BucketKey, SensorRollup> existing = new HashMap<>();
+        List<LocalDateTime> starts = new ArrayList<>(bucketStarts);
+        for (int i = 0; i < starts.size(); i += LOOKUP_CHUNK_SIZE) {
+            List<LocalDateTime> chunk = starts.subList(i, Math.min(i + LOOKUP_CHUNK_SIZE, starts.size()));
+            for (SensorRollup rollup : rollupRepository.findByDeviceIdInAndBucketStartIn(deviceIds, chunk)) {
+                BucketKey key = BucketKey.of(rollup);
+                if (drained.containsKey(key)) {
+                    existing.put(key, rollup);
+                }
+            }
+        }
+        List<SensorRollup> rollups = new ArrayList<>(drained.size());
+        drained.forEach((key, accumulator) -> {
+            SensorRollup rollup = existing.get(key);
+            rollups.add(accumulator.applyTo(rollup != null ? rollup : key.toEntity()));
+        });
+        rollupRepository.saveAll(rollups);
+    }
+
+    private static void add(Map<BucketKey, Accumulator> target, Sample sample) {
+        add(target, sample.ref().sensorType(), sample.deviceId(), sample.timestamp(), sample.x(), sample.y(), sample.z());
+    }
+
+    private static void add(Map<BucketKey, Accumulator> target, String sensorType, String deviceId,
+                            LocalDateTime timestamp, double x, double y, double z) {
+        for (RollupGranularity granularity : RollupGranularity.values()) {
+            BucketKey key = new BucketKey(sensorType, deviceId, granularity, granularity.bucketStart(timestamp));
+            target.compute(key, (k, accumulator) -> {
+                Accumulator result = accumulator != null ? accumulator : new Accumulator();
+                result.add(x, y, z);
+                return result;
+            });
+        }
+    }
+
+    private static RollupPointDTO toPoint(SensorRollup rollup) {
+        long count = rollup.getSampleCount();
+        RollupPointDTO point = new RollupPointDTO();
+        point.setBucketStart(rollup.getBucketStart());
+        point.setGranularitySeconds(rollup.getGranularitySeconds());
+        point.setCount(count);
+        point.setMin(new double[]{rollup.getMinX(), rollup.getMinY(), rollup.getMinZ()});
+        point.setMax(new double[]{rollup.getMaxX(), rollup.getMaxY(), rollup.getMaxZ()});
+        point.setMean(new double[]{rollup.getSumX() / count, rollup.getSumY() / count, rollup.getSumZ() / count});
+        point.setRms(new double[]{
+                Math.sqrt(rollup.getSumSquaresX() / count),
+                Math.sqrt(rollup.getSumSquaresY() / count),
+                Math.sqrt(rollup.getSumSquaresZ() / count)});
+        return point;
+    }
+
+    public record BackfillChunk(String sensorType, String deviceId, LocalDateTime from, LocalDateTime to) {
+    }
+
+    private record SampleRef(String sensorType, Long id) {
+    }
+
+    private record Sample(SampleRef ref, String deviceId, LocalDateTime timestamp, double x, double y, double z) {
+    }
+
+    // Tranche en cours de recalcul et deltas validés pendant celui-ci, par échantillon
+    private record Fence(String sensorType, String deviceId, LocalDateTime from, LocalDateTime to,
+                         Map<SampleRef, Sample> committed) {
+        boolean covers(Sample sample) {
+            return sample.ref().sensorType().equals(sensorType) && deviceId.equals(sample.deviceId())
+                    && !sample.timestamp().isBefore(from) && sample.timestamp().isBefore(to);
+        }
+    }
+
+    private record BucketKey(String sensorType, String deviceId, RollupGranularity granularity,
+                             LocalDateTime bucketStart) {
+        static BucketKey of(SensorRollup rollup) {
+            return new BucketKey(rollup.getSensorType(), rollup.getDeviceId(),
+                    RollupGranularity.ofSeconds(rollup.getGranularitySeconds()), rollup.getBucketStart());
+        }
+
+        SensorRollup toEntity() {
+            return new SensorRollup(sensorType, deviceId, granularity.getSeconds(), bucketStart);
+        }
+    }
+
+    private static final class Accumulator {
+        private long count;
+        private final double[] min = {Double.POSITIVE_INFINITY, Double.POSITIVE_INFINITY, Double.POSITIVE_INFINITY};
+        private final double[] max = {Double.NEGATIVE_INFINITY, Double.NEGATIVE_INFINITY, Double.NEGATIVE_INFINITY};
+        private final double[] sum = new double[3];
+        private final double[] sumSquares = new double[3];
+
+        // Appelé sous le verrou de ConcurrentHashMap.compute
+        void add(double x, double y, double z) {
+            count++;
+            accumulate(0, x);
+            accumulate(1, y);
+            accumulate(2, z);
+        }
+
+        private void accumulate(int axis, double value) {
+            min[axis] = Math.min(min[axis], value);
+            max[axis] = Math.max(max[axis], value);
+            sum[axis] += value;
+            sumSquares[axis] += value * value;
+        }
+
+        Accumulator merge(Accumulator other) {
+            count += other.count;
+            for (int axis = 0; axis < 3; axis++) {
+                min[axis] = Math.min(min[axis], other.min[axis]);
+                max[axis] = Math.max(max[axis], other.max[axis]);
+                sum[axis] += other.sum[axis];
+                sumSquares[axis] += other.sumSquares[axis];
+            }
+            return this;
+        }
+
+        SensorRollup applyTo(SensorRollup rollup) {
+            boolean empty = rollup.getSampleCount() == 0;
+            rollup.setSampleCount(rollup.getSampleCount() + count);
+            rollup.setMinX(empty ? min[0] : Math.min(rollup.getMinX(), min[0]));
+            rollup.setMinY(empty ? min[1] : Math.min(rollup.getMinY(), min[1]));
+            rollup.setMinZ(empty ? min[2] : Math.min(rollup.getMinZ(), min[2]));
+            rollup.setMaxX(empty ? max[0] : Math.max(rollup.getMaxX(), max[0]));
+            rollup.setMaxY(empty ? max[1] : Math.max(rollup.getMaxY(), max[1]));
+            rollup.setMaxZ(empty ? max[2] : Math.max(rollup.getMaxZ(), max[2]));
+            rollup.setSumX(rollup.getSumX() + sum[0]);
+            rollup.setSumY(rollup.getSumY() + sum[1]);
+            rollup.setSumZ(rollup.getSumZ() + sum[2]);
+            rollup.setSumSquaresX(rollup.getSumSquaresX() + sumSquares[0]);
+            rollup.setSumSquaresY(rollup.getSumSquaresY() + sumSquares[1]);
+            rollup.setSumSquaresZ(rollup.getSumSquaresZ() + sumSquares[2]);
+            return rollup;
+        }
+    }
+}
@@ -0,0 +1,139 @@
+package com.example.backend.service;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+
+// Tampon circulaire d'échantillons récents d'un appareil, stocké en colonnes primitives.
+// coverageStart : à partir de cet instant, tous les échantillons ingérés sont présents.
+final class SampleRing {
+
+    private final String deviceId;
+    private final long[] times;
+    private final long[] ids;
+    private final float[][] floats;
+    private final double[][] doubles;
+    private int head;
+    private int size;
+    private long coverageStart;
+
+    SampleRing(String deviceId, int capacity, int floatColumns, int doubleColumns, long coverageStart) {
+        this.deviceId = deviceId;
+        this.times = new long[capacity];
+        this.ids = new long[capacity];
+        this.floats = new float[floatColumns][capacity];
+        this.doubles = new double[doubleColumns][capacity];
+        this.coverageStart = coverageStart;
+    }
+
+    synchronized void addFloats(long time, long id, float a, float b, float c) {
+        int slot = nextSlot(time, id);
+        floats[0][slot] = a;
+        floats[1][slot] = b;
+        floats[2][slot] = c;
+    }
+
+    synchronized void addGps(long time, long id, double latitude, double longitude, double altitude, float speed) {
+        int slot = nextSlot(time, id);
+        doubles[0][slot] = latitude;
+        doubles[1][slot] = longitude;
+        doubles[2][slot] = altitude;
+        floats[0][slot] = speed;
+    }
+
+    // Échantillons de temps >= from, ou null si une partie de la fenêtre a déjà été évincée
+    synchronized <T> List<T> window(long from, RowMapper<T> mapper) {
+        if (from < coverageStart) {
+            return null;
+        }
+        List<T> rows = new ArrayList<>();
+        for (int i = 0; i < size; i++) {
+            int slot = (head + i) % times.length;
+            if (times[slot] >= from) {
+                rows.add(mapper.map(this, slot));
+            }
+        }
+        return rows;
+    }
+
+    // Les n échantillons les plus récents par (temps, id), du plus récent au plus ancien, ou null si le
+    // tampon ne peut pas garantir la réponse. Tout le tampon est parcouru : les lots arrivent dans l'ordre
+    // des validations, pas dans celui des horodatages.
+    synchronized <T> List<T> latest(int n, RowMapper<T> mapper) {
+        if (size < n) {
+            return null;
+        }
+        if (n == 0) {
+            return new ArrayList<>();
+        }
+        Comparator<Integer> byTime = Comparator.<Integer>comparingLong(slot -> times[slot])
+                .thenComparingLong(slot -> ids[slot]);
+        // Tas des n plus récents, le plus ancien d'entre eux en tête
+        PriorityQueue<Integer> newest = new PriorityQueue<>(n, byTime);
+        for (int i = 0; i < size; i++) {
+            int slot = (head + i) % times.length;
+            if (newest.size() < n) {
+                newest.add(slot);
+            } else if (byTime.compare(slot, newest.peek()) > 0) {
+                newest.poll();
+                newest.add(slot);
+            }
+        }
+        // Un échantillon évincé plus récent que le plus ancien retenu fausserait le résultat
+        if (times[newest.peek()] < coverageStart) {
+            return null;
+        }
+        List<Integer> slots = new ArrayList<>(newest);
+        slots.sort(byTime.reversed());
+        List<T> rows = new ArrayList<>(n);
+        for (int slot : slots) {
+            rows.add(mapper.map(this, slot));
+        }
+        return rows;
+    }
+
+    synchronized long getCoverageStart() {
+        return coverageStart;
+    }
+
+    String deviceId() {
+        return deviceId;
+    }
+
+    long time(int slot) {
+        return times[slot];
+    }
+
+    long id(int slot) {
+        return ids[slot];
+    }
+
+    float floatAt(int column, int slot) {
+        return floats[column][slot];
+    }
+
+    double doubleAt(int column, int slot) {
+        return doubles[column][slot];
+    }
+
+    private int nextSlot(long time, long id) {
+        int slot;
+        if (size == times.length) {
+            slot = head;
+            // L'échantillon évincé repousse le début de la couverture garantie
+            coverageStart = Math.max(coverageStart, times[slot] + 1);
+            head = (head + 1) % times.length;
+        } else {
+            slot = (head + size) % times.length;
+            size++;
+        }
+        times[slot] = time;
+        ids[slot] = id;
+        return slot;
+    }
+
+    interface RowMapper<T> {
+        T map(SampleRing ring, int slot);
+    }
+}
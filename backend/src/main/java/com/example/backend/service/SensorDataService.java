@@ -1,31 +1,89 @@
 package com.example.backend.service;
 
+import com.example.backend.dto.BatchResultDTO;
+import com.example.backend.dto.SensorBatchDTO;
+import com.example.backend.dto.SensorBatchResultDTO;
+import com.example.backend.dto.SensorCursor;
+import com.example.backend.dto.SeriesExtentDTO;
 import com.example.backend.entity.AccelerometerData;
 import com.example.backend.entity.GPSData;
 import com.example.backend.entity.GyroscopeData;
 import com.example.backend.repository.AccelerometerRepository;
 import com.example.backend.repository.GPSRepository;
 import com.example.backend.repository.GyroscopeRepository;
+import jakarta.persistence.EntityManager;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
+import java.util.Collections;
 import java.util.List;
+import java.util.LongSummaryStatistics;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.LongStream;
+import java.util.stream.Stream;
 
 @Service
 public class SensorDataService {
 
+    // Fenêtre essayée en premier pour les n dernières mesures
+    private static final Duration LATEST_WINDOW = Duration.ofDays(1);
+
     private final AccelerometerRepository accelerometerRepository;
     private final GPSRepository gpsRepository;
     private final GyroscopeRepository gyroscopeRepository;
+    private final DeviceRegistry deviceRegistry;
+    private final StatsRegistry statsRegistry;
+    private final RollupService rollupService;
+    private final LiveBroadcaster liveBroadcaster;
+    private final RecentSampleCache recentSampleCache;
+    private final TripService tripService;
+    private final TrackService trackService;
+    private final PositionIndex positionIndex;
+    private final DrivingEventService drivingEventService;
+    private final ColdStorageService coldStorageService;
+    private final EntityManager entityManager;
+    // Transaction ouverte après l'enregistrement des appareils : celui-ci prend sa propre connexion,
+    // jamais pendant qu'une autre est tenue (sinon, sous charge, pool épuisé par les lots en attente)
+    private final TransactionTemplate transactionTemplate;
 
     @Autowired
     public SensorDataService(AccelerometerRepository accelerometerRepository,
                              GPSRepository gpsRepository,
-                             GyroscopeRepository gyroscopeRepository) {
+                             GyroscopeRepository gyroscopeRepository,
+                             DeviceRegistry deviceRegistry,
+                             StatsRegistry statsRegistry,
+                             RollupService rollupService,
+                             LiveBroadcaster liveBroadcaster,
+                             RecentSampleCache recentSampleCache,
+                             TripService tripService,
+                             TrackService trackService,
+                             PositionIndex positionIndex,
+                             DrivingEventService drivingEventService,
+                             ColdStorageService coldStorageService,
+                             EntityManager entityManager,
+                             PlatformTransactionManager transactionManager) {
         this.accelerometerRepository = accelerometerRepository;
         this.gpsRepository = gpsRepository;
         this.gyroscopeRepository = gyroscopeRepository;
+        this.deviceRegistry = deviceRegistry;
+        this.statsRegistry = statsRegistry;
+        this.rollupService = rollupService;
+        this.liveBroadcaster = liveBroadcaster;
+        this.recentSampleCache = recentSampleCache;
+        this.tripService = tripService;
+        this.trackService = trackService;
+        this.positionIndex = positionIndex;
+        this.drivingEventService = drivingEventService;
+        this.coldStorageService = coldStorageService;
+        this.entityManager = entityManager;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
     }
 
     // Méthodes pour l'accéléromètre
@@ -33,15 +91,72 @@ public class SensorDataService {
         if (data.getTimestamp() == null) {
             data.setTimestamp(LocalDateTime.now());
         }
-        return accelerometerRepository.save(data);
+        deviceRegistry.register(Collections.singletonList(data.getDeviceId()));
+        AccelerometerData saved = accelerometerRepository.save(data);
+        statsRegistry.recordAccelerometer(Collections.singletonList(saved.getDeviceId()));
+        rollupService.recordAccelerometer(List.of(saved));
+        liveBroadcaster.publish("accelerometer", List.of(saved), AccelerometerData::getDeviceId);
+        recentSampleCache.addAccelerometer(List.of(saved));
+        drivingEventService.recordAccelerometer(List.of(saved));
+        return saved;
     }
 
-    public List<AccelerometerData> getAllAccelerometerData() {
-        return accelerometerRepository.findAll();
+    public BatchResultDTO saveAccelerometerBatch(List<AccelerometerData> batch) {
+        LocalDateTime now = LocalDateTime.now();
+        for (AccelerometerData data : batch) {
+            if (data.getTimestamp() == null) {
+                data.setTimestamp(now);
+            }
+        }
+        deviceRegistry.register(batch.stream().map(AccelerometerData::getDeviceId).toList());
+        return transactionTemplate.execute(status -> {
+            List<AccelerometerData> saved = accelerometerRepository.saveAll(batch);
+            statsRegistry.recordAccelerometer(saved.stream().map(AccelerometerData::getDeviceId).toList());
+            rollupService.recordAccelerometer(saved);
+            liveBroadcaster.publish("accelerometer", saved, AccelerometerData::getDeviceId);
+            recentSampleCache.addAccelerometer(saved);
+            drivingEventService.recordAccelerometer(saved);
+            return toBatchResult(saved.stream().mapToLong(AccelerometerData::getId));
+        });
     }
 
-    public List<AccelerometerData> getAccelerometerDataByDeviceId(String deviceId) {
-        return accelerometerRepository.findByDeviceId(deviceId);
+    // deviceId null : tous les appareils ; les heures archivées sont lues dans le stockage froid
+    public List<AccelerometerData> getAccelerometerDataPage(String deviceId, LocalDateTime from, LocalDateTime to,
+                                                            SensorCursor after, int limit) {
+        SensorCursor start = startCursor(from, after);
+        PageRequest page = PageRequest.of(0, limit);
+        List<AccelerometerData> hot = deviceId == null
+                ? accelerometerRepository.findPage(start.getTimestamp(), start.getId(), to, page)
+                : accelerometerRepository.findPageByDeviceId(deviceId, start.getTimestamp(), start.getId(), to, page);
+        return coldStorageService.accelerometer().page(hot, deviceId, start.getTimestamp(), start.getId(), to, limit);
+    }
+
+    // Lectures récentes servies par le cache chaud, la base n'est interrogée que s'il ne couvre pas la demande
+    // (puis le stockage froid si l'appareil a moins de n mesures chaudes).
+    // La borne haute tolère un léger décalage d'horloge des appareils.
+    public List<AccelerometerData> getLatestAccelerometerData(String deviceId, int n) {
+        return recentSampleCache.latestAccelerometer(deviceId, n)
+                .orElseGet(() -> coldStorageService.accelerometer().latest(latest(n,
+                        since -> accelerometerRepository.findLatestByDeviceId(deviceId, since, PageRequest.of(0, n)),
+                        () -> accelerometerRepository.findByDeviceIdOrderByTimestampDescIdDesc(deviceId, PageRequest.of(0, n))),
+                        deviceId, n));
+    }
+
+    public List<AccelerometerData> getRecentAccelerometerData(String deviceId, LocalDateTime from, int limit) {
+        return recentSampleCache.recentAccelerometer(deviceId, from)
+                .map(rows -> rows.size() > limit ? rows.subList(0, limit) : rows)
+                .orElseGet(() -> getAccelerometerDataPage(deviceId, from, LocalDateTime.now().plusDays(1), null, limit));
+    }
+
+    // Série réduite à maxPoints points pour les graphiques, calculée en une passe sur le flux
+    @Transactional(readOnly = true)
+    public List<AccelerometerData> getAccelerometerDataDownsampled(String deviceId, LocalDateTime from, LocalDateTime to,
+                                                                   int maxPoints, DownsamplingMode mode, Duration resolution) {
+        ColdTier<AccelerometerData> cold = coldStorageService.accelerometer();
+        SeriesExtentDTO extent = accelerometerRepository.findExtentByDeviceIdInRange(deviceId, from, to)
+                .merge(cold.extent(deviceId, from, to));
+        return downsample(cold.stream(accelerometerRepository.streamByDeviceId(deviceId, from, to), deviceId, from, to),
+                downsampler(mode, SeriesAccessor.ACCELEROMETER, extent, maxPoints, resolution));
     }
 
     // Méthodes pour le GPS
@@ -49,15 +164,62 @@ public class SensorDataService {
         if (data.getTimestamp() == null) {
             data.setTimestamp(LocalDateTime.now());
         }
-        return gpsRepository.save(data);
+        data.setGeohash(Geohash.encode(data.getLatitude(), data.getLongitude(), Geohash.PRECISION));
+        deviceRegistry.register(Collections.singletonList(data.getDeviceId()));
+        GPSData saved = gpsRepository.save(data);
+        statsRegistry.recordGPS(Collections.singletonList(saved.getDeviceId()));
+        liveBroadcaster.publish("gps", List.of(saved), GPSData::getDeviceId);
+        recentSampleCache.addGPS(List.of(saved));
+        tripService.recordGPS(List.of(saved));
+        trackService.recordGPS(List.of(saved));
+        positionIndex.recordGPS(List.of(saved));
+        return saved;
+    }
+
+    public BatchResultDTO saveGPSBatch(List<GPSData> batch) {
+        LocalDateTime now = LocalDateTime.now();
+        for (GPSData data : batch) {
+            if (data.getTimestamp() == null) {
+                data.setTimestamp(now);
+            }
+            data.setGeohash(Geohash.encode(data.getLatitude(), data.getLongitude(), Geohash.PRECISION));
+        }
+        deviceRegistry.register(batch.stream().map(GPSData::getDeviceId).toList());
+        return transactionTemplate.execute(status -> {
+            List<GPSData> saved = gpsRepository.saveAll(batch);
+            statsRegistry.recordGPS(saved.stream().map(GPSData::getDeviceId).toList());
+            liveBroadcaster.publish("gps", saved, GPSData::getDeviceId);
+            recentSampleCache.addGPS(saved);
+            tripService.recordGPS(saved);
+            trackService.recordGPS(saved);
+            positionIndex.recordGPS(saved);
+            return toBatchResult(saved.stream().mapToLong(GPSData::getId));
+        });
+    }
+
+    // deviceId null : tous les appareils
+    public List<GPSData> getGPSDataPage(String deviceId, LocalDateTime from, LocalDateTime to,
+                                        SensorCursor after, int limit) {
+        SensorCursor start = startCursor(from, after);
+        PageRequest page = PageRequest.of(0, limit);
+        if (deviceId == null) {
+            return gpsRepository.findPage(start.getTimestamp(), start.getId(), to, page);
+        }
+        return gpsRepository.findPageByDeviceId(deviceId, start.getTimestamp(), start.getId(), to, page);
     }
 
-    public List<GPSData> getAllGPSData() {
-        return gpsRepository.findAll();
+    // Lectures récentes : cache chaud, puis base
+    public List<GPSData> getLatestGPSData(String deviceId, int n) {
+        return recentSampleCache.latestGPS(deviceId, n)
+                .orElseGet(() -> latest(n,
+                        since -> gpsRepository.findLatestByDeviceId(deviceId, since, PageRequest.of(0, n)),
+                        () -> gpsRepository.findByDeviceIdOrderByTimestampDescIdDesc(deviceId, PageRequest.of(0, n))));
     }
 
-    public List<GPSData> getGPSDataByDeviceId(String deviceId) {
-        return gpsRepository.findByDeviceId(deviceId);
+    public List<GPSData> getRecentGPSData(String deviceId, LocalDateTime from, int limit) {
+        return recentSampleCache.recentGPS(deviceId, from)
+                .map(rows -> rows.size() > limit ? rows.subList(0, limit) : rows)
+                .orElseGet(() -> getGPSDataPage(deviceId, from, LocalDateTime.now().plusDays(1), null, limit));
     }
 
     // Méthodes pour le gyroscope
@@ -65,14 +227,131 @@ public class SensorDataService {
         if (data.getTimestamp() == null) {
             data.setTimestamp(LocalDateTime.now());
         }
-        return gyroscopeRepository.save(data);
+        deviceRegistry.register(Collections.singletonList(data.getDeviceId()));
+        GyroscopeData saved = gyroscopeRepository.save(data);
+        statsRegistry.recordGyroscope(Collections.singletonList(saved.getDeviceId()));
+        rollupService.recordGyroscope(List.of(saved));
+        liveBroadcaster.publish("gyroscope", List.of(saved), GyroscopeData::getDeviceId);
+        recentSampleCache.addGyroscope(List.of(saved));
+        drivingEventService.recordGyroscope(List.of(saved));
+        return saved;
+    }
+
+    public BatchResultDTO saveGyroscopeBatch(List<GyroscopeData> batch) {
+        LocalDateTime now = LocalDateTime.now();
+        for (GyroscopeData data : batch) {
+            if (data.getTimestamp() == null) {
+                data.setTimestamp(now);
+            }
+        }
+        deviceRegistry.register(batch.stream().map(GyroscopeData::getDeviceId).toList());
+        return transactionTemplate.execute(status -> {
+            List<GyroscopeData> saved = gyroscopeRepository.saveAll(batch);
+            statsRegistry.recordGyroscope(saved.stream().map(GyroscopeData::getDeviceId).toList());
+            rollupService.recordGyroscope(saved);
+            liveBroadcaster.publish("gyroscope", saved, GyroscopeData::getDeviceId);
+            recentSampleCache.addGyroscope(saved);
+            drivingEventService.recordGyroscope(saved);
+            return toBatchResult(saved.stream().mapToLong(GyroscopeData::getId));
+        });
+    }
+
+    // deviceId null : tous les appareils ; les heures archivées sont lues dans le stockage froid
+    public List<GyroscopeData> getGyroscopeDataPage(String deviceId, LocalDateTime from, LocalDateTime to,
+                                                    SensorCursor after, int limit) {
+        SensorCursor start = startCursor(from, after);
+        PageRequest page = PageRequest.of(0, limit);
+        List<GyroscopeData> hot = deviceId == null
+                ? gyroscopeRepository.findPage(start.getTimestamp(), start.getId(), to, page)
+                : gyroscopeRepository.findPageByDeviceId(deviceId, start.getTimestamp(), start.getId(), to, page);
+        return coldStorageService.gyroscope().page(hot, deviceId, start.getTimestamp(), start.getId(), to, limit);
+    }
+
+    // Lectures récentes : cache chaud, puis base
+    public List<GyroscopeData> getLatestGyroscopeData(String deviceId, int n) {
+        return recentSampleCache.latestGyroscope(deviceId, n)
+                .orElseGet(() -> coldStorageService.gyroscope().latest(latest(n,
+                        since -> gyroscopeRepository.findLatestByDeviceId(deviceId, since, PageRequest.of(0, n)),
+                        () -> gyroscopeRepository.findByDeviceIdOrderByTimestampDescIdDesc(deviceId, PageRequest.of(0, n))),
+                        deviceId, n));
+    }
+
+    public List<GyroscopeData> getRecentGyroscopeData(String deviceId, LocalDateTime from, int limit) {
+        return recentSampleCache.recentGyroscope(deviceId, from)
+                .map(rows -> rows.size() > limit ? rows.subList(0, limit) : rows)
+                .orElseGet(() -> getGyroscopeDataPage(deviceId, from, LocalDateTime.now().plusDays(1), null, limit));
+    }
+
+    // Série réduite à maxPoints points pour les graphiques, calculée en une passe sur le flux
+    @Transactional(readOnly = true)
+    public List<GyroscopeData> getGyroscopeDataDownsampled(String deviceId, LocalDateTime from, LocalDateTime to,
+                                                           int maxPoints, DownsamplingMode mode, Duration resolution) {
+        ColdTier<GyroscopeData> cold = coldStorageService.gyroscope();
+        SeriesExtentDTO extent = gyroscopeRepository.findExtentByDeviceIdInRange(deviceId, from, to)
+                .merge(cold.extent(deviceId, from, to));
+        return downsample(cold.stream(gyroscopeRepository.streamByDeviceId(deviceId, from, to), deviceId, from, to),
+                downsampler(mode, SeriesAccessor.GYROSCOPE, extent, maxPoints, resolution));
+    }
+
+    // Enveloppe multi-capteurs : tout est persisté dans une seule transaction
+    public SensorBatchResultDTO saveSensorBatch(SensorBatchDTO batch) {
+        batch.applyDeviceId();
+        deviceRegistry.register(Stream.of(
+                batch.getAccelerometer().stream().map(AccelerometerData::getDeviceId),
+                batch.getGyroscope().stream().map(GyroscopeData::getDeviceId),
+                batch.getGps().stream().map(GPSData::getDeviceId)).flatMap(ids -> ids).distinct().toList());
+        return transactionTemplate.execute(status -> {
+            SensorBatchResultDTO result = new SensorBatchResultDTO();
+            if (!batch.getAccelerometer().isEmpty()) {
+                result.setAccelerometer(saveAccelerometerBatch(batch.getAccelerometer()));
+            }
+            if (!batch.getGyroscope().isEmpty()) {
+                result.setGyroscope(saveGyroscopeBatch(batch.getGyroscope()));
+            }
+            if (!batch.getGps().isEmpty()) {
+                result.setGps(saveGPSBatch(batch.getGps()));
+            }
+            return result;
+        });
+    }
+
+    // Seaux calés sur les échantillons présents : une plage ouverte (1970 → 9999) ne dilue pas la série
+    private static <T> Downsampler<T> downsampler(DownsamplingMode mode, SeriesAccessor<T> accessor,
+                                                  SeriesExtentDTO extent, int maxPoints, Duration resolution) {
+        LocalDateTime end = extent.last() == null ? null : extent.last().plusNanos(1_000_000);
+        return Downsampler.create(mode, accessor, extent.count(), maxPoints, extent.first(), end, resolution);
+    }
+
+    private <T> List<T> downsample(Stream<T> rows, Downsampler<T> downsampler) {
+        try (rows) {
+            rows.forEach(row -> {
+                downsampler.accept(row);
+                entityManager.detach(row);
+            });
+        }
+        return downsampler.finish();
     }
 
-    public List<GyroscopeData> getAllGyroscopeData() {
-        return gyroscopeRepository.findAll();
+    // Fenêtre récente d'abord (élagage des partitions), historique complet seulement si elle ne suffit pas
+    private static <T> List<T> latest(int n, Function<LocalDateTime, List<T>> recent, Supplier<List<T>> all) {
+        List<T> rows = recent.apply(LocalDateTime.now().minus(LATEST_WINDOW));
+        return rows.size() < n ? all.get() : rows;
     }
 
-    public List<GyroscopeData> getGyroscopeDataByDeviceId(String deviceId) {
-        return gyroscopeRepository.findByDeviceId(deviceId);
+    // Sans curseur (ou curseur antérieur à la plage), on part du début de la plage
+    private SensorCursor startCursor(LocalDateTime from, SensorCursor after) {
+        if (after == null || after.getTimestamp().isBefore(from)) {
+            return new SensorCursor(from, Long.MIN_VALUE);
+        }
+        return after;
+    }
+
+    // Les identifiants proviennent d'une séquence partagée : on renvoie les bornes, pas une plage contiguë garantie
+    private BatchResultDTO toBatchResult(LongStream ids) {
+        LongSummaryStatistics stats = ids.summaryStatistics();
+        if (stats.getCount() == 0) {
+            return new BatchResultDTO(0, null, null);
+        }
+        return new BatchResultDTO((int) stats.getCount(), stats.getMin(), stats.getMax());
     }
 }
\ No newline at end of file
@@ -0,0 +1,147 @@
+package com.example.backend.service;
+
+import com.example.backend.entity.AccelerometerData;
+import com.example.backend.entity.GPSData;
+import com.example.backend.entity.GyroscopeData;
+import com.example.backend.repository.AccelerometerRepository;
+import com.example.backend.repository.GPSRepository;
+import com.example.backend.repository.GyroscopeRepository;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SequenceWriter;
+import jakarta.persistence.EntityManager;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Iterator;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+// Export de l'historique d'un appareil : les lignes sont lues en flux et écrites
+// directement dans la réponse, sans jamais construire de liste complète.
+@Service
+public class SensorExportService {
+
+    private static final DateTimeFormatter ISO = DateTimeFormatter.ISO_LOCAL_DATE_TIME;
+
+    private final AccelerometerRepository accelerometerRepository;
+    private final GPSRepository gpsRepository;
+    private final GyroscopeRepository gyroscopeRepository;
+    private final ColdStorageService coldStorageService;
+    private final EntityManager entityManager;
+    private final ObjectMapper objectMapper;
+
+    @Autowired
+    public SensorExportService(AccelerometerRepository accelerometerRepository,
+                               GPSRepository gpsRepository,
+                               GyroscopeRepository gyroscopeRepository,
+                               ColdStorageService coldStorageService,
+                               EntityManager entityManager,
+                               ObjectMapper objectMapper) {
+        this.accelerometerRepository = accelerometerRepository;
+        this.gpsRepository = gpsRepository;
+        this.gyroscopeRepository = gyroscopeRepository;
+        this.coldStorageService = coldStorageService;
+        this.entityManager = entityManager;
+        this.objectMapper = objectMapper;
+    }
+
+    @Transactional(readOnly = true)
+    public long exportAccelerometerData(String deviceId, LocalDateTime from, LocalDateTime to,
+                                        ExportFormat format, OutputStream out) throws IOException {
+        try (Stream<AccelerometerData> rows = coldStorageService.accelerometer()
+                .stream(accelerometerRepository.streamByDeviceId(deviceId, from, to), deviceId, from, to)) {
+            return write(rows, format, out, "id,deviceId,timestamp,x,y,z",
+                    data -> data.getId() + "," + csv(data.getDeviceId()) + "," + ISO.format(data.getTimestamp()) + ","
+                            + data.getX() + "," + data.getY() + "," + data.getZ());
+        }
+    }
+
+    @Transactional(readOnly = true)
+    public long exportGPSData(String deviceId, LocalDateTime from, LocalDateTime to,
+                              ExportFormat format, OutputStream out) throws IOException {
+        try (Stream<GPSData> rows = gpsRepository.streamByDeviceId(deviceId, from, to)) {
+            return write(rows, format, out, "id,deviceId,timestamp,latitude,longitude,altitude,speed",
+                    data -> data.getId() + "," + csv(data.getDeviceId()) + "," + ISO.format(data.getTimestamp()) + ","
+                            + data.getLatitude() + "," + data.getLongitude() + ","
+                            + data.getAltitude() + "," + data.getSpeed());
+        }
+    }
+
+    @Transactional(readOnly = true)
+    public long exportGyroscopeData(String deviceId, LocalDateTime from, LocalDateTime to,
+                                    ExportFormat format, OutputStream out) throws IOException {
+        try (Stream<GyroscopeData> rows = coldStorageService.gyroscope()
+                .stream(gyroscopeRepository.streamByDeviceId(deviceId, from, to), deviceId, from, to)) {
+            return write(rows, format, out, "id,deviceId,timestamp,rotationX,rotationY,rotationZ",
+                    data -> data.getId() + "," + csv(data.getDeviceId()) + "," + ISO.format(data.getTimestamp()) + ","
+                            + data.getRotationX() + "," + data.getRotationY() + "," + data.getRotationZ());
+        }
+    }
+
+    private <T> long write(Stream<T> rows, ExportFormat format, OutputStream out,
+                           String csvHeader, Function<T, String> csvRow) throws IOException {
+        if (format == ExportFormat.CSV) {
+            return writeCsv(rows, out, csvHeader, csvRow);
+        }
+        return writeNdjson(rows, out);
+    }
+
+    private <T> long writeCsv(Stream<T> rows, OutputStream out, String header,
+                              Function<T, String> csvRow) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        writer.write(header);
+        writer.write('\n');
+        long count = 0;
+        Iterator<T> iterator = rows.iterator();
+        while (iterator.hasNext()) {
+            T row = iterator.next();
+            writer.write(csvRow.apply(row));
+            writer.write('\n');
+            // Chaque ligne est détachée pour que le contexte de persistance reste vide
+            entityManager.detach(row);
+            count++;
+        }
+        writer.flush();
+        return count;
+    }
+
+    private <T> long writeNdjson(Stream<T> rows, OutputStream out) throws IOException {
+        JsonGenerator generator = objectMapper.getFactory().createGenerator(out);
+        generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        long count = 0;
+        try (SequenceWriter writer = objectMapper.writer().withRootValueSeparator("\n").writeValues(generator)) {
+            Iterator<T> iterator = rows.iterator();
+            while (iterator.hasNext()) {
+                T row = iterator.next();
+                writer.write(row);
+                entityManager.detach(row);
+                count++;
+            }
+        }
+        if (count > 0) {
+            out.write('\n');
+        }
+        out.flush();
+        return count;
+    }
+
+    private static String csv(String value) {
+        if (value == null) {
+            return "";
+        }
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0) {
+            return value;
+        }
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+}
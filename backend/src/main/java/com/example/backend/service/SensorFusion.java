@@ -0,0 +1,190 @@
+package com.example.backend.service;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.PriorityQueue;
+
+// Fusion de plusieurs séries d'un appareil sur une grille régulière : trame k à start + k * period (µs).
+// Les séries, déjà triées par horodatage, sont fusionnées en une seule passe (merge k-voies) ;
+// chaque canal garde un état constant et écrit ses valeurs dans des colonnes, NaN si inconnues.
+//   AVERAGE     : moyenne des mesures de la fenêtre [t - period/2, t + period/2) (capteurs inertiels),
+//                 fenêtre vide interpolée entre les mesures voisines si elles sont à moins de maxGap
+//   INTERPOLATE : interpolation linéaire entre les deux mesures qui encadrent t (GPS), sans extrapolation
+final class SensorFusion {
+
+    enum Mode {
+        AVERAGE,
+        INTERPOLATE
+    }
+
+    record Sample(Channel channel, long time, double[] values) {
+    }
+
+    static final class Channel {
+        private final Mode mode;
+        private final long maxGap;
+        private final double[][] columns;
+        private final double[] sum;
+        private int count;
+        private int bin = -1;
+        // Première trame pas encore écrite
+        private int nextFrame;
+        private long previousTime;
+        private double[] previousValues;
+        private int samples;
+
+        private Channel(Mode mode, int axes, long maxGap, int frames) {
+            this.mode = mode;
+            this.maxGap = maxGap;
+            this.columns = new double[axes][frames];
+            for (double[] column : columns) {
+                Arrays.fill(column, Double.NaN);
+            }
+            this.sum = new double[axes];
+        }
+
+        double[][] columns() {
+            return columns;
+        }
+
+        int samples() {
+            return samples;
+        }
+    }
+
+    private final long start;
+    private final long period;
+    private final int frames;
+
+    SensorFusion(long start, long period, int frames) {
+        if (period <= 0 || frames < 0) {
+            throw new IllegalArgumentException("Grille invalide");
+        }
+        this.start = start;
+        this.period = period;
+        this.frames = frames;
+    }
+
+    Channel channel(Mode mode, int axes, long maxGap) {
+        return new Channel(mode, axes, maxGap, frames);
+    }
+
+    long timeOf(int frame) {
+        return start + frame * period;
+    }
+
+    void accept(Sample sample) {
+        Channel channel = sample.channel();
+        if (channel.mode == Mode.AVERAGE) {
+            average(channel, sample.time(), sample.values());
+        } else {
+            interpolate(channel, sample.time(), sample.values());
+        }
+        channel.previousTime = sample.time();
+        channel.previousValues = sample.values();
+        channel.samples++;
+    }
+
+    // Fin des séries : la dernière fenêtre ouverte est close, les trames restantes restent inconnues
+    void finish(Channel channel) {
+        if (channel.mode == Mode.AVERAGE) {
+            closeBin(channel);
+        }
+    }
+
+    private void average(Channel channel, long time, double[] values) {
+        long bin = Math.floorDiv(time - start + period / 2, period);
+        if (bin != channel.bin) {
+            closeBin(channel);
+            // Fenêtres vides entre la précédente mesure et celle-ci
+            int end = (int) Math.min(bin, frames);
+            for (int k = channel.nextFrame; k < end; k++) {
+                interpolateFrame(channel, k, time, values);
+            }
+            channel.bin = (int) Math.max(-1, Math.min(bin, frames));
+            channel.nextFrame = Math.max(channel.nextFrame, channel.bin);
+        }
+        // Au-delà de la grille, la mesure ne sert plus qu'à interpoler
+        if (bin >= 0 && bin < frames) {
+            for (int axis = 0; axis < values.length; axis++) {
+                channel.sum[axis] += values[axis];
+            }
+            channel.count++;
+        }
+    }
+
+    private void closeBin(Channel channel) {
+        if (channel.count > 0) {
+            for (int axis = 0; axis < channel.sum.length; axis++) {
+                channel.columns[axis][channel.bin] = channel.sum[axis] / channel.count;
+            }
+            channel.nextFrame = channel.bin + 1;
+        }
+        Arrays.fill(channel.sum, 0);
+        channel.count = 0;
+    }
+
+    private void interpolate(Channel channel, long time, double[] values) {
+        while (channel.nextFrame < frames && timeOf(channel.nextFrame) <= time) {
+            interpolateFrame(channel, channel.nextFrame, time, values);
+            channel.nextFrame++;
+        }
+    }
+
+    // Valeur de la trame k entre la mesure précédente du canal et (time, values) ; inconnue si l'écart est trop grand
+    private void interpolateFrame(Channel channel, int k, long time, double[] values) {
+        long t = timeOf(k);
+        if (t == time) {
+            set(channel, k, values);
+            return;
+        }
+        if (channel.previousValues == null || t < channel.previousTime || time - channel.previousTime > channel.maxGap) {
+            return;
+        }
+        double ratio = (double) (t - channel.previousTime) / (time - channel.previousTime);
+        for (int axis = 0; axis < values.length; axis++) {
+            double previous = channel.previousValues[axis];
+            channel.columns[axis][k] = previous + (values[axis] - previous) * ratio;
+        }
+    }
+
+    private static void set(Channel channel, int k, double[] values) {
+        for (int axis = 0; axis < values.length; axis++) {
+            channel.columns[axis][k] = values[axis];
+        }
+    }
+
+    // Fusion k-voies de suites triées : une tête par source dans un tas, la plus ancienne sort la première
+    static <T> Iterator<T> merge(List<Iterator<T>> sources, Comparator<? super T> order) {
+        record Head<T>(T value, Iterator<T> source) {
+        }
+        PriorityQueue<Head<T>> heads = new PriorityQueue<>(Math.max(1, sources.size()),
+                (a, b) -> order.compare(a.value(), b.value()));
+        for (Iterator<T> source : sources) {
+            if (source.hasNext()) {
+                heads.add(new Head<>(source.next(), source));
+            }
+        }
+        return new Iterator<>() {
+            @Override
+            public boolean hasNext() {
+                return !heads.isEmpty();
+            }
+
+            @Override
+            public T next() {
+                Head<T> head = heads.poll();
+                if (head == null) {
+                    throw new NoSuchElementException();
+                }
+                if (head.source().hasNext()) {
+                    heads.add(new Head<>(head.source().next(), head.source()));
+                }
+                return head.value();
+            }
+        };
+    }
+}
@@ -0,0 +1,171 @@
+package com.example.backend.service;
+
+import com.example.backend.dto.GPSPointDTO;
+import com.example.backend.dto.SensorFusionDTO;
+import com.example.backend.entity.AccelerometerData;
+import com.example.backend.entity.GyroscopeData;
+import com.example.backend.repository.AccelerometerRepository;
+import com.example.backend.repository.GPSRepository;
+import com.example.backend.repository.GyroscopeRepository;
+import jakarta.persistence.EntityManager;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.stream.Stream;
+
+// Vue fusionnée accéléromètre / gyroscope / GPS d'un appareil, alignée sur une grille à la fréquence demandée.
+// Les trois lectures chronologiques (archives froides comprises) restent ouvertes en même temps et sont
+// fusionnées par horodatage : chaque mesure est lue une fois et oubliée, seules les colonnes de sortie
+// sont en mémoire. Les lectures débordent de maxGap de part et d'autre pour interpoler les trames des bords.
+@Service
+public class SensorFusionService {
+
+    private final AccelerometerRepository accelerometerRepository;
+    private final GyroscopeRepository gyroscopeRepository;
+    private final GPSRepository gpsRepository;
+    private final ColdStorageService coldStorageService;
+    private final EntityManager entityManager;
+    private final int maxFrames;
+    private final long imuMaxGapMicros;
+    private final long gpsMaxGapMicros;
+    private final Duration maxRange;
+
+    @Autowired
+    public SensorFusionService(AccelerometerRepository accelerometerRepository,
+                               GyroscopeRepository gyroscopeRepository,
+                               GPSRepository gpsRepository,
+                               ColdStorageService coldStorageService,
+                               EntityManager entityManager,
+                               @Value("${fusion.max-frames:10000}") int maxFrames,
+                               @Value("${fusion.imu-max-gap-ms:1000}") long imuMaxGapMillis,
+                               @Value("${fusion.gps-max-gap-ms:10000}") long gpsMaxGapMillis,
+                               @Value("${fusion.max-range-hours:24}") long maxRangeHours) {
+        this.accelerometerRepository = accelerometerRepository;
+        this.gyroscopeRepository = gyroscopeRepository;
+        this.gpsRepository = gpsRepository;
+        this.coldStorageService = coldStorageService;
+        this.entityManager = entityManager;
+        this.maxFrames = maxFrames;
+        this.imuMaxGapMicros = imuMaxGapMillis * 1000;
+        this.gpsMaxGapMicros = gpsMaxGapMillis * 1000;
+        this.maxRange = Duration.ofHours(maxRangeHours);
+    }
+
+    // Trames sur [from, to), au plus maxRange ; si elles dépassent maxFrames, la fréquence est abaissée
+    @Transactional(readOnly = true)
+    public SensorFusionDTO fuse(String deviceId, LocalDateTime from, LocalDateTime to, double rateHz) {
+        if (!(rateHz > 0) || Double.isInfinite(rateHz)) {
+            throw new IllegalArgumentException("Fréquence invalide : " + rateHz);
+        }
+        if (!from.isBefore(to)) {
+            throw new IllegalArgumentException("Période vide : " + from + " - " + to);
+        }
+        // Les trois capteurs sont relus sur toute la période : plage bornée même si peu de trames sont rendues
+        if (Duration.between(from, to).compareTo(maxRange) > 0) {
+            throw new IllegalArgumentException("Période trop longue (au plus " + maxRange.toHours() + " h) : "
+                    + from + " - " + to);
+        }
+        long span = ChronoUnit.MICROS.between(from, to);
+        long period = Math.max(1, Math.round(1_000_000 / rateHz));
+        if (ceilDiv(span, period) > maxFrames) {
+            period = ceilDiv(span, maxFrames);
+        }
+        int frames = (int) ceilDiv(span, period);
+
+        SensorFusion fusion = new SensorFusion(0, period, frames);
+        SensorFusion.Channel accelerometer = fusion.channel(SensorFusion.Mode.AVERAGE, 3, imuMaxGapMicros);
+        SensorFusion.Channel gyroscope = fusion.channel(SensorFusion.Mode.AVERAGE, 3, imuMaxGapMicros);
+        SensorFusion.Channel gps = fusion.channel(SensorFusion.Mode.INTERPOLATE, 4, gpsMaxGapMicros);
+
+        // Marge d'une demi-trame en plus : la fenêtre de la dernière trame déborde de to
+        Duration imuMargin = Duration.of(imuMaxGapMicros + period / 2, ChronoUnit.MICROS);
+        Duration gpsMargin = Duration.of(gpsMaxGapMicros, ChronoUnit.MICROS);
+        LocalDateTime imuFrom = from.minus(imuMargin);
+        LocalDateTime imuTo = to.plus(imuMargin);
+        LocalDateTime gpsFrom = from.minus(gpsMargin);
+        LocalDateTime gpsTo = to.plus(gpsMargin);
+        try (Stream<AccelerometerData> accelerometerRows = coldStorageService.accelerometer()
+                .stream(accelerometerRepository.streamByDeviceId(deviceId, imuFrom, imuTo), deviceId, imuFrom, imuTo);
+             Stream<GyroscopeData> gyroscopeRows = coldStorageService.gyroscope()
+                     .stream(gyroscopeRepository.streamByDeviceId(deviceId, imuFrom, imuTo), deviceId, imuFrom, imuTo);
+             Stream<GPSPointDTO> gpsRows = gpsRepository.streamPointsByDeviceId(deviceId, gpsFrom, gpsTo)) {
+            Stream<SensorFusion.Sample> accelerometerSamples = accelerometerRows.map(data -> {
+                // Entité lue une fois : détachée pour que le contexte de persistance reste vide
+                entityManager.detach(data);
+                return new SensorFusion.Sample(accelerometer, micros(from, data.getTimestamp()),
+                        new double[]{data.getX(), data.getY(), data.getZ()});
+            });
+            Stream<SensorFusion.Sample> gyroscopeSamples = gyroscopeRows.map(data -> {
+                entityManager.detach(data);
+                return new SensorFusion.Sample(gyroscope, micros(from, data.getTimestamp()),
+                        new double[]{data.getRotationX(), data.getRotationY(), data.getRotationZ()});
+            });
+            Stream<SensorFusion.Sample> gpsSamples = gpsRows.map(point -> new SensorFusion.Sample(gps,
+                    micros(from, point.timestamp()),
+                    new double[]{point.latitude(), point.longitude(), point.altitude(), point.speed()}));
+
+            Iterator<SensorFusion.Sample> merged = SensorFusion.merge(
+                    List.of(accelerometerSamples.iterator(), gyroscopeSamples.iterator(), gpsSamples.iterator()),
+                    Comparator.comparingLong(SensorFusion.Sample::time));
+            while (merged.hasNext()) {
+                fusion.accept(merged.next());
+            }
+        }
+        fusion.finish(accelerometer);
+        fusion.finish(gyroscope);
+        fusion.finish(gps);
+
+        return new SensorFusionDTO(deviceId, from, 1_000_000.0 / period, period, frames,
+                toAxes(accelerometer), toAxes(gyroscope), toPositions(gps));
+    }
+
+    private static long ceilDiv(long x, long y) {
+        return -Math.floorDiv(-x, y);
+    }
+
+    private static long micros(LocalDateTime from, LocalDateTime timestamp) {
+        return ChronoUnit.MICROS.between(from, timestamp);
+    }
+
+    private static SensorFusionDTO.Axes toAxes(SensorFusion.Channel channel) {
+        if (channel.samples() == 0) {
+            return null;
+        }
+        double[][] columns = channel.columns();
+        return new SensorFusionDTO.Axes(channel.samples(),
+                toFloats(columns[0]), toFloats(columns[1]), toFloats(columns[2]));
+    }
+
+    private static SensorFusionDTO.Positions toPositions(SensorFusion.Channel channel) {
+        if (channel.samples() == 0) {
+            return null;
+        }
+        double[][] columns = channel.columns();
+        return new SensorFusionDTO.Positions(channel.samples(),
+                toDoubles(columns[0]), toDoubles(columns[1]), toDoubles(columns[2]), toFloats(columns[3]));
+    }
+
+    private static Float[] toFloats(double[] column) {
+        Float[] values = new Float[column.length];
+        for (int i = 0; i < column.length; i++) {
+            values[i] = Double.isNaN(column[i]) ? null : (float) column[i];
+        }
+        return values;
+    }
+
+    private static Double[] toDoubles(double[] column) {
+        Double[] values = new Double[column.length];
+        for (int i = 0; i < column.length; i++) {
+            values[i] = Double.isNaN(column[i]) ? null : column[i];
+        }
+        return values;
+    }
+}
@@ -0,0 +1,73 @@
+package com.example.backend.service;
+
+import com.example.backend.entity.AccelerometerData;
+import com.example.backend.entity.GyroscopeData;
+
+import java.time.LocalDateTime;
+
+// Accès aux axes d'une série de capteur sans dépendre du type d'entité
+public interface SeriesAccessor<T> {
+
+    LocalDateTime timestamp(T sample);
+
+    int axisCount();
+
+    double value(T sample, int axis);
+
+    // Point synthétique (moyenne d'un seau), non persisté
+    T create(T template, LocalDateTime timestamp, double[] values);
+
+    SeriesAccessor<AccelerometerData> ACCELEROMETER = new SeriesAccessor<>() {
+        @Override
+        public LocalDateTime timestamp(AccelerometerData sample) {
+            return sample.getTimestamp();
+        }
+
+        @Override
+        public int axisCount() {
+            return 3;
+        }
+
+        @Override
+        public double value(AccelerometerData sample, int axis) {
+            return switch (axis) {
+                case 0 -> sample.getX();
+                case 1 -> sample.getY();
+                default -> sample.getZ();
+            };
+        }
+
+        @Override
+        public AccelerometerData create(AccelerometerData template, LocalDateTime timestamp, double[] values) {
+            return new AccelerometerData((float) values[0], (float) values[1], (float) values[2],
+                    template.getDeviceId(), timestamp);
+        }
+    };
+
+    SeriesAccessor<GyroscopeData> GYROSCOPE = new SeriesAccessor<>() {
+        @Override
+        public LocalDateTime timestamp(GyroscopeData sample) {
+            return sample.getTimestamp();
+        }
+
+        @Override
+        public int axisCount() {
+            return 3;
+        }
+
+        @Override
+        public double value(GyroscopeData sample, int axis) {
+            return switch (axis) {
+                case 0 -> sample.getRotationX();
+                case 1 -> sample.getRotationY();
+                default -> sample.getRotationZ();
+            };
+        }
+
+        @Override
+        public GyroscopeData create(GyroscopeData template, LocalDateTime timestamp, double[] values) {
+            return new GyroscopeData((float) values[0], (float) values[1], (float) values[2],
+                    template.getDeviceId(), timestamp);
+        }
+    };
+}
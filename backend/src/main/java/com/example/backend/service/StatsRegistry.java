@@ -0,0 +1,196 @@
+package com.example.backend.service;
+
+import com.example.backend.repository.AccelerometerRepository;
+import com.example.backend.repository.GPSRepository;
+import com.example.backend.repository.GyroscopeRepository;
+import com.example.backend.repository.SensorBlockRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+// Compteurs en mémoire mis à jour par le chemin d'ingestion : les statistiques
+// se lisent sans requête SQL. Initialisés au démarrage puis recalés périodiquement.
+@Component
+public class StatsRegistry {
+
+    private static final Logger log = LoggerFactory.getLogger(StatsRegistry.class);
+
+    private final AccelerometerRepository accelerometerRepository;
+    private final GPSRepository gpsRepository;
+    private final GyroscopeRepository gyroscopeRepository;
+    private final SensorBlockRepository sensorBlockRepository;
+    private final DeviceRegistry deviceRegistry;
+    private final IngestVersions ingestVersions;
+
+    private final AtomicLong accelerometerTotal = new AtomicLong();
+    private final AtomicLong gyroscopeTotal = new AtomicLong();
+    private final AtomicLong gpsTotal = new AtomicLong();
+    private final Set<String> devices = ConcurrentHashMap.newKeySet();
+    private volatile boolean seeded;
+    // Verrou plutôt que synchronized : un thread virtuel en attente pendant le recalage ne bloque pas son porteur
+    private final ReentrantLock reconcileLock = new ReentrantLock();
+    // Débit d'ingestion par capteur (échantillons validés)
+    private final Counter accelerometerIngested;
+    private final Counter gyroscopeIngested;
+    private final Counter gpsIngested;
+
+    @Autowired
+    public StatsRegistry(AccelerometerRepository accelerometerRepository,
+                         GPSRepository gpsRepository,
+                         GyroscopeRepository gyroscopeRepository,
+                         SensorBlockRepository sensorBlockRepository,
+                         DeviceRegistry deviceRegistry,
+                         IngestVersions ingestVersions,
+                         MeterRegistry meterRegistry) {
+        this.accelerometerRepository = accelerometerRepository;
+        this.gpsRepository = gpsRepository;
+        this.gyroscopeRepository = gyroscopeRepository;
+        this.sensorBlockRepository = sensorBlockRepository;
+        this.deviceRegistry = deviceRegistry;
+        this.ingestVersions = ingestVersions;
+        this.accelerometerIngested = ingestCounter(meterRegistry, "accelerometer");
+        this.gyroscopeIngested = ingestCounter(meterRegistry, "gyroscope");
+        this.gpsIngested = ingestCounter(meterRegistry, "gps");
+        // Lecture directe de l'ensemble : une collecte ne déclenche pas l'initialisation depuis la base
+        Gauge.builder("sensor.devices", devices, Set::size)
+                .description("Appareils distincts connus")
+                .register(meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void seed() {
+        ensureSeeded();
+    }
+
+    @Scheduled(initialDelayString = "${stats.reconcile-interval-ms:300000}",
+            fixedDelayString = "${stats.reconcile-interval-ms:300000}")
+    public void reconcile() {
+        reconcileLock.lock();
+        try {
+            // Compteur relevé avant et après la requête : les insertions enregistrées entre les deux ne sont
+            // ni perdues ni comptées deux fois. Les échantillons archivés dans le stockage froid aussi.
+            long before = accelerometerTotal.get();
+            boolean changed = adjust(accelerometerTotal, before, accelerometerRepository.count()
+                    + sensorBlockRepository.sumSampleCount(IngestVersions.ACCELEROMETER));
+            before = gyroscopeTotal.get();
+            changed |= adjust(gyroscopeTotal, before, gyroscopeRepository.count()
+                    + sensorBlockRepository.sumSampleCount(IngestVersions.GYROSCOPE));
+            before = gpsTotal.get();
+            changed |= adjust(gpsTotal, before, gpsRepository.count());
+            // Appareils lus dans le registre, pas dans les tables de capteurs
+            changed |= addDevices(deviceRegistry.getAllDeviceIds());
+            // Correction réelle (purge, import direct, appareil inconnu) : les réponses en cache ne sont plus sûres
+            if (changed && seeded) {
+                ingestVersions.invalidateAll();
+            }
+            seeded = true;
+            log.debug("Statistiques recalées : {} appareils", devices.size());
+        } finally {
+            reconcileLock.unlock();
+        }
+    }
+
+    public void recordAccelerometer(Collection<String> deviceIds) {
+        TransactionHooks.afterCommit(() -> record(accelerometerTotal, accelerometerIngested, deviceIds));
+        ingestVersions.recordAccelerometer(deviceIds);
+    }
+
+    public void recordGyroscope(Collection<String> deviceIds) {
+        TransactionHooks.afterCommit(() -> record(gyroscopeTotal, gyroscopeIngested, deviceIds));
+        ingestVersions.recordGyroscope(deviceIds);
+    }
+
+    public void recordGPS(Collection<String> deviceIds) {
+        TransactionHooks.afterCommit(() -> record(gpsTotal, gpsIngested, deviceIds));
+        ingestVersions.recordGPS(deviceIds);
+    }
+
+    public long getAccelerometerTotal() {
+        ensureSeeded();
+        return accelerometerTotal.get();
+    }
+
+    public long getGyroscopeTotal() {
+        ensureSeeded();
+        return gyroscopeTotal.get();
+    }
+
+    public long getGPSTotal() {
+        ensureSeeded();
+        return gpsTotal.get();
+    }
+
+    public int getDeviceCount() {
+        ensureSeeded();
+        return devices.size();
+    }
+
+    public List<String> getDeviceIds() {
+        ensureSeeded();
+        return new ArrayList<>(devices);
+    }
+
+    private void ensureSeeded() {
+        if (!seeded) {
+            reconcileLock.lock();
+            try {
+                if (!seeded) {
+                    reconcile();
+                }
+            } finally {
+                reconcileLock.unlock();
+            }
+        }
+    }
+
+    private void record(AtomicLong total, Counter ingested, Collection<String> deviceIds) {
+        total.addAndGet(deviceIds.size());
+        ingested.increment(deviceIds.size());
+        addDevices(deviceIds);
+    }
+
+    private boolean addDevices(Collection<String> deviceIds) {
+        boolean added = false;
+        for (String deviceId : deviceIds) {
+            if (deviceId != null) {
+                added |= devices.add(deviceId);
+            }
+        }
+        return added;
+    }
+
+    private static Counter ingestCounter(MeterRegistry meterRegistry, String sensorType) {
+        return Counter.builder("sensor.ingest.samples")
+                .description("Échantillons ingérés")
+                .tag("sensor", sensorType)
+                .register(meterRegistry);
+    }
+
+    // Les incréments enregistrés pendant le comptage (before → valeur courante) ont pu être validés avant
+    // ou après la lecture de la base : tant que celle-ci tombe dans cet intervalle, le compteur est juste.
+    // Hors de l'intervalle, seul l'écart au-delà est corrigé, par un ajout atomique et jamais par une
+    // écriture de la valeur lue : les ajouts de l'ingestion faits entre-temps ne sont pas perdus.
+    private boolean adjust(AtomicLong total, long before, long actual) {
+        long after = total.get();
+        long delta = actual < before ? actual - before : actual > after ? actual - after : 0;
+        if (delta != 0) {
+            total.addAndGet(delta);
+        }
+        return delta != 0;
+    }
+}
@@ -1,71 +1,208 @@
 package com.example.backend.service;
 
+import com.example.backend.dto.AccelerometerPointDTO;
+import com.example.backend.dto.CacheStatsDTO;
 import com.example.backend.dto.DashboardDataDTO;
 import com.example.backend.dto.DeviceActivityDTO;
+import com.example.backend.dto.GPSPointDTO;
+import com.example.backend.dto.GyroscopePointDTO;
 import com.example.backend.dto.StatsSummaryDTO;
-import com.example.backend.entity.AccelerometerData;
-import com.example.backend.entity.GPSData;
-import com.example.backend.entity.GyroscopeData;
 import com.example.backend.repository.AccelerometerRepository;
+import com.example.backend.repository.DeviceActivityRepository;
+import com.example.backend.repository.DeviceActivityRepository.ActivitySample;
 import com.example.backend.repository.GPSRepository;
 import com.example.backend.repository.GyroscopeRepository;
+import com.github.benmanes.caffeine.cache.AsyncLoadingCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
-import java.util.HashSet;
 import java.util.List;
-import java.util.Set;
-import java.util.stream.Collectors;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
 
+// Les trois lectures exposées passent par un cache Caffeine borné en taille et en durée :
+// des requêtes simultanées sur une entrée absente partagent un seul calcul. Chaque entrée retient
+// la version d'ingestion (IngestVersions) à laquelle elle a été calculée ; après une ingestion,
+// résumé et liste d'appareils sont recalculés à la lecture suivante, le tableau de bord reste servi
+// pendant que sa nouvelle version se calcule en arrière-plan (au plus une fois par min-refresh-ms).
+// Un tableau de bord dont une section a été abandonnée est recalculé de la même façon.
 @Service
 public class StatsService {
 
+    private static final Logger log = LoggerFactory.getLogger(StatsService.class);
+
+    private enum Section { SUMMARY, DEVICES, DASHBOARD }
+
+    private record Cached(IngestVersions.Version version, long loadedAt, Object value) {
+    }
+
     private final AccelerometerRepository accelerometerRepository;
     private final GPSRepository gpsRepository;
     private final GyroscopeRepository gyroscopeRepository;
+    private final StatsRegistry statsRegistry;
+    private final RecentSampleCache recentSampleCache;
+    private final DeviceActivityRepository deviceActivityRepository;
+    private final int activitiesPerDevice;
+    private final int activitiesLimit;
+    private final ExecutorService dashboardExecutor;
+    private final long sectionTimeoutNanos;
+    private final IngestVersions ingestVersions;
+    private final ExecutorService cacheExecutor;
+    private final AsyncLoadingCache<Section, Cached> cache;
+    private final long minRefreshNanos;
+    private final LongAdder refreshes = new LongAdder();
 
     @Autowired
     public StatsService(AccelerometerRepository accelerometerRepository,
                         GPSRepository gpsRepository,
-                        GyroscopeRepository gyroscopeRepository) {
+                        GyroscopeRepository gyroscopeRepository,
+                        StatsRegistry statsRegistry,
+                        RecentSampleCache recentSampleCache,
+                        DeviceActivityRepository deviceActivityRepository,
+                        @Value("${dashboard.activities.per-device:5}") int activitiesPerDevice,
+                        @Value("${dashboard.activities.limit:20}") int activitiesLimit,
+                        @Value("${dashboard.query-threads:4}") int queryThreads,
+                        @Value("${dashboard.section-timeout-ms:5000}") long sectionTimeoutMillis,
+                        @Value("${spring.datasource.hikari.maximum-pool-size:10}") int connectionPoolSize,
+                        IngestVersions ingestVersions,
+                        @Value("${stats.cache.ttl-seconds:60}") long cacheTtlSeconds,
+                        @Value("${stats.cache.min-refresh-ms:2000}") long minRefreshMillis) {
         this.accelerometerRepository = accelerometerRepository;
         this.gpsRepository = gpsRepository;
         this.gyroscopeRepository = gyroscopeRepository;
+        this.statsRegistry = statsRegistry;
+        this.recentSampleCache = recentSampleCache;
+        this.deviceActivityRepository = deviceActivityRepository;
+        this.activitiesPerDevice = activitiesPerDevice;
+        this.activitiesLimit = activitiesLimit;
+        // Jamais plus de la moitié des connexions : l'ingestion garde les siennes
+        int threads = Math.max(1, Math.min(queryThreads, connectionPoolSize / 2));
+        AtomicInteger counter = new AtomicInteger();
+        this.dashboardExecutor = Executors.newFixedThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, "dashboard-query-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.sectionTimeoutNanos = TimeUnit.MILLISECONDS.toNanos(sectionTimeoutMillis);
+        this.ingestVersions = ingestVersions;
+        // Pool distinct : un chargement du tableau de bord attend lui-même les sections du pool ci-dessus
+        AtomicInteger cacheCounter = new AtomicInteger();
+        this.cacheExecutor = Executors.newFixedThreadPool(2, runnable -> {
+            Thread thread = new Thread(runnable, "stats-cache-" + cacheCounter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(Section.values().length)
+                .expireAfterWrite(Duration.ofSeconds(cacheTtlSeconds))
+                .executor(cacheExecutor)
+                .recordStats()
+                .buildAsync(this::load);
+        this.minRefreshNanos = TimeUnit.MILLISECONDS.toNanos(minRefreshMillis);
+    }
+
+    @PreDestroy
+    public void stop() {
+        dashboardExecutor.shutdownNow();
+        cacheExecutor.shutdownNow();
     }
 
     public StatsSummaryDTO getStatsSummary() {
-        StatsSummaryDTO summary = new StatsSummaryDTO();
+        return (StatsSummaryDTO) get(Section.SUMMARY);
+    }
 
-        // Compter les appareils uniques
-        Set<String> uniqueDevices = new HashSet<>();
-        uniqueDevices.addAll(accelerometerRepository.findDistinctDeviceIds());
-        uniqueDevices.addAll(gpsRepository.findDistinctDeviceIds());
-        uniqueDevices.addAll(gyroscopeRepository.findDistinctDeviceIds());
+    @SuppressWarnings("unchecked")
+    public List<String> getAllDeviceIds() {
+        return (List<String>) get(Section.DEVICES);
+    }
 
-        summary.setActiveDevices(uniqueDevices.size());
-        summary.setTotalGPSPoints(gpsRepository.count());
-        summary.setTotalAccelerometerReadings(accelerometerRepository.count());
-        summary.setTotalGyroscopeReadings(gyroscopeRepository.count());
+    public DashboardDataDTO getDashboardData() {
+        return (DashboardDataDTO) get(Section.DASHBOARD);
+    }
 
-        return summary;
+    public CacheStatsDTO getCacheStats() {
+        CacheStats stats = cache.synchronous().stats();
+        return new CacheStatsDTO(stats.hitCount(), stats.missCount(), stats.hitRate(), stats.loadCount(),
+                stats.loadFailureCount(), stats.averageLoadPenalty() / 1_000_000.0, stats.evictionCount(),
+                refreshes.sum());
     }
 
-    public List<String> getAllDeviceIds() {
-        Set<String> uniqueDevices = new HashSet<>();
-        uniqueDevices.addAll(accelerometerRepository.findDistinctDeviceIds());
-        uniqueDevices.addAll(gpsRepository.findDistinctDeviceIds());
-        uniqueDevices.addAll(gyroscopeRepository.findDistinctDeviceIds());
+    private Object get(Section section) {
+        CompletableFuture<Cached> future = cache.get(section);
+        Cached cached = join(future);
+        // Tableau de bord dégradé (section expirée ou en échec) : servi, mais jamais gardé jusqu'au TTL
+        boolean degraded = section == Section.DASHBOARD
+                && !((DashboardDataDTO) cached.value()).getDegradedSections().isEmpty();
+        if (!degraded && cached.version().equals(ingestVersions.all())) {
+            return cached.value();
+        }
+        if (section == Section.DASHBOARD) {
+            if (System.nanoTime() - cached.loadedAt() >= minRefreshNanos
+                    && !cache.synchronous().policy().refreshes().containsKey(section)) {
+                refreshes.increment();
+                cache.synchronous().refresh(section);
+            }
+            return cached.value();
+        }
+        // Les lecteurs concurrents d'une entrée périmée se retrouvent sur le même nouveau calcul
+        cache.asMap().remove(section, future);
+        return join(cache.get(section)).value();
+    }
 
-        return new ArrayList<>(uniqueDevices);
+    // La version est lue avant le calcul : une ingestion concurrente rendra l'entrée périmée
+    private Cached load(Section section) {
+        IngestVersions.Version version = ingestVersions.all();
+        Object value = switch (section) {
+            case SUMMARY -> loadStatsSummary();
+            case DEVICES -> statsRegistry.getDeviceIds();
+            case DASHBOARD -> loadDashboardData();
+        };
+        return new Cached(version, System.nanoTime(), value);
     }
 
-    public DashboardDataDTO getDashboardData() {
+    private static Cached join(CompletableFuture<Cached> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    // Lecture des compteurs en mémoire, sans accès à la base
+    private StatsSummaryDTO loadStatsSummary() {
+        StatsSummaryDTO summary = new StatsSummaryDTO();
+        summary.setActiveDevices(statsRegistry.getDeviceCount());
+        summary.setTotalGPSPoints(statsRegistry.getGPSTotal());
+        summary.setTotalAccelerometerReadings(statsRegistry.getAccelerometerTotal());
+        summary.setTotalGyroscopeReadings(statsRegistry.getGyroscopeTotal());
+        return summary;
+    }
+
+    private DashboardDataDTO loadDashboardData() {
         DashboardDataDTO dashboardData = new DashboardDataDTO();
 
         // Récupérer les statistiques générales
-        StatsSummaryDTO summary = getStatsSummary();
+        StatsSummaryDTO summary = loadStatsSummary();
         dashboardData.setActiveDevices(summary.getActiveDevices());
         dashboardData.setTotalGPSPoints(summary.getTotalGPSPoints());
         dashboardData.setTotalAccelerometerReadings(summary.getTotalAccelerometerReadings());
@@ -74,47 +211,69 @@ public class StatsService {
         // Obtenir les données récentes (dernières 24h)
         LocalDateTime yesterday = LocalDateTime.now().minusDays(1);
 
-        List<GPSData> recentGPSData = gpsRepository.findByTimestampAfter(yesterday);
-        List<AccelerometerData> recentAccelerometerData = accelerometerRepository.findByTimestampAfter(yesterday);
-        List<GyroscopeData> recentGyroscopeData = gyroscopeRepository.findByTimestampAfter(yesterday);
+        // Cache chaud si la fenêtre est entièrement couverte, sinon projections en base.
+        // Les quatre lectures partent en parallèle avec une échéance commune.
+        long deadline = System.nanoTime() + sectionTimeoutNanos;
+        Future<List<GPSPointDTO>> gpsSection = dashboardExecutor.submit(() ->
+                recentSampleCache.recentGPSPoints(yesterday)
+                        .orElseGet(() -> gpsRepository.findPointsAfter(yesterday)));
+        Future<List<AccelerometerPointDTO>> accelerometerSection = dashboardExecutor.submit(() ->
+                recentSampleCache.recentAccelerometerPoints(yesterday)
+                        .orElseGet(() -> accelerometerRepository.findPointsAfter(yesterday)));
+        Future<List<GyroscopePointDTO>> gyroscopeSection = dashboardExecutor.submit(() ->
+                recentSampleCache.recentGyroscopePoints(yesterday)
+                        .orElseGet(() -> gyroscopeRepository.findPointsAfter(yesterday)));
+        Future<List<DeviceActivityDTO>> activitiesSection = dashboardExecutor.submit(() ->
+                getDeviceActivities(yesterday));
 
-        dashboardData.setRecentGPSData(recentGPSData);
-        dashboardData.setRecentAccelerometerData(recentAccelerometerData);
-        dashboardData.setRecentGyroscopeData(recentGyroscopeData);
-
-        // Générer des activités d'appareils
-        List<DeviceActivityDTO> activities = generateDeviceActivities(recentGPSData, recentAccelerometerData, recentGyroscopeData);
-        dashboardData.setDeviceActivities(activities);
+        List<String> degraded = new ArrayList<>();
+        dashboardData.setRecentGPSData(await("gps", gpsSection, deadline, degraded));
+        dashboardData.setRecentAccelerometerData(await("accelerometer", accelerometerSection, deadline, degraded));
+        dashboardData.setRecentGyroscopeData(await("gyroscope", gyroscopeSection, deadline, degraded));
+        dashboardData.setDeviceActivities(await("activities", activitiesSection, deadline, degraded));
+        dashboardData.setDegradedSections(degraded);
 
         return dashboardData;
     }
 
-    private List<DeviceActivityDTO> generateDeviceActivities(List<GPSData> gpsData,
-                                                             List<AccelerometerData> accelerometerData,
-                                                             List<GyroscopeData> gyroscopeData) {
-        List<DeviceActivityDTO> activities = new ArrayList<>();
-
-        // Ajouter les dernières activités GPS
-        if (!gpsData.isEmpty()) {
-            activities.addAll(gpsData.stream()
-                    .limit(10)
-                    .map(data -> {
-                        DeviceActivityDTO activity = new DeviceActivityDTO();
-                        activity.setDeviceId(data.getDeviceId());
-                        activity.setActivityType("GPS");
-                        activity.setTimestamp(data.getTimestamp());
-                        activity.setDescription("Localisation enregistrée à " +
-                                data.getLatitude() + ", " + data.getLongitude());
-                        return activity;
-                    })
-                    .collect(Collectors.toList()));
+    // Section en retard ou en échec : liste vide et nom de la section signalé, le reste du tableau de bord est servi
+    private <T> List<T> await(String section, Future<List<T>> future, long deadline, List<String> degraded) {
+        try {
+            return future.get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            log.warn("Section {} du tableau de bord abandonnée après expiration du délai", section);
+        } catch (ExecutionException e) {
+            log.warn("Section {} du tableau de bord en échec", section, e.getCause());
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
         }
+        degraded.add(section);
+        return new ArrayList<>();
+    }
 
-        // Ajouter des activités pour d'autres capteurs de manière similaire
+    // Dernières mesures par appareil et par capteur, sélectionnées en base ; seules les lignes affichées sont mises en forme
+    public List<DeviceActivityDTO> getDeviceActivities(LocalDateTime from) {
+        return deviceActivityRepository.findLatest(from, activitiesPerDevice, activitiesLimit).stream()
+                .map(StatsService::toActivity)
+                .toList();
+    }
+
+    private static DeviceActivityDTO toActivity(ActivitySample sample) {
+        DeviceActivityDTO activity = new DeviceActivityDTO();
+        activity.setDeviceId(sample.deviceId());
+        activity.setActivityType(sample.sensorType());
+        activity.setTimestamp(sample.timestamp());
+        activity.setDescription(switch (sample.sensorType()) {
+            case "GPS" -> "Localisation enregistrée à " + sample.a() + ", " + sample.b();
+            case "ACCELEROMETER" -> "Accélération mesurée : " + axes(sample);
+            default -> "Rotation mesurée : " + axes(sample);
+        });
+        return activity;
+    }
 
-        return activities.stream()
-                .sorted((a1, a2) -> a2.getTimestamp().compareTo(a1.getTimestamp()))
-                .limit(20)
-                .collect(Collectors.toList());
+    private static String axes(ActivitySample sample) {
+        return (float) sample.a() + ", " + (float) sample.b() + ", " + (float) sample.c();
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,17 @@
+package com.example.backend.service;
+
+public enum TrackEncoding {
+    // Google encoded polyline, précision 5 (décodable par les bibliothèques cartographiques usuelles)
+    POLYLINE,
+    // GeoJSON LineString, coordonnées [longitude, latitude] arrondies à la précision du zoom
+    GEOJSON;
+
+    public static TrackEncoding fromParam(String value) {
+        for (TrackEncoding encoding : values()) {
+            if (encoding.name().equalsIgnoreCase(value)) {
+                return encoding;
+            }
+        }
+        throw new IllegalArgumentException("Format de tracé non pris en charge : " + value);
+    }
+}
@@ -0,0 +1,203 @@
+package com.example.backend.service;
+
+import java.util.PriorityQueue;
+
+// Géométrie des tracés GPS : distances, projection Web Mercator, simplification et encodage.
+// La simplification travaille en mètres Mercator, l'unité des tuiles : une tolérance en pixels
+// se convertit donc sans dépendre de la latitude.
+final class TrackGeometry {
+
+    private static final double EARTH_RADIUS_METERS = 6_378_137;
+    private static final double MEAN_EARTH_RADIUS_METERS = 6_371_008.8;
+    private static final double MAX_LATITUDE = 85.05112878;
+    // Mètres Mercator par pixel au zoom 0 (tuiles de 256 pixels)
+    private static final double METERS_PER_PIXEL_ZOOM_0 = 2 * Math.PI * EARTH_RADIUS_METERS / 256;
+
+    private TrackGeometry() {
+    }
+
+    // Distance orthodromique en mètres
+    static double haversine(double lat1, double lon1, double lat2, double lon2) {
+        double dLat = Math.toRadians(lat2 - lat1);
+        double dLon = Math.toRadians(lon2 - lon1);
+        double a = Math.sin(dLat / 2) * Math.sin(dLat / 2)
+                + Math.cos(Math.toRadians(lat1)) * Math.cos(Math.toRadians(lat2)) * Math.sin(dLon / 2) * Math.sin(dLon / 2);
+        return 2 * MEAN_EARTH_RADIUS_METERS * Math.asin(Math.min(1, Math.sqrt(a)));
+    }
+
+    static double toleranceMeters(int zoom, double pixels) {
+        return pixels * METERS_PER_PIXEL_ZOOM_0 / (1L << zoom);
+    }
+
+    static double mercatorX(double longitude) {
+        return EARTH_RADIUS_METERS * Math.toRadians(longitude);
+    }
+
+    static double mercatorY(double latitude) {
+        double clamped = Math.max(-MAX_LATITUDE, Math.min(MAX_LATITUDE, latitude));
+        return EARTH_RADIUS_METERS * Math.log(Math.tan(Math.PI / 4 + Math.toRadians(clamped) / 2));
+    }
+
+    // Indices des points conservés, dans l'ordre ; le premier et le dernier le sont toujours
+    static int[] simplify(TrackSimplification simplification, double[] x, double[] y, int n, double tolerance) {
+        if (n <= 2) {
+            return range(n);
+        }
+        return switch (simplification) {
+            case DOUGLAS_PEUCKER -> douglasPeucker(x, y, n, tolerance);
+            // Aire d'un triangle de hauteur et de base égales à la tolérance, à un facteur 2 près
+            case VISVALINGAM -> visvalingam(x, y, n, tolerance * tolerance);
+        };
+    }
+
+    // Version itérative : pas de récursion profonde sur les longs tracés
+    private static int[] douglasPeucker(double[] x, double[] y, int n, double tolerance) {
+        boolean[] keep = new boolean[n];
+        keep[0] = true;
+        keep[n - 1] = true;
+        int kept = 2;
+        double toleranceSquared = tolerance * tolerance;
+        int[] stack = new int[2 * n];
+        int top = 0;
+        stack[top++] = 0;
+        stack[top++] = n - 1;
+        while (top > 0) {
+            int last = stack[--top];
+            int first = stack[--top];
+            double maxDistance = -1;
+            int farthest = -1;
+            for (int i = first + 1; i < last; i++) {
+                double distance = segmentDistanceSquared(x[i], y[i], x[first], y[first], x[last], y[last]);
+                if (distance > maxDistance) {
+                    maxDistance = distance;
+                    farthest = i;
+                }
+            }
+            if (farthest >= 0 && maxDistance > toleranceSquared) {
+                keep[farthest] = true;
+                kept++;
+                stack[top++] = first;
+                stack[top++] = farthest;
+                stack[top++] = farthest;
+                stack[top++] = last;
+            }
+        }
+        int[] indices = new int[kept];
+        for (int i = 0, j = 0; i < n; i++) {
+            if (keep[i]) {
+                indices[j++] = i;
+            }
+        }
+        return indices;
+    }
+
+    // File de priorité à suppression paresseuse : une entrée dont la version a changé est ignorée
+    private static int[] visvalingam(double[] x, double[] y, int n, double minArea) {
+        int[] previous = new int[n];
+        int[] next = new int[n];
+        int[] version = new int[n];
+        PriorityQueue<Candidate> queue = new PriorityQueue<>(n);
+        for (int i = 0; i < n; i++) {
+            previous[i] = i - 1;
+            next[i] = i + 1;
+        }
+        for (int i = 1; i < n - 1; i++) {
+            queue.add(new Candidate(triangleArea(x, y, i - 1, i, i + 1), i, 0));
+        }
+        int kept = n;
+        while (!queue.isEmpty()) {
+            Candidate candidate = queue.poll();
+            int i = candidate.index();
+            if (candidate.version() != version[i]) {
+                continue;
+            }
+            if (candidate.area() >= minArea) {
+                break;
+            }
+            int before = previous[i];
+            int after = next[i];
+            next[before] = after;
+            previous[after] = before;
+            version[i] = -1;
+            kept--;
+            // L'aire effective d'un voisin ne descend jamais sous celle du point retiré
+            for (int neighbour : new int[]{before, after}) {
+                if (neighbour > 0 && neighbour < n - 1) {
+                    double area = Math.max(candidate.area(),
+                            triangleArea(x, y, previous[neighbour], neighbour, next[neighbour]));
+                    queue.add(new Candidate(area, neighbour, ++version[neighbour]));
+                }
+            }
+        }
+        int[] indices = new int[kept];
+        for (int i = 0, j = 0; i < n; i = next[i]) {
+            indices[j++] = i;
+        }
+        return indices;
+    }
+
+    // Google encoded polyline : deltas en 1e-5 degré, zigzag puis groupes de 5 bits
+    static String encodePolyline(double[] latitudes, double[] longitudes) {
+        StringBuilder encoded = new StringBuilder(latitudes.length * 8);
+        long previousLatitude = 0;
+        long previousLongitude = 0;
+        for (int i = 0; i < latitudes.length; i++) {
+            long latitude = Math.round(latitudes[i] * 1e5);
+            long longitude = Math.round(longitudes[i] * 1e5);
+            encodeValue(encoded, latitude - previousLatitude);
+            encodeValue(encoded, longitude - previousLongitude);
+            previousLatitude = latitude;
+            previousLongitude = longitude;
+        }
+        return encoded.toString();
+    }
+
+    // Nombre de décimales pour qu'un arrondi reste sous le demi-pixel au zoom donné
+    static int decimalsForZoom(int zoom) {
+        double degreesPerPixel = 360.0 / (256L << zoom);
+        return Math.max(0, Math.min(7, (int) Math.ceil(-Math.log10(degreesPerPixel / 2))));
+    }
+
+    static double quantize(double value, int decimals) {
+        double scale = Math.pow(10, decimals);
+        return Math.round(value * scale) / scale;
+    }
+
+    private static void encodeValue(StringBuilder encoded, long value) {
+        long zigzag = value < 0 ? ~(value << 1) : value << 1;
+        while (zigzag >= 0x20) {
+            encoded.append((char) ((0x20 | (zigzag & 0x1F)) + 63));
+            zigzag >>= 5;
+        }
+        encoded.append((char) (zigzag + 63));
+    }
+
+    private static double segmentDistanceSquared(double px, double py, double ax, double ay, double bx, double by) {
+        double dx = bx - ax;
+        double dy = by - ay;
+        double lengthSquared = dx * dx + dy * dy;
+        double t = lengthSquared == 0 ? 0 : Math.max(0, Math.min(1, ((px - ax) * dx + (py - ay) * dy) / lengthSquared));
+        double ex = px - (ax + t * dx);
+        double ey = py - (ay + t * dy);
+        return ex * ex + ey * ey;
+    }
+
+    private static double triangleArea(double[] x, double[] y, int a, int b, int c) {
+        return Math.abs((x[b] - x[a]) * (y[c] - y[a]) - (x[c] - x[a]) * (y[b] - y[a])) / 2;
+    }
+
+    private static int[] range(int n) {
+        int[] indices = new int[n];
+        for (int i = 0; i < n; i++) {
+            indices[i] = i;
+        }
+        return indices;
+    }
+
+    private record Candidate(double area, int index, int version) implements Comparable<Candidate> {
+        @Override
+        public int compareTo(Candidate other) {
+            return Double.compare(area, other.area);
+        }
+    }
+}
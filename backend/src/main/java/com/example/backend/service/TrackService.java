@@ -0,0 +1,193 @@
+package com.example.backend.service;
+
+import com.example.backend.dto.GPSPointDTO;
+import com.example.backend.dto.GPSTrackDTO;
+import com.example.backend.entity.GPSData;
+import com.example.backend.repository.GPSRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+// Tracés GPS simplifiés selon le zoom de la carte, gardés dans un cache LRU par
+// (appareil, période, zoom, méthode). L'ingestion invalide les tracés dont la période couvre les nouveaux points.
+// Au-delà de track.max-source-points points lus, le tracé est tronqué et signalé comme tel.
+@Service
+public class TrackService {
+
+    public static final int MAX_ZOOM = 22;
+
+    private final GPSRepository gpsRepository;
+    private final TransactionTemplate readOnlyTransaction;
+    private final double tolerancePixels;
+    private final int maxSourcePoints;
+
+    private final Map<TrackKey, SimplifiedTrack> cache;
+    // Génération par appareil, incrémentée à chaque invalidation (sous le verrou du cache) : un tracé calculé
+    // pendant une ingestion du même appareil n'est pas mis en cache, ceux des autres appareils le sont
+    private final Map<String, Long> generations = new HashMap<>();
+
+    @Autowired
+    public TrackService(GPSRepository gpsRepository,
+                        PlatformTransactionManager transactionManager,
+                        @Value("${track.tolerance-pixels:1.0}") double tolerancePixels,
+                        @Value("${track.max-source-points:200000}") int maxSourcePoints,
+                        @Value("${track.cache.max-entries:256}") int maxEntries) {
+        this.gpsRepository = gpsRepository;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.tolerancePixels = tolerancePixels;
+        this.maxSourcePoints = maxSourcePoints;
+        this.cache = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<TrackKey, SimplifiedTrack> eldest) {
+                return size() > maxEntries;
+            }
+        };
+    }
+
+    public GPSTrackDTO getTrack(String deviceId, LocalDateTime from, LocalDateTime to, int zoom,
+                                TrackSimplification simplification, TrackEncoding encoding) {
+        if (zoom < 0 || zoom > MAX_ZOOM) {
+            throw new IllegalArgumentException("Zoom hors limites (0-" + MAX_ZOOM + ") : " + zoom);
+        }
+        TrackKey key = new TrackKey(deviceId, from, to, zoom, simplification);
+        SimplifiedTrack track;
+        long generation;
+        synchronized (cache) {
+            track = cache.get(key);
+            generation = generations.getOrDefault(deviceId, 0L);
+        }
+        if (track == null) {
+            track = load(key);
+            synchronized (cache) {
+                if (generations.getOrDefault(deviceId, 0L) == generation) {
+                    cache.put(key, track);
+                }
+            }
+        }
+        return toDTO(deviceId, zoom, track, encoding);
+    }
+
+    public void recordGPS(List<GPSData> samples) {
+        TransactionHooks.afterCommit(() -> {
+            // Période couverte par le lot, par appareil
+            Map<String, LocalDateTime[]> spans = new HashMap<>();
+            for (GPSData data : samples) {
+                if (data.getDeviceId() != null && data.getTimestamp() != null) {
+                    LocalDateTime timestamp = data.getTimestamp();
+                    spans.compute(data.getDeviceId(), (id, span) -> span == null
+                            ? new LocalDateTime[]{timestamp, timestamp}
+                            : new LocalDateTime[]{min(span[0], timestamp), max(span[1], timestamp)});
+                }
+            }
+            synchronized (cache) {
+                spans.keySet().forEach(deviceId -> generations.merge(deviceId, 1L, Long::sum));
+                cache.keySet().removeIf(key -> key.overlaps(spans.get(key.deviceId())));
+            }
+        });
+    }
+
+    private SimplifiedTrack load(TrackKey key) {
+        PointBuffer points = readOnlyTransaction.execute(status -> {
+            PointBuffer buffer = new PointBuffer();
+            try (Stream<GPSPointDTO> rows = gpsRepository.streamPointsByDeviceId(key.deviceId(), key.from(), key.to())) {
+                Iterator<GPSPointDTO> iterator = rows.iterator();
+                while (iterator.hasNext()) {
+                    if (buffer.size == maxSourcePoints) {
+                        buffer.truncated = true;
+                        break;
+                    }
+                    buffer.add(iterator.next());
+                }
+            }
+            return buffer;
+        });
+        double tolerance = TrackGeometry.toleranceMeters(key.zoom(), tolerancePixels);
+        int[] kept = TrackGeometry.simplify(key.simplification(), points.x, points.y, points.size, tolerance);
+        double[] latitudes = new double[kept.length];
+        double[] longitudes = new double[kept.length];
+        for (int i = 0; i < kept.length; i++) {
+            latitudes[i] = points.latitudes[kept[i]];
+            longitudes[i] = points.longitudes[kept[i]];
+        }
+        return new SimplifiedTrack(latitudes, longitudes, points.start, points.end, points.size, points.truncated);
+    }
+
+    private static GPSTrackDTO toDTO(String deviceId, int zoom, SimplifiedTrack track, TrackEncoding encoding) {
+        int count = track.latitudes().length;
+        if (encoding == TrackEncoding.POLYLINE) {
+            return new GPSTrackDTO(deviceId, track.start(), track.end(), zoom, track.sourcePoints(), track.truncated(), count,
+                    TrackGeometry.encodePolyline(track.latitudes(), track.longitudes()), null);
+        }
+        int decimals = TrackGeometry.decimalsForZoom(zoom);
+        double[][] coordinates = new double[count][];
+        for (int i = 0; i < count; i++) {
+            coordinates[i] = new double[]{
+                    TrackGeometry.quantize(track.longitudes()[i], decimals),
+                    TrackGeometry.quantize(track.latitudes()[i], decimals)};
+        }
+        return new GPSTrackDTO(deviceId, track.start(), track.end(), zoom, track.sourcePoints(), track.truncated(), count,
+                null, new GPSTrackDTO.LineString(coordinates));
+    }
+
+    private static LocalDateTime min(LocalDateTime a, LocalDateTime b) {
+        return a.isBefore(b) ? a : b;
+    }
+
+    private static LocalDateTime max(LocalDateTime a, LocalDateTime b) {
+        return a.isAfter(b) ? a : b;
+    }
+
+    private record TrackKey(String deviceId, LocalDateTime from, LocalDateTime to, int zoom,
+                            TrackSimplification simplification) {
+        boolean overlaps(LocalDateTime[] span) {
+            return span != null && !span[1].isBefore(from) && span[0].isBefore(to);
+        }
+    }
+
+    private record SimplifiedTrack(double[] latitudes, double[] longitudes, LocalDateTime start, LocalDateTime end,
+                                   int sourcePoints, boolean truncated) {
+    }
+
+    // Points du tracé en tableaux primitifs, coordonnées Mercator calculées une seule fois
+    private static final class PointBuffer {
+        private double[] latitudes = new double[1024];
+        private double[] longitudes = new double[1024];
+        private double[] x = new double[1024];
+        private double[] y = new double[1024];
+        private int size;
+        private LocalDateTime start;
+        private LocalDateTime end;
+        private boolean truncated;
+
+        void add(GPSPointDTO point) {
+            if (size == latitudes.length) {
+                int capacity = size * 2;
+                latitudes = Arrays.copyOf(latitudes, capacity);
+                longitudes = Arrays.copyOf(longitudes, capacity);
+                x = Arrays.copyOf(x, capacity);
+                y = Arrays.copyOf(y, capacity);
+            }
+            latitudes[size] = point.latitude();
+            longitudes[size] = point.longitude();
+            x[size] = TrackGeometry.mercatorX(point.longitude());
+            y[size] = TrackGeometry.mercatorY(point.latitude());
+            size++;
+            if (start == null) {
+                start = point.timestamp();
+            }
+            end = point.timestamp();
+        }
+    }
+}
@@ -0,0 +1,23 @@
+package com.example.backend.service;
+
+public enum TrackSimplification {
+    // Douglas-Peucker : écart maximal au tracé simplifié borné par la tolérance
+    DOUGLAS_PEUCKER("dp"),
+    // Visvalingam-Whyatt : retire les points dont le triangle avec leurs voisins est le plus petit
+    VISVALINGAM("vw");
+
+    private final String param;
+
+    TrackSimplification(String param) {
+        this.param = param;
+    }
+
+    public static TrackSimplification fromParam(String value) {
+        for (TrackSimplification simplification : values()) {
+            if (simplification.param.equalsIgnoreCase(value)) {
+                return simplification;
+            }
+        }
+        throw new IllegalArgumentException("Simplification de tracé non prise en charge : " + value);
+    }
+}
@@ -0,0 +1,178 @@
+package com.example.backend.service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+// Découpage incrémental du flux GPS d'un appareil en trajets.
+// Un trajet commence au premier point en mouvement (vitesse >= minSpeed) et se termine au dernier point
+// en mouvement, une fois qu'aucun mouvement n'a été observé pendant idleTimeout (arrêt ou perte de signal).
+// Les points à l'arrêt (dérive GPS) ne comptent dans la distance que si le mouvement reprend ensuite.
+// Non thread-safe : appelé sous le verrou de ConcurrentHashMap.compute.
+final class TripSegmenter {
+
+    record Thresholds(float minSpeed, Duration idleTimeout, Duration minDuration, double minDistanceMeters) {
+    }
+
+    // Vitesses en km/h, comme les points GPS reçus
+    record Summary(String deviceId, LocalDateTime startTime, LocalDateTime endTime,
+                   double startLatitude, double startLongitude, double endLatitude, double endLongitude,
+                   double distanceMeters, float maxSpeed, int pointCount, boolean active) {
+
+        long durationSeconds() {
+            return Duration.between(startTime, endTime).toSeconds();
+        }
+
+        double avgSpeed() {
+            long millis = Duration.between(startTime, endTime).toMillis();
+            return millis == 0 ? 0 : distanceMeters / millis * 3600;
+        }
+    }
+
+    private final String deviceId;
+    private final Thresholds thresholds;
+    private final List<Summary> closed = new ArrayList<>();
+
+    private LocalDateTime lastTime;
+    private double lastLatitude;
+    private double lastLongitude;
+    private long lastReceivedAt;
+
+    private boolean open;
+    private boolean changed;
+    private LocalDateTime startTime;
+    private double startLatitude;
+    private double startLongitude;
+    private LocalDateTime endTime;
+    private double endLatitude;
+    private double endLongitude;
+    private double distance;
+    private float maxSpeed;
+    private int pointCount;
+    private double tailDistance;
+    private int tailPoints;
+
+    TripSegmenter(String deviceId, Thresholds thresholds) {
+        this.deviceId = deviceId;
+        this.thresholds = thresholds;
+    }
+
+    // Reprise d'un trajet resté ouvert en base (redémarrage du serveur)
+    static TripSegmenter resume(Thresholds thresholds, Summary trip, long receivedAt) {
+        TripSegmenter segmenter = new TripSegmenter(trip.deviceId(), thresholds);
+        segmenter.open = true;
+        segmenter.startTime = trip.startTime();
+        segmenter.startLatitude = trip.startLatitude();
+        segmenter.startLongitude = trip.startLongitude();
+        segmenter.distance = trip.distanceMeters();
+        segmenter.maxSpeed = trip.maxSpeed();
+        segmenter.pointCount = trip.pointCount();
+        segmenter.moveTo(trip.endTime(), trip.endLatitude(), trip.endLongitude());
+        segmenter.lastTime = trip.endTime();
+        segmenter.lastLatitude = trip.endLatitude();
+        segmenter.lastLongitude = trip.endLongitude();
+        segmenter.lastReceivedAt = receivedAt;
+        return segmenter;
+    }
+
+    // Points attendus dans l'ordre chronologique : les doublons et points en retard sont ignorés
+    void add(LocalDateTime time, double latitude, double longitude, float speed, long receivedAt) {
+        lastReceivedAt = receivedAt;
+        if (lastTime != null && !time.isAfter(lastTime)) {
+            return;
+        }
+        double step = 0;
+        long gapMillis = Long.MAX_VALUE;
+        if (lastTime != null) {
+            step = TrackGeometry.haversine(lastLatitude, lastLongitude, latitude, longitude);
+            gapMillis = Duration.between(lastTime, time).toMillis();
+        }
+        // Vitesse non fournie (géolocalisation du navigateur) : déduite du déplacement
+        float effectiveSpeed = speed > 0 || lastTime == null ? speed : (float) (step / gapMillis * 3600);
+        boolean moving = effectiveSpeed >= thresholds.minSpeed();
+
+        if (open && Duration.between(endTime, time).compareTo(thresholds.idleTimeout()) > 0) {
+            close();
+        }
+        if (!open) {
+            if (moving) {
+                // Le point précédent, s'il est récent, est le lieu de départ
+                boolean fromLast = lastTime != null && gapMillis <= thresholds.idleTimeout().toMillis();
+                open = true;
+                startTime = fromLast ? lastTime : time;
+                startLatitude = fromLast ? lastLatitude : latitude;
+                startLongitude = fromLast ? lastLongitude : longitude;
+                distance = fromLast ? step : 0;
+                pointCount = fromLast ? 2 : 1;
+                maxSpeed = effectiveSpeed;
+                moveTo(time, latitude, longitude);
+            }
+        } else if (moving) {
+            distance += tailDistance + step;
+            pointCount += tailPoints + 1;
+            maxSpeed = Math.max(maxSpeed, effectiveSpeed);
+            moveTo(time, latitude, longitude);
+        } else {
+            tailDistance += step;
+            tailPoints++;
+        }
+        lastTime = time;
+        lastLatitude = latitude;
+        lastLongitude = longitude;
+    }
+
+    // Clôt le trajet si l'appareil n'a rien envoyé depuis idleTimeout ; true si le segmenteur peut être
+    // oublié une fois vidé (le point suivant ouvrirait de toute façon un nouveau trajet)
+    boolean closeIfIdle(long now) {
+        if (now - lastReceivedAt <= thresholds.idleTimeout().toMillis()) {
+            return false;
+        }
+        if (open) {
+            close();
+        }
+        return true;
+    }
+
+    // Trajets clos depuis le dernier appel, puis l'état du trajet en cours s'il a évolué
+    List<Summary> drain() {
+        List<Summary> summaries = new ArrayList<>(closed);
+        closed.clear();
+        if (open && changed && isSignificant()) {
+            summaries.add(snapshot(true));
+        }
+        changed = false;
+        return summaries;
+    }
+
+    private void moveTo(LocalDateTime time, double latitude, double longitude) {
+        endTime = time;
+        endLatitude = latitude;
+        endLongitude = longitude;
+        tailDistance = 0;
+        tailPoints = 0;
+        changed = true;
+    }
+
+    // Les trajets trop courts (manœuvre, dérive à l'arrêt) ne sont jamais publiés ; distance et durée
+    // ne faisant que croître, un trajet déjà publié comme actif est toujours conservé à sa clôture
+    private void close() {
+        if (isSignificant()) {
+            closed.add(snapshot(false));
+        }
+        open = false;
+        changed = false;
+        tailDistance = 0;
+        tailPoints = 0;
+    }
+
+    private boolean isSignificant() {
+        return distance >= thresholds.minDistanceMeters()
+                && Duration.between(startTime, endTime).compareTo(thresholds.minDuration()) >= 0;
+    }
+
+    private Summary snapshot(boolean active) {
+        return new Summary(deviceId, startTime, endTime, startLatitude, startLongitude, endLatitude, endLongitude,
+                distance, maxSpeed, pointCount, active);
+    }
+}
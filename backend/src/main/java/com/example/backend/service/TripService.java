@@ -0,0 +1,161 @@
+package com.example.backend.service;
+
+import com.example.backend.entity.GPSData;
+import com.example.backend.entity.Trip;
+import com.example.backend.repository.TripRepository;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Trajets détectés au fil de l'ingestion GPS : segmentation en mémoire par appareil,
+// résumés écrits périodiquement dans la table trip (le trajet en cours y figure avec active = true).
+@Service
+public class TripService {
+
+    private static final Logger log = LoggerFactory.getLogger(TripService.class);
+
+    private final TripRepository tripRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final TripSegmenter.Thresholds thresholds;
+    private final int maxResults;
+
+    private final ConcurrentHashMap<String, TripSegmenter> segmenters = new ConcurrentHashMap<>();
+    // Dernier état connu de chaque trajet à écrire, par (appareil, début)
+    private final ConcurrentHashMap<TripKey, TripSegmenter.Summary> pending = new ConcurrentHashMap<>();
+
+    @Autowired
+    public TripService(TripRepository tripRepository,
+                       PlatformTransactionManager transactionManager,
+                       @Value("${trip.min-speed-kmh:5}") float minSpeed,
+                       @Value("${trip.idle-timeout-seconds:300}") long idleTimeoutSeconds,
+                       @Value("${trip.min-duration-seconds:60}") long minDurationSeconds,
+                       @Value("${trip.min-distance-meters:200}") double minDistanceMeters,
+                       @Value("${sensor.query.max-page-size:10000}") int maxResults) {
+        this.tripRepository = tripRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.thresholds = new TripSegmenter.Thresholds(minSpeed, Duration.ofSeconds(idleTimeoutSeconds),
+                Duration.ofSeconds(minDurationSeconds), minDistanceMeters);
+        this.maxResults = maxResults;
+    }
+
+    public void recordGPS(List<GPSData> samples) {
+        TransactionHooks.afterCommit(() -> {
+            long receivedAt = System.currentTimeMillis();
+            Map<String, List<GPSData>> byDevice = new HashMap<>();
+            for (GPSData data : samples) {
+                if (data.getDeviceId() != null && data.getTimestamp() != null) {
+                    byDevice.computeIfAbsent(data.getDeviceId(), id -> new ArrayList<>()).add(data);
+                }
+            }
+            byDevice.forEach((deviceId, points) -> {
+                points.sort(Comparator.comparing(GPSData::getTimestamp));
+                segmenters.compute(deviceId, (id, segmenter) -> {
+                    TripSegmenter result = segmenter != null ? segmenter : new TripSegmenter(id, thresholds);
+                    for (GPSData data : points) {
+                        result.add(data.getTimestamp(), data.getLatitude(), data.getLongitude(), data.getSpeed(),
+                                receivedAt);
+                    }
+                    enqueue(result.drain());
+                    return result;
+                });
+            });
+        });
+    }
+
+    // Les trajets restés ouverts à l'arrêt du serveur se poursuivent avec les points suivants
+    @EventListener(ApplicationReadyEvent.class)
+    public void resumeActiveTrips() {
+        long now = System.currentTimeMillis();
+        for (Trip trip : tripRepository.findByActiveTrue()) {
+            segmenters.putIfAbsent(trip.getDeviceId(), TripSegmenter.resume(thresholds, toSummary(trip), now));
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${trip.flush-interval-ms:5000}")
+    public void flush() {
+        long now = System.currentTimeMillis();
+        for (String deviceId : segmenters.keySet()) {
+            segmenters.computeIfPresent(deviceId, (id, segmenter) -> {
+                boolean idle = segmenter.closeIfIdle(now);
+                enqueue(segmenter.drain());
+                return idle ? null : segmenter;
+            });
+        }
+        if (pending.isEmpty()) {
+            return;
+        }
+        Map<TripKey, TripSegmenter.Summary> drained = new HashMap<>();
+        for (TripKey key : pending.keySet()) {
+            TripSegmenter.Summary summary = pending.remove(key);
+            if (summary != null) {
+                drained.put(key, summary);
+            }
+        }
+        try {
+            transactionTemplate.executeWithoutResult(status -> drained.values().forEach(this::saveSummary));
+        } catch (RuntimeException e) {
+            log.error("Échec de l'écriture des trajets, nouvel essai au prochain cycle", e);
+            // Un état plus récent arrivé entre-temps prime sur celui qui n'a pas pu être écrit
+            drained.forEach(pending::putIfAbsent);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        flush();
+    }
+
+    public List<Trip> getTrips(String deviceId, LocalDateTime from, LocalDateTime to, int limit) {
+        return tripRepository.findRange(deviceId, from, to, PageRequest.of(0, Math.min(limit, maxResults)));
+    }
+
+    private void enqueue(List<TripSegmenter.Summary> summaries) {
+        for (TripSegmenter.Summary summary : summaries) {
+            pending.put(new TripKey(summary.deviceId(), summary.startTime()), summary);
+        }
+    }
+
+    private void saveSummary(TripSegmenter.Summary summary) {
+        Trip trip = tripRepository.findByDeviceIdAndStartTime(summary.deviceId(), summary.startTime())
+                .orElseGet(() -> new Trip(summary.deviceId(), summary.startTime()));
+        trip.setEndTime(summary.endTime());
+        trip.setStartLatitude(summary.startLatitude());
+        trip.setStartLongitude(summary.startLongitude());
+        trip.setEndLatitude(summary.endLatitude());
+        trip.setEndLongitude(summary.endLongitude());
+        trip.setDistanceMeters(summary.distanceMeters());
+        trip.setMaxSpeed(summary.maxSpeed());
+        trip.setAvgSpeed(summary.avgSpeed());
+        trip.setDurationSeconds(summary.durationSeconds());
+        trip.setPointCount(summary.pointCount());
+        trip.setActive(summary.active());
+        tripRepository.save(trip);
+    }
+
+    private static TripSegmenter.Summary toSummary(Trip trip) {
+        return new TripSegmenter.Summary(trip.getDeviceId(), trip.getStartTime(), trip.getEndTime(),
+                trip.getStartLatitude(), trip.getStartLongitude(), trip.getEndLatitude(), trip.getEndLongitude(),
+                trip.getDistanceMeters(), trip.getMaxSpeed(), trip.getPointCount(), true);
+    }
+
+    private record TripKey(String deviceId, LocalDateTime startTime) {
+    }
+}
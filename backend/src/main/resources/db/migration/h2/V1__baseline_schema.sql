@@ -0,0 +1,67 @@
+-- Base embarquée (tests, benchmarks) : mêmes tables que PostgreSQL, sans partitionnement ni rétention
+
+CREATE SEQUENCE IF NOT EXISTS accelerometer_data_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS gps_data_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS gyroscope_data_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS sensor_rollup_seq START WITH 1 INCREMENT BY 50;
+
+CREATE TABLE IF NOT EXISTS accelerometer_data (
+    x float(24) NOT NULL,
+    y float(24) NOT NULL,
+    z float(24) NOT NULL,
+    id bigint NOT NULL,
+    timestamp timestamp(6) NOT NULL,
+    device_id varchar(255),
+    PRIMARY KEY (id)
+);
+
+CREATE TABLE IF NOT EXISTS gps_data (
+    altitude float(53) NOT NULL,
+    latitude float(53) NOT NULL,
+    longitude float(53) NOT NULL,
+    speed float(24) NOT NULL,
+    id bigint NOT NULL,
+    timestamp timestamp(6) NOT NULL,
+    device_id varchar(255),
+    PRIMARY KEY (id)
+);
+
+CREATE TABLE IF NOT EXISTS gyroscope_data (
+    rotationx float(24) NOT NULL,
+    rotationy float(24) NOT NULL,
+    rotationz float(24) NOT NULL,
+    id bigint NOT NULL,
+    timestamp timestamp(6) NOT NULL,
+    device_id varchar(255),
+    PRIMARY KEY (id)
+);
+
+CREATE TABLE IF NOT EXISTS sensor_rollup (
+    granularity_seconds integer NOT NULL,
+    maxx float(53) NOT NULL,
+    maxy float(53) NOT NULL,
+    maxz float(53) NOT NULL,
+    minx float(53) NOT NULL,
+    miny float(53) NOT NULL,
+    minz float(53) NOT NULL,
+    sum_squaresx float(53) NOT NULL,
+    sum_squaresy float(53) NOT NULL,
+    sum_squaresz float(53) NOT NULL,
+    sumx float(53) NOT NULL,
+    sumy float(53) NOT NULL,
+    sumz float(53) NOT NULL,
+    bucket_start timestamp(6),
+    id bigint NOT NULL,
+    sample_count bigint NOT NULL,
+    device_id varchar(255),
+    sensor_type varchar(255),
+    PRIMARY KEY (id),
+    CONSTRAINT uk_sensor_rollup_bucket UNIQUE (sensor_type, device_id, granularity_seconds, bucket_start)
+);
+
+CREATE INDEX IF NOT EXISTS idx_accelerometer_device_timestamp ON accelerometer_data (device_id, timestamp, id);
+CREATE INDEX IF NOT EXISTS idx_accelerometer_timestamp ON accelerometer_data (timestamp);
+CREATE INDEX IF NOT EXISTS idx_gps_device_timestamp ON gps_data (device_id, timestamp, id);
+CREATE INDEX IF NOT EXISTS idx_gps_timestamp ON gps_data (timestamp);
+CREATE INDEX IF NOT EXISTS idx_gyroscope_device_timestamp ON gyroscope_data (device_id, timestamp, id);
+CREATE INDEX IF NOT EXISTS idx_gyroscope_timestamp ON gyroscope_data (timestamp);
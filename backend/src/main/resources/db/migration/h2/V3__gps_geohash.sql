@@ -0,0 +1,5 @@
+-- Geohash des points GPS, pour les recherches par zone et période
+
+ALTER TABLE gps_data ADD COLUMN IF NOT EXISTS geohash varchar(12);
+
+CREATE INDEX IF NOT EXISTS idx_gps_geohash_timestamp ON gps_data (geohash, timestamp);
@@ -0,0 +1,39 @@
+-- Registre des appareils : les tables de capteurs référencent une clé entière (device_key)
+-- au lieu de répéter la chaîne device_id sur chaque ligne
+
+CREATE SEQUENCE IF NOT EXISTS device_seq START WITH 1 INCREMENT BY 1;
+
+CREATE TABLE IF NOT EXISTS device (
+    id integer NOT NULL,
+    device_id varchar(255) NOT NULL,
+    PRIMARY KEY (id),
+    CONSTRAINT uk_device_device_id UNIQUE (device_id)
+);
+
+INSERT INTO device (id, device_id)
+SELECT NEXT VALUE FOR device_seq, device_id FROM (
+    SELECT device_id FROM accelerometer_data
+    UNION SELECT device_id FROM gyroscope_data
+    UNION SELECT device_id FROM gps_data
+) known WHERE device_id IS NOT NULL;
+
+ALTER TABLE accelerometer_data ADD COLUMN device_key integer;
+UPDATE accelerometer_data t SET device_key = (SELECT d.id FROM device d WHERE d.device_id = t.device_id);
+DROP INDEX IF EXISTS idx_accelerometer_device_timestamp;
+ALTER TABLE accelerometer_data DROP COLUMN device_id;
+CREATE INDEX idx_accelerometer_device_timestamp ON accelerometer_data (device_key, timestamp, id);
+ALTER TABLE accelerometer_data ADD CONSTRAINT fk_accelerometer_device FOREIGN KEY (device_key) REFERENCES device (id);
+
+ALTER TABLE gyroscope_data ADD COLUMN device_key integer;
+UPDATE gyroscope_data t SET device_key = (SELECT d.id FROM device d WHERE d.device_id = t.device_id);
+DROP INDEX IF EXISTS idx_gyroscope_device_timestamp;
+ALTER TABLE gyroscope_data DROP COLUMN device_id;
+CREATE INDEX idx_gyroscope_device_timestamp ON gyroscope_data (device_key, timestamp, id);
+ALTER TABLE gyroscope_data ADD CONSTRAINT fk_gyroscope_device FOREIGN KEY (device_key) REFERENCES device (id);
+
+ALTER TABLE gps_data ADD COLUMN device_key integer;
+UPDATE gps_data t SET device_key = (SELECT d.id FROM device d WHERE d.device_id = t.device_id);
+DROP INDEX IF EXISTS idx_gps_device_timestamp;
+ALTER TABLE gps_data DROP COLUMN device_id;
+CREATE INDEX idx_gps_device_timestamp ON gps_data (device_key, timestamp, id);
+ALTER TABLE gps_data ADD CONSTRAINT fk_gps_device FOREIGN KEY (device_key) REFERENCES device (id);
@@ -0,0 +1,76 @@
+-- Schéma tel que créé jusqu'ici par ddl-auto. Sur une base existante (baseline 0), tout est déjà en place
+-- et seuls les alignements de séquences ont un effet.
+
+CREATE SEQUENCE IF NOT EXISTS accelerometer_data_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS gps_data_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS gyroscope_data_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS sensor_rollup_seq START WITH 1 INCREMENT BY 50;
+
+CREATE TABLE IF NOT EXISTS accelerometer_data (
+    x float(24) NOT NULL,
+    y float(24) NOT NULL,
+    z float(24) NOT NULL,
+    id bigint NOT NULL,
+    timestamp timestamp(6),
+    device_id varchar(255),
+    PRIMARY KEY (id)
+);
+
+CREATE TABLE IF NOT EXISTS gps_data (
+    altitude float(53) NOT NULL,
+    latitude float(53) NOT NULL,
+    longitude float(53) NOT NULL,
+    speed float(24) NOT NULL,
+    id bigint NOT NULL,
+    timestamp timestamp(6),
+    device_id varchar(255),
+    PRIMARY KEY (id)
+);
+
+CREATE TABLE IF NOT EXISTS gyroscope_data (
+    rotationx float(24) NOT NULL,
+    rotationy float(24) NOT NULL,
+    rotationz float(24) NOT NULL,
+    id bigint NOT NULL,
+    timestamp timestamp(6),
+    device_id varchar(255),
+    PRIMARY KEY (id)
+);
+
+CREATE TABLE IF NOT EXISTS sensor_rollup (
+    granularity_seconds integer NOT NULL,
+    maxx float(53) NOT NULL,
+    maxy float(53) NOT NULL,
+    maxz float(53) NOT NULL,
+    minx float(53) NOT NULL,
+    miny float(53) NOT NULL,
+    minz float(53) NOT NULL,
+    sum_squaresx float(53) NOT NULL,
+    sum_squaresy float(53) NOT NULL,
+    sum_squaresz float(53) NOT NULL,
+    sumx float(53) NOT NULL,
+    sumy float(53) NOT NULL,
+    sumz float(53) NOT NULL,
+    bucket_start timestamp(6),
+    id bigint NOT NULL,
+    sample_count bigint NOT NULL,
+    device_id varchar(255),
+    sensor_type varchar(255),
+    PRIMARY KEY (id),
+    CONSTRAINT uk_sensor_rollup_bucket UNIQUE (sensor_type, device_id, granularity_seconds, bucket_start)
+);
+
+CREATE INDEX IF NOT EXISTS idx_accelerometer_device_timestamp ON accelerometer_data (device_id, timestamp, id);
+CREATE INDEX IF NOT EXISTS idx_accelerometer_timestamp ON accelerometer_data (timestamp);
+CREATE INDEX IF NOT EXISTS idx_gps_device_timestamp ON gps_data (device_id, timestamp, id);
+CREATE INDEX IF NOT EXISTS idx_gps_timestamp ON gps_data (timestamp);
+CREATE INDEX IF NOT EXISTS idx_gyroscope_device_timestamp ON gyroscope_data (device_id, timestamp, id);
+CREATE INDEX IF NOT EXISTS idx_gyroscope_timestamp ON gyroscope_data (timestamp);
+
+-- Les lignes insérées avant le passage aux séquences ont des id IDENTITY : les séquences repartent au-delà
+SELECT setval('accelerometer_data_seq', GREATEST(COALESCE((SELECT MAX(id) FROM accelerometer_data), 0) + 50,
+                                                 (SELECT last_value FROM accelerometer_data_seq)));
+SELECT setval('gps_data_seq', GREATEST(COALESCE((SELECT MAX(id) FROM gps_data), 0) + 50,
+                                       (SELECT last_value FROM gps_data_seq)));
+SELECT setval('gyroscope_data_seq', GREATEST(COALESCE((SELECT MAX(id) FROM gyroscope_data), 0) + 50,
+                                             (SELECT last_value FROM gyroscope_data_seq)));
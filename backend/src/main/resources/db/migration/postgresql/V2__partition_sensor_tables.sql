@@ -0,0 +1,46 @@
+-- Partitionnement par plage sur timestamp des trois tables de capteurs.
+-- La table existante devient la première partition, de MINVALUE au lendemain de sa dernière mesure : aucune copie.
+-- Les partitions suivantes (jour ou semaine) sont créées à l'avance par PartitionMaintenanceService ;
+-- la partition DEFAULT ne reçoit que les mesures hors des plages existantes.
+
+CREATE FUNCTION pg_temp.partition_sensor_table(tbl text, short text, value_columns text) RETURNS void AS $$
+DECLARE
+    legacy text := tbl || '_legacy';
+    upper_bound timestamp;
+BEGIN
+    EXECUTE format('ALTER TABLE %I RENAME TO %I', tbl, legacy);
+    EXECUTE format('ALTER TABLE %I RENAME CONSTRAINT %I TO %I', legacy, tbl || '_pkey', legacy || '_pkey');
+    EXECUTE format('ALTER INDEX IF EXISTS %I RENAME TO %I',
+                   'idx_' || short || '_device_timestamp', 'idx_' || short || '_device_timestamp_legacy');
+    EXECUTE format('ALTER INDEX IF EXISTS %I RENAME TO %I', 'idx_' || short || '_timestamp', 'idx_' || short || '_timestamp_legacy');
+
+    -- La clé de partitionnement doit faire partie de la clé primaire
+    EXECUTE format('CREATE TABLE %I (%s, id bigint NOT NULL, timestamp timestamp(6) NOT NULL, device_id varchar(255), '
+                   'PRIMARY KEY (id, timestamp)) PARTITION BY RANGE (timestamp)', tbl, value_columns);
+    EXECUTE format('CREATE INDEX %I ON %I (device_id, timestamp, id)', 'idx_' || short || '_device_timestamp', tbl);
+    EXECUTE format('CREATE INDEX %I ON %I (timestamp)', 'idx_' || short || '_timestamp', tbl);
+    EXECUTE format('CREATE TABLE %I PARTITION OF %I DEFAULT', tbl || '_default', tbl);
+
+    EXECUTE format('SELECT max(timestamp) FROM %I', legacy) INTO upper_bound;
+    IF upper_bound IS NULL THEN
+        EXECUTE format('DROP TABLE %I', legacy);
+        RETURN;
+    END IF;
+    upper_bound := date_trunc('day', greatest(upper_bound, localtimestamp)) + interval '1 day';
+    -- Mêmes clé primaire et colonne id que la table mère (les id viennent des séquences)
+    EXECUTE format('ALTER TABLE %I ALTER COLUMN id DROP IDENTITY IF EXISTS', legacy);
+    EXECUTE format('ALTER TABLE %I DROP CONSTRAINT %I, ADD CONSTRAINT %I PRIMARY KEY (id, timestamp)',
+                   legacy, legacy || '_pkey', legacy || '_pkey');
+    EXECUTE format('ALTER TABLE %I ATTACH PARTITION %I FOR VALUES FROM (MINVALUE) TO (%L)', tbl, legacy, upper_bound);
+END;
+$$ LANGUAGE plpgsql;
+
+SELECT pg_temp.partition_sensor_table('accelerometer_data', 'accelerometer',
+                                      'x float(24) NOT NULL, y float(24) NOT NULL, z float(24) NOT NULL');
+SELECT pg_temp.partition_sensor_table('gyroscope_data', 'gyroscope',
+                                      'rotationx float(24) NOT NULL, rotationy float(24) NOT NULL, rotationz float(24) NOT NULL');
+SELECT pg_temp.partition_sensor_table('gps_data', 'gps',
+                                      'altitude float(53) NOT NULL, latitude float(53) NOT NULL, '
+                                      'longitude float(53) NOT NULL, speed float(24) NOT NULL');
+
+DROP FUNCTION pg_temp.partition_sensor_table(text, text, text);
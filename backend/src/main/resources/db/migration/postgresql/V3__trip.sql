@@ -0,0 +1,23 @@
+-- Résumés de trajets détectés sur le flux GPS : quelques lignes par appareil et par jour, non partitionnée.
+-- La contrainte unique (device_id, start_time) sert aussi d'index pour la liste des trajets d'un appareil.
+
+CREATE SEQUENCE IF NOT EXISTS trip_seq START WITH 1 INCREMENT BY 50;
+
+CREATE TABLE IF NOT EXISTS trip (
+    active boolean NOT NULL,
+    avg_speed float(53) NOT NULL,
+    distance_meters float(53) NOT NULL,
+    end_latitude float(53) NOT NULL,
+    end_longitude float(53) NOT NULL,
+    max_speed float(24) NOT NULL,
+    point_count integer NOT NULL,
+    start_latitude float(53) NOT NULL,
+    start_longitude float(53) NOT NULL,
+    duration_seconds bigint NOT NULL,
+    end_time timestamp(6),
+    id bigint NOT NULL,
+    start_time timestamp(6),
+    device_id varchar(255),
+    PRIMARY KEY (id),
+    CONSTRAINT uk_trip_device_start UNIQUE (device_id, start_time)
+);
@@ -0,0 +1,56 @@
+-- Geohash des points GPS, pour les recherches par zone et période.
+-- Collation "C" : l'ordre est celui des octets, un préfixe correspond donc à un intervalle de l'index
+-- (préfixe <= geohash < préfixe || '{'), utilisable aussi avec des paramètres liés.
+-- Les lignes existantes sont complétées ici (réécriture de la table, à prévoir hors des heures d'ingestion).
+
+CREATE FUNCTION pg_temp.geohash_encode(lat double precision, lon double precision, hash_length integer)
+RETURNS varchar LANGUAGE plpgsql IMMUTABLE AS $$
+DECLARE
+    alphabet constant text := '0123456789bcdefghjkmnpqrstuvwxyz';
+    lat_min double precision := -90;
+    lat_max double precision := 90;
+    lon_min double precision := -180;
+    lon_max double precision := 180;
+    mid double precision;
+    hash text := '';
+    ch integer := 0;
+    bits integer := 0;
+    even boolean := true;
+BEGIN
+    WHILE length(hash) < hash_length LOOP
+        IF even THEN
+            mid := (lon_min + lon_max) / 2;
+            IF lon >= mid THEN
+                ch := ch * 2 + 1;
+                lon_min := mid;
+            ELSE
+                ch := ch * 2;
+                lon_max := mid;
+            END IF;
+        ELSE
+            mid := (lat_min + lat_max) / 2;
+            IF lat >= mid THEN
+                ch := ch * 2 + 1;
+                lat_min := mid;
+            ELSE
+                ch := ch * 2;
+                lat_max := mid;
+            END IF;
+        END IF;
+        even := NOT even;
+        bits := bits + 1;
+        IF bits = 5 THEN
+            hash := hash || substr(alphabet, ch + 1, 1);
+            bits := 0;
+            ch := 0;
+        END IF;
+    END LOOP;
+    RETURN hash;
+END
+$$;
+
+ALTER TABLE gps_data ADD COLUMN IF NOT EXISTS geohash varchar(12) COLLATE "C";
+
+UPDATE gps_data SET geohash = pg_temp.geohash_encode(latitude, longitude, 9) WHERE geohash IS NULL;
+
+CREATE INDEX IF NOT EXISTS idx_gps_geohash_timestamp ON gps_data (geohash, timestamp);
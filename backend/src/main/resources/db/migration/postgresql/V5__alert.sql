@@ -0,0 +1,23 @@
+-- Alertes de conduite émises par le détecteur d'événements
+
+CREATE SEQUENCE IF NOT EXISTS alert_seq START WITH 1 INCREMENT BY 50;
+
+CREATE TABLE IF NOT EXISTS alert (
+    measured_value float(53) NOT NULL,
+    threshold float(53) NOT NULL,
+    latitude float(53),
+    longitude float(53),
+    speed float(24),
+    id bigint NOT NULL,
+    timestamp timestamp(6),
+    severity varchar(16),
+    status varchar(16),
+    type varchar(32),
+    description varchar(255),
+    device_id varchar(255),
+    notes varchar(1000),
+    PRIMARY KEY (id)
+);
+
+CREATE INDEX IF NOT EXISTS idx_alert_device_timestamp ON alert (device_id, timestamp);
+CREATE INDEX IF NOT EXISTS idx_alert_timestamp ON alert (timestamp);
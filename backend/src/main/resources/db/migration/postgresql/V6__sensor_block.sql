@@ -0,0 +1,18 @@
+-- Stockage froid : blocs horaires compressés des échantillons d'accéléromètre et de gyroscope
+
+CREATE SEQUENCE IF NOT EXISTS sensor_block_seq START WITH 1 INCREMENT BY 50;
+
+CREATE TABLE IF NOT EXISTS sensor_block (
+    sample_count integer NOT NULL,
+    block_start timestamp(6),
+    first_timestamp timestamp(6),
+    id bigint NOT NULL,
+    last_timestamp timestamp(6),
+    sensor_type varchar(32) NOT NULL,
+    device_id varchar(255),
+    payload bytea NOT NULL,
+    PRIMARY KEY (id),
+    CONSTRAINT uk_sensor_block_device_start UNIQUE (sensor_type, device_id, block_start)
+);
+
+CREATE INDEX IF NOT EXISTS idx_sensor_block_type_start ON sensor_block (sensor_type, block_start);
@@ -0,0 +1,37 @@
+-- Registre des appareils : les tables de capteurs référencent une clé entière (device_key)
+-- au lieu de répéter la chaîne device_id sur chaque ligne et dans chaque index.
+-- Les lignes existantes sont réécrites (à prévoir hors des heures d'ingestion).
+
+CREATE SEQUENCE IF NOT EXISTS device_seq START WITH 1 INCREMENT BY 1;
+
+CREATE TABLE IF NOT EXISTS device (
+    id integer NOT NULL,
+    device_id varchar(255) NOT NULL,
+    PRIMARY KEY (id),
+    CONSTRAINT uk_device_device_id UNIQUE (device_id)
+);
+
+INSERT INTO device (id, device_id)
+SELECT nextval('device_seq'), device_id FROM (
+    SELECT device_id FROM accelerometer_data
+    UNION SELECT device_id FROM gyroscope_data
+    UNION SELECT device_id FROM gps_data
+) known WHERE device_id IS NOT NULL;
+
+CREATE FUNCTION pg_temp.use_device_key(tbl text, short text) RETURNS void AS $$
+BEGIN
+    EXECUTE format('ALTER TABLE %I ADD COLUMN device_key integer', tbl);
+    EXECUTE format('UPDATE %I t SET device_key = d.id FROM device d WHERE d.device_id = t.device_id', tbl);
+    -- Supprime aussi les index sur device_id, y compris ceux des partitions
+    EXECUTE format('ALTER TABLE %I DROP COLUMN device_id', tbl);
+    EXECUTE format('CREATE INDEX %I ON %I (device_key, timestamp, id)', 'idx_' || short || '_device_timestamp', tbl);
+    EXECUTE format('ALTER TABLE %I ADD CONSTRAINT %I FOREIGN KEY (device_key) REFERENCES device (id)',
+                   tbl, 'fk_' || short || '_device');
+END;
+$$ LANGUAGE plpgsql;
+
+SELECT pg_temp.use_device_key('accelerometer_data', 'accelerometer');
+SELECT pg_temp.use_device_key('gyroscope_data', 'gyroscope');
+SELECT pg_temp.use_device_key('gps_data', 'gps');
+
+DROP FUNCTION pg_temp.use_device_key(text, text);
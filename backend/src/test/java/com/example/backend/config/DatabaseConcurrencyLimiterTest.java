@@ -0,0 +1,62 @@
+package com.example.backend.config;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.Test;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DatabaseConcurrencyLimiterTest {
+
+    @Test
+    void permitsFollowThePoolAndNestedConnectionsDoNotWait() throws Exception {
+        // Pool de 3 : 2 jetons, une connexion restant aux transactions imbriquées
+        DatabaseConcurrencyLimiter limiter = new DatabaseConcurrencyLimiter(true, 3, 0, 10, 100);
+        JdbcDataSource h2 = new JdbcDataSource();
+        h2.setURL("jdbc:h2:mem:limiter");
+        DataSource dataSource = (DataSource) limiter.postProcessAfterInitialization(h2, "dataSource");
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        limiter.bindTo(registry);
+        assertEquals(2, limiter.getPermits());
+
+        ExecutorService others = Executors.newFixedThreadPool(2);
+        try {
+            Connection outer = dataSource.getConnection();
+            Connection nested = dataSource.getConnection();
+            assertEquals(1, limiter.getAvailablePermits());
+            Connection other = others.submit(() -> dataSource.getConnection()).get();
+            assertEquals(0, limiter.getAvailablePermits());
+
+            // Plus de jeton : refus après le délai d'attente
+            CompletableFuture<Connection> refused = CompletableFuture.supplyAsync(() -> {
+                try {
+                    return dataSource.getConnection();
+                } catch (Exception e) {
+                    throw new IllegalStateException(e);
+                }
+            }, others);
+            ExecutionException e = assertThrows(ExecutionException.class, refused::get);
+            assertInstanceOf(DatabaseConcurrencyLimiter.DatabaseBusyException.class, e.getCause().getCause());
+            assertEquals(1, registry.get("db.limiter.rejected").functionCounter().count());
+
+            // Fermer la connexion imbriquée ne rend pas de jeton, fermer deux fois n'en rend qu'un
+            nested.close();
+            assertEquals(0, limiter.getAvailablePermits());
+            outer.close();
+            outer.close();
+            assertEquals(1, limiter.getAvailablePermits());
+            other.close();
+            assertEquals(2, limiter.getAvailablePermits());
+            assertTrue(outer.isClosed());
+        } finally {
+            others.shutdownNow();
+        }
+    }
+}
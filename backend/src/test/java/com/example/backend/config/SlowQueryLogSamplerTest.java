@@ -0,0 +1,38 @@
+package com.example.backend.config;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.core.spi.FilterReply;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SlowQueryLogSamplerTest {
+
+    @Test
+    void countsEverySlowQueryButWritesAtMostTheBudget() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        SlowQueryLogSampler sampler = new SlowQueryLogSampler(registry, 3);
+        LoggerContext context = new LoggerContext();
+
+        int written = 0;
+        for (int i = 0; i < 10; i++) {
+            FilterReply reply = sampler.decide(null, context.getLogger(SlowQueryLogSampler.SLOW_QUERY_LOGGER),
+                    Level.INFO, "Slow query took 800 milliseconds [select 1]", null, null);
+            if (reply == FilterReply.NEUTRAL) {
+                written++;
+            }
+        }
+        // Une même seconde (sauf changement de seconde pendant la boucle, d'où la borne)
+        assertTrue(written >= 3 && written <= 6);
+        assertEquals(10, registry.get("sql.slow.queries").counter().count());
+
+        // Les autres loggers et les tests de niveau ne sont pas concernés
+        assertEquals(FilterReply.NEUTRAL, sampler.decide(null, context.getLogger("org.hibernate.SQL"),
+                Level.INFO, "select 1", null, null));
+        assertEquals(FilterReply.NEUTRAL, sampler.decide(null,
+                context.getLogger(SlowQueryLogSampler.SLOW_QUERY_LOGGER), Level.INFO, null, null, null));
+        assertEquals(10, registry.get("sql.slow.queries").counter().count());
+    }
+}
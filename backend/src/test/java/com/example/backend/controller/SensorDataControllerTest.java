@@ -0,0 +1,214 @@
+package com.example.backend.controller;
+
+import com.example.backend.repository.AccelerometerRepository;
+import com.example.backend.repository.GPSRepository;
+import com.example.backend.repository.GyroscopeRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// Lots plafonnés à 3 échantillons pour tester la limite sans construire de gros corps
+@SpringBootTest(properties = "sensor.ingest.max-batch-size=3")
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class SensorDataControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private AccelerometerRepository accelerometerRepository;
+
+    @Autowired
+    private GyroscopeRepository gyroscopeRepository;
+
+    @Autowired
+    private GPSRepository gpsRepository;
+
+    // Base partagée avec les autres tests : les comptes de lignes partent de tables vides
+    @BeforeEach
+    @AfterEach
+    void cleanUp() {
+        accelerometerRepository.deleteAll();
+        gyroscopeRepository.deleteAll();
+        gpsRepository.deleteAll();
+    }
+
+    @Test
+    void savesAccelerometerBatch() throws Exception {
+        postJson("/api/sensor/accelerometer/batch", """
+                [{"x": 1, "y": 0, "z": 0, "deviceId": "car-batch", "timestamp": "2024-05-01T10:00:00"},
+                 {"x": 2, "y": 0, "z": 0, "deviceId": "car-batch", "timestamp": "2024-05-01T10:00:01"}]""")
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.count").value(2))
+                .andExpect(jsonPath("$.firstId").isNumber())
+                .andExpect(jsonPath("$.lastId").isNumber());
+
+        assertEquals(2, accelerometerRepository.count());
+    }
+
+    @Test
+    void acceptsEmptyBatch() throws Exception {
+        postJson("/api/sensor/gyroscope/batch", "[]")
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.count").value(0))
+                .andExpect(jsonPath("$.firstId").isEmpty());
+
+        assertEquals(0, gyroscopeRepository.count());
+    }
+
+    @Test
+    void rejectsBatchOverSizeLimit() throws Exception {
+        postJson("/api/sensor/gps/batch", """
+                [{"latitude": 1, "longitude": 1, "deviceId": "car-big"},
+                 {"latitude": 1, "longitude": 1, "deviceId": "car-big"},
+                 {"latitude": 1, "longitude": 1, "deviceId": "car-big"},
+                 {"latitude": 1, "longitude": 1, "deviceId": "car-big"}]""")
+                .andExpect(status().isPayloadTooLarge());
+
+        assertEquals(0, gpsRepository.count());
+    }
+
+    @Test
+    void rejectsEnvelopeOverSizeLimitAcrossSensors() throws Exception {
+        postJson("/api/sensor/batch", """
+                {"deviceId": "car-big",
+                 "accelerometer": [{"x": 1}, {"x": 2}],
+                 "gyroscope": [{"x": 1}, {"x": 2}]}""")
+                .andExpect(status().isPayloadTooLarge());
+
+        assertEquals(0, accelerometerRepository.count());
+        assertEquals(0, gyroscopeRepository.count());
+    }
+
+    @Test
+    void rejectsWholeBatchWhenASampleHasNoDeviceId() throws Exception {
+        postJson("/api/sensor/accelerometer/batch", """
+                [{"x": 1, "y": 0, "z": 0, "deviceId": "car-batch"},
+                 {"x": 2, "y": 0, "z": 0}]""")
+                .andExpect(status().isBadRequest());
+
+        assertEquals(0, accelerometerRepository.count());
+    }
+
+    @Test
+    void rejectsNullSample() throws Exception {
+        postJson("/api/sensor/gyroscope/batch", "[null]")
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void rejectsMalformedBody() throws Exception {
+        postJson("/api/sensor/accelerometer/batch", "[{\"x\": ")
+                .andExpect(status().isBadRequest());
+        postJson("/api/sensor/accelerometer/batch", "{\"x\": 1}")
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void envelopeAppliesSharedDeviceId() throws Exception {
+        postJson("/api/sensor/batch", """
+                {"deviceId": "car-envelope",
+                 "accelerometer": [{"x": 1, "timestamp": "2024-05-01T10:00:00"}],
+                 "gps": [{"latitude": 48.8, "longitude": 2.3, "timestamp": "2024-05-01T10:00:00"}]}""")
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.accelerometer.count").value(1))
+                .andExpect(jsonPath("$.gps.count").value(1));
+
+        assertEquals("car-envelope", accelerometerRepository.findAll().get(0).getDeviceId());
+        assertEquals("car-envelope", gpsRepository.findAll().get(0).getDeviceId());
+    }
+
+    @Test
+    void envelopeWithoutDeviceIdIsRejected() throws Exception {
+        postJson("/api/sensor/batch", """
+                {"gps": [{"latitude": 48.8, "longitude": 2.3}]}""")
+                .andExpect(status().isBadRequest());
+
+        assertEquals(0, gpsRepository.count());
+    }
+
+    @Test
+    void exportsCsvAsAttachment() throws Exception {
+        postJson("/api/sensor/accelerometer/batch", """
+                [{"x": 1, "y": 2, "z": 3, "deviceId": "car-export", "timestamp": "2024-05-01T10:00:00"},
+                 {"x": 4, "y": 5, "z": 6, "deviceId": "car-export", "timestamp": "2024-05-01T10:00:01"}]""")
+                .andExpect(status().isCreated());
+
+        String body = mockMvc.perform(get("/api/sensor/accelerometer/car-export/export")
+                        .param("format", "csv")
+                        .param("startDate", "2024-05-01T00:00:00")
+                        .param("endDate", "2024-05-02T00:00:00"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith("text/csv"))
+                .andExpect(header().string(HttpHeaders.CONTENT_DISPOSITION,
+                        "attachment; filename=\"accelerometer-car-export.csv\""))
+                .andReturn().getResponse().getContentAsString();
+
+        String[] lines = body.split("\n");
+        assertEquals(3, lines.length);
+        assertEquals("id,deviceId,timestamp,x,y,z", lines[0]);
+        assertTrue(lines[1].endsWith(",car-export,2024-05-01T10:00:00,1.0,2.0,3.0"));
+        assertTrue(lines[2].endsWith(",car-export,2024-05-01T10:00:01,4.0,5.0,6.0"));
+    }
+
+    @Test
+    void exportsNdjsonByDefault() throws Exception {
+        postJson("/api/sensor/gps/batch", """
+                [{"latitude": 48.8, "longitude": 2.3, "deviceId": "car-export", "timestamp": "2024-05-01T10:00:00"},
+                 {"latitude": 48.9, "longitude": 2.4, "deviceId": "car-export", "timestamp": "2024-05-01T10:00:05"}]""")
+                .andExpect(status().isCreated());
+
+        String body = mockMvc.perform(get("/api/sensor/gps/car-export/export"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith("application/x-ndjson"))
+                .andExpect(header().string(HttpHeaders.CONTENT_DISPOSITION,
+                        "attachment; filename=\"gps-car-export.ndjson\""))
+                .andReturn().getResponse().getContentAsString();
+
+        String[] lines = body.split("\n");
+        assertEquals(2, lines.length);
+        assertTrue(lines[0].contains("\"latitude\":48.8") && lines[0].contains("\"deviceId\":\"car-export\""));
+        assertTrue(lines[1].contains("\"latitude\":48.9"));
+    }
+
+    @Test
+    void rejectsUnknownExportFormat() throws Exception {
+        mockMvc.perform(get("/api/sensor/gyroscope/car-export/export").param("format", "xml"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void fusedViewRequiresBoundedRange() throws Exception {
+        mockMvc.perform(get("/api/sensor/fused/car-fused").param("startDate", "2024-05-01"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/api/sensor/fused/car-fused")
+                        .param("startDate", "2024-05-01").param("endDate", "2024-05-03"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/api/sensor/fused/car-fused")
+                        .param("startDate", "2024-05-01").param("endDate", "2024-05-01"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.frameCount").value(10_000));
+    }
+
+    private ResultActions postJson(String path, String body) throws Exception {
+        return mockMvc.perform(post(path).contentType(MediaType.APPLICATION_JSON).content(body));
+    }
+}
@@ -0,0 +1,53 @@
+package com.example.backend.dto;
+
+import com.example.backend.entity.AccelerometerData;
+import com.example.backend.entity.GPSData;
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SensorFrameTest {
+
+    @Test
+    void roundTripsAccelerometerColumns() {
+        long base = 1_700_000_000_000L;
+        SensorFrame frame = new SensorFrame(SensorFrame.ACCELEROMETER, "device-1",
+                new long[]{base, base + 20, base + 40, base + 1_000_000},
+                new double[0][], new float[][]{{1f, 2f, 3f, 4f}, {0.5f, 0.25f, 0f, -1f}, {9.81f, 9.8f, 9.79f, 9.7f}});
+
+        SensorFrame decoded = SensorFrame.decode(ByteBuffer.wrap(frame.encode()));
+        List<AccelerometerData> samples = decoded.toAccelerometer();
+
+        assertEquals(4, samples.size());
+        assertEquals("device-1", samples.get(0).getDeviceId());
+        assertEquals(-1f, samples.get(3).getY());
+        assertEquals(9.79f, samples.get(2).getZ());
+        assertEquals(20_000_000, samples.get(1).getTimestamp().getNano() - samples.get(0).getTimestamp().getNano());
+    }
+
+    @Test
+    void keepsDoublePrecisionForGpsCoordinates() {
+        SensorFrame frame = new SensorFrame(SensorFrame.GPS, "device-2", new long[]{1_700_000_000_000L},
+                new double[][]{{48.8566142}, {2.3522219}, {35.5}}, new float[][]{{12.5f}});
+
+        GPSData sample = SensorFrame.decode(ByteBuffer.wrap(frame.encode())).toGPS().get(0);
+
+        assertEquals(48.8566142, sample.getLatitude());
+        assertEquals(2.3522219, sample.getLongitude());
+        assertEquals(12.5f, sample.getSpeed());
+    }
+
+    @Test
+    void rejectsTruncatedOrMismatchedFrames() {
+        byte[] encoded = new SensorFrame(SensorFrame.GYROSCOPE, "device-3", new long[]{1L, 2L},
+                new double[0][], new float[][]{{1f, 2f}, {3f, 4f}, {5f, 6f}}).encode();
+
+        byte[] truncated = Arrays.copyOf(encoded, encoded.length - 1);
+        assertThrows(IllegalArgumentException.class, () -> SensorFrame.decode(ByteBuffer.wrap(truncated)));
+        assertThrows(IllegalArgumentException.class, () -> SensorFrame.decode(ByteBuffer.wrap(encoded)).toAccelerometer());
+    }
+}
@@ -0,0 +1,69 @@
+package com.example.backend.repository;
+
+import com.example.backend.entity.AccelerometerData;
+import com.example.backend.entity.GPSData;
+import com.example.backend.entity.GyroscopeData;
+import com.example.backend.repository.DeviceActivityRepository.ActivitySample;
+import com.example.backend.service.DeviceRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class DeviceActivityRepositoryTest {
+
+    private static final LocalDateTime T0 = LocalDateTime.of(2024, 5, 1, 10, 0);
+
+    @Autowired
+    private DeviceActivityRepository deviceActivityRepository;
+
+    @Autowired
+    private AccelerometerRepository accelerometerRepository;
+
+    @Autowired
+    private GyroscopeRepository gyroscopeRepository;
+
+    @Autowired
+    private GPSRepository gpsRepository;
+
+    @Autowired
+    private DeviceRegistry deviceRegistry;
+
+    @AfterEach
+    void cleanUp() {
+        accelerometerRepository.deleteAll();
+        gyroscopeRepository.deleteAll();
+        gpsRepository.deleteAll();
+    }
+
+    @Test
+    void keepsLatestRowsPerDeviceAndSensorAcrossAllTables() {
+        // Écriture directe par les dépôts : l'enregistrement des appareils est à la charge de l'appelant
+        deviceRegistry.register(List.of("car-1", "car-2"));
+        for (int i = 0; i < 5; i++) {
+            accelerometerRepository.save(new AccelerometerData(i, 0, 0, "car-1", T0.plusSeconds(i)));
+            accelerometerRepository.save(new AccelerometerData(i, 0, 0, "car-2", T0.plusSeconds(i)));
+        }
+        gyroscopeRepository.save(new GyroscopeData(1, 2, 3, "car-1", T0.plusSeconds(10)));
+        gpsRepository.save(new GPSData(48.85, 2.35, 35, 12, "car-1", T0.plusSeconds(20)));
+        // Hors fenêtre
+        gpsRepository.save(new GPSData(0, 0, 0, 0, "car-1", T0.minusDays(2)));
+
+        List<ActivitySample> activities = deviceActivityRepository.findLatest(T0.minusDays(1), 2, 20);
+
+        assertEquals(6, activities.size());
+        assertEquals("GPS", activities.get(0).sensorType());
+        assertEquals(48.85, activities.get(0).a());
+        assertEquals("GYROSCOPE", activities.get(1).sensorType());
+        assertEquals(List.of(4.0, 4.0, 3.0, 3.0), activities.subList(2, 6).stream().map(ActivitySample::a).toList());
+        assertEquals(3, deviceActivityRepository.findLatest(T0.minusDays(1), 2, 3).size());
+    }
+}
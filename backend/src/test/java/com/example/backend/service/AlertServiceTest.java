@@ -0,0 +1,135 @@
+package com.example.backend.service;
+
+import com.example.backend.dto.AlertDTO;
+import com.example.backend.dto.AlertPageDTO;
+import com.example.backend.dto.AlertUpdateDTO;
+import com.example.backend.entity.AccelerometerData;
+import com.example.backend.entity.Alert;
+import com.example.backend.entity.AlertSeverity;
+import com.example.backend.entity.AlertStatus;
+import com.example.backend.entity.AlertType;
+import com.example.backend.entity.GPSData;
+import com.example.backend.repository.AlertRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionSystemException;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class AlertServiceTest {
+
+    private static final LocalDateTime T0 = LocalDateTime.of(2024, 6, 1, 9, 0);
+
+    @Autowired
+    private SensorDataService sensorDataService;
+
+    @Autowired
+    private AlertService alertService;
+
+    @Test
+    void brakingOnIngestBecomesPersistedAlert() throws InterruptedException {
+        sensorDataService.saveGPSData(new GPSData(48.85, 2.35, 35, 50, "car-alert", T0));
+        List<AccelerometerData> samples = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            // 1 s de conduite régulière puis 1 s de freinage à -8 m/s² (100 Hz)
+            samples.add(new AccelerometerData(0, i < 100 ? 0.1f : -8f, 9.81f, "car-alert",
+                    T0.plusNanos(i * 10_000_000L)));
+        }
+        sensorDataService.saveAccelerometerBatch(samples);
+
+        // La détection est asynchrone : on attend que le shard ait traité le lot
+        AlertPageDTO page = search("car-alert");
+        for (int attempt = 0; attempt < 50 && page.data().isEmpty(); attempt++) {
+            Thread.sleep(100);
+            alertService.flush();
+            page = search("car-alert");
+        }
+        assertEquals(1, page.meta().total());
+        AlertDTO alert = page.data().get(0);
+        assertEquals(AlertType.HARSH_BRAKING, alert.type());
+        assertEquals(AlertStatus.NEW, alert.status());
+        // Seuil 4 m/s² dépassé de moitié au moins au déclenchement
+        assertNotEquals(AlertSeverity.HIGH, alert.severity());
+        assertEquals(48.85, alert.location().latitude(), 1e-9);
+        assertEquals(50, alert.data().speed(), 1e-6);
+        assertNull(alert.data().yawRate());
+
+        AlertDTO updated = alertService.updateAlert(alert.id(),
+                new AlertUpdateDTO(AlertStatus.ACKNOWLEDGED, "Conducteur contacté")).orElseThrow();
+        assertEquals(AlertStatus.ACKNOWLEDGED, updated.status());
+        assertEquals("Conducteur contacté", alertService.getAlert(alert.id()).orElseThrow().notes());
+        assertTrue(alertService.getStats(0).statusStats().get(AlertStatus.ACKNOWLEDGED) >= 1);
+        assertTrue(alertService.search("car-alert", null, null, AlertStatus.NEW,
+                T0.minusDays(1), T0.plusDays(1), 1, 20).data().isEmpty());
+
+        assertTrue(alertService.deleteAlert(alert.id()));
+        assertFalse(alertService.deleteAlert(alert.id()));
+    }
+
+    @Test
+    void alertsAreNotBroadcastWhenCommitFails() {
+        AlertRepository repository = mock(AlertRepository.class);
+        LiveBroadcaster broadcaster = mock(LiveBroadcaster.class);
+        PlatformTransactionManager transactionManager = mock(PlatformTransactionManager.class);
+        when(repository.saveAll(anyList())).thenAnswer(invocation -> invocation.getArgument(0));
+        doThrow(new TransactionSystemException("validation impossible"))
+                .doNothing()
+                .when(transactionManager).commit(any());
+        AlertService service = new AlertService(repository, broadcaster, transactionManager,
+                new SimpleMeterRegistry(), 100, 5);
+
+        service.record(alert());
+        service.flush();
+        verify(broadcaster, never()).publish(any(), anyList(), any());
+
+        // Nouvel essai validé : diffusé une seule fois
+        service.flush();
+        verify(broadcaster, times(1)).publish(any(), anyList(), any());
+        service.flush();
+        verify(repository, times(2)).saveAll(anyList());
+    }
+
+    @Test
+    void batchFailingRepeatedlyIsDroppedAndCounted() {
+        AlertRepository repository = mock(AlertRepository.class);
+        when(repository.saveAll(anyList())).thenThrow(new DataIntegrityViolationException("contrainte"));
+        AlertService service = new AlertService(repository, mock(LiveBroadcaster.class),
+                mock(PlatformTransactionManager.class), new SimpleMeterRegistry(), 100, 3);
+
+        service.record(alert());
+        service.record(alert());
+        for (int i = 0; i < 5; i++) {
+            service.flush();
+        }
+
+        verify(repository, times(3)).saveAll(anyList());
+        assertEquals(2, service.getDroppedCount());
+    }
+
+    private static Alert alert() {
+        return new Alert("car-retry", AlertType.HARSH_BRAKING, AlertSeverity.MEDIUM, T0, 6, 4);
+    }
+
+    private AlertPageDTO search(String deviceId) {
+        return alertService.search(deviceId, null, null, null, T0.minusDays(1), T0.plusDays(1), 1, 20);
+    }
+}
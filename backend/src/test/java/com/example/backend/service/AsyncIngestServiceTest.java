@@ -0,0 +1,102 @@
+package com.example.backend.service;
+
+import com.example.backend.dto.IngestQueueStatsDTO;
+import com.example.backend.dto.SensorBatchDTO;
+import com.example.backend.entity.AccelerometerData;
+import com.example.backend.entity.GPSData;
+import com.example.backend.entity.GyroscopeData;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+
+class AsyncIngestServiceTest {
+
+    // Mode désactivé : pas de thread d'écriture, les files ne font que se remplir
+    private static AsyncIngestService service(int capacity) {
+        return new AsyncIngestService(mock(SensorDataService.class), false, capacity, 500, 200, 1);
+    }
+
+    private static SensorBatchDTO envelope(int accelerometer, int gyroscope, int gps) {
+        SensorBatchDTO batch = new SensorBatchDTO();
+        batch.setDeviceId("car-1");
+        List<AccelerometerData> accelerometerData = new ArrayList<>();
+        List<GyroscopeData> gyroscopeData = new ArrayList<>();
+        List<GPSData> gpsData = new ArrayList<>();
+        for (int i = 0; i < accelerometer; i++) {
+            accelerometerData.add(new AccelerometerData());
+        }
+        for (int i = 0; i < gyroscope; i++) {
+            gyroscopeData.add(new GyroscopeData());
+        }
+        for (int i = 0; i < gps; i++) {
+            gpsData.add(new GPSData());
+        }
+        batch.setAccelerometer(accelerometerData);
+        batch.setGyroscope(gyroscopeData);
+        batch.setGps(gpsData);
+        return batch;
+    }
+
+    private static IngestQueueStatsDTO stats(AsyncIngestService service, String sensorType) {
+        return service.getStats().stream().filter(s -> s.getSensorType().equals(sensorType)).findFirst().orElseThrow();
+    }
+
+    @Test
+    void rejectedEnvelopeLeavesNoLanePartiallyFilled() {
+        AsyncIngestService service = service(10);
+        assertTrue(service.enqueueGPSBatch(envelope(0, 0, 8).getGps()));
+
+        // Place pour l'accéléromètre et le gyroscope, pas pour le GPS
+        assertFalse(service.enqueueSensorBatch(envelope(5, 5, 5)));
+
+        assertEquals(0, stats(service, "accelerometer").getDepth());
+        assertEquals(0, stats(service, "gyroscope").getDepth());
+        assertEquals(8, stats(service, "gps").getDepth());
+        assertEquals(5, stats(service, "accelerometer").getDropped());
+        assertEquals(5, stats(service, "gps").getDropped());
+        // Les réservations rendues laissent toute la place aux envois suivants
+        assertTrue(service.enqueueAccelerometerBatch(envelope(10, 0, 0).getAccelerometer()));
+        assertTrue(service.enqueueSensorBatch(envelope(0, 5, 2)));
+        assertEquals(5, stats(service, "gyroscope").getDepth());
+        assertEquals(10, stats(service, "gps").getDepth());
+    }
+
+    @Test
+    void concurrentEnvelopesAreAcceptedWhole() throws Exception {
+        AsyncIngestService service = service(1000);
+        AtomicInteger accepted = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < 8; t++) {
+                futures.add(executor.submit(() -> {
+                    for (int i = 0; i < 50; i++) {
+                        if (service.enqueueSensorBatch(envelope(7, 7, 7))) {
+                            accepted.incrementAndGet();
+                        }
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get(30, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        // 142 enveloppes tiennent dans 1000 places : les trois files avancent ensemble
+        assertEquals(142, accepted.get());
+        assertEquals(7 * 142, stats(service, "accelerometer").getDepth());
+        assertEquals(7 * 142, stats(service, "gyroscope").getDepth());
+        assertEquals(7 * 142, stats(service, "gps").getDepth());
+    }
+}
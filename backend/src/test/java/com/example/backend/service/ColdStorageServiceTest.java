@@ -0,0 +1,122 @@
+package com.example.backend.service;
+
+import com.example.backend.dto.SensorCursor;
+import com.example.backend.entity.AccelerometerData;
+import com.example.backend.entity.SensorBlock;
+import com.example.backend.repository.AccelerometerRepository;
+import com.example.backend.repository.GyroscopeRepository;
+import com.example.backend.repository.SensorBlockRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class ColdStorageServiceTest {
+
+    private static final LocalDateTime T0 = LocalDateTime.of(2001, 3, 4, 10, 0);
+    private static final String DEVICE = "car-cold";
+
+    @Autowired
+    private SensorDataService sensorDataService;
+
+    @Autowired
+    private ColdStorageService coldStorageService;
+
+    @Autowired
+    private AccelerometerRepository accelerometerRepository;
+
+    @Autowired
+    private GyroscopeRepository gyroscopeRepository;
+
+    @Autowired
+    private SensorBlockRepository sensorBlockRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private IngestVersions ingestVersions;
+
+    @AfterEach
+    void cleanUp() {
+        accelerometerRepository.deleteAll();
+        sensorBlockRepository.deleteAll();
+        coldStorageService.archive();
+    }
+
+    @Test
+    void archivesAgedHoursAndMergesThemBackOnRead() {
+        List<AccelerometerData> batch = new ArrayList<>();
+        for (int i = 0; i < 120; i++) {
+            // Deux heures archivables (une mesure par minute), puis cinq mesures récentes restées chaudes
+            batch.add(new AccelerometerData(i, -i / 10f, 9.81f, DEVICE, T0.plusMinutes(i).plusNanos(123_000)));
+        }
+        for (int i = 0; i < 5; i++) {
+            batch.add(new AccelerometerData(1000 + i, 0, 0, DEVICE, T0.plusDays(5).plusSeconds(i)));
+        }
+        sensorDataService.saveAccelerometerBatch(batch);
+        List<Long> ids = batch.stream().map(AccelerometerData::getId).toList();
+
+        // Archivage de tout ce qui précède T0 + 2 h (à la journée près, donc sans toucher à T0 + 5 j)
+        int days = (int) ChronoUnit.DAYS.between(T0.plusHours(2), LocalDateTime.now());
+        archiver(days).archive();
+        // L'instance de lecture découvre les blocs à sa passe suivante
+        coldStorageService.archive();
+
+        assertEquals(0, accelerometerRepository.countByDeviceIdInRange(DEVICE, T0, T0.plusDays(1)));
+        assertEquals(5, accelerometerRepository.countByDeviceIdInRange(DEVICE, T0, T0.plusDays(6)));
+        List<SensorBlock> blocks = sensorBlockRepository.findAll().stream()
+                .filter(block -> block.getDeviceId().equals(DEVICE)).toList();
+        assertEquals(2, blocks.size());
+        assertEquals(120, blocks.stream().mapToInt(SensorBlock::getSampleCount).sum());
+
+        // Pagination par curseur à travers les deux stockages : mêmes ids, mêmes valeurs, même ordre
+        List<AccelerometerData> seen = new ArrayList<>();
+        SensorCursor cursor = null;
+        List<AccelerometerData> page;
+        do {
+            page = sensorDataService.getAccelerometerDataPage(DEVICE, T0.minusHours(1), T0.plusDays(6), cursor, 50);
+            seen.addAll(page);
+            if (!page.isEmpty()) {
+                AccelerometerData last = page.get(page.size() - 1);
+                cursor = new SensorCursor(last.getTimestamp(), last.getId());
+            }
+        } while (page.size() == 50);
+        assertEquals(ids, seen.stream().map(AccelerometerData::getId).toList());
+        assertEquals(T0.plusMinutes(7).plusNanos(123_000), seen.get(7).getTimestamp());
+        assertEquals(-0.7f, seen.get(7).getY());
+        assertEquals(1004f, seen.get(124).getX());
+
+        // Série complète (moins de points que le plafond) et export lisent aussi les blocs
+        assertEquals(125, sensorDataService.getAccelerometerDataDownsampled(DEVICE, T0, T0.plusDays(6),
+                1000, DownsamplingMode.LTTB, null).size());
+        assertEquals(30, sensorDataService.getAccelerometerDataDownsampled(DEVICE, T0.plusMinutes(45),
+                T0.plusMinutes(75), 1000, DownsamplingMode.LTTB, null).size());
+
+        // Ligne arrivée en retard : fusionnée dans le bloc existant à la passe suivante
+        sensorDataService.saveAccelerometerData(new AccelerometerData(-1, 0, 0, DEVICE, T0.plusSeconds(30)));
+        archiver(days).archive();
+        assertEquals(0, accelerometerRepository.countByDeviceIdInRange(DEVICE, T0, T0.plusDays(1)));
+        assertEquals(61, sensorBlockRepository.findBySensorTypeAndDeviceIdAndBlockStart(
+                IngestVersions.ACCELEROMETER, DEVICE, T0).orElseThrow().getSampleCount());
+        assertEquals(-1f, sensorDataService.getAccelerometerDataPage(DEVICE, T0, T0.plusMinutes(2), null, 3)
+                .get(1).getX());
+    }
+
+    // Seconde instance avec l'archivage activé, la configuration de test le laissant désactivé
+    private ColdStorageService archiver(int archiveAfterDays) {
+        return new ColdStorageService(accelerometerRepository, gyroscopeRepository, sensorBlockRepository,
+                transactionManager, ingestVersions, archiveAfterDays, 24, 0);
+    }
+}
@@ -0,0 +1,90 @@
+package com.example.backend.service;
+
+import com.example.backend.entity.GyroscopeData;
+import com.example.backend.repository.GyroscopeRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class DeviceRegistryTest {
+
+    private static final LocalDateTime T0 = LocalDateTime.of(2024, 7, 1, 8, 0);
+
+    @Autowired
+    private DeviceRegistry deviceRegistry;
+
+    @Autowired
+    private SensorDataService sensorDataService;
+
+    @Autowired
+    private GyroscopeRepository gyroscopeRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @AfterEach
+    void cleanUp() {
+        gyroscopeRepository.deleteAll();
+    }
+
+    @Test
+    void ingestStoresIntegerKeyAndReadsBackDeviceId() {
+        sensorDataService.saveGyroscopeBatch(List.of(
+                new GyroscopeData(1, 2, 3, "registry-1", T0),
+                new GyroscopeData(4, 5, 6, "registry-2", T0.plusSeconds(1))));
+
+        int key = deviceRegistry.keyOf("registry-1");
+        assertNotEquals(DeviceRegistry.UNKNOWN_KEY, key);
+        assertEquals("registry-1", deviceRegistry.deviceIdOf(key));
+        assertEquals(1, jdbcTemplate.queryForObject(
+                "SELECT count(*) FROM gyroscope_data WHERE device_key = ?", Integer.class, key));
+        assertTrue(deviceRegistry.getAllDeviceIds().containsAll(List.of("registry-1", "registry-2")));
+
+        List<GyroscopeData> rows = gyroscopeRepository.findByDeviceIdOrderByTimestampDescIdDesc("registry-2",
+                PageRequest.of(0, 10));
+        assertEquals(1, rows.size());
+        assertEquals("registry-2", rows.get(0).getDeviceId());
+
+        // Un filtre sur un appareil inconnu ne l'enregistre pas
+        assertTrue(gyroscopeRepository.findByDeviceIdOrderByTimestampDescIdDesc("registry-unknown",
+                PageRequest.of(0, 10)).isEmpty());
+        assertFalse(deviceRegistry.getAllDeviceIds().contains("registry-unknown"));
+    }
+
+    @Test
+    void concurrentRegistrationsAgreeOnOneKey() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<Integer>> keys = executor.invokeAll(List.of(
+                    () -> register("registry-race"), () -> register("registry-race"),
+                    () -> register("registry-race"), () -> register("registry-race")));
+            int first = keys.get(0).get();
+            for (Future<Integer> key : keys) {
+                assertEquals(first, key.get());
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        assertEquals(1, jdbcTemplate.queryForObject(
+                "SELECT count(*) FROM device WHERE device_id = 'registry-race'", Integer.class));
+    }
+
+    private int register(String deviceId) {
+        deviceRegistry.register(List.of(deviceId));
+        return deviceRegistry.keyOf(deviceId);
+    }
+}
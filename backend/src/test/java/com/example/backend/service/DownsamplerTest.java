@@ -0,0 +1,111 @@
+package com.example.backend.service;
+
+import com.example.backend.entity.AccelerometerData;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DownsamplerTest {
+
+    private static final LocalDateTime T0 = LocalDateTime.of(2024, 5, 1, 10, 0);
+
+    private static List<AccelerometerData> series(int size, int spikeAt) {
+        List<AccelerometerData> samples = new ArrayList<>();
+        for (int i = 0; i < size; i++) {
+            float x = i == spikeAt ? 50f : (float) Math.sin(i / 10.0);
+            samples.add(new AccelerometerData(x, 0, 9.8f, "car-1", T0.plusNanos(i * 10_000_000L)));
+        }
+        return samples;
+    }
+
+    private static List<AccelerometerData> run(DownsamplingMode mode, List<AccelerometerData> samples, int maxPoints) {
+        return run(mode, samples, maxPoints, T0, samples.get(samples.size() - 1).getTimestamp().plusNanos(1_000_000));
+    }
+
+    private static List<AccelerometerData> run(DownsamplingMode mode, List<AccelerometerData> samples, int maxPoints,
+                                               LocalDateTime from, LocalDateTime to) {
+        Downsampler<AccelerometerData> downsampler =
+                Downsampler.create(mode, SeriesAccessor.ACCELEROMETER, samples.size(), maxPoints, from, to, null);
+        samples.forEach(downsampler::accept);
+        return downsampler.finish();
+    }
+
+    @Test
+    void lttbKeepsEndpointsAndSpike() {
+        List<AccelerometerData> samples = series(10_000, 4_321);
+        List<AccelerometerData> result = run(DownsamplingMode.LTTB, samples, 200);
+
+        assertEquals(200, result.size());
+        assertSame(samples.get(0), result.get(0));
+        assertSame(samples.get(samples.size() - 1), result.get(result.size() - 1));
+        assertTrue(result.contains(samples.get(4_321)));
+    }
+
+    @Test
+    void minMaxKeepsSpikeWithinBudget() {
+        List<AccelerometerData> samples = series(10_000, 777);
+        List<AccelerometerData> result = run(DownsamplingMode.MINMAX, samples, 300);
+
+        assertTrue(result.size() <= 300);
+        assertTrue(result.contains(samples.get(777)));
+    }
+
+    @Test
+    void averageProducesOnePointPerBucket() {
+        List<AccelerometerData> result = run(DownsamplingMode.AVG, series(1_000, -1), 100);
+
+        assertEquals(100, result.size());
+        assertEquals(9.8f, result.get(50).getZ(), 1e-4);
+    }
+
+    @Test
+    void bucketsFollowTimeRatherThanSampleCount() {
+        // 10 s denses (100 Hz) puis 90 s à 1 Hz : un seau d'une seconde sur [T0, T0 + 100 s)
+        List<AccelerometerData> samples = new ArrayList<>();
+        for (int i = 0; i < 1_000; i++) {
+            samples.add(new AccelerometerData(1, 0, 0, "car-1", T0.plusNanos(i * 10_000_000L)));
+        }
+        for (int i = 10; i < 100; i++) {
+            samples.add(new AccelerometerData(2, 0, 0, "car-1", T0.plusSeconds(i)));
+        }
+        List<AccelerometerData> result = run(DownsamplingMode.AVG, samples, 100, T0, T0.plusSeconds(100));
+
+        assertEquals(100, result.size());
+        assertEquals(10, result.stream().filter(point -> point.getTimestamp().isBefore(T0.plusSeconds(10))).count());
+    }
+
+    @Test
+    void emptyBucketsProduceNoPoints() {
+        // Trou de 80 s au milieu de la série
+        List<AccelerometerData> samples = new ArrayList<>();
+        for (int i = 0; i < 1_000; i++) {
+            int second = i < 500 ? i / 50 : 90 + (i - 500) / 50;
+            samples.add(new AccelerometerData((float) Math.sin(i / 10.0), 0, 9.8f, "car-1",
+                    T0.plusSeconds(second).plusNanos((i % 50) * 20_000_000L)));
+        }
+        LocalDateTime to = T0.plusSeconds(100);
+
+        List<AccelerometerData> average = run(DownsamplingMode.AVG, samples, 100, T0, to);
+        assertEquals(20, average.size());
+        assertTrue(average.stream().noneMatch(point -> point.getTimestamp().isAfter(T0.plusSeconds(10))
+                && point.getTimestamp().isBefore(T0.plusSeconds(90))));
+
+        List<AccelerometerData> lttb = run(DownsamplingMode.LTTB, samples, 100, T0, to);
+        assertSame(samples.get(0), lttb.get(0));
+        assertSame(samples.get(samples.size() - 1), lttb.get(lttb.size() - 1));
+        assertTrue(lttb.size() <= 100);
+        assertTrue(lttb.stream().allMatch(samples::contains));
+
+        assertTrue(run(DownsamplingMode.MINMAX, samples, 60, T0, to).size() <= 60);
+    }
+
+    @Test
+    void smallSeriesIsReturnedUnchanged() {
+        List<AccelerometerData> samples = series(50, -1);
+        assertEquals(samples, run(DownsamplingMode.LTTB, samples, 100));
+    }
+}
@@ -0,0 +1,86 @@
+package com.example.backend.service;
+
+import com.example.backend.entity.AlertType;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DrivingEventDetectorTest {
+
+    // Fenêtre 500 ms, freinage 4 m/s², accélération 3.5 m/s², choc 40 m/s² et 500 m/s³, virage 1 rad/s, garde 5 s
+    private static final DrivingEventDetector.Rules RULES = new DrivingEventDetector.Rules(500_000, 256,
+            4.0, 3.5, 40.0, 500.0, 1.0, 5_000_000);
+    private static final float G = 9.81f;
+    // 100 Hz
+    private static final long STEP = 10_000;
+
+    private record Event(AlertType type, long timeMicros, double value) {
+    }
+
+    private final List<Event> events = new ArrayList<>();
+    private final DrivingEventDetector detector = new DrivingEventDetector("car-1", RULES,
+            (deviceId, type, timeMicros, value, threshold) -> events.add(new Event(type, timeMicros, value)));
+
+    @Test
+    void sustainedDecelerationRaisesOneBrakingAlertPerCooldown() {
+        long t = 0;
+        for (int i = 0; i < 100; i++, t += STEP) {
+            detector.acceptAccelerometer(t, 0, 0.2f, G);
+        }
+        // 2 s à -6 m/s² : une seule alerte malgré la durée
+        for (int i = 0; i < 200; i++, t += STEP) {
+            detector.acceptAccelerometer(t, 0, -6f, G);
+        }
+        assertEquals(1, events.size());
+        Event braking = events.get(0);
+        assertEquals(AlertType.HARSH_BRAKING, braking.type());
+        assertTrue(braking.value() >= 4.0);
+        // Déclenchée dès que la moyenne de la fenêtre franchit le seuil
+        assertTrue(braking.timeMicros() < 1_500_000);
+
+        // Après le délai de garde, un nouveau freinage est signalé
+        t += 5_000_000;
+        for (int i = 0; i < 100; i++, t += STEP) {
+            detector.acceptAccelerometer(t, 0, -6f, G);
+        }
+        assertEquals(2, events.size());
+    }
+
+    @Test
+    void isolatedSpikeIsNotAnEvent() {
+        long t = 0;
+        for (int i = 0; i < 100; i++, t += STEP) {
+            detector.acceptAccelerometer(t, 0, i == 50 ? -30f : 0.1f, G);
+            detector.acceptGyroscope(t, 0, 0, i == 50 ? 3f : 0.05f);
+        }
+        assertTrue(events.isEmpty());
+    }
+
+    @Test
+    void detectsCrashAndDangerousTurn() {
+        long t = 0;
+        for (int i = 0; i < 50; i++, t += STEP) {
+            detector.acceptAccelerometer(t, 0, 0, G);
+        }
+        // Pic à ~6 g en 10 ms
+        detector.acceptAccelerometer(t, 50f, -30f, G);
+        t += STEP;
+        for (int i = 0; i < 100; i++, t += STEP) {
+            detector.acceptGyroscope(t, 0, 0, -1.4f);
+        }
+        assertEquals(List.of(AlertType.CRASH, AlertType.DANGEROUS_TURN), events.stream().map(Event::type).toList());
+        assertEquals(1.4, events.get(1).value(), 1e-6);
+    }
+
+    @Test
+    void ignoresOutOfOrderSamples() {
+        detector.acceptAccelerometer(1_000_000, 0, 0, G);
+        detector.acceptAccelerometer(1_010_000, 0, 0, G);
+        // Rejeu d'un pic antérieur : ignoré, le jerk n'est calculé que sur des temps croissants
+        detector.acceptAccelerometer(1_000_000, 80f, 0, G);
+        assertTrue(events.isEmpty());
+    }
+}
@@ -0,0 +1,50 @@
+package com.example.backend.service;
+
+import com.example.backend.dto.AreaVisitDTO;
+import com.example.backend.entity.GPSData;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class GPSAreaServiceTest {
+
+    private static final LocalDateTime T0 = LocalDateTime.of(2024, 6, 1, 12, 0);
+
+    @Autowired
+    private SensorDataService sensorDataService;
+
+    @Autowired
+    private GPSAreaService areaService;
+
+    @Test
+    void encodesReferenceGeohash() {
+        assertEquals("u4pruydqqvj", Geohash.encode(57.64911, 10.40744, 11));
+    }
+
+    @Test
+    void findsDevicesThatCrossedAreaDuringPeriod() {
+        sensorDataService.saveGPSBatch(List.of(
+                new GPSData(48.8584, 2.2945, 35, 0, "car-area-1", T0),
+                new GPSData(48.8606, 2.3376, 35, 0, "car-area-1", T0.plusMinutes(10)),
+                new GPSData(48.8530, 2.3499, 35, 0, "car-area-2", T0.plusMinutes(20)),
+                new GPSData(45.7640, 4.8357, 35, 0, "car-area-3", T0.plusMinutes(5)),
+                new GPSData(48.8600, 2.3400, 35, 0, "car-area-3", T0.minusDays(2))));
+
+        // Centre de Paris, hors tour Eiffel
+        List<AreaVisitDTO> visits = areaService.getVisits(48.85, 2.30, 48.87, 2.36, T0.minusHours(1), T0.plusHours(1));
+        assertEquals(List.of("car-area-1", "car-area-2"), visits.stream().map(AreaVisitDTO::deviceId).toList());
+        assertEquals(1, visits.get(0).pointCount());
+        assertEquals(T0.plusMinutes(10), visits.get(0).firstSeen());
+
+        // Sans pré-filtre geohash possible, le résultat est le même
+        assertEquals(3, areaService.getVisits(-90, -180, 90, 180, T0.minusHours(1), T0.plusHours(1)).size());
+    }
+}
@@ -0,0 +1,68 @@
+package com.example.backend.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GorillaCodecTest {
+
+    @Test
+    void roundTripsIrregularColumnsExactly() {
+        long[] timestamps = {1_700_000_000_000_000L, 1_700_000_000_010_000L, 1_700_000_000_020_000L,
+                1_700_000_000_020_000L, 1_700_000_000_029_873L, 1_700_000_003_600_000L, 1_600_000_000_000_000L};
+        long[] ids = {1, 2, 3, 51, 52, 1_000_000, 4};
+        float[][] columns = {
+                {0.1f, 0.1f, -0.25f, Float.NaN, Float.MAX_VALUE, -0f, 9.81f},
+                {9.81f, 9.80f, 9.79f, 9.81f, Float.MIN_VALUE, Float.NEGATIVE_INFINITY, 0f},
+                {1f, 2f, 4f, 8f, 16f, 32f, 64f}};
+
+        GorillaCodec.Block block = GorillaCodec.decode(GorillaCodec.encode(timestamps, ids, columns), 3);
+
+        assertArrayEquals(timestamps, block.timestamps());
+        assertArrayEquals(ids, block.ids());
+        for (int c = 0; c < columns.length; c++) {
+            // Comparaison bit à bit : NaN et -0 compris
+            for (int i = 0; i < timestamps.length; i++) {
+                assertEquals(Float.floatToRawIntBits(columns[c][i]), Float.floatToRawIntBits(block.columns()[c][i]));
+            }
+        }
+    }
+
+    @Test
+    void compressesRegularSeriesWellBelowRawSize() {
+        int n = 3600 * 10;
+        long[] timestamps = new long[n];
+        long[] ids = new long[n];
+        float[][] columns = new float[3][n];
+        for (int i = 0; i < n; i++) {
+            // 10 Hz avec une gigue de quelques microsecondes, capteur au repos quantifié à 0,01 m/s²
+            timestamps[i] = 1_700_000_000_000_000L + i * 100_000L + (i % 7);
+            ids[i] = 1000 + i;
+            columns[0][i] = Math.round(Math.sin(i / 500.0) * 10) / 100f;
+            columns[1][i] = 0f;
+            columns[2][i] = 9.81f;
+        }
+
+        byte[] payload = GorillaCodec.encode(timestamps, ids, columns);
+        GorillaCodec.Block block = GorillaCodec.decode(payload, 3);
+
+        // Ligne brute : horodatage et id sur 8 octets, trois float32
+        int raw = n * (8 + 8 + 3 * 4);
+        assertTrue(payload.length < raw / 8, "bloc de " + payload.length + " octets");
+        assertArrayEquals(timestamps, block.timestamps());
+        assertArrayEquals(columns[0], block.columns()[0]);
+    }
+
+    @Test
+    void rejectsTruncatedBlock() {
+        byte[] payload = GorillaCodec.encode(new long[]{1, 2, 3}, new long[]{1, 2, 3},
+                new float[][]{{1f, 2f, 3f}, {1f, 2f, 3f}, {1f, 2f, 3f}});
+
+        assertThrows(IllegalArgumentException.class,
+                () -> GorillaCodec.decode(Arrays.copyOf(payload, payload.length - 3), 3));
+        assertThrows(IllegalArgumentException.class,
+                () -> GorillaCodec.encode(new long[]{1}, new long[]{1, 2}, new float[][]{{1f}}));
+    }
+}
@@ -0,0 +1,49 @@
+package com.example.backend.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class IngestBufferTest {
+
+    @Test
+    void rejectsWholeBatchWhenCapacityIsInsufficient() {
+        IngestBuffer<Integer> buffer = new IngestBuffer<>(4);
+        assertTrue(buffer.offerAll(List.of(1, 2, 3)));
+        assertFalse(buffer.offerAll(List.of(4, 5)));
+        assertEquals(3, buffer.size());
+        assertTrue(buffer.offer(4));
+        assertFalse(buffer.offer(5));
+    }
+
+    @Test
+    void drainsInOrderAcrossWrapAround() {
+        IngestBuffer<Integer> buffer = new IngestBuffer<>(3);
+        buffer.offerAll(List.of(1, 2, 3));
+        List<Integer> drained = new ArrayList<>();
+        assertEquals(2, buffer.drainTo(drained, 2));
+        buffer.offerAll(List.of(4, 5));
+        assertEquals(3, buffer.drainTo(drained, 10));
+        assertEquals(List.of(1, 2, 3, 4, 5), drained);
+        assertEquals(3, buffer.remainingCapacity());
+    }
+
+    @Test
+    void reservedSlotsAreNotOfferedToOtherWriters() {
+        IngestBuffer<Integer> buffer = new IngestBuffer<>(4);
+        assertTrue(buffer.reserve(3));
+        assertFalse(buffer.reserve(2));
+        assertFalse(buffer.offerAll(List.of(1, 2)));
+        assertEquals(1, buffer.remainingCapacity());
+        assertEquals(0, buffer.size());
+
+        buffer.fillReserved(List.of(1, 2));
+        buffer.release(1);
+        assertEquals(2, buffer.size());
+        assertEquals(2, buffer.remainingCapacity());
+        assertThrows(IllegalStateException.class, () -> buffer.fillReserved(List.of(3)));
+    }
+}
@@ -0,0 +1,42 @@
+package com.example.backend.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class IngestVersionsTest {
+
+    private final IngestVersions versions = new IngestVersions();
+
+    @Test
+    void ingestChangesOnlyAffectedVersions() {
+        String device1 = versions.of(IngestVersions.GPS, "car-1").etag();
+        String device2 = versions.of(IngestVersions.GPS, "car-2").etag();
+        String accelerometer = versions.of(IngestVersions.ACCELEROMETER, "car-1").etag();
+        String all = versions.all().etag();
+
+        versions.recordGPS(List.of("car-1", "car-1"));
+
+        assertNotEquals(device1, versions.of(IngestVersions.GPS, "car-1").etag());
+        assertEquals(device2, versions.of(IngestVersions.GPS, "car-2").etag());
+        assertEquals(accelerometer, versions.of(IngestVersions.ACCELEROMETER, "car-1").etag());
+        assertNotEquals(all, versions.all().etag());
+        // Stable tant que rien n'est ingéré
+        assertEquals(versions.all().etag(), versions.all().etag());
+        assertTrue(versions.of(IngestVersions.GPS, null).etag().startsWith("W/\""));
+    }
+
+    @Test
+    void invalidationChangesEveryVersion() {
+        versions.recordGyroscope(List.of("car-1"));
+        String device = versions.of(IngestVersions.GYROSCOPE, "car-1").etag();
+        String untouched = versions.of(IngestVersions.GPS, "car-9").etag();
+
+        versions.invalidateAll();
+
+        assertNotEquals(device, versions.of(IngestVersions.GYROSCOPE, "car-1").etag());
+        assertNotEquals(untouched, versions.of(IngestVersions.GPS, "car-9").etag());
+    }
+}
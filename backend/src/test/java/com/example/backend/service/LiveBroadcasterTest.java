@@ -0,0 +1,193 @@
+package com.example.backend.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LiveBroadcasterTest {
+
+    private final LiveBroadcaster broadcaster = new LiveBroadcaster(4, 60_000, 200, 4);
+    private final CountDownLatch release = new CountDownLatch(1);
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        broadcaster.shutdown();
+    }
+
+    @Test
+    void publishFansOutToDeviceAndWildcardSubscribers() {
+        RecordingEmitter device = subscribe("gps", "car-1", false);
+        RecordingEmitter wildcard = subscribe("gps", LiveBroadcaster.ALL_DEVICES, false);
+        RecordingEmitter otherDevice = subscribe("gps", "car-2", false);
+        RecordingEmitter otherSensor = subscribe("accelerometer", "car-1", false);
+
+        broadcaster.publish("gps", List.of("car-1"), sample -> sample);
+
+        await(() -> device.samples().size() == 1 && wildcard.samples().size() == 1);
+        assertEquals(List.of("car-1"), device.samples());
+        assertEquals(List.of("car-1"), wildcard.samples());
+        assertTrue(otherDevice.samples().isEmpty());
+        assertTrue(otherSensor.samples().isEmpty());
+    }
+
+    @Test
+    void stalledSubscribersDoNotDelayOthers() {
+        List<RecordingEmitter> stalled = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            stalled.add(subscribe("gyroscope", "car-1", true));
+        }
+        RecordingEmitter healthy = subscribe("gyroscope", "car-1", false);
+
+        broadcaster.publish("gyroscope", List.of("car-1", "car-1"), sample -> sample);
+        await(() -> healthy.samples().size() == 2);
+        broadcaster.publish("gyroscope", List.of("car-1"), sample -> sample);
+
+        await(() -> healthy.samples().size() == 3);
+        stalled.forEach(emitter -> assertEquals(1, emitter.sends.get()));
+    }
+
+    @Test
+    void sendsRunOnABoundedPool() throws Exception {
+        List<RecordingEmitter> stalled = new ArrayList<>();
+        for (int i = 0; i < 6; i++) {
+            stalled.add(subscribe("gps", "car-1", true));
+        }
+
+        broadcaster.publish("gps", List.of("car-1"), sample -> sample);
+        await(() -> stalled.stream().mapToInt(emitter -> emitter.sends.get()).sum() == 4);
+        Thread.sleep(100);
+        // Quatre threads : deux abonnés attendent leur tour sans thread supplémentaire
+        assertEquals(4, stalled.stream().mapToInt(emitter -> emitter.sends.get()).sum());
+
+        release.countDown();
+        await(() -> stalled.stream().allMatch(emitter -> emitter.samples().size() == 1));
+        stalled.forEach(emitter -> assertEquals(1, emitter.sends.get()));
+    }
+
+    @Test
+    void subscriberStalledBeyondSendTimeoutIsEvicted() throws Exception {
+        RecordingEmitter stalled = subscribe("gps", "car-1", true);
+        subscribe("gps", "car-1", false);
+
+        broadcaster.publish("gps", List.of("car-1"), sample -> sample);
+        await(() -> stalled.sends.get() == 1);
+        Thread.sleep(300);
+        broadcaster.heartbeat();
+
+        assertEquals(1, broadcaster.getSubscriberCount());
+        assertEquals(1, broadcaster.getEvictedCount());
+    }
+
+    @Test
+    void heartbeatIsNotQueuedWhileSendIsPending() {
+        RecordingEmitter stalled = subscribe("gps", "car-1", true);
+
+        broadcaster.heartbeat();
+        await(() -> stalled.sends.get() == 1);
+        // Sous le délai d'envoi : pas d'éviction, et aucun ping supplémentaire en file
+        broadcaster.heartbeat();
+        broadcaster.heartbeat();
+        release.countDown();
+
+        // Le ping redemandé pendant l'envoi bloqué part une seule fois une fois l'abonné débloqué
+        await(() -> stalled.sends.get() == 2);
+        assertEquals(2, stalled.sends.get());
+        assertEquals(1, broadcaster.getSubscriberCount());
+    }
+
+    @Test
+    void failedSendRemovesSubscriber() {
+        RecordingEmitter broken = new RecordingEmitter(null) {
+            @Override
+            public void send(SseEventBuilder builder) throws IOException {
+                super.send(builder);
+                throw new IOException("connexion fermée");
+            }
+        };
+        broadcaster.subscribe("accelerometer", "car-1", broken);
+
+        broadcaster.publish("accelerometer", List.of("car-1"), sample -> sample);
+
+        await(() -> broadcaster.getSubscriberCount() == 0);
+        assertEquals(1, broken.sends.get());
+    }
+
+    @Test
+    void slowSubscriberDropsOldestSamples() {
+        RecordingEmitter stalled = subscribe("gps", "car-1", true);
+        broadcaster.publish("gps", List.of("a"), sample -> "car-1");
+        await(() -> stalled.sends.get() == 1);
+
+        // Tampon de 4 : les plus anciens sont écartés pendant l'envoi bloqué
+        broadcaster.publish("gps", List.of("b", "c", "d", "e", "f", "g"), sample -> "car-1");
+        release.countDown();
+
+        await(() -> stalled.samples().size() == 5);
+        assertEquals(List.of("a", "d", "e", "f", "g"), stalled.samples());
+        assertEquals(2, broadcaster.getDroppedCount());
+    }
+
+    private RecordingEmitter subscribe(String sensorType, String deviceId, boolean blocking) {
+        RecordingEmitter emitter = new RecordingEmitter(blocking ? release : null);
+        broadcaster.subscribe(sensorType, deviceId, emitter);
+        return emitter;
+    }
+
+    private static void await(BooleanSupplier condition) {
+        long deadline = System.currentTimeMillis() + 5_000;
+        while (!condition.getAsBoolean()) {
+            if (System.currentTimeMillis() > deadline) {
+                fail("Condition non atteinte dans le délai");
+            }
+            Thread.onSpinWait();
+        }
+    }
+
+    // Enregistre les envois au lieu d'écrire dans une réponse ; bloque chaque envoi jusqu'à release si fourni
+    private static class RecordingEmitter extends SseEmitter {
+        private final CountDownLatch gate;
+        private final List<Object> samples = new ArrayList<>();
+        private final AtomicInteger sends = new AtomicInteger();
+
+        RecordingEmitter(CountDownLatch gate) {
+            this.gate = gate;
+        }
+
+        @Override
+        public void send(SseEventBuilder builder) throws IOException {
+            sends.incrementAndGet();
+            for (var part : builder.build()) {
+                if (part.getData() instanceof Collection<?> data) {
+                    synchronized (samples) {
+                        samples.addAll(data);
+                    }
+                }
+            }
+            if (gate != null) {
+                try {
+                    gate.await(10, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        }
+
+        List<Object> samples() {
+            synchronized (samples) {
+                return new ArrayList<>(samples);
+            }
+        }
+    }
+}
@@ -0,0 +1,54 @@
+package com.example.backend.service;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.CannotAcquireLockException;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+
+import java.sql.ResultSet;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class PartitionMaintenanceServiceTest {
+
+    private static final DateTimeFormatter BOUND_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+
+    @Test
+    void failedDropDoesNotStopRemainingPartitions() throws Exception {
+        JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+        when(jdbcTemplate.execute(any(ConnectionCallback.class))).thenReturn("PostgreSQL");
+        when(jdbcTemplate.queryForObject(anyString(), eq(Integer.class), eq("accelerometer_data"))).thenReturn(1);
+        // Trois partitions hors rétention
+        LocalDateTime old = LocalDateTime.now().minusDays(30).withHour(0).withMinute(0).withSecond(0).withNano(0);
+        doAnswer(invocation -> {
+            RowCallbackHandler handler = invocation.getArgument(1);
+            for (int day = 0; day < 3; day++) {
+                ResultSet row = mock(ResultSet.class);
+                when(row.getString(1)).thenReturn("accelerometer_data_p" + day);
+                when(row.getString(2)).thenReturn("FOR VALUES FROM ('x') TO ('" + old.plusDays(day).format(BOUND_FORMAT) + "')");
+                handler.processRow(row);
+            }
+            return null;
+        }).when(jdbcTemplate).query(anyString(), any(RowCallbackHandler.class), eq("accelerometer_data"));
+        doThrow(new CannotAcquireLockException("verrou tenu"))
+                .when(jdbcTemplate).execute("DROP TABLE accelerometer_data_p0");
+        IngestVersions ingestVersions = mock(IngestVersions.class);
+
+        new PartitionMaintenanceService(jdbcTemplate, ingestVersions, PartitionInterval.DAY, 0, 7).maintain();
+
+        verify(jdbcTemplate).execute("DROP TABLE accelerometer_data_p1");
+        verify(jdbcTemplate).execute("DROP TABLE accelerometer_data_p2");
+        verify(ingestVersions, times(2)).invalidateAll();
+    }
+}
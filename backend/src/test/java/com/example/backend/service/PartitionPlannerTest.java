@@ -0,0 +1,51 @@
+package com.example.backend.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PartitionPlannerTest {
+
+    private static final LocalDateTime NOW = LocalDateTime.of(2024, 5, 1, 10, 30);
+
+    @Test
+    void createsDailyPartitionsAheadWithoutOverlappingExistingRanges() {
+        PartitionPlanner planner = new PartitionPlanner(PartitionInterval.DAY, 2, 0);
+
+        // La partition héritée couvre déjà jusqu'au lendemain
+        List<PartitionPlanner.Range> ranges = planner.toCreate(NOW, LocalDateTime.of(2024, 5, 2, 0, 0));
+
+        assertEquals(List.of(
+                new PartitionPlanner.Range(LocalDateTime.of(2024, 5, 2, 0, 0), LocalDateTime.of(2024, 5, 3, 0, 0)),
+                new PartitionPlanner.Range(LocalDateTime.of(2024, 5, 3, 0, 0), LocalDateTime.of(2024, 5, 4, 0, 0))),
+                ranges);
+    }
+
+    @Test
+    void weeklyPartitionStartsAtCoveredBoundWhenItFallsMidWeek() {
+        PartitionPlanner planner = new PartitionPlanner(PartitionInterval.WEEK, 1, 0);
+
+        List<PartitionPlanner.Range> ranges = planner.toCreate(NOW, LocalDateTime.of(2024, 5, 2, 0, 0));
+
+        // Le 1er mai 2024 est un mercredi : semaine du lundi 29 avril
+        assertEquals(List.of(new PartitionPlanner.Range(LocalDateTime.of(2024, 5, 2, 0, 0),
+                LocalDateTime.of(2024, 5, 6, 0, 0))), ranges);
+    }
+
+    @Test
+    void dropsOnlyPartitionsEntirelyOlderThanRetention() {
+        Map<String, LocalDateTime> upperBounds = Map.of(
+                "gps_data_legacy", LocalDateTime.of(2024, 3, 1, 0, 0),
+                "gps_data_p20240330", LocalDateTime.of(2024, 3, 31, 0, 0),
+                "gps_data_p20240331", LocalDateTime.of(2024, 4, 1, 0, 0),
+                "gps_data_p20240401", LocalDateTime.of(2024, 4, 2, 0, 0));
+
+        assertEquals(List.of("gps_data_legacy", "gps_data_p20240330"),
+                new PartitionPlanner(PartitionInterval.DAY, 3, 31).toDrop(upperBounds, NOW));
+        assertEquals(List.of(), new PartitionPlanner(PartitionInterval.DAY, 3, 0).toDrop(upperBounds, NOW));
+    }
+}
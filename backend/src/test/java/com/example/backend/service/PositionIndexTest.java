@@ -0,0 +1,64 @@
+package com.example.backend.service;
+
+import com.example.backend.dto.GPSPointDTO;
+import com.example.backend.dto.NearestDeviceDTO;
+import com.example.backend.entity.GPSData;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PositionIndexTest {
+
+    private static final LocalDateTime T0 = LocalDateTime.of(2024, 5, 1, 12, 0);
+
+    // Hors transaction, recordGPS met l'index à jour immédiatement ; load() n'est pas appelé
+    private final PositionIndex index = new PositionIndex(null, null, 0.05);
+
+    @Test
+    void keepsOnlyLatestPositionPerDevice() {
+        index.recordGPS(List.of(
+                new GPSData(48.85, 2.35, 0, 0, "car-1", T0),
+                new GPSData(45.76, 4.83, 0, 0, "car-1", T0.plusMinutes(5)),
+                new GPSData(48.86, 2.34, 0, 0, "car-1", T0.plusMinutes(1))));
+
+        assertEquals(List.of("car-1"), index.all().stream().map(GPSPointDTO::deviceId).toList());
+        assertEquals(45.76, index.all().get(0).latitude());
+        assertTrue(index.within(48.8, 2.3, 48.9, 2.4).isEmpty());
+        assertEquals(1, index.within(45.7, 4.8, 45.8, 4.9).size());
+    }
+
+    @Test
+    void nearestMatchesExhaustiveSearch() {
+        Random random = new Random(42);
+        List<GPSData> fleet = new ArrayList<>();
+        for (int i = 0; i < 2000; i++) {
+            fleet.add(new GPSData(43 + random.nextDouble() * 8, -1 + random.nextDouble() * 8, 0, 0,
+                    "car-" + i, T0));
+        }
+        index.recordGPS(fleet);
+
+        for (double[] query : new double[][]{{48.85, 2.35}, {43.3, 5.4}, {60.0, 20.0}}) {
+            List<NearestDeviceDTO> nearest = index.nearest(query[0], query[1], 5);
+            List<String> expected = fleet.stream()
+                    .sorted(Comparator.comparingDouble(data ->
+                            TrackGeometry.haversine(query[0], query[1], data.getLatitude(), data.getLongitude())))
+                    .limit(5)
+                    .map(GPSData::getDeviceId)
+                    .toList();
+            assertEquals(expected, nearest.stream().map(n -> n.position().deviceId()).toList());
+        }
+
+        List<GPSPointDTO> within = index.within(45, 1, 46, 2);
+        long expected = fleet.stream()
+                .filter(data -> data.getLatitude() >= 45 && data.getLatitude() <= 46
+                        && data.getLongitude() >= 1 && data.getLongitude() <= 2)
+                .count();
+        assertEquals(expected, within.size());
+    }
+}
@@ -0,0 +1,77 @@
+package com.example.backend.service;
+
+import com.example.backend.entity.AccelerometerData;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RecentSampleCacheTest {
+
+    @Test
+    void servesOnlyWindowsStillFullyCovered() {
+        RecentSampleCache cache = new RecentSampleCache(3, 10);
+        LocalDateTime t0 = LocalDateTime.now().plusSeconds(1);
+        List<AccelerometerData> samples = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            AccelerometerData data = new AccelerometerData(i, 0, 0, "car-1", t0.plusSeconds(i));
+            data.setId((long) i);
+            samples.add(data);
+        }
+        cache.addAccelerometer(samples);
+
+        // Les deux premiers échantillons ont été évincés
+        assertTrue(cache.recentAccelerometer("car-1", t0).isEmpty());
+        List<AccelerometerData> window = cache.recentAccelerometer("car-1", t0.plusSeconds(2)).orElseThrow();
+        assertEquals(List.of(2f, 3f, 4f), window.stream().map(AccelerometerData::getX).toList());
+        assertEquals("car-1", window.get(0).getDeviceId());
+
+        List<AccelerometerData> latest = cache.latestAccelerometer("car-1", 2).orElseThrow();
+        assertEquals(List.of(4L, 3L), latest.stream().map(AccelerometerData::getId).toList());
+        assertTrue(cache.latestAccelerometer("car-1", 4).isEmpty());
+    }
+
+    @Test
+    void latestSelectsNewestByTimestampWhateverTheInsertionOrder() {
+        RecentSampleCache cache = new RecentSampleCache(10, 10);
+        LocalDateTime t0 = LocalDateTime.now().plusSeconds(1);
+        // Lots validés dans le désordre : t+3 avant t+1 et t+2
+        cache.addAccelerometer(List.of(sample(3, t0.plusSeconds(3))));
+        cache.addAccelerometer(List.of(sample(1, t0.plusSeconds(1)), sample(2, t0.plusSeconds(2))));
+
+        assertEquals(List.of(3L), ids(cache.latestAccelerometer("car-1", 1).orElseThrow()));
+        assertEquals(List.of(3L, 2L), ids(cache.latestAccelerometer("car-1", 2).orElseThrow()));
+        assertEquals(List.of(3L, 2L, 1L), ids(cache.latestAccelerometer("car-1", 3).orElseThrow()));
+    }
+
+    @Test
+    void latestIsUnavailableWhenAnEvictedSampleIsNewerThanTheSelection() {
+        RecentSampleCache cache = new RecentSampleCache(2, 10);
+        LocalDateTime t0 = LocalDateTime.now().plusSeconds(1);
+        cache.addAccelerometer(List.of(sample(5, t0.plusSeconds(5))));
+        // t+5 évincé par deux échantillons plus anciens : le tampon ne connaît plus le plus récent
+        cache.addAccelerometer(List.of(sample(1, t0.plusSeconds(1)), sample(2, t0.plusSeconds(2))));
+
+        assertTrue(cache.latestAccelerometer("car-1", 1).isEmpty());
+    }
+
+    @Test
+    void unknownDeviceHasEmptyWindowOnlyAfterStartup() {
+        RecentSampleCache cache = new RecentSampleCache(3, 10);
+        assertEquals(List.of(), cache.recentGPS("car-2", LocalDateTime.now().plusSeconds(1)).orElseThrow());
+        assertTrue(cache.recentGPS("car-2", LocalDateTime.now().minusDays(1)).isEmpty());
+    }
+
+    private static AccelerometerData sample(long id, LocalDateTime timestamp) {
+        AccelerometerData data = new AccelerometerData(id, 0, 0, "car-1", timestamp);
+        data.setId(id);
+        return data;
+    }
+
+    private static List<Long> ids(List<AccelerometerData> rows) {
+        return rows.stream().map(AccelerometerData::getId).toList();
+    }
+}
@@ -0,0 +1,253 @@
+package com.example.backend.service;
+
+import com.example.backend.dto.RollupPointDTO;
+import com.example.backend.entity.AccelerometerData;
+import com.example.backend.entity.SensorRollup;
+import com.example.backend.repository.AccelerometerRepository;
+import com.example.backend.repository.GyroscopeRepository;
+import com.example.backend.repository.SensorBlockRepository;
+import com.example.backend.repository.SensorRollupRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionSynchronizationUtils;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.RETURNS_DEEP_STUBS;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class RollupServiceTest {
+
+    private static final LocalDateTime T0 = LocalDateTime.of(2024, 5, 1, 10, 0);
+
+    @Autowired
+    private SensorDataService sensorDataService;
+
+    @Autowired
+    private RollupService rollupService;
+
+    @Autowired
+    private ColdStorageService coldStorageService;
+
+    @Autowired
+    private AccelerometerRepository accelerometerRepository;
+
+    @Autowired
+    private GyroscopeRepository gyroscopeRepository;
+
+    @Autowired
+    private SensorBlockRepository sensorBlockRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private IngestVersions ingestVersions;
+
+    @AfterEach
+    void cleanUp() {
+        sensorBlockRepository.deleteAll();
+        coldStorageService.archive();
+    }
+
+    @Test
+    void ingestedSamplesAreRolledUpAndMergedAcrossFlushes() {
+        sensorDataService.saveAccelerometerBatch(List.of(
+                new AccelerometerData(1, -3, 9, "car-rollup", T0.plusSeconds(1)),
+                new AccelerometerData(3, 4, 9, "car-rollup", T0.plusSeconds(30))));
+        rollupService.flush();
+        sensorDataService.saveAccelerometerData(new AccelerometerData(5, 0, 9, "car-rollup", T0.plusSeconds(59)));
+        rollupService.flush();
+
+        List<RollupPointDTO> minutes = rollupService.getRollups(RollupService.ACCELEROMETER, "car-rollup",
+                T0, T0.plusHours(1), 300);
+        assertEquals(1, minutes.size());
+        RollupPointDTO minute = minutes.get(0);
+        assertEquals(60, minute.getGranularitySeconds());
+        assertEquals(3, minute.getCount());
+        assertEquals(3.0, minute.getMean()[0], 1e-9);
+        assertEquals(-3.0, minute.getMin()[1], 1e-9);
+        assertEquals(5.0, minute.getMax()[0], 1e-9);
+        assertEquals(9.0, minute.getRms()[2], 1e-9);
+
+        assertEquals(3, rollupService.getRollups(RollupService.ACCELEROMETER, "car-rollup",
+                T0, T0.plusHours(1), 0.5).size());
+    }
+
+    @Test
+    void backfillSupersedesDeltasStillPending() {
+        LocalDateTime hour = T0.plusHours(3);
+        sensorDataService.saveAccelerometerBatch(List.of(
+                new AccelerometerData(1, 0, 0, "car-backfill", hour.plusSeconds(1)),
+                new AccelerometerData(3, 0, 0, "car-backfill", hour.plusSeconds(2))));
+
+        // Deltas de l'ingestion pas encore fusionnés : le recalcul relit ces échantillons en base
+        assertTrue(rollupService.backfillChunk(RollupService.ACCELEROMETER, "car-backfill", hour, hour.plusHours(1)));
+        rollupService.flush();
+
+        List<RollupPointDTO> hours = rollupService.getRollups(RollupService.ACCELEROMETER, "car-backfill",
+                hour, hour.plusHours(1), 3600);
+        assertEquals(1, hours.size());
+        assertEquals(2, hours.get(0).getCount());
+        assertEquals(2.0, hours.get(0).getMean()[0], 1e-9);
+    }
+
+    @Test
+    void backfillReadsArchivedHours() {
+        LocalDateTime hour = LocalDateTime.of(2001, 6, 1, 8, 0);
+        List<AccelerometerData> batch = new ArrayList<>();
+        for (int i = 0; i < 60; i++) {
+            batch.add(new AccelerometerData(i, 0, 9, "car-archived", hour.plusMinutes(i)));
+        }
+        sensorDataService.saveAccelerometerBatch(batch);
+        rollupService.flush();
+
+        // Heure passée en stockage froid, puis découverte par l'instance de lecture
+        int days = (int) ChronoUnit.DAYS.between(hour.plusHours(1), LocalDateTime.now());
+        new ColdStorageService(accelerometerRepository, gyroscopeRepository, sensorBlockRepository,
+                transactionManager, ingestVersions, days, 24, 0).archive();
+        coldStorageService.archive();
+        assertEquals(0, accelerometerRepository.countByDeviceIdInRange("car-archived", hour, hour.plusHours(1)));
+
+        assertTrue(rollupService.backfillChunk(RollupService.ACCELEROMETER, "car-archived", hour, hour.plusHours(1)));
+        List<RollupPointDTO> hours = rollupService.getRollups(RollupService.ACCELEROMETER, "car-archived",
+                hour, hour.plusHours(1), 3600);
+        assertEquals(1, hours.size());
+        assertEquals(60, hours.get(0).getCount());
+        assertEquals(29.5, hours.get(0).getMean()[0], 1e-9);
+    }
+
+    @Test
+    void failedBackfillChunkIsRecordedAndRetried() throws Exception {
+        SensorRollupRepository rollupRepository = mock(SensorRollupRepository.class);
+        RollupService service = new RollupService(rollupRepository, mock(AccelerometerRepository.class),
+                mock(GyroscopeRepository.class), mock(ColdStorageService.class, RETURNS_DEEP_STUBS),
+                mock(StatsRegistry.class), mock(EntityManager.class),
+                mock(PlatformTransactionManager.class), new SimpleMeterRegistry(), 100);
+        when(rollupRepository.deleteRange(eq(RollupService.GYROSCOPE), eq("car-1"), any(), any()))
+                .thenThrow(new DataIntegrityViolationException("conflit"))
+                .thenReturn(0);
+
+        service.backfillAsync(RollupService.GYROSCOPE, "car-1", T0, T0.plusHours(1));
+        awaitFailedBackfills(service, 1);
+        RollupService.BackfillChunk failed = service.getFailedBackfills().get(0);
+        assertEquals(T0, failed.from());
+        assertEquals(T0.plusHours(1), failed.to());
+
+        service.retryFailedBackfills();
+        awaitFailedBackfills(service, 0);
+        service.shutdown();
+    }
+
+    @Test
+    void flushLoadsExistingRollupsInOneQuery() {
+        SensorRollupRepository rollupRepository = mock(SensorRollupRepository.class);
+        RollupService service = mockedService(rollupRepository, mock(AccelerometerRepository.class));
+        service.recordAccelerometer(List.of(
+                sample(1, T0.plusSeconds(1)), sample(2, T0.plusSeconds(2)), sample(3, T0.plusSeconds(3))));
+
+        service.flush();
+
+        verify(rollupRepository, times(1)).findByDeviceIdInAndBucketStartIn(any(), any());
+        verify(rollupRepository, times(1)).saveAll(argThat(rollups -> size(rollups) == 5));
+        service.shutdown();
+    }
+
+    @Test
+    void samplesCommittedDuringBackfillAreCountedOnce() {
+        SensorRollupRepository rollupRepository = mock(SensorRollupRepository.class);
+        AccelerometerRepository accelerometerRepository = mock(AccelerometerRepository.class);
+        RollupService service = mockedService(rollupRepository, accelerometerRepository);
+        AccelerometerData inFlight = sample(1, T0.plusSeconds(1));
+        AccelerometerData committedBeforeRead = sample(2, T0.plusSeconds(2));
+        AccelerometerData committedAfterRead = sample(3, T0.plusSeconds(3));
+
+        // Transaction d'ingestion validée avant la lecture mais dont le delta n'arrive qu'après le recalcul
+        TransactionSynchronizationManager.initSynchronization();
+        List<TransactionSynchronization> ingest;
+        try {
+            service.recordAccelerometer(List.of(inFlight));
+            ingest = TransactionSynchronizationManager.getSynchronizations();
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        when(accelerometerRepository.streamByDeviceId(eq("car-1"), any(), any())).thenAnswer(invocation -> {
+            service.recordAccelerometer(List.of(committedBeforeRead));
+            service.recordAccelerometer(List.of(committedAfterRead));
+            return Stream.of(inFlight, committedBeforeRead);
+        });
+
+        assertTrue(service.backfillChunk(RollupService.ACCELEROMETER, "car-1", T0, T0.plusHours(1)));
+        TransactionSynchronizationUtils.invokeAfterCompletion(ingest, TransactionSynchronization.STATUS_COMMITTED);
+        service.flush();
+
+        // Recalcul : les deux échantillons lus ; flush : seul celui que le recalcul n'a pas vu
+        ArgumentCaptor<List<SensorRollup>> saved = ArgumentCaptor.forClass(List.class);
+        verify(rollupRepository, times(2)).saveAll(saved.capture());
+        assertEquals(2, hourCount(saved.getAllValues().get(0)));
+        assertEquals(1, hourCount(saved.getAllValues().get(1)));
+        service.shutdown();
+    }
+
+    @SuppressWarnings("unchecked")
+    private static RollupService mockedService(SensorRollupRepository rollupRepository,
+                                               AccelerometerRepository accelerometerRepository) {
+        ColdStorageService coldStorageService = mock(ColdStorageService.class);
+        ColdTier<AccelerometerData> tier = mock(ColdTier.class);
+        when(coldStorageService.accelerometer()).thenReturn(tier);
+        when(tier.stream(any(), any(), any(), any())).thenAnswer(invocation -> invocation.getArgument(0));
+        return new RollupService(rollupRepository, accelerometerRepository, mock(GyroscopeRepository.class),
+                coldStorageService, mock(StatsRegistry.class), mock(EntityManager.class),
+                mock(PlatformTransactionManager.class), new SimpleMeterRegistry(), 100);
+    }
+
+    private static AccelerometerData sample(long id, LocalDateTime timestamp) {
+        AccelerometerData data = new AccelerometerData(1, 0, 0, "car-1", timestamp);
+        data.setId(id);
+        return data;
+    }
+
+    private static int size(Iterable<?> rollups) {
+        int size = 0;
+        for (Object ignored : rollups) {
+            size++;
+        }
+        return size;
+    }
+
+    private static long hourCount(List<SensorRollup> rollups) {
+        return rollups.stream().filter(rollup -> rollup.getGranularitySeconds() == 3600)
+                .mapToLong(SensorRollup::getSampleCount).sum();
+    }
+
+    private static void awaitFailedBackfills(RollupService service, int expected) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (service.getFailedBackfills().size() != expected && System.currentTimeMillis() < deadline) {
+            Thread.sleep(20);
+        }
+        assertEquals(expected, service.getFailedBackfills().size());
+    }
+}
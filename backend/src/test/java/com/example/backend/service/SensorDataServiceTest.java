@@ -0,0 +1,73 @@
+package com.example.backend.service;
+
+import com.example.backend.dto.SensorCursor;
+import com.example.backend.entity.AccelerometerData;
+import com.example.backend.repository.AccelerometerRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class SensorDataServiceTest {
+
+    private static final LocalDateTime T0 = LocalDateTime.of(2024, 5, 1, 10, 0);
+
+    @Autowired
+    private SensorDataService sensorDataService;
+
+    @Autowired
+    private AccelerometerRepository accelerometerRepository;
+
+    @Autowired
+    private StatsService statsService;
+
+    @AfterEach
+    void cleanUp() {
+        accelerometerRepository.deleteAll();
+    }
+
+    @Test
+    void pagesThroughRangeWithKeysetCursor() {
+        List<AccelerometerData> batch = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            // Deux échantillons par seconde : les égalités de timestamp sont départagées par l'id
+            batch.add(new AccelerometerData(i, 0, 0, "car-1", T0.plusSeconds(i / 2)));
+        }
+        batch.add(new AccelerometerData(9, 0, 0, "car-2", T0));
+        sensorDataService.saveAccelerometerBatch(batch);
+
+        List<Float> seen = new ArrayList<>();
+        SensorCursor cursor = null;
+        List<AccelerometerData> page;
+        do {
+            page = sensorDataService.getAccelerometerDataPage("car-1", T0, T0.plusSeconds(2), cursor, 2);
+            page.forEach(data -> seen.add(data.getX()));
+            if (!page.isEmpty()) {
+                AccelerometerData last = page.get(page.size() - 1);
+                cursor = new SensorCursor(last.getTimestamp(), last.getId());
+            }
+        } while (page.size() == 2);
+
+        assertEquals(List.of(0f, 1f, 2f, 3f), seen);
+    }
+
+    @Test
+    void batchIngestUpdatesStatsWithoutQuerying() {
+        long before = statsService.getStatsSummary().getTotalAccelerometerReadings();
+        sensorDataService.saveAccelerometerBatch(List.of(
+                new AccelerometerData(1, 0, 0, "car-stats", T0),
+                new AccelerometerData(2, 0, 0, "car-stats", T0.plusSeconds(1))));
+
+        assertEquals(before + 2, statsService.getStatsSummary().getTotalAccelerometerReadings());
+        assertTrue(statsService.getAllDeviceIds().contains("car-stats"));
+    }
+}
@@ -0,0 +1,120 @@
+package com.example.backend.service;
+
+import com.example.backend.entity.AccelerometerData;
+import com.example.backend.repository.AccelerometerRepository;
+import jakarta.persistence.EntityManager;
+import org.hibernate.Session;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.io.ByteArrayOutputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class SensorExportServiceTest {
+
+    private static final LocalDateTime T0 = LocalDateTime.of(2024, 6, 1, 8, 0);
+    private static final String DEVICE = "car-export";
+    private static final int ROWS = 5000;
+
+    @Autowired
+    private SensorDataService sensorDataService;
+
+    @Autowired
+    private SensorExportService sensorExportService;
+
+    @Autowired
+    private AccelerometerRepository accelerometerRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @AfterEach
+    void cleanUp() {
+        accelerometerRepository.deleteAll();
+    }
+
+    // Écrit dans la réponse au fil de la lecture : à chaque écriture reçue, le contexte de persistance
+    // ne contient que quelques lignes, jamais toute la plage
+    @Test
+    void streamsLargeRangeWithoutHoldingRowsInMemory() throws Exception {
+        List<AccelerometerData> batch = new ArrayList<>();
+        for (int i = 0; i < ROWS; i++) {
+            batch.add(new AccelerometerData(i, 0, 0, DEVICE, T0.plusSeconds(i)));
+        }
+        sensorDataService.saveAccelerometerBatch(batch);
+
+        ProbeOutputStream out = new ProbeOutputStream();
+        long count = sensorExportService.exportAccelerometerData(DEVICE, T0, T0.plusSeconds(ROWS),
+                ExportFormat.CSV, out);
+
+        assertEquals(ROWS, count);
+        // Sortie envoyée par morceaux pendant la lecture, pas d'un bloc à la fin
+        assertTrue(out.writes > 10, "écritures : " + out.writes);
+        assertTrue(out.maxManagedEntities < 10, "entités gérées : " + out.maxManagedEntities);
+        String[] lines = out.buffer.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(ROWS + 1, lines.length);
+        assertTrue(lines[ROWS].endsWith("," + (ROWS - 1) + ".0,0.0,0.0"));
+    }
+
+    @Test
+    void ndjsonWritesOneObjectPerLineInTimestampOrder() throws Exception {
+        sensorDataService.saveAccelerometerBatch(List.of(
+                new AccelerometerData(2, 0, 0, DEVICE, T0.plusSeconds(1)),
+                new AccelerometerData(1, 0, 0, DEVICE, T0),
+                new AccelerometerData(9, 0, 0, DEVICE, T0.plusHours(2))));
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        long count = sensorExportService.exportAccelerometerData(DEVICE, T0, T0.plusHours(1), ExportFormat.NDJSON, out);
+
+        assertEquals(2, count);
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(2, lines.length);
+        assertTrue(lines[0].startsWith("{") && lines[0].contains("\"x\":1.0"));
+        assertTrue(lines[1].contains("\"x\":2.0"));
+    }
+
+    @Test
+    void emptyRangeWritesOnlyCsvHeader() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        long count = sensorExportService.exportGyroscopeData(DEVICE, T0, T0.plusHours(1), ExportFormat.CSV, out);
+
+        assertEquals(0, count);
+        assertEquals("id,deviceId,timestamp,rotationX,rotationY,rotationZ\n", out.toString(StandardCharsets.UTF_8));
+    }
+
+    private class ProbeOutputStream extends OutputStream {
+        private final ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+        private int writes;
+        private long maxManagedEntities;
+
+        @Override
+        public void write(int b) {
+            probe();
+            buffer.write(b);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            probe();
+            buffer.write(b, off, len);
+        }
+
+        // Appelé dans la transaction de l'export : même session que la lecture en flux
+        private void probe() {
+            writes++;
+            long managed = entityManager.unwrap(Session.class).getStatistics().getEntityCount();
+            maxManagedEntities = Math.max(maxManagedEntities, managed);
+        }
+    }
+}
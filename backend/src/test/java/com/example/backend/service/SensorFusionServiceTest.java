@@ -0,0 +1,96 @@
+package com.example.backend.service;
+
+import com.example.backend.dto.SensorFusionDTO;
+import com.example.backend.entity.AccelerometerData;
+import com.example.backend.entity.GPSData;
+import com.example.backend.entity.GyroscopeData;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class SensorFusionServiceTest {
+
+    private static final LocalDateTime T0 = LocalDateTime.of(2024, 5, 2, 8, 0);
+
+    @Autowired
+    private SensorDataService sensorDataService;
+
+    @Autowired
+    private SensorFusionService sensorFusionService;
+
+    @Test
+    void alignsAveragedImuAndInterpolatedGpsOnTheGrid() {
+        // Accéléromètre à 100 Hz, x = numéro de la mesure
+        List<AccelerometerData> accelerometer = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            accelerometer.add(new AccelerometerData(i, 0, 9.8f, "car-fused", T0.plusNanos(i * 10_000_000L)));
+        }
+        sensorDataService.saveAccelerometerBatch(accelerometer);
+        // Gyroscope : deux mesures seulement, 500 ms d'écart
+        sensorDataService.saveGyroscopeBatch(List.of(
+                new GyroscopeData(0, 0, 0, "car-fused", T0),
+                new GyroscopeData(5, 0, 0, "car-fused", T0.plusNanos(500_000_000L))));
+        // GPS : deux positions encadrant la période, 10 s d'écart
+        sensorDataService.saveGPSBatch(List.of(
+                new GPSData(48.0, 2.0, 30, 10, "car-fused", T0.minusSeconds(2)),
+                new GPSData(48.1, 2.0, 30, 20, "car-fused", T0.plusSeconds(8))));
+
+        SensorFusionDTO fused = sensorFusionService.fuse("car-fused", T0, T0.plusSeconds(1), 10);
+        assertEquals(10, fused.frameCount());
+        assertEquals(100_000, fused.periodMicros());
+
+        // Trame k : moyenne des mesures de [100k - 50, 100k + 50) ms, la première n'a que la moitié droite
+        assertEquals(200, fused.accelerometer().samples());
+        assertEquals(2f, fused.accelerometer().x()[0]);
+        assertEquals(9.5f, fused.accelerometer().x()[1]);
+        assertEquals(89.5f, fused.accelerometer().x()[9]);
+
+        // Trames vides interpolées entre les deux mesures, inconnues après la dernière
+        assertEquals(2, fused.gyroscope().samples());
+        assertEquals(0f, fused.gyroscope().x()[0]);
+        assertEquals(3f, fused.gyroscope().x()[3], 1e-6);
+        assertEquals(5f, fused.gyroscope().x()[5]);
+        assertNull(fused.gyroscope().x()[6]);
+
+        assertEquals(2, fused.gps().samples());
+        assertEquals(48.02, fused.gps().latitude()[0], 1e-9);
+        assertEquals(48.029, fused.gps().latitude()[9], 1e-9);
+        assertEquals(12f, fused.gps().speed()[0], 1e-4);
+    }
+
+    @Test
+    void clampsFrameCountAndOmitsSensorsWithoutData() {
+        SensorFusionDTO fused = sensorFusionService.fuse("car-none", T0, T0.plusHours(10), 100);
+        assertEquals(10_000, fused.frameCount());
+        assertEquals(3_600_000, fused.periodMicros());
+        assertNull(fused.accelerometer());
+        assertNull(fused.gps());
+
+        assertThrows(IllegalArgumentException.class, () -> sensorFusionService.fuse("car-none", T0, T0, 10));
+        assertThrows(IllegalArgumentException.class,
+                () -> sensorFusionService.fuse("car-none", T0, T0.plusSeconds(1), 0));
+        assertThrows(IllegalArgumentException.class,
+                () -> sensorFusionService.fuse("car-none", T0, T0.plusHours(25), 10));
+    }
+
+    @Test
+    void mergeInterleavesSortedSources() {
+        Iterator<Integer> merged = SensorFusion.merge(
+                List.of(List.of(1, 4, 9).iterator(), List.<Integer>of().iterator(), List.of(2, 3, 10).iterator()),
+                Comparator.naturalOrder());
+        List<Integer> values = new ArrayList<>();
+        merged.forEachRemaining(values::add);
+        assertEquals(List.of(1, 2, 3, 4, 9, 10), values);
+    }
+}
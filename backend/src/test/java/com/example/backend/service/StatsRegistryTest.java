@@ -0,0 +1,100 @@
+package com.example.backend.service;
+
+import com.example.backend.repository.AccelerometerRepository;
+import com.example.backend.repository.GPSRepository;
+import com.example.backend.repository.GyroscopeRepository;
+import com.example.backend.repository.SensorBlockRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class StatsRegistryTest {
+
+    private final AccelerometerRepository accelerometerRepository = mock(AccelerometerRepository.class);
+    private final IngestVersions ingestVersions = new IngestVersions();
+    private final StatsRegistry registry = new StatsRegistry(accelerometerRepository, mock(GPSRepository.class),
+            mock(GyroscopeRepository.class), mock(SensorBlockRepository.class), mock(DeviceRegistry.class),
+            ingestVersions, new SimpleMeterRegistry());
+
+    @Test
+    void samplesRecordedWhileCountingAreNotCountedTwice() {
+        when(accelerometerRepository.count()).thenReturn(100L);
+        registry.reconcile();
+        AtomicReference<IngestVersions.Version> version = new AtomicReference<>();
+
+        // Lot de 5 validé pendant le comptage et déjà vu par la base : ni ajouté deux fois, ni invalidation
+        when(accelerometerRepository.count()).thenAnswer(invocation -> {
+            registry.recordAccelerometer(List.of("car-1", "car-1", "car-1", "car-1", "car-1"));
+            version.set(ingestVersions.all());
+            return 105L;
+        });
+        registry.reconcile();
+
+        assertEquals(105, registry.getAccelerometerTotal());
+        assertEquals(version.get(), ingestVersions.all());
+    }
+
+    @Test
+    void purgeIsCorrectedButIncrementsNotYetVisibleAreKept() {
+        when(accelerometerRepository.count()).thenReturn(100L);
+        registry.reconcile();
+
+        // Lot enregistré pendant le comptage mais validé après la lecture : la base ne le voit pas encore
+        when(accelerometerRepository.count()).thenAnswer(invocation -> {
+            registry.recordAccelerometer(List.of("car-1", "car-1", "car-1", "car-1", "car-1"));
+            return 100L;
+        });
+        registry.reconcile();
+        assertEquals(105, registry.getAccelerometerTotal());
+
+        // Purge hors ingestion : corrigée et les réponses en cache invalidées
+        when(accelerometerRepository.count()).thenReturn(40L);
+        IngestVersions.Version version = ingestVersions.all();
+        registry.reconcile();
+        assertEquals(40, registry.getAccelerometerTotal());
+        assertNotEquals(version, ingestVersions.all());
+    }
+
+    @Test
+    void concurrentRecordsAreNotLostDuringReconcile() throws Exception {
+        when(accelerometerRepository.count()).thenReturn(0L);
+        registry.reconcile();
+
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < 4; t++) {
+                futures.add(executor.submit(() -> {
+                    for (int i = 0; i < 10_000; i++) {
+                        registry.recordAccelerometer(List.of("car-" + (i % 3)));
+                    }
+                }));
+            }
+            // Base à jour de tout ce qui a été enregistré au moment du comptage : les recalages
+            // faits pendant l'ingestion ne doivent rien retirer
+            when(accelerometerRepository.count()).thenAnswer(invocation -> registry.getAccelerometerTotal());
+            for (int i = 0; i < 200; i++) {
+                registry.reconcile();
+            }
+            for (Future<?> future : futures) {
+                future.get(30, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertTrue(registry.getAccelerometerTotal() >= 40_000, "total : " + registry.getAccelerometerTotal());
+        assertEquals(3, registry.getDeviceCount());
+    }
+}
@@ -0,0 +1,143 @@
+package com.example.backend.service;
+
+import com.example.backend.dto.AccelerometerPointDTO;
+import com.example.backend.dto.DashboardDataDTO;
+import com.example.backend.repository.AccelerometerRepository;
+import com.example.backend.repository.DeviceActivityRepository;
+import com.example.backend.repository.GPSRepository;
+import com.example.backend.repository.GyroscopeRepository;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class StatsServiceTest {
+
+    @Test
+    void slowSectionIsReturnedEmptyWithoutFailingTheDashboard() {
+        AccelerometerRepository accelerometerRepository = mock(AccelerometerRepository.class);
+        GPSRepository gpsRepository = mock(GPSRepository.class);
+        GyroscopeRepository gyroscopeRepository = mock(GyroscopeRepository.class);
+        DeviceActivityRepository deviceActivityRepository = mock(DeviceActivityRepository.class);
+        AccelerometerPointDTO sample = new AccelerometerPointDTO("car-1", LocalDateTime.now(), 1, 2, 3);
+        when(accelerometerRepository.findPointsAfter(any())).thenReturn(List.of(sample));
+        when(gyroscopeRepository.findPointsAfter(any())).thenReturn(List.of());
+        when(deviceActivityRepository.findLatest(any(), anyInt(), anyInt())).thenReturn(List.of());
+        when(gpsRepository.findPointsAfter(any())).thenAnswer(invocation -> {
+            Thread.sleep(5_000);
+            return List.of();
+        });
+        StatsService statsService = new StatsService(accelerometerRepository, gpsRepository, gyroscopeRepository,
+                mock(StatsRegistry.class), new RecentSampleCache(10, 10), deviceActivityRepository, 5, 20, 4, 200, 10,
+                new IngestVersions(), 60, 2000);
+
+        try {
+            long start = System.nanoTime();
+            DashboardDataDTO dashboard = statsService.getDashboardData();
+
+            assertTrue(System.nanoTime() - start < 2_000_000_000L);
+            assertEquals(List.of("gps"), dashboard.getDegradedSections());
+            assertTrue(dashboard.getRecentGPSData().isEmpty());
+            assertEquals(List.of(sample), dashboard.getRecentAccelerometerData());
+        } finally {
+            statsService.stop();
+        }
+    }
+
+    @Test
+    void degradedDashboardIsRefreshedBeforeItsTtl() throws Exception {
+        AccelerometerRepository accelerometerRepository = mock(AccelerometerRepository.class);
+        GPSRepository gpsRepository = mock(GPSRepository.class);
+        GyroscopeRepository gyroscopeRepository = mock(GyroscopeRepository.class);
+        DeviceActivityRepository deviceActivityRepository = mock(DeviceActivityRepository.class);
+        when(accelerometerRepository.findPointsAfter(any())).thenReturn(List.of());
+        when(gyroscopeRepository.findPointsAfter(any())).thenReturn(List.of());
+        when(deviceActivityRepository.findLatest(any(), anyInt(), anyInt())).thenReturn(List.of());
+        when(gpsRepository.findPointsAfter(any()))
+                .thenThrow(new IllegalStateException("base indisponible"))
+                .thenReturn(List.of());
+        StatsService statsService = new StatsService(accelerometerRepository, gpsRepository, gyroscopeRepository,
+                mock(StatsRegistry.class), new RecentSampleCache(10, 10), deviceActivityRepository, 5, 20, 4, 5000, 10,
+                new IngestVersions(), 60, 0);
+
+        try {
+            DashboardDataDTO degraded = statsService.getDashboardData();
+            assertEquals(List.of("gps"), degraded.getDegradedSections());
+
+            // Sans nouvelle ingestion, la lecture suivante déclenche déjà le recalcul
+            DashboardDataDTO refreshed = degraded;
+            for (int attempt = 0; attempt < 50 && refreshed == degraded; attempt++) {
+                Thread.sleep(20);
+                refreshed = statsService.getDashboardData();
+            }
+            assertTrue(refreshed.getDegradedSections().isEmpty());
+            verify(gpsRepository, times(2)).findPointsAfter(any());
+        } finally {
+            statsService.stop();
+        }
+    }
+
+    @Test
+    void concurrentDashboardReadsShareOneLoadAndRefreshAfterIngest() throws Exception {
+        AccelerometerRepository accelerometerRepository = mock(AccelerometerRepository.class);
+        GPSRepository gpsRepository = mock(GPSRepository.class);
+        GyroscopeRepository gyroscopeRepository = mock(GyroscopeRepository.class);
+        DeviceActivityRepository deviceActivityRepository = mock(DeviceActivityRepository.class);
+        CountDownLatch release = new CountDownLatch(1);
+        when(accelerometerRepository.findPointsAfter(any())).thenAnswer(invocation -> {
+            release.await();
+            return List.of();
+        });
+        when(gpsRepository.findPointsAfter(any())).thenReturn(List.of());
+        when(gyroscopeRepository.findPointsAfter(any())).thenReturn(List.of());
+        when(deviceActivityRepository.findLatest(any(), anyInt(), anyInt())).thenReturn(List.of());
+        IngestVersions ingestVersions = new IngestVersions();
+        StatsService statsService = new StatsService(accelerometerRepository, gpsRepository, gyroscopeRepository,
+                mock(StatsRegistry.class), new RecentSampleCache(10, 10), deviceActivityRepository, 5, 20, 4, 5000, 10,
+                ingestVersions, 60, 0);
+        ExecutorService clients = Executors.newFixedThreadPool(8);
+
+        try {
+            List<Future<DashboardDataDTO>> results = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                results.add(clients.submit(statsService::getDashboardData));
+            }
+            Thread.sleep(200);
+            release.countDown();
+            DashboardDataDTO first = results.get(0).get();
+            for (Future<DashboardDataDTO> result : results) {
+                assertSame(first, result.get());
+            }
+            verify(accelerometerRepository, times(1)).findPointsAfter(any());
+
+            // Après une ingestion, l'ancienne valeur est servie pendant le recalcul en arrière-plan
+            ingestVersions.recordAccelerometer(List.of("car-1"));
+            assertSame(first, statsService.getDashboardData());
+            DashboardDataDTO refreshed = first;
+            for (int attempt = 0; attempt < 50 && refreshed == first; attempt++) {
+                Thread.sleep(20);
+                refreshed = statsService.getDashboardData();
+            }
+            assertNotSame(first, refreshed);
+            verify(accelerometerRepository, times(2)).findPointsAfter(any());
+            assertEquals(1, statsService.getCacheStats().refreshes());
+            assertTrue(statsService.getCacheStats().hits() >= 8);
+        } finally {
+            clients.shutdownNow();
+            statsService.stop();
+        }
+    }
+}
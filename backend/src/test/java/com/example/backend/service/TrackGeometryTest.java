@@ -0,0 +1,44 @@
+package com.example.backend.service;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TrackGeometryTest {
+
+    @Test
+    void encodesGooglePolyline() {
+        // Exemple de la documentation de l'algorithme
+        String encoded = TrackGeometry.encodePolyline(new double[]{38.5, 40.7, 43.252},
+                new double[]{-120.2, -120.95, -126.453});
+        assertEquals("_p~iF~ps|U_ulLnnqC_mqNvxq`@", encoded);
+    }
+
+    @Test
+    void simplificationKeepsCornersAndDropsNoise() {
+        // Tracé en L avec un bruit latéral de 20 cm : seuls les extrémités et l'angle comptent au zoom 13
+        int n = 201;
+        double[] x = new double[n];
+        double[] y = new double[n];
+        for (int i = 0; i < n; i++) {
+            double noise = i % 2 == 0 ? 0.2 : -0.2;
+            x[i] = i <= 100 ? i * 10 : 1000 + noise;
+            y[i] = i <= 100 ? noise : (i - 100) * 10;
+        }
+        double tolerance = TrackGeometry.toleranceMeters(13, 1.0);
+        for (TrackSimplification simplification : TrackSimplification.values()) {
+            int[] kept = TrackGeometry.simplify(simplification, x, y, n, tolerance);
+            assertArrayEquals(new int[]{0, 100, 200}, kept, simplification.name());
+        }
+        // Au zoom maximal, le bruit dépasse la tolérance
+        assertEquals(n, TrackGeometry.simplify(TrackSimplification.DOUGLAS_PEUCKER, x, y, n,
+                TrackGeometry.toleranceMeters(22, 1.0)).length);
+    }
+
+    @Test
+    void quantizesToZoomPrecision() {
+        assertEquals(2, TrackGeometry.decimalsForZoom(5));
+        assertEquals(7, TrackGeometry.decimalsForZoom(22));
+        assertEquals(48.857, TrackGeometry.quantize(48.85661, 3), 1e-12);
+    }
+}
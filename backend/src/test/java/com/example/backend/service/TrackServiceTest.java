@@ -0,0 +1,88 @@
+package com.example.backend.service;
+
+import com.example.backend.dto.GPSTrackDTO;
+import com.example.backend.entity.GPSData;
+import com.example.backend.repository.GPSRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class TrackServiceTest {
+
+    private static final LocalDateTime T0 = LocalDateTime.of(2024, 5, 1, 9, 0);
+
+    @Autowired
+    private SensorDataService sensorDataService;
+
+    @Autowired
+    private TrackService trackService;
+
+    @Autowired
+    private GPSRepository gpsRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @AfterEach
+    void cleanUp() {
+        gpsRepository.deleteAll();
+    }
+
+    @Test
+    void simplifiesStraightTrackAndInvalidatesOnIngest() {
+        List<GPSData> points = new ArrayList<>();
+        for (int i = 0; i < 500; i++) {
+            points.add(new GPSData(48.0 + i * 1e-4, 2.0, 35, 30, "car-track", T0.plusSeconds(i)));
+        }
+        sensorDataService.saveGPSBatch(points);
+
+        GPSTrackDTO track = trackService.getTrack("car-track", T0, T0.plusHours(1), 13,
+                TrackSimplification.DOUGLAS_PEUCKER, TrackEncoding.GEOJSON);
+        assertEquals(500, track.sourcePoints());
+        assertEquals(2, track.pointCount());
+        assertNull(track.polyline());
+        assertEquals("LineString", track.geometry().type());
+        assertArrayEquals(new double[]{2.0, 48.0}, track.geometry().coordinates()[0]);
+
+        // Un détour ajouté dans la période remplace le tracé en cache
+        sensorDataService.saveGPSData(new GPSData(48.1, 2.1, 35, 30, "car-track", T0.plusSeconds(600)));
+        GPSTrackDTO updated = trackService.getTrack("car-track", T0, T0.plusHours(1), 13,
+                TrackSimplification.DOUGLAS_PEUCKER, TrackEncoding.POLYLINE);
+        assertEquals(501, updated.sourcePoints());
+        assertEquals(3, updated.pointCount());
+        assertNotNull(updated.polyline());
+        assertEquals(T0.plusSeconds(600), updated.end());
+    }
+
+    @Test
+    void longPeriodIsTruncatedAtMaxSourcePoints() {
+        List<GPSData> points = new ArrayList<>();
+        for (int i = 0; i < 150; i++) {
+            points.add(new GPSData(48.0 + i * 1e-4, 2.0, 35, 30, "car-long", T0.plusSeconds(i)));
+        }
+        sensorDataService.saveGPSBatch(points);
+        TrackService limited = new TrackService(gpsRepository, transactionManager, 1.0, 100, 16);
+
+        GPSTrackDTO track = limited.getTrack("car-long", T0, T0.plusHours(1), 13,
+                TrackSimplification.DOUGLAS_PEUCKER, TrackEncoding.GEOJSON);
+        assertTrue(track.truncated());
+        assertEquals(100, track.sourcePoints());
+        assertEquals(T0.plusSeconds(99), track.end());
+
+        GPSTrackDTO complete = trackService.getTrack("car-long", T0, T0.plusHours(1), 13,
+                TrackSimplification.DOUGLAS_PEUCKER, TrackEncoding.GEOJSON);
+        assertFalse(complete.truncated());
+        assertEquals(150, complete.sourcePoints());
+    }
+}
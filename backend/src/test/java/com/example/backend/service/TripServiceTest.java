@@ -0,0 +1,87 @@
+package com.example.backend.service;
+
+import com.example.backend.entity.GPSData;
+import com.example.backend.entity.Trip;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class TripServiceTest {
+
+    private static final LocalDateTime T0 = LocalDateTime.of(2024, 5, 1, 8, 0);
+    // ~100 m vers le nord
+    private static final double STEP_LATITUDE = 100 / 111_195.0;
+
+    @Autowired
+    private SensorDataService sensorDataService;
+
+    @Autowired
+    private TripService tripService;
+
+    @Test
+    void segmentsStreamIntoTripsOnIdleTime() {
+        List<GPSData> points = new ArrayList<>();
+        // Arrêt, 2 min à 36 km/h, arrêt prolongé puis un second départ
+        addStops(points, "car-trip", T0, 48.0, 3);
+        addDrive(points, "car-trip", T0.plusSeconds(30), 48.0, 12);
+        addStops(points, "car-trip", T0.plusSeconds(160), 48.0 + 12 * STEP_LATITUDE, 40);
+        addDrive(points, "car-trip", T0.plusMinutes(20), 48.1, 10);
+        // Envois fractionnés : la segmentation se poursuit d'un lot à l'autre
+        sensorDataService.saveGPSBatch(points.subList(0, 10));
+        sensorDataService.saveGPSBatch(points.subList(10, points.size()));
+        tripService.flush();
+
+        List<Trip> trips = tripService.getTrips("car-trip", T0, T0.plusHours(1), 10);
+        assertEquals(2, trips.size());
+
+        Trip current = trips.get(0);
+        assertTrue(current.isActive());
+        assertEquals(T0.plusMinutes(20), current.getStartTime());
+
+        Trip first = trips.get(1);
+        assertFalse(first.isActive());
+        // Départ au dernier point à l'arrêt, arrivée au dernier point en mouvement
+        assertEquals(T0.plusSeconds(20), first.getStartTime());
+        assertEquals(T0.plusSeconds(140), first.getEndTime());
+        assertEquals(120, first.getDurationSeconds());
+        assertEquals(1200, first.getDistanceMeters(), 1);
+        assertEquals(36, first.getAvgSpeed(), 0.1);
+        assertEquals(36, first.getMaxSpeed(), 1e-3);
+        assertEquals(13, first.getPointCount());
+    }
+
+    @Test
+    void dropsMovesBelowMinimumDistance() {
+        List<GPSData> points = new ArrayList<>();
+        addStops(points, "car-trip-short", T0, 45.0, 2);
+        addDrive(points, "car-trip-short", T0.plusSeconds(20), 45.0, 1);
+        addStops(points, "car-trip-short", T0.plusMinutes(10), 45.0 + STEP_LATITUDE, 2);
+        sensorDataService.saveGPSBatch(points);
+        tripService.flush();
+
+        assertTrue(tripService.getTrips("car-trip-short", T0, T0.plusHours(1), 10).isEmpty());
+    }
+
+    private static void addStops(List<GPSData> points, String deviceId, LocalDateTime from, double latitude,
+                                 int count) {
+        for (int i = 0; i < count; i++) {
+            points.add(new GPSData(latitude, 2.0, 35, 0, deviceId, from.plusSeconds(10L * i)));
+        }
+    }
+
+    private static void addDrive(List<GPSData> points, String deviceId, LocalDateTime from, double latitude,
+                                 int count) {
+        for (int i = 1; i <= count; i++) {
+            points.add(new GPSData(latitude + i * STEP_LATITUDE, 2.0, 35, 36, deviceId, from.plusSeconds(10L * (i - 1))));
+        }
+    }
+}
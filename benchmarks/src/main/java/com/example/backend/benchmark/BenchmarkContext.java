@@ -0,0 +1,82 @@
+package com.example.backend.benchmark;
+
+import com.example.backend.BackendApplication;
+import com.example.backend.entity.AccelerometerData;
+import com.example.backend.entity.GPSData;
+import com.example.backend.entity.GyroscopeData;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+// Démarre le contexte Spring du backend sur une base H2 embarquée, sans serveur web par défaut
+final class BenchmarkContext {
+
+    private static final String[] EMBEDDED_DATABASE = {
+            "--spring.datasource.url=jdbc:h2:mem:bench;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+            "--spring.datasource.username=sa",
+            "--spring.datasource.password=",
+            "--spring.datasource.driver-class-name=org.h2.Driver",
+            "--spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+            "--spring.jpa.show-sql=false",
+            "--spring.jpa.properties.hibernate.format_sql=false",
+            "--spring.main.banner-mode=off",
+            "--logging.level.root=WARN"};
+
+    private BenchmarkContext() {
+    }
+
+    // extraArgs s'ajoutent à la base embarquée
+    static ConfigurableApplicationContext start(String... extraArgs) {
+        List<String> args = new ArrayList<>(List.of(EMBEDDED_DATABASE));
+        args.addAll(List.of(extraArgs));
+        return new SpringApplicationBuilder(BackendApplication.class)
+                .web(WebApplicationType.NONE)
+                // Arguments de ligne de commande : prioritaires sur application.properties
+                .run(args.toArray(String[]::new));
+    }
+
+    // Avec le serveur Tomcat sur un port libre ; extraArgs s'ajoutent à la base embarquée
+    static ConfigurableApplicationContext startServer(String... extraArgs) {
+        List<String> args = new ArrayList<>(List.of(EMBEDDED_DATABASE));
+        args.add("--server.port=0");
+        args.addAll(List.of(extraArgs));
+        return new SpringApplicationBuilder(BackendApplication.class)
+                .web(WebApplicationType.SERVLET)
+                .run(args.toArray(String[]::new));
+    }
+
+    static List<AccelerometerData> accelerometer(String deviceId, int count, LocalDateTime start) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        List<AccelerometerData> samples = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            samples.add(new AccelerometerData(random.nextFloat(), random.nextFloat(), 9.81f + random.nextFloat(),
+                    deviceId, start.plusNanos(i * 20_000_000L)));
+        }
+        return samples;
+    }
+
+    static List<GyroscopeData> gyroscope(String deviceId, int count, LocalDateTime start) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        List<GyroscopeData> samples = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            samples.add(new GyroscopeData(random.nextFloat(), random.nextFloat(), random.nextFloat(),
+                    deviceId, start.plusNanos(i * 20_000_000L)));
+        }
+        return samples;
+    }
+
+    static List<GPSData> gps(String deviceId, int count, LocalDateTime start) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        List<GPSData> samples = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            samples.add(new GPSData(48.85 + random.nextDouble() / 100, 2.35 + random.nextDouble() / 100,
+                    35 + random.nextDouble(), random.nextFloat() * 30, deviceId, start.plusSeconds(i)));
+        }
+        return samples;
+    }
+}
@@ -0,0 +1,69 @@
+package com.example.backend.benchmark;
+
+import com.example.backend.dto.AccelerometerPointDTO;
+import com.example.backend.dto.DashboardDataDTO;
+import com.example.backend.dto.GPSPointDTO;
+import com.example.backend.dto.GyroscopePointDTO;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.concurrent.TimeUnit;
+
+// Coût de sérialisation JSON du tableau de bord selon la taille des listes recent*
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class DashboardSerializationBenchmark {
+
+    @Param({"1000", "10000", "100000"})
+    public int samples;
+
+    // Même configuration Jackson que celle appliquée par Spring Boot aux réponses
+    private final ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+    private DashboardDataDTO dashboardData;
+
+    @Setup(Level.Trial)
+    public void prepareDashboard() {
+        LocalDateTime start = LocalDateTime.now().minusHours(12);
+        dashboardData = new DashboardDataDTO();
+        dashboardData.setActiveDevices(1);
+        dashboardData.setTotalGPSPoints(samples);
+        dashboardData.setTotalAccelerometerReadings(samples);
+        dashboardData.setTotalGyroscopeReadings(samples);
+        dashboardData.setRecentGPSData(BenchmarkContext.gps("bench-device", samples, start).stream()
+                .map(data -> new GPSPointDTO(data.getDeviceId(), data.getTimestamp(), data.getLatitude(),
+                        data.getLongitude(), data.getAltitude(), data.getSpeed()))
+                .toList());
+        dashboardData.setRecentAccelerometerData(BenchmarkContext.accelerometer("bench-device", samples, start).stream()
+                .map(data -> new AccelerometerPointDTO(data.getDeviceId(), data.getTimestamp(),
+                        data.getX(), data.getY(), data.getZ()))
+                .toList());
+        dashboardData.setRecentGyroscopeData(BenchmarkContext.gyroscope("bench-device", samples, start).stream()
+                .map(data -> new GyroscopePointDTO(data.getDeviceId(), data.getTimestamp(),
+                        data.getRotationX(), data.getRotationY(), data.getRotationZ()))
+                .toList());
+        dashboardData.setDeviceActivities(new ArrayList<>());
+    }
+
+    @Benchmark
+    public byte[] serialize() throws Exception {
+        return objectMapper.writeValueAsBytes(dashboardData);
+    }
+}
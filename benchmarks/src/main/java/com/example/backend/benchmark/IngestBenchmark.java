@@ -0,0 +1,77 @@
+package com.example.backend.benchmark;
+
+import com.example.backend.entity.AccelerometerData;
+import com.example.backend.service.SensorDataService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Débit d'insertion : un save par échantillon contre un lot inséré en une transaction
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class IngestBenchmark {
+
+    private static final int SAMPLES = 500;
+
+    @Param({"50", "500"})
+    public int batchSize;
+
+    private ConfigurableApplicationContext context;
+    private SensorDataService sensorDataService;
+    private List<AccelerometerData> samples;
+
+    @Setup(Level.Trial)
+    public void startContext() {
+        context = BenchmarkContext.start();
+        sensorDataService = context.getBean(SensorDataService.class);
+    }
+
+    // Entités neuves à chaque invocation : un id déjà attribué transformerait l'insert en merge
+    @Setup(Level.Invocation)
+    public void prepareSamples() {
+        samples = BenchmarkContext.accelerometer("bench-ingest", SAMPLES, LocalDateTime.now());
+    }
+
+    @TearDown(Level.Trial)
+    public void stopContext() {
+        context.close();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(SAMPLES)
+    public void singleSaves(Blackhole blackhole) {
+        for (AccelerometerData data : samples) {
+            blackhole.consume(sensorDataService.saveAccelerometerData(data));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(SAMPLES)
+    public void batchedSaves(Blackhole blackhole) {
+        for (int from = 0; from < SAMPLES; from += batchSize) {
+            List<AccelerometerData> batch = samples.subList(from, Math.min(from + batchSize, SAMPLES));
+            blackhole.consume(sensorDataService.saveAccelerometerBatch(batch));
+        }
+    }
+}
@@ -0,0 +1,177 @@
+package com.example.backend.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.SequenceInputStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Charge HTTP d'ingestion : threads Tomcat classiques contre threads virtuels (Java 21, profil java21).
+// clients requêtes en vol en permanence, chacune envoyant un lot dont le corps marque une pause
+// (liaison mobile lente) : un thread classique reste bloqué pendant la pause, un thread virtuel non.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 10)
+@Measurement(iterations = 5, time = 10)
+@Fork(1)
+public class RequestThreadsBenchmark {
+
+    private static final int REQUESTS = 2000;
+    private static final int SAMPLES_PER_REQUEST = 50;
+    private static final int DEVICES = 500;
+
+    @Param({"platform", "virtual"})
+    public String threads;
+
+    @Param({"200", "2000"})
+    public int clients;
+
+    @Param({"0", "100"})
+    public int uploadPauseMs;
+
+    private ConfigurableApplicationContext context;
+    private ExecutorService clientExecutor;
+    private HttpClient http;
+    private URI uri;
+    private List<byte[]> bodies;
+
+    // Réponses de l'itération : 201 enregistrées, 503 refusées par le limiteur, autres erreurs
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    @State(Scope.Thread)
+    public static class Responses {
+        public long created;
+        public long rejected;
+        public long failed;
+    }
+
+    @Setup(Level.Trial)
+    public void startServer() throws IOException {
+        boolean virtual = "virtual".equals(threads);
+        if (virtual && Runtime.version().feature() < 21) {
+            // Spring ignorerait la propriété : la comparaison serait faussée
+            throw new IllegalStateException("Threads virtuels : Java 21 requis (mvn -Pjava21 install)");
+        }
+        context = BenchmarkContext.startServer(
+                "--spring.threads.virtual.enabled=" + virtual,
+                "--db.concurrency-limit.enabled=" + virtual);
+        int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+        uri = URI.create("http://localhost:" + port + "/api/sensor/accelerometer/batch");
+        // Le client lit les corps (et leurs pauses) sur ses propres threads
+        clientExecutor = Executors.newCachedThreadPool();
+        http = HttpClient.newBuilder().executor(clientExecutor).build();
+        ObjectMapper mapper = context.getBean(ObjectMapper.class);
+        bodies = new ArrayList<>(DEVICES);
+        LocalDateTime start = LocalDateTime.now();
+        for (int i = 0; i < DEVICES; i++) {
+            bodies.add(mapper.writeValueAsBytes(
+                    BenchmarkContext.accelerometer("bench-http-" + i, SAMPLES_PER_REQUEST, start)));
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void stopServer() {
+        clientExecutor.shutdownNow();
+        context.close();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(REQUESTS)
+    public void ingest(Responses responses) throws InterruptedException {
+        Semaphore inFlight = new Semaphore(clients);
+        AtomicLong created = new AtomicLong();
+        AtomicLong rejected = new AtomicLong();
+        AtomicLong failed = new AtomicLong();
+        CompletableFuture<?>[] requests = new CompletableFuture<?>[REQUESTS];
+        for (int i = 0; i < REQUESTS; i++) {
+            inFlight.acquire();
+            byte[] body = bodies.get(i % DEVICES);
+            HttpRequest request = HttpRequest.newBuilder(uri)
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofInputStream(() -> slowBody(body)))
+                    .build();
+            requests[i] = http.sendAsync(request, HttpResponse.BodyHandlers.discarding())
+                    .whenComplete((response, error) -> {
+                        inFlight.release();
+                        if (error != null) {
+                            failed.incrementAndGet();
+                        } else if (response.statusCode() == 201) {
+                            created.incrementAndGet();
+                        } else if (response.statusCode() == 503) {
+                            rejected.incrementAndGet();
+                        } else {
+                            failed.incrementAndGet();
+                        }
+                    });
+        }
+        CompletableFuture.allOf(requests).exceptionally(error -> null).join();
+        responses.created += created.get();
+        responses.rejected += rejected.get();
+        responses.failed += failed.get();
+    }
+
+    // Première moitié du corps, pause, puis le reste
+    private InputStream slowBody(byte[] body) {
+        int half = body.length / 2;
+        InputStream first = new ByteArrayInputStream(Arrays.copyOfRange(body, 0, half));
+        InputStream rest = new ByteArrayInputStream(body, half, body.length - half) {
+            private boolean paused;
+
+            @Override
+            public synchronized int read(byte[] buffer, int offset, int length) {
+                pause();
+                return super.read(buffer, offset, length);
+            }
+
+            @Override
+            public synchronized int read() {
+                pause();
+                return super.read();
+            }
+
+            private void pause() {
+                if (!paused && uploadPauseMs > 0) {
+                    paused = true;
+                    try {
+                        Thread.sleep(uploadPauseMs);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                }
+            }
+        };
+        return new SequenceInputStream(first, rest);
+    }
+}
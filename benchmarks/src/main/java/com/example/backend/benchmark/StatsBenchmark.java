@@ -0,0 +1,83 @@
+package com.example.backend.benchmark;
+
+import com.example.backend.dto.DashboardDataDTO;
+import com.example.backend.dto.DeviceActivityDTO;
+import com.example.backend.dto.StatsSummaryDTO;
+import com.example.backend.service.SensorDataService;
+import com.example.backend.service.StatsService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Latence du résumé, du tableau de bord et du fil d'activité sur une base pré-remplie (dernières 24h).
+// cached=false : cache des statistiques expiré dès l'écriture, chaque appel mesure le calcul complet ;
+// cached=true : sans ingestion pendant la mesure, seuls des accès au cache sont mesurés
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class StatsBenchmark {
+
+    @Param({"10"})
+    public int devices;
+
+    @Param({"1000"})
+    public int samplesPerDevice;
+
+    @Param({"true", "false"})
+    public boolean cached;
+
+    private ConfigurableApplicationContext context;
+    private StatsService statsService;
+
+    @Setup(Level.Trial)
+    public void startContext() {
+        context = cached ? BenchmarkContext.start() : BenchmarkContext.start("--stats.cache.ttl-seconds=0");
+        statsService = context.getBean(StatsService.class);
+        SensorDataService sensorDataService = context.getBean(SensorDataService.class);
+        LocalDateTime start = LocalDateTime.now().minusHours(12);
+        for (int i = 0; i < devices; i++) {
+            String deviceId = "bench-device-" + i;
+            sensorDataService.saveAccelerometerBatch(BenchmarkContext.accelerometer(deviceId, samplesPerDevice, start));
+            sensorDataService.saveGyroscopeBatch(BenchmarkContext.gyroscope(deviceId, samplesPerDevice, start));
+            sensorDataService.saveGPSBatch(BenchmarkContext.gps(deviceId, samplesPerDevice, start));
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void stopContext() {
+        context.close();
+    }
+
+    @Benchmark
+    public StatsSummaryDTO statsSummary() {
+        return statsService.getStatsSummary();
+    }
+
+    @Benchmark
+    public DashboardDataDTO dashboardData() {
+        return statsService.getDashboardData();
+    }
+
+    @Benchmark
+    public List<DeviceActivityDTO> deviceActivities() {
+        return statsService.getDeviceActivities(LocalDateTime.now().minusDays(1));
+    }
+}
@@ -1,25 +1,61 @@
 import api from './api';
 
+// Lectures paginées par le serveur : taille de page maximale acceptée (sensor.query.max-page-size)
+// et plafond de lignes chargées dans le navigateur pour une même plage
+const PAGE_SIZE = 10000;
+const MAX_ROWS = 100000;
+
+// Suit l'en-tête X-Next-Cursor jusqu'à la dernière page ; au-delà de maxRows, s'arrête et
+// signale truncated pour que l'interface indique que la plage n'est pas entièrement affichée
+const fetchAllPages = async (url, params = {}, maxRows = MAX_ROWS) => {
+  let data = [];
+  let cursor;
+  do {
+    const response = await api.get(url, { params: { ...params, limit: PAGE_SIZE, cursor } });
+    data = data.concat(response.data);
+    cursor = response.headers['x-next-cursor'];
+  } while (cursor && data.length < maxRows);
+  return { data: data.slice(0, maxRows), truncated: Boolean(cursor) };
+};
+
 // Service pour accéder aux données des capteurs
 const SensorDataService = {
   // Accéléromètre
   getAccelerometerData: (params) => api.get('/sensor/accelerometer', { params }),
   getAccelerometerDataByDeviceId: (deviceId, params) => api.get(`/sensor/accelerometer/${deviceId}`, { params }),
+  // Toutes les pages de la plage : { data, truncated }
+  getAllAccelerometerDataByDeviceId: (deviceId, params) => fetchAllPages(`/sensor/accelerometer/${deviceId}`, params),
   
   // GPS
   getGPSData: (params) => api.get('/sensor/gps', { params }),
   getGPSDataByDeviceId: (deviceId, params) => api.get(`/sensor/gps/${deviceId}`, { params }),
+  getAllGPSDataByDeviceId: (deviceId, params) => fetchAllPages(`/sensor/gps/${deviceId}`, params),
+  // Tracé simplifié pour la carte : params { startDate, endDate, zoom, simplify: 'dp' | 'vw', format: 'polyline' | 'geojson' }
+  getGPSTrack: (deviceId, params) => api.get(`/sensor/gps/${deviceId}/track`, { params }),
   
   // Gyroscope
   getGyroscopeData: (params) => api.get('/sensor/gyroscope', { params }),
   getGyroscopeDataByDeviceId: (deviceId, params) => api.get(`/sensor/gyroscope/${deviceId}`, { params }),
-  
+  getAllGyroscopeDataByDeviceId: (deviceId, params) => fetchAllPages(`/sensor/gyroscope/${deviceId}`, params),
+
+  // Vue fusionnée accéléromètre / gyroscope / GPS alignée : params { startDate, endDate, rate } (trames par seconde) ;
+  // startDate et endDate obligatoires, 24h au plus (fusion.max-range-hours)
+  getFusedData: (deviceId, params) => api.get(`/sensor/fused/${deviceId}`, { params }),
+
   // Statistiques
   getStatsSummary: () => api.get('/stats/summary'),
   getDeviceList: () => api.get('/stats/devices'),
   
   // Données agrégées pour le tableau de bord
   getDashboardData: () => api.get('/stats/dashboard'),
+
+  // Flux en direct (SSE) : onSamples reçoit chaque lot d'échantillons ; retourne la fonction de désabonnement
+  subscribeLive: (sensorType, deviceId, onSamples) => {
+    const path = deviceId ? `/live/${sensorType}/${deviceId}` : `/live/${sensorType}`;
+    const source = new EventSource(`${api.defaults.baseURL}${path}`);
+    source.addEventListener(sensorType, (event) => onSamples(JSON.parse(event.data)));
+    return () => source.close();
+  },
 };
 
 export default SensorDataService;
\ No newline at end of file
@@ -1,8 +1,10 @@
-import React from 'react';
+import React, { useEffect, useState } from 'react';
 import { MapContainer, TileLayer, Marker, Popup, Polyline } from 'react-leaflet';
 import 'leaflet/dist/leaflet.css';
 import { Icon } from 'leaflet';
 import { format } from 'date-fns';
+import SensorDataService from '../../api/sensorDataService';
+import { decodePolyline } from '../../utils/geoUtils';
 
 // Correction de l'icône Leaflet
 import markerIcon from 'leaflet/dist/images/marker-icon.png';
@@ -15,57 +17,94 @@ const defaultIcon = new Icon({
   iconAnchor: [12, 41],
 });
 
-const GPSMap = ({ gpsData }) => {
+const TRACK_ZOOM = 13;
+
+// Avec deviceId, le tracé est le tracé simplifié servi par /sensor/gps/{deviceId}/track pour la période
+// (startDate, endDate) au lieu de la ligne passant par chaque point de gpsData
+const GPSMap = ({ gpsData, deviceId, startDate, endDate }) => {
+  const [track, setTrack] = useState(null);
+  const [truncated, setTruncated] = useState(false);
+
+  useEffect(() => {
+    if (!deviceId) {
+      setTrack(null);
+      return undefined;
+    }
+    let cancelled = false;
+    SensorDataService.getGPSTrack(deviceId, { startDate, endDate, zoom: TRACK_ZOOM })
+      .then((response) => {
+        if (!cancelled) {
+          setTrack(decodePolyline(response.data.polyline || ''));
+          setTruncated(response.headers['x-track-truncated'] === 'true');
+        }
+      })
+      .catch((err) => {
+        console.error(err);
+        if (!cancelled) {
+          setTrack([]);
+        }
+      });
+    return () => {
+      cancelled = true;
+    };
+  }, [deviceId, startDate, endDate]);
+
+  // Créer un tableau de points pour la ligne de tracé ; pas de marqueur par point sur un tracé simplifié
+  const points = track ? [] : gpsData || [];
+  const polylinePositions = track || points.map(point => [point.latitude, point.longitude]);
+
   // Si aucune donnée, afficher un message
-  if (!gpsData || gpsData.length === 0) {
+  if (polylinePositions.length === 0) {
     return <div>Aucune donnée GPS disponible</div>;
   }
 
   // Calculer le centre de la carte (première position GPS)
-  const center = [gpsData[0].latitude, gpsData[0].longitude];
-  
-  // Créer un tableau de points pour la ligne de tracé
-  const polylinePositions = gpsData.map(point => [point.latitude, point.longitude]);
+  const center = polylinePositions[0];
 
   return (
-    <MapContainer 
-      center={center} 
-      zoom={13} 
-      style={{ height: '100%', width: '100%' }}
-    >
-      <TileLayer
-        url="https://{s}.tile.openstreetmap.org/{z}/{x}/{y}.png"
-        attribution='&copy; <a href="https://www.openstreetmap.org/copyright">OpenStreetMap</a> contributors'
-      />
+    <>
+      {truncated && (
+        <div>Période trop longue : seul le début du tracé est affiché</div>
+      )}
+      <MapContainer 
+        center={center} 
+        zoom={TRACK_ZOOM} 
+        style={{ height: '100%', width: '100%' }}
+      >
+        <TileLayer
+          url="https://{s}.tile.openstreetmap.org/{z}/{x}/{y}.png"
+          attribution='&copy; <a href="https://www.openstreetmap.org/copyright">OpenStreetMap</a> contributors'
+        />
       
-      {/* Ligne de tracé */}
-      <Polyline 
-        positions={polylinePositions} 
-        color="#2196f3" 
-        weight={3} 
-        opacity={0.7} 
-      />
+        {/* Ligne de tracé */}
+        <Polyline 
+          positions={polylinePositions} 
+          color="#2196f3" 
+          weight={3} 
+          opacity={0.7} 
+        />
       
-      {/* Points GPS */}
-      {gpsData.map((point, index) => (
-        <Marker 
-          key={index} 
-          position={[point.latitude, point.longitude]} 
-          icon={defaultIcon}
-        >
-          <Popup>
-            <div>
-              <p><strong>Device ID:</strong> {point.deviceId}</p>
-              <p><strong>Latitude:</strong> {point.latitude}</p>
-              <p><strong>Longitude:</strong> {point.longitude}</p>
-              <p><strong>Altitude:</strong> {point.altitude} m</p>
-              <p><strong>Vitesse:</strong> {point.speed} km/h</p>
-              <p><strong>Date:</strong> {format(new Date(point.timestamp), 'dd/MM/yyyy HH:mm:ss')}</p>
-            </div>
-          </Popup>
-        </Marker>
-      ))}
-    </MapContainer>
+        {/* Points GPS */}
+        {points.map((point, index) => (
+          <Marker 
+            key={index} 
+            position={[point.latitude, point.longitude]} 
+            icon={defaultIcon}
+          >
+            <Popup>
+              <div>
+                <p><strong>Device ID:</strong> {point.deviceId}</p>
+                <p><strong>Latitude:</strong> {point.latitude}</p>
+                <p><strong>Longitude:</strong> {point.longitude}</p>
+                <p><strong>Altitude:</strong> {point.altitude} m</p>
+                <p><strong>Vitesse:</strong> {point.speed} km/h</p>
+                <p><strong>Date:</strong> {format(new Date(point.timestamp), 'dd/MM/yyyy HH:mm:ss')}</p>
+              </div>
+            </Popup>
+          </Marker>
+        ))}
+      </MapContainer>
+    </>
   );
 };
 
@@ -13,6 +13,8 @@ const useSensorData = (dataType = 'accelerometer', carId) => {
   const [data, setData] = useState([]);
   const [loading, setLoading] = useState(false);
   const [error, setError] = useState(null);
+  // Plage plus longue que le plafond de lignes chargées : seules les premières sont affichées
+  const [truncated, setTruncated] = useState(false);
   const [timeRange, setTimeRange] = useState('today');
   const [customDateRange, setCustomDateRange] = useState({
     startDate: new Date(new Date().setHours(0,0,0,0)).toISOString().split('T')[0],
@@ -45,19 +47,20 @@ const useSensorData = (dataType = 'accelerometer', carId) => {
       let response;
       switch (dataType) {
         case 'accelerometer':
-          response = await SensorDataService.getAccelerometerDataByDeviceId(carId, params);
+          response = await SensorDataService.getAllAccelerometerDataByDeviceId(carId, params);
           break;
         case 'gyroscope':
-          response = await SensorDataService.getGyroscopeDataByDeviceId(carId, params);
+          response = await SensorDataService.getAllGyroscopeDataByDeviceId(carId, params);
           break;
         case 'gps':
-          response = await SensorDataService.getGPSDataByDeviceId(carId, params);
+          response = await SensorDataService.getAllGPSDataByDeviceId(carId, params);
           break;
         default:
           throw new Error(`Type de données non pris en charge: ${dataType}`);
       }
       
       setData(response.data);
+      setTruncated(response.truncated);
     } catch (err) {
       console.error(`Erreur lors de la récupération des données ${dataType}:`, err);
       setError(`Erreur lors du chargement des données: ${err.message}`);
@@ -190,6 +193,7 @@ const useSensorData = (dataType = 'accelerometer', carId) => {
     data,
     loading,
     error,
+    truncated,
     timeRange,
     customDateRange,
     fetchData,
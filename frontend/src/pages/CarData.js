@@ -59,39 +59,30 @@ import {
 import CarService from '../api/carService';
 import SensorDataService from '../api/sensorDataService';
 import GPSMap from '../components/maps/GPSMap';
+import { getDateRangeFromPeriod } from '../utils/dateUtils';
 
-// Générer des données simulées pour les capteurs
-const generateSensorData = (count, type) => {
-  let data = [];
-  const now = new Date();
+// Durée maximale d'une vue fusionnée (fusion.max-range-hours côté serveur) et trames demandées par graphique
+const FUSED_MAX_RANGE_MS = 24 * 60 * 60 * 1000;
+const FUSED_TARGET_FRAMES = 1000;
+
+// Convertit les colonnes de la vue fusionnée en échantillons du capteur affiché ; trames sans valeur écartées
+const fusedToSensorData = (fused, type) => {
+  const data = [];
+  const start = new Date(fused.start).getTime();
+  const periodMs = fused.periodMicros / 1000;
   
-  for (let i = 0; i < count; i++) {
-    // Date allant de maintenant à x jours en arrière
-    const date = new Date(now.getTime() - (count - i) * 15 * 60000); // 15 minutes d'intervalle
+  for (let i = 0; i < fused.frameCount; i++) {
+    const timestamp = new Date(start + i * periodMs).toISOString();
     
-    if (type === 'accelerometer') {
-      data.push({
-        timestamp: date.toISOString(),
-        x: Math.sin(i / 5) * 3 + Math.random() * 2 - 1,
-        y: Math.cos(i / 5) * 2 + Math.random() * 2 - 1,
-        z: Math.sin(i / 3) * 1.5 + Math.random() * 2 - 1
-      });
-    } else if (type === 'gyroscope') {
-      data.push({
-        timestamp: date.toISOString(),
-        rotationX: Math.sin(i / 10) * 4 + Math.random() * 2 - 1,
-        rotationY: Math.cos(i / 8) * 5 + Math.random() * 2 - 1,
-        rotationZ: Math.sin(i / 6) * 3 + Math.random() * 2 - 1
-      });
-    } else if (type === 'gps') {
-      // Coordonnées centrées autour de Marrakech avec de petites variations
-      data.push({
-        timestamp: date.toISOString(),
-        latitude: 31.63 + Math.sin(i / 20) * 0.05 + Math.random() * 0.02 - 0.01,
-        longitude: -8.01 + Math.cos(i / 15) * 0.05 + Math.random() * 0.02 - 0.01,
-        altitude: 450 + Math.sin(i / 10) * 20 + Math.random() * 10 - 5,
-        speed: 30 + Math.sin(i / 8) * 20 + Math.random() * 10
-      });
+    if (type === 'accelerometer' && fused.accelerometer && fused.accelerometer.x[i] != null) {
+      const { x, y, z } = fused.accelerometer;
+      data.push({ timestamp, x: x[i], y: y[i], z: z[i] });
+    } else if (type === 'gyroscope' && fused.gyroscope && fused.gyroscope.x[i] != null) {
+      const { x, y, z } = fused.gyroscope;
+      data.push({ timestamp, rotationX: x[i], rotationY: y[i], rotationZ: z[i] });
+    } else if (type === 'gps' && fused.gps && fused.gps.latitude[i] != null) {
+      const { latitude, longitude, altitude, speed } = fused.gps;
+      data.push({ timestamp, latitude: latitude[i], longitude: longitude[i], altitude: altitude[i], speed: speed[i] });
     }
   }
   
@@ -120,6 +111,7 @@ const CarData = () => {
     endDate: new Date().toISOString().split('T')[0]
   });
   const [sensorData, setSensorData] = useState([]);
+  const [rangeClamped, setRangeClamped] = useState(false);
   const [isLoadingData, setIsLoadingData] = useState(false);
   const [error, setError] = useState(null);
   const [successMessage, setSuccessMessage] = useState('');
@@ -142,16 +134,22 @@ const CarData = () => {
     setIsLoadingData(true);
     
     try {
-      // En réalité, nous ferions un appel API ici
-      // const params = { startDate, endDate, ...autres filtres };
-      // const response = await SensorDataService.getSensorData(carId, dataType, params);
-      
-      // Simuler un délai réseau
-      await new Promise(resolve => setTimeout(resolve, 1000));
+      // Vue fusionnée sur au plus les dernières 24h de la période, jamais au-delà de maintenant
+      const { start, end } = getSelectedPeriod();
+      const to = Math.min(end.getTime(), Date.now());
+      const from = Math.max(start.getTime(), to - FUSED_MAX_RANGE_MS);
+      setRangeClamped(from > start.getTime());
       
-      // Générer des données simulées selon le type
-      const mockData = generateSensorData(100, dataType);
-      setSensorData(mockData);
+      if (!car.deviceId || from >= to) {
+        setSensorData([]);
+      } else {
+        const response = await SensorDataService.getFusedData(car.deviceId, {
+          startDate: new Date(from).toISOString(),
+          endDate: new Date(to).toISOString(),
+          rate: FUSED_TARGET_FRAMES * 1000 / (to - from)
+        });
+        setSensorData(fusedToSensorData(response.data, dataType));
+      }
       
       setIsLoadingData(false);
     } catch (err) {
@@ -171,6 +169,23 @@ const CarData = () => {
     }
   }, [car, dataType, timeRange]);
   
+  // Période sélectionnée [start, end) ; une date de fin personnalisée couvre toute la journée
+  const getSelectedPeriod = () => {
+    if (timeRange === 'custom') {
+      const end = new Date(`${customDateRange.endDate}T00:00:00`);
+      end.setDate(end.getDate() + 1);
+      return { start: new Date(`${customDateRange.startDate}T00:00:00`), end };
+    }
+    const { startDate, endDate } = getDateRangeFromPeriod(timeRange);
+    return { start: startDate, end: endDate };
+  };
+  
+  // Période sélectionnée, au format attendu par l'API
+  const getSelectedRange = () => {
+    const { start, end } = getSelectedPeriod();
+    return { startDate: start.toISOString(), endDate: end.toISOString() };
+  };
+  
   const handleDataTypeChange = (event, newValue) => {
     setDataType(newValue);
   };
@@ -284,7 +299,7 @@ const CarData = () => {
             </Grid>
             <Grid item xs={12}>
               <Box sx={{ height: 400, width: '100%', border: '1px solid #eee', borderRadius: 1 }}>
-                <GPSMap gpsData={sensorData} />
+                <GPSMap gpsData={sensorData} deviceId={car.deviceId} {...getSelectedRange()} />
               </Box>
             </Grid>
           </Grid>
@@ -785,6 +800,12 @@ const CarData = () => {
           {dataType === 'gps' && 'Données GPS et trajet'}
         </Typography>
         
+        {rangeClamped && (
+          <Alert severity="info" sx={{ mb: 2 }}>
+            Période de plus de 24 h : seules les dernières 24 h sont affichées
+          </Alert>
+        )}
+        
         {renderChart()}
       </Paper>
       
@@ -0,0 +1,34 @@
+/**
+ * Fonctions utilitaires pour les tracés GPS
+ */
+
+/**
+ * Décode une polyline encodée (format Google, précision 5) renvoyée par /sensor/gps/{deviceId}/track
+ * @param {string} encoded - Polyline encodée
+ * @returns {Array<[number, number]>} Positions [latitude, longitude] utilisables par Leaflet
+ */
+export const decodePolyline = (encoded) => {
+  const positions = [];
+  let index = 0;
+  let latitude = 0;
+  let longitude = 0;
+
+  const nextValue = () => {
+    let result = 0;
+    let shift = 0;
+    let byte;
+    do {
+      byte = encoded.charCodeAt(index++) - 63;
+      result |= (byte & 0x1f) << shift;
+      shift += 5;
+    } while (byte >= 0x20);
+    return result & 1 ? ~(result >> 1) : result >> 1;
+  };
+
+  while (index < encoded.length) {
+    latitude += nextValue();
+    longitude += nextValue();
+    positions.push([latitude / 1e5, longitude / 1e5]);
+  }
+  return positions;
+};